@@ -0,0 +1,85 @@
+package com.insurance.quote.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compares two JMH JSON result files (-rf json) benchmark by benchmark.
+ * Prints score and normalized allocation (gc.alloc.rate.norm, when run with -prof gc) for the
+ * baseline and candidate runs with the relative change, and flags changes larger than the
+ * combined score error.
+ *
+ * Usage: BenchmarkComparison baseline.json candidate.json
+ */
+public final class BenchmarkComparison {
+
+    private static final String ALLOCATION_METRIC = "gc.alloc.rate.norm";
+
+    private BenchmarkComparison() {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: BenchmarkComparison <baseline.json> <candidate.json>");
+            System.exit(2);
+        }
+
+        Map<String, JsonNode> baseline = load(new File(args[0]));
+        Map<String, JsonNode> candidate = load(new File(args[1]));
+
+        System.out.printf("%-70s %14s %14s %9s %12s %12s %9s%n",
+                "Benchmark", "Base score", "New score", "Change", "Base B/op", "New B/op", "Change");
+
+        for (Map.Entry<String, JsonNode> entry : candidate.entrySet()) {
+            JsonNode base = baseline.get(entry.getKey());
+            JsonNode current = entry.getValue();
+            if (base == null) {
+                System.out.printf("%-70s %14s %14.3f (new)%n", entry.getKey(), "-", score(current));
+                continue;
+            }
+
+            double baseScore = score(base);
+            double newScore = score(current);
+            double combinedError = error(base) + error(current);
+            boolean significant = Math.abs(newScore - baseScore) > combinedError;
+
+            System.out.printf("%-70s %14.3f %14.3f %8.1f%%%s %12.1f %12.1f %8.1f%%%n",
+                    entry.getKey(),
+                    baseScore, newScore, change(baseScore, newScore), significant ? "*" : " ",
+                    allocation(base), allocation(current), change(allocation(base), allocation(current)));
+        }
+        System.out.println("* change exceeds the combined score error of both runs");
+    }
+
+    private static Map<String, JsonNode> load(File file) throws IOException {
+        Map<String, JsonNode> results = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(file)) {
+            StringBuilder name = new StringBuilder(result.path("benchmark").asText());
+            result.path("params").fields().forEachRemaining(param ->
+                    name.append(' ').append(param.getKey()).append('=').append(param.getValue().asText()));
+            results.put(name.toString(), result);
+        }
+        return results;
+    }
+
+    private static double score(JsonNode result) {
+        return result.path("primaryMetric").path("score").asDouble();
+    }
+
+    private static double error(JsonNode result) {
+        double error = result.path("primaryMetric").path("scoreError").asDouble();
+        return Double.isNaN(error) ? 0.0 : error;
+    }
+
+    private static double allocation(JsonNode result) {
+        return result.path("secondaryMetrics").path(ALLOCATION_METRIC).path("score").asDouble(Double.NaN);
+    }
+
+    private static double change(double before, double after) {
+        return before == 0.0 ? 0.0 : (after - before) / before * 100.0;
+    }
+}
@@ -0,0 +1,61 @@
+package com.insurance.quote.benchmark;
+
+import com.insurance.quote.entity.BusinessInformation;
+import com.insurance.quote.entity.CoverageOption;
+import com.insurance.quote.entity.Quote;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Realistic quote object graphs shared by the benchmarks
+ */
+public final class BenchmarkData {
+
+    private BenchmarkData() {}
+
+    /**
+     * A saved quote with business information and the three default coverage options, two of them selected
+     */
+    public static Quote quote(long id) {
+        LocalDateTime now = LocalDateTime.of(2024, 6, 1, 10, 30);
+
+        BusinessInformation business = new BusinessInformation(
+                "Benchmark Business " + id + " LLC",
+                BusinessInformation.BusinessType.RESTAURANT,
+                BusinessInformation.Industry.FOOD_SERVICE,
+                "CA");
+        business.setId(id);
+        business.setCreatedAt(now);
+        business.setUpdatedAt(now);
+
+        Quote quote = new Quote(business);
+        quote.setId(id);
+        quote.setQuoteNumber(String.format("IQ-20240601103000-%04d", id % 10000));
+        quote.setStatus(Quote.QuoteStatus.SAVED);
+        quote.setRiskRating("MEDIUM");
+        quote.setUnderwriterNotes("Standard restaurant risk, fire suppression verified on site visit.");
+        quote.setValidUntil(now.plusDays(30));
+        quote.setCreatedAt(now);
+        quote.setUpdatedAt(now);
+
+        quote.addCoverageOption(coverage(id * 10 + 1, "General Liability",
+                CoverageOption.CoverageType.GENERAL_LIABILITY, "500.00", true, now));
+        quote.addCoverageOption(coverage(id * 10 + 2, "Property",
+                CoverageOption.CoverageType.PROPERTY, "750.00", true, now));
+        quote.addCoverageOption(coverage(id * 10 + 3, "Additional Coverage Options",
+                CoverageOption.CoverageType.ADDITIONAL, "300.00", false, now));
+        quote.calculateTotalPremium();
+        return quote;
+    }
+
+    private static CoverageOption coverage(long id, String name, CoverageOption.CoverageType type,
+                                           String premium, boolean selected, LocalDateTime now) {
+        CoverageOption option = new CoverageOption(name, type, new BigDecimal(premium), type.getDescription());
+        option.setId(id);
+        option.setIsSelected(selected);
+        option.setCreatedAt(now);
+        option.setUpdatedAt(now);
+        return option;
+    }
+}
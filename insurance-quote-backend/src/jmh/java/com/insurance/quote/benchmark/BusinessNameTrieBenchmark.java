@@ -0,0 +1,82 @@
+package com.insurance.quote.benchmark;
+
+import com.insurance.quote.business.BusinessNameTrie;
+import com.insurance.quote.business.BusinessSuggestion;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Business name typeahead: prefix lookups in a trie of generated names, and the background rebuild of the trie
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BusinessNameTrieBenchmark {
+
+    private static final String[] SYLLABLES = {"ka", "lo", "mi", "ra", "sen", "tor", "vel", "an", "del", "qui",
+            "mar", "po", "zen", "ti", "bra", "lu", "nor", "es", "gal", "fi"};
+    private static final String[] TRADES = {"pizza", "bakery", "plumbing", "dental", "hardware", "consulting",
+            "software", "florist", "brewing", "catering", "roofing", "printing"};
+
+    @Param({"100000", "1000000"})
+    private int businesses;
+
+    private String[] keys;
+    private BusinessSuggestion[] suggestions;
+    private BusinessNameTrie trie;
+    private String longPrefix;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        keys = new String[businesses];
+        for (int i = 0; i < businesses; i++) {
+            keys[i] = name(random);
+        }
+        Arrays.sort(keys);
+        suggestions = new BusinessSuggestion[businesses];
+        for (int i = 0; i < businesses; i++) {
+            suggestions[i] = new BusinessSuggestion(i, keys[i], "CA", random.nextInt(50));
+        }
+        trie = BusinessNameTrie.build(keys, suggestions, 10);
+        longPrefix = keys[businesses / 2].substring(0, 8);
+    }
+
+    @Benchmark
+    public List<BusinessSuggestion> complete_oneChar() {
+        return trie.complete("k", 10);
+    }
+
+    @Benchmark
+    public List<BusinessSuggestion> complete_eightChars() {
+        return trie.complete(longPrefix, 10);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 3)
+    @Measurement(iterations = 5)
+    public BusinessNameTrie build() {
+        return BusinessNameTrie.build(keys, suggestions, 10);
+    }
+
+    private static String name(Random random) {
+        StringBuilder name = new StringBuilder();
+        for (int word = 0; word < 2; word++) {
+            int syllables = 2 + random.nextInt(2);
+            for (int i = 0; i < syllables; i++) {
+                name.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+            }
+            name.append(' ');
+        }
+        return name.append(TRADES[random.nextInt(TRADES.length)]).toString();
+    }
+}
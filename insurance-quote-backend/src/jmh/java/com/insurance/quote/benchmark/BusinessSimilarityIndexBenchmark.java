@@ -0,0 +1,75 @@
+package com.insurance.quote.benchmark;
+
+import com.insurance.quote.business.BusinessEntry;
+import com.insurance.quote.business.BusinessSimilarityIndex;
+import com.insurance.quote.business.DuplicateCandidate;
+import com.insurance.quote.config.DuplicateDetectionProperties;
+import com.insurance.quote.entity.BusinessInformation;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Candidate duplicate lookup at quote creation, against an index of generated businesses spread over ten states
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BusinessSimilarityIndexBenchmark {
+
+    private static final String[] SYLLABLES = {"ka", "lo", "mi", "ra", "sen", "tor", "vel", "an", "del", "qui",
+            "mar", "po", "zen", "ti", "bra", "lu", "nor", "es", "gal", "fi"};
+    private static final String[] TRADES = {"Pizza", "Bakery", "Plumbing", "Dental", "Hardware", "Consulting",
+            "Software", "Florist", "Brewing", "Catering", "Roofing", "Printing"};
+    private static final String[] STATES = {"CA", "NY", "TX", "FL", "WA", "OR", "NV", "AZ", "IL", "MA"};
+
+    @Param({"10000", "100000"})
+    private int businesses;
+
+    private BusinessSimilarityIndex index;
+    private String knownName;
+    private String newName;
+
+    @Setup
+    public void setUp() {
+        index = new BusinessSimilarityIndex(new DuplicateDetectionProperties(), new SimpleMeterRegistry());
+        Random random = new Random(42);
+        BusinessInformation.Industry[] industries = BusinessInformation.Industry.values();
+        for (int i = 0; i < businesses; i++) {
+            index.put(new BusinessEntry(i, name(random), STATES[i % STATES.length],
+                    industries[i % industries.length]));
+        }
+        knownName = "Kalomi Ratorsen Pizza LLC";
+        index.put(new BusinessEntry(businesses, knownName, "CA", BusinessInformation.Industry.FOOD_SERVICE));
+        newName = name(random);
+    }
+
+    @Benchmark
+    public List<DuplicateCandidate> findCandidates_duplicate() {
+        return index.findCandidates("Kalomi Ratorsen Piza", "CA", BusinessInformation.Industry.FOOD_SERVICE);
+    }
+
+    @Benchmark
+    public List<DuplicateCandidate> findCandidates_new() {
+        return index.findCandidates(newName, "CA", BusinessInformation.Industry.FOOD_SERVICE);
+    }
+
+    private static String name(Random random) {
+        StringBuilder name = new StringBuilder();
+        for (int word = 0; word < 2; word++) {
+            int syllables = 2 + random.nextInt(2);
+            for (int i = 0; i < syllables; i++) {
+                String syllable = SYLLABLES[random.nextInt(SYLLABLES.length)];
+                name.append(i == 0 ? Character.toUpperCase(syllable.charAt(0)) + syllable.substring(1) : syllable);
+            }
+            name.append(' ');
+        }
+        return name.append(TRADES[random.nextInt(TRADES.length)]).toString();
+    }
+}
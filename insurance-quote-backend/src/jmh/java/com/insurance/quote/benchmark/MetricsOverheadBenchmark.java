@@ -0,0 +1,82 @@
+package com.insurance.quote.benchmark;
+
+import com.insurance.quote.config.ShardingProperties;
+import com.insurance.quote.dto.QuoteDto;
+import com.insurance.quote.entity.Quote;
+import com.insurance.quote.event.QuoteLifecycleEvent;
+import com.insurance.quote.mapper.QuoteMapper;
+import com.insurance.quote.mapper.QuoteMapperImpl;
+import com.insurance.quote.metrics.QuoteFunnelMetrics;
+import com.insurance.quote.metrics.QuoteMetricsAspect;
+import com.insurance.quote.sharding.ShardRouter;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the Micrometer instrumentation per call, recorded into a Prometheus registry.
+ * The overhead of a timed mapper call is mapper_instrumented minus mapper_plain.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MetricsOverheadBenchmark {
+
+    private QuoteMapper plainMapper;
+    private QuoteMapper instrumentedMapper;
+    private Timer timer;
+    private QuoteFunnelMetrics funnelMetrics;
+    private Quote quote;
+    private QuoteLifecycleEvent transition;
+
+    @Setup
+    public void setUp() {
+        PrometheusMeterRegistry registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+
+        plainMapper = new QuoteMapperImpl();
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(new QuoteMapperImpl());
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAspect(new QuoteMetricsAspect(registry));
+        instrumentedMapper = proxyFactory.getProxy();
+
+        timer = Timer.builder("benchmark.timer")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(500))
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .register(registry);
+
+        funnelMetrics = new QuoteFunnelMetrics(null, new ShardRouter(new ShardingProperties()), registry);
+        quote = BenchmarkData.quote(42L);
+        QuoteDto submitted = plainMapper.toDto(quote);
+        submitted.setStatus(Quote.QuoteStatus.SUBMITTED);
+        transition = new QuoteLifecycleEvent(QuoteLifecycleEvent.Type.UPDATED, submitted, Quote.QuoteStatus.SAVED);
+    }
+
+    @Benchmark
+    public QuoteDto mapper_plain() {
+        return plainMapper.toDto(quote);
+    }
+
+    @Benchmark
+    public QuoteDto mapper_instrumented() {
+        return instrumentedMapper.toDto(quote);
+    }
+
+    @Benchmark
+    public void timer_record() {
+        timer.record(1_234, TimeUnit.NANOSECONDS);
+    }
+
+    @Benchmark
+    public void funnel_transition() {
+        funnelMetrics.onLifecycleEvent(transition);
+    }
+}
@@ -0,0 +1,32 @@
+package com.insurance.quote.benchmark;
+
+import com.insurance.quote.entity.Quote;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Premium recalculation over a quote's coverage options
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class QuoteEntityBenchmark {
+
+    private Quote quote;
+
+    @Setup
+    public void setUp() {
+        quote = BenchmarkData.quote(42L);
+    }
+
+    @Benchmark
+    public BigDecimal calculateTotalPremium() {
+        quote.calculateTotalPremium();
+        return quote.getTotalPremium();
+    }
+}
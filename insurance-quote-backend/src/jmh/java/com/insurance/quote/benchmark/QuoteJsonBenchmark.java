@@ -0,0 +1,58 @@
+package com.insurance.quote.benchmark;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.insurance.quote.dto.QuoteDto;
+import com.insurance.quote.mapper.QuoteMapper;
+import com.insurance.quote.mapper.QuoteMapperImpl;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of a page of quotes, as returned by GET /quotes
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class QuoteJsonBenchmark {
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private Page<QuoteDto> page;
+
+    @Setup
+    public void setUp() {
+        // Mirrors spring.jackson settings in application.yml
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .serializationInclusion(JsonInclude.Include.NON_NULL)
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS,
+                        SerializationFeature.FAIL_ON_EMPTY_BEANS)
+                .build();
+
+        QuoteMapper mapper = new QuoteMapperImpl();
+        List<QuoteDto> content = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            content.add(mapper.toDto(BenchmarkData.quote(i)));
+        }
+        page = new PageImpl<>(content, PageRequest.of(0, pageSize, Sort.by(Sort.Direction.DESC, "createdAt")), 1000);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws Exception {
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
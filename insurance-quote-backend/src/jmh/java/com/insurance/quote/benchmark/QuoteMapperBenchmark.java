@@ -0,0 +1,42 @@
+package com.insurance.quote.benchmark;
+
+import com.insurance.quote.dto.QuoteDto;
+import com.insurance.quote.entity.Quote;
+import com.insurance.quote.mapper.QuoteMapper;
+import com.insurance.quote.mapper.QuoteMapperImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MapStruct entity/DTO mapping of a full quote graph (business information and three coverage options)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class QuoteMapperBenchmark {
+
+    private QuoteMapper mapper;
+    private Quote quote;
+    private QuoteDto quoteDto;
+
+    @Setup
+    public void setUp() {
+        mapper = new QuoteMapperImpl();
+        quote = BenchmarkData.quote(42L);
+        quoteDto = mapper.toDto(quote);
+    }
+
+    @Benchmark
+    public QuoteDto toDto() {
+        return mapper.toDto(quote);
+    }
+
+    @Benchmark
+    public Quote toEntity() {
+        return mapper.toEntity(quoteDto);
+    }
+}
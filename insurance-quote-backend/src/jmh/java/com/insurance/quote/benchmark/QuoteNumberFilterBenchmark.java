@@ -0,0 +1,44 @@
+package com.insurance.quote.benchmark;
+
+import com.insurance.quote.quotenumber.BloomFilter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Quote number existence check against the Bloom filter of a million issued numbers, for a new number (the
+ * common case, answered without a query) and an issued one
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class QuoteNumberFilterBenchmark {
+
+    private BloomFilter filter;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        filter = BloomFilter.create(2_000_000, 0.01, Long.MAX_VALUE);
+        for (int i = 0; i < 1_000_000; i++) {
+            filter.add(number(i));
+        }
+    }
+
+    @Benchmark
+    public boolean mightContain_new() {
+        return filter.mightContain(number(1_000_000 + (next++ & 0xFFFFF)));
+    }
+
+    @Benchmark
+    public boolean mightContain_issued() {
+        return filter.mightContain(number(next++ & 0xFFFFF));
+    }
+
+    private static String number(int i) {
+        return "IQ-20261018" + (100000 + i % 900000) + "-" + (i / 900000);
+    }
+}
@@ -0,0 +1,62 @@
+package com.insurance.quote.benchmark;
+
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.joran.JoranConfigurator;
+import com.insurance.quote.logging.RequestIdFilter;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logging cost of one create-quote request: the controller and service lines it writes, with the
+ * previous synchronous pipeline, the async pipeline, and the async pipeline with 10% request sampling
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RequestLoggingBenchmark {
+
+    @Param({"sync", "async", "async-sampled"})
+    private String pipeline;
+
+    private LoggerContext loggerContext;
+    private Logger controllerLogger;
+    private Logger serviceLogger;
+    private long requests;
+
+    @Setup
+    public void setUp() throws Exception {
+        loggerContext = (LoggerContext) LoggerFactory.getILoggerFactory();
+        loggerContext.reset();
+        JoranConfigurator configurator = new JoranConfigurator();
+        configurator.setContext(loggerContext);
+        configurator.doConfigure(RequestLoggingBenchmark.class.getResource("/logging/logback-" + pipeline + ".xml"));
+
+        controllerLogger = LoggerFactory.getLogger("com.insurance.quote.controller.QuoteController");
+        serviceLogger = LoggerFactory.getLogger("com.insurance.quote.service.impl.QuoteServiceImpl");
+    }
+
+    @TearDown
+    public void tearDown() {
+        loggerContext.stop();
+    }
+
+    @Benchmark
+    public void createQuoteRequest() {
+        MDC.put(RequestIdFilter.REQUEST_ID_MDC_KEY, Long.toHexString(requests++ * 0x9E3779B97F4A7C15L));
+        try {
+            controllerLogger.info("REST request to create quote for business: {}", "Acme Bakery");
+            serviceLogger.info("Creating new quote for business: {}", "Acme Bakery");
+            serviceLogger.debug("Fetching quote with ID: {}", 42L);
+            serviceLogger.info("Created quote with ID: {} and number: {}", 42L, "IQ-20261018120000-0042");
+        } finally {
+            MDC.remove(RequestIdFilter.REQUEST_ID_MDC_KEY);
+        }
+    }
+}
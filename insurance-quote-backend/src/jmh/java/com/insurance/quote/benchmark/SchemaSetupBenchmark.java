@@ -0,0 +1,76 @@
+package com.insurance.quote.benchmark;
+
+import ch.qos.logback.classic.Logger;
+import org.flywaydb.core.Flyway;
+import org.h2.jdbcx.JdbcDataSource;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.orm.jpa.hibernate.SpringImplicitNamingStrategy;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Schema setup of the persistence unit at application startup: Hibernate DDL generation
+ * ({@code ddl-auto: create-drop}, the previous default) versus the Flyway migrations followed by Hibernate
+ * schema validation, on an empty database ({@code flyway-empty}) and on a restart against a database that is
+ * already at the latest version ({@code flyway-migrated}, the usual production case).
+ * Run cold with the defaults, or warm with {@code -wi 10 -i 10} to leave class loading out.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(10)
+@State(Scope.Benchmark)
+public class SchemaSetupBenchmark {
+
+    private static final AtomicInteger DATABASES = new AtomicInteger();
+
+    @Param({"hibernate-ddl", "flyway-empty", "flyway-migrated"})
+    private String schema;
+
+    private JdbcDataSource dataSource;
+
+    @Setup(Level.Trial)
+    public void quietLogging() {
+        ((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(ch.qos.logback.classic.Level.WARN);
+    }
+
+    @Setup(Level.Iteration)
+    public void createDatabase() {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:schema_setup_" + DATABASES.incrementAndGet() + ";DB_CLOSE_DELAY=-1");
+        dataSource.setUser("sa");
+        if (schema.equals("flyway-migrated")) {
+            flyway().migrate();
+        }
+    }
+
+    @Benchmark
+    public void bootstrapPersistenceUnit() {
+        boolean hibernateDdl = schema.equals("hibernate-ddl");
+        if (!hibernateDdl) {
+            flyway().migrate();
+        }
+
+        LocalContainerEntityManagerFactoryBean entityManagerFactory = new LocalContainerEntityManagerFactoryBean();
+        entityManagerFactory.setDataSource(dataSource);
+        entityManagerFactory.setPackagesToScan("com.insurance.quote.entity");
+        entityManagerFactory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        entityManagerFactory.setJpaPropertyMap(Map.of(
+                "hibernate.hbm2ddl.auto", hibernateDdl ? "create-drop" : "validate",
+                "hibernate.physical_naming_strategy", CamelCaseToUnderscoresNamingStrategy.class.getName(),
+                "hibernate.implicit_naming_strategy", SpringImplicitNamingStrategy.class.getName()));
+        entityManagerFactory.afterPropertiesSet();
+        entityManagerFactory.destroy();
+    }
+
+    private Flyway flyway() {
+        return Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").load();
+    }
+}
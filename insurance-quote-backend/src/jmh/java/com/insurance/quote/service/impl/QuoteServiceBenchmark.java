@@ -0,0 +1,73 @@
+package com.insurance.quote.service.impl;
+
+import com.insurance.quote.archive.QuoteArchive;
+import com.insurance.quote.config.QuoteNumberFilterProperties;
+import com.insurance.quote.config.ShardingProperties;
+import com.insurance.quote.entity.Quote;
+import com.insurance.quote.mapper.QuoteMapperImpl;
+import com.insurance.quote.quotenumber.QuoteNumberFilter;
+import com.insurance.quote.repository.ArchivedQuoteRepository;
+import com.insurance.quote.repository.CoverageOptionRepository;
+import com.insurance.quote.repository.QuoteRepository;
+import com.insurance.quote.sharding.ShardRouter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * QuoteServiceImpl logic that runs on every create and update, without a database.
+ * Repositories are stubbed with JDK proxies: existsByQuoteNumber always answers false. The quote number
+ * filter is not loaded, so every uniqueness check reaches the stub.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class QuoteServiceBenchmark {
+
+    private QuoteServiceImpl quoteService;
+
+    @Setup
+    public void setUp() {
+        quoteService = new QuoteServiceImpl(
+                stub(QuoteRepository.class),
+                null,
+                stub(CoverageOptionRepository.class),
+                new QuoteMapperImpl(),
+                event -> { },
+                new QuoteArchive(stub(ArchivedQuoteRepository.class), null),
+                new QuoteNumberFilter(new QuoteNumberFilterProperties(), null,
+                        new ShardRouter(new ShardingProperties()), new SimpleMeterRegistry()));
+    }
+
+    @Benchmark
+    public String generateQuoteNumber() {
+        return quoteService.generateQuoteNumber();
+    }
+
+    @Benchmark
+    public void validateStatusTransition_valid() {
+        quoteService.validateStatusTransition(Quote.QuoteStatus.SAVED, Quote.QuoteStatus.SUBMITTED);
+    }
+
+    @Benchmark
+    public Object validateStatusTransition_invalid() {
+        // Rejected transitions pay for building an InvalidQuoteStateException
+        try {
+            quoteService.validateStatusTransition(Quote.QuoteStatus.APPROVED, Quote.QuoteStatus.DRAFT);
+            return null;
+        } catch (RuntimeException e) {
+            return e;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<T> repositoryType) {
+        return (T) Proxy.newProxyInstance(repositoryType.getClassLoader(), new Class<?>[]{repositoryType},
+                (proxy, method, args) -> method.getReturnType() == boolean.class ? Boolean.FALSE : null);
+    }
+}
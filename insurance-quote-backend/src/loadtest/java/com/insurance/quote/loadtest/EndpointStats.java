@@ -0,0 +1,68 @@
+package com.insurance.quote.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram and outcome counters for one endpoint
+ */
+public class EndpointStats {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    private final String endpoint;
+    private final Histogram latencyMicros = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public EndpointStats(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    public void record(long latencyNanos, int status) {
+        latencyMicros.recordValue(Math.min(HIGHEST_TRACKABLE_MICROS, TimeUnit.NANOSECONDS.toMicros(latencyNanos)));
+        if (status == 429 || status == 503) {
+            rejected.increment();
+        } else if (status >= 400 || status == 0) {
+            errors.increment();
+        }
+    }
+
+    public void reset() {
+        latencyMicros.reset();
+        errors.reset();
+        rejected.reset();
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public long getCount() {
+        return latencyMicros.getTotalCount();
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public double getErrorRate() {
+        long count = getCount();
+        return count == 0 ? 0.0 : (double) (getErrors() + getRejected()) / count;
+    }
+
+    public double percentileMillis(double percentile) {
+        return latencyMicros.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    public double maxMillis() {
+        return latencyMicros.getMaxValue() / 1000.0;
+    }
+}
@@ -0,0 +1,56 @@
+package com.insurance.quote.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.Properties;
+
+/**
+ * Load test settings: loadtest.properties from the classpath, overridden by --key=value arguments
+ */
+public class LoadTestConfig {
+
+    private final Properties properties = new Properties();
+
+    public LoadTestConfig(String[] args) throws IOException {
+        try (InputStream defaults = LoadTestConfig.class.getResourceAsStream("/loadtest.properties")) {
+            if (defaults != null) {
+                properties.load(defaults);
+            }
+        }
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                int separator = arg.indexOf('=');
+                properties.setProperty(arg.substring(2, separator), arg.substring(separator + 1));
+            }
+        }
+    }
+
+    public String getString(String key, String defaultValue) {
+        String value = properties.getProperty(key);
+        return value == null || value.isBlank() ? defaultValue : value.trim();
+    }
+
+    public int getInt(String key, int defaultValue) {
+        return Integer.parseInt(getString(key, Integer.toString(defaultValue)));
+    }
+
+    public double getDouble(String key, double defaultValue) {
+        return Double.parseDouble(getString(key, Double.toString(defaultValue)));
+    }
+
+    public Duration getDuration(String key, Duration defaultValue) {
+        String value = getString(key, null);
+        return value == null ? defaultValue : DurationStyle.detectAndParse(value);
+    }
+
+    /**
+     * SLO threshold for an endpoint, falling back to the global threshold for the metric
+     */
+    public Duration getSlo(String metric, String endpoint) {
+        String endpointKey = "slo." + metric + "." + endpoint.replace(' ', '_');
+        return getDuration(endpointKey, getDuration("slo." + metric, null));
+    }
+}
@@ -0,0 +1,252 @@
+package com.insurance.quote.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.insurance.quote.InsuranceQuoteApplication;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load generator for the quote API.
+ * <p>
+ * Arrivals are scheduled at a constant rate regardless of response times, and latency is measured
+ * from each arrival's intended start so that a slow server cannot hide queueing delay
+ * (coordinated omission). Exits with status 1 when any endpoint misses its SLO.
+ */
+public class LoadTestRunner {
+
+    private static final String[] SCENARIOS = {"lifecycle", "search", "statistics", "list"};
+
+    private final LoadTestConfig config;
+    private final QuoteApiClient client;
+    private final double[] cumulativeWeights = new double[SCENARIOS.length];
+    private final int clients;
+    private final double approveRatio;
+    private final AtomicLong outstanding = new AtomicLong();
+    private final AtomicLong failedScenarios = new AtomicLong();
+
+    public LoadTestRunner(LoadTestConfig config, String baseUrl, ExecutorService executor) {
+        this.config = config;
+        this.client = new QuoteApiClient(baseUrl, config.getDuration("request-timeout", Duration.ofSeconds(10)), executor);
+        this.clients = Math.max(1, config.getInt("clients", 50));
+        this.approveRatio = config.getDouble("approve-ratio", 0.7);
+        double total = 0;
+        for (int i = 0; i < SCENARIOS.length; i++) {
+            total += config.getDouble("weight." + SCENARIOS[i], 0);
+            cumulativeWeights[i] = total;
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("At least one scenario weight must be positive");
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = new LoadTestConfig(args);
+        String target = config.getString("target", null);
+        ConfigurableApplicationContext application = null;
+        if (target == null) {
+            application = startApplication(config);
+            Environment environment = application.getEnvironment();
+            target = "http://localhost:" + environment.getProperty("local.server.port")
+                    + environment.getProperty("server.servlet.context-path", "");
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors()));
+        boolean passed;
+        try {
+            LoadTestRunner runner = new LoadTestRunner(config, target, executor);
+            passed = runner.run(target);
+        } finally {
+            executor.shutdownNow();
+            if (application != null) {
+                application.close();
+            }
+        }
+        System.exit(passed ? 0 : 1);
+    }
+
+    private static ConfigurableApplicationContext startApplication(LoadTestConfig config) {
+        List<String> appArgs = new ArrayList<>(List.of("--server.port=0", "--spring.profiles.active=loadtest"));
+        String extra = config.getString("app-args", "");
+        if (!extra.isEmpty()) {
+            appArgs.addAll(List.of(extra.split("\\s+")));
+        }
+        // devtools would otherwise restart the application and re-run this main method
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        System.out.println("Starting application in-process with " + appArgs);
+        return SpringApplication.run(InsuranceQuoteApplication.class, appArgs.toArray(String[]::new));
+    }
+
+    public boolean run(String target) throws Exception {
+        double rate = config.getDouble("rate", 50);
+        Duration warmup = config.getDuration("warmup", Duration.ofSeconds(10));
+        Duration duration = config.getDuration("duration", Duration.ofSeconds(60));
+
+        System.out.printf("Target %s, %.1f arrivals/s, warmup %s, duration %s, %d clients%n",
+                target, rate, warmup, duration, clients);
+        if (!warmup.isZero()) {
+            drive(rate, warmup);
+            client.resetStats();
+            failedScenarios.set(0);
+        }
+        long started = System.nanoTime();
+        long arrivals = drive(rate, duration);
+        awaitOutstanding();
+        double elapsedSeconds = (System.nanoTime() - started) / 1e9;
+
+        return report(arrivals, elapsedSeconds, duration);
+    }
+
+    /**
+     * Issues arrivals at a fixed interval for the given duration and returns how many were issued
+     */
+    private long drive(double rate, Duration duration) {
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        long arrivals = 0;
+        while (true) {
+            long intended = start + arrivals * intervalNanos;
+            if (intended >= end) {
+                return arrivals;
+            }
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            String clientId = "loadtest-" + (arrivals % clients);
+            outstanding.incrementAndGet();
+            startScenario(pickScenario(), clientId, intended)
+                    .whenComplete((ignored, failure) -> {
+                        if (failure != null) {
+                            failedScenarios.incrementAndGet();
+                        }
+                        outstanding.decrementAndGet();
+                    });
+            arrivals++;
+        }
+    }
+
+    private CompletableFuture<?> startScenario(String scenario, String clientId, long intended) {
+        return switch (scenario) {
+            case "lifecycle" -> client.createQuote(clientId, intended)
+                    .thenCompose(quote -> client.saveWithSelectedCoverage(clientId, quote))
+                    .thenCompose(quote -> client.submitQuote(clientId, quote))
+                    .thenCompose(quote -> ThreadLocalRandom.current().nextDouble() < approveRatio
+                            ? client.approveQuote(clientId, quote)
+                            : client.rejectQuote(clientId, quote));
+            case "search" -> client.searchQuotes(clientId, intended);
+            case "statistics" -> client.getStatistics(clientId, intended);
+            default -> client.listQuotes(clientId, intended);
+        };
+    }
+
+    private String pickScenario() {
+        double roll = ThreadLocalRandom.current().nextDouble(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < SCENARIOS.length; i++) {
+            if (roll < cumulativeWeights[i]) {
+                return SCENARIOS[i];
+            }
+        }
+        return SCENARIOS[SCENARIOS.length - 1];
+    }
+
+    private void awaitOutstanding() {
+        long deadline = System.nanoTime() + config.getDuration("request-timeout", Duration.ofSeconds(10)).toNanos() * 4;
+        while (outstanding.get() > 0 && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(50));
+        }
+        if (outstanding.get() > 0) {
+            System.out.println("Warning: " + outstanding.get() + " scenarios still running at end of test");
+        }
+    }
+
+    private boolean report(long arrivals, double elapsedSeconds, Duration duration) throws Exception {
+        double sloErrorRate = config.getDouble("slo.error-rate", 0.01);
+        List<String> violations = new ArrayList<>();
+        List<Map<String, Object>> endpoints = new ArrayList<>();
+
+        System.out.println();
+        System.out.printf("%-28s %8s %9s %7s %7s %9s %9s %9s %9s%n",
+                "Endpoint", "Count", "Thru/s", "Errors", "Shed", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        client.getStats().values().stream()
+                .sorted((a, b) -> a.getEndpoint().compareTo(b.getEndpoint()))
+                .forEach(stats -> {
+                    String endpoint = stats.getEndpoint();
+                    double throughput = stats.getCount() / elapsedSeconds;
+                    double p50 = stats.percentileMillis(50.0);
+                    double p99 = stats.percentileMillis(99.0);
+                    double p999 = stats.percentileMillis(99.9);
+                    System.out.printf("%-28s %8d %9.1f %7d %7d %9.2f %9.2f %9.2f %9.2f%n",
+                            endpoint, stats.getCount(), throughput, stats.getErrors(), stats.getRejected(),
+                            p50, p99, p999, stats.maxMillis());
+
+                    checkLatency(violations, endpoint, "p99", p99);
+                    checkLatency(violations, endpoint, "p999", p999);
+                    if (stats.getErrorRate() > sloErrorRate) {
+                        violations.add(String.format("%s error rate %.2f%% exceeds %.2f%%",
+                                endpoint, stats.getErrorRate() * 100, sloErrorRate * 100));
+                    }
+
+                    Map<String, Object> row = new LinkedHashMap<>();
+                    row.put("endpoint", endpoint);
+                    row.put("count", stats.getCount());
+                    row.put("throughputPerSecond", throughput);
+                    row.put("errors", stats.getErrors());
+                    row.put("rejected", stats.getRejected());
+                    row.put("p50Millis", p50);
+                    row.put("p99Millis", p99);
+                    row.put("p999Millis", p999);
+                    row.put("maxMillis", stats.maxMillis());
+                    endpoints.add(row);
+                });
+        System.out.printf("%nArrivals: %d in %s (%.1f/s achieved), failed scenarios: %d%n",
+                arrivals, duration, arrivals / (duration.toNanos() / 1e9), failedScenarios.get());
+
+        String reportFile = config.getString("report-file", null);
+        if (reportFile != null) {
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("arrivals", arrivals);
+            report.put("elapsedSeconds", elapsedSeconds);
+            report.put("failedScenarios", failedScenarios.get());
+            report.put("endpoints", endpoints);
+            report.put("sloViolations", violations);
+            File file = new File(reportFile);
+            if (file.getParentFile() != null) {
+                file.getParentFile().mkdirs();
+            }
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, report);
+            System.out.println("Report written to " + file.getPath());
+        }
+
+        if (violations.isEmpty()) {
+            System.out.println("All SLOs met");
+            return true;
+        }
+        System.out.println("SLO violations:");
+        violations.forEach(violation -> System.out.println("  " + violation));
+        return false;
+    }
+
+    private void checkLatency(List<String> violations, String endpoint, String metric, double actualMillis) {
+        Duration threshold = config.getSlo(metric, endpoint);
+        if (threshold != null && actualMillis > threshold.toNanos() / 1e6) {
+            violations.add(String.format("%s %s %.2f ms exceeds %d ms", endpoint, metric, actualMillis, threshold.toMillis()));
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.insurance.quote.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Asynchronous client for the quote API that records per-endpoint latency
+ */
+public class QuoteApiClient {
+
+    private static final String[] STATES = {"CA", "NY", "TX", "FL", "IL", "WA", "GA", "OH"};
+    private static final String[] BUSINESS_TYPES = {"RETAIL", "RESTAURANT", "TECHNOLOGY", "MANUFACTURING", "HEALTHCARE", "PROFESSIONAL"};
+    private static final String[] INDUSTRIES = {"FOOD_SERVICE", "RETAIL_TRADE", "SOFTWARE", "HEALTHCARE_SERVICES", "CONSULTING", "MANUFACTURING"};
+    private static final String[] NAME_WORDS = {"Acme", "Summit", "Harbor", "Pioneer", "Maple", "Golden", "Blue", "Cedar", "Atlas", "Evergreen"};
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String baseUrl;
+    private final Duration requestTimeout;
+    private final ConcurrentMap<String, EndpointStats> stats = new ConcurrentHashMap<>();
+
+    public QuoteApiClient(String baseUrl, Duration requestTimeout, Executor executor) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.requestTimeout = requestTimeout;
+        this.httpClient = HttpClient.newBuilder()
+                .executor(executor)
+                .connectTimeout(Duration.ofSeconds(5))
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+    }
+
+    public Map<String, EndpointStats> getStats() {
+        return stats;
+    }
+
+    public void resetStats() {
+        stats.values().forEach(EndpointStats::reset);
+    }
+
+    public CompletableFuture<JsonNode> createQuote(String clientId, long startNanos) {
+        ObjectNode quote = objectMapper.createObjectNode();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        ObjectNode business = quote.putObject("businessInformation");
+        business.put("name", pick(NAME_WORDS) + " " + pick(NAME_WORDS) + " " + random.nextInt(10_000));
+        business.put("businessType", pick(BUSINESS_TYPES));
+        business.put("industry", pick(INDUSTRIES));
+        business.put("state", pick(STATES));
+        ArrayNode coverages = quote.putArray("coverageOptions");
+        addCoverage(coverages, "General Liability", "GENERAL_LIABILITY", 500 + random.nextInt(1500));
+        addCoverage(coverages, "Property Insurance", "PROPERTY", 800 + random.nextInt(2500));
+        quote.put("totalPremium", 0);
+        quote.put("status", "DRAFT");
+        return send("POST /quotes", clientId, startNanos, json(HttpRequest.newBuilder(uri("/quotes")), "POST", quote));
+    }
+
+    public CompletableFuture<JsonNode> saveWithSelectedCoverage(String clientId, JsonNode quote) {
+        ObjectNode update = quote.deepCopy();
+        update.put("status", "SAVED");
+        JsonNode coverages = update.path("coverageOptions");
+        if (coverages.size() > 0) {
+            ((ObjectNode) coverages.get(0)).put("isSelected", true);
+        }
+        return send("PUT /quotes/{id}", clientId, System.nanoTime(),
+                json(HttpRequest.newBuilder(uri("/quotes/" + quote.path("id").asLong())), "PUT", update));
+    }
+
+    public CompletableFuture<JsonNode> submitQuote(String clientId, JsonNode quote) {
+        return post("POST /quotes/{id}/submit", clientId, "/quotes/" + quote.path("id").asLong() + "/submit");
+    }
+
+    public CompletableFuture<JsonNode> approveQuote(String clientId, JsonNode quote) {
+        return post("POST /quotes/{id}/approve", clientId, "/quotes/" + quote.path("id").asLong() + "/approve");
+    }
+
+    public CompletableFuture<JsonNode> rejectQuote(String clientId, JsonNode quote) {
+        return post("POST /quotes/{id}/reject", clientId,
+                "/quotes/" + quote.path("id").asLong() + "/reject?reason=" + encode("Outside underwriting appetite"));
+    }
+
+    public CompletableFuture<JsonNode> searchQuotes(String clientId, long startNanos) {
+        return get("GET /quotes/search", clientId, startNanos, "/quotes/search?businessName=" + encode(pick(NAME_WORDS)));
+    }
+
+    public CompletableFuture<JsonNode> getStatistics(String clientId, long startNanos) {
+        return get("GET /quotes/statistics", clientId, startNanos, "/quotes/statistics");
+    }
+
+    public CompletableFuture<JsonNode> listQuotes(String clientId, long startNanos) {
+        int page = ThreadLocalRandom.current().nextInt(5);
+        return get("GET /quotes", clientId, startNanos, "/quotes?page=" + page + "&size=20&sort=createdAt,desc");
+    }
+
+    private CompletableFuture<JsonNode> get(String endpoint, String clientId, long startNanos, String path) {
+        return send(endpoint, clientId, startNanos, HttpRequest.newBuilder(uri(path)).GET());
+    }
+
+    private CompletableFuture<JsonNode> post(String endpoint, String clientId, String path) {
+        return send(endpoint, clientId, System.nanoTime(),
+                HttpRequest.newBuilder(uri(path)).POST(HttpRequest.BodyPublishers.noBody()));
+    }
+
+    /**
+     * Sends a request and records its latency from startNanos, which for the first step of a
+     * scenario is the intended arrival time rather than the actual send time
+     */
+    private CompletableFuture<JsonNode> send(String endpoint, String clientId, long startNanos, HttpRequest.Builder builder) {
+        HttpRequest request = builder
+                .timeout(requestTimeout)
+                .header("Accept", "application/json")
+                .header("X-Client-Id", clientId)
+                .build();
+        EndpointStats endpointStats = stats.computeIfAbsent(endpoint, EndpointStats::new);
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .handle((response, failure) -> {
+                    int status = failure == null ? response.statusCode() : 0;
+                    endpointStats.record(System.nanoTime() - startNanos, status);
+                    if (failure != null || status >= 400) {
+                        throw new IllegalStateException(endpoint + " failed with status " + status, failure);
+                    }
+                    try {
+                        byte[] body = response.body();
+                        return body.length == 0 ? objectMapper.nullNode() : objectMapper.readTree(body);
+                    } catch (Exception e) {
+                        throw new IllegalStateException("Unreadable response from " + endpoint, e);
+                    }
+                });
+    }
+
+    private HttpRequest.Builder json(HttpRequest.Builder builder, String method, JsonNode body) {
+        try {
+            return builder.header("Content-Type", "application/json")
+                    .method(method, HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not serialize request body", e);
+        }
+    }
+
+    private void addCoverage(ArrayNode coverages, String name, String type, int premium) {
+        ObjectNode coverage = coverages.addObject();
+        coverage.put("name", name);
+        coverage.put("coverageType", type);
+        coverage.put("premium", premium);
+        coverage.put("isActive", true);
+        coverage.put("isSelected", false);
+    }
+
+    private URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+
+    private static String pick(String[] values) {
+        return values[ThreadLocalRandom.current().nextInt(values.length)];
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
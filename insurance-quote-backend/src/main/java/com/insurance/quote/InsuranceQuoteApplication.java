@@ -8,12 +8,14 @@ import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.event.EventListener;
 import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 import java.net.InetAddress;
 import java.net.UnknownHostException;
 
 @SpringBootApplication
 @EnableConfigurationProperties
+@EnableScheduling
 public class InsuranceQuoteApplication {
 
     private static final Logger logger = LoggerFactory.getLogger(InsuranceQuoteApplication.class);
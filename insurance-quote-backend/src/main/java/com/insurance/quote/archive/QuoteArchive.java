@@ -0,0 +1,61 @@
+package com.insurance.quote.archive;
+
+import com.insurance.quote.dto.QuoteDto;
+import com.insurance.quote.entity.ArchivedQuote;
+import com.insurance.quote.entity.Quote;
+import com.insurance.quote.repository.ArchivedQuoteRepository;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Read access to archived quotes, used by QuoteService when a quote is no longer in the quotes table
+ */
+@Component
+public class QuoteArchive {
+
+    private final ArchivedQuoteRepository archivedQuoteRepository;
+    private final QuoteSnapshotCodec codec;
+
+    public QuoteArchive(ArchivedQuoteRepository archivedQuoteRepository, QuoteSnapshotCodec codec) {
+        this.archivedQuoteRepository = archivedQuoteRepository;
+        this.codec = codec;
+    }
+
+    public Optional<QuoteDto> findById(Long id) {
+        return archivedQuoteRepository.findById(id).map(this::toDto);
+    }
+
+    public Optional<QuoteDto> findByQuoteNumber(String quoteNumber) {
+        return archivedQuoteRepository.findByQuoteNumber(quoteNumber).map(this::toDto);
+    }
+
+    public boolean contains(Long id) {
+        return archivedQuoteRepository.existsById(id);
+    }
+
+    public boolean containsQuoteNumber(String quoteNumber) {
+        return archivedQuoteRepository.existsByQuoteNumber(quoteNumber);
+    }
+
+    /**
+     * Count and total premium of archived quotes per status, for the quote statistics
+     */
+    public Map<Quote.QuoteStatus, StatusTotals> totalsByStatus() {
+        Map<Quote.QuoteStatus, StatusTotals> totals = new EnumMap<>(Quote.QuoteStatus.class);
+        for (Object[] row : archivedQuoteRepository.summarizeByStatus()) {
+            totals.put((Quote.QuoteStatus) row[0], new StatusTotals((Long) row[1], (BigDecimal) row[2]));
+        }
+        return totals;
+    }
+
+    private QuoteDto toDto(ArchivedQuote archivedQuote) {
+        return codec.decode(archivedQuote.getSnapshot());
+    }
+
+    public record StatusTotals(long count, BigDecimal totalPremium) {
+    }
+}
@@ -0,0 +1,148 @@
+package com.insurance.quote.archive;
+
+import com.insurance.quote.business.BusinessDirectory;
+import com.insurance.quote.config.ArchiveProperties;
+import com.insurance.quote.entity.ArchivedQuote;
+import com.insurance.quote.entity.Quote;
+import com.insurance.quote.mapper.QuoteMapper;
+import com.insurance.quote.repository.BusinessInformationRepository;
+import com.insurance.quote.repository.CoverageOptionRepository;
+import com.insurance.quote.repository.QuoteRepository;
+import com.insurance.quote.sharding.ShardRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Moves closed quotes (approved, rejected or expired) that have not changed for app.archive.min-age from the
+ * quotes and coverage_options tables to quote_archive, so that list, search and statistics queries only scan
+ * live quotes. Each chunk is copied and deleted in its own transaction. Business rows are shared between
+ * quotes, so only those no remaining quote references are deleted. With sharding each shard archives its own
+ * quotes.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.archive", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class QuoteArchiver {
+
+    private static final Logger logger = LoggerFactory.getLogger(QuoteArchiver.class);
+
+    static final Set<Quote.QuoteStatus> CLOSED_STATUSES =
+            EnumSet.of(Quote.QuoteStatus.APPROVED, Quote.QuoteStatus.REJECTED, Quote.QuoteStatus.EXPIRED);
+
+    private final ArchiveProperties properties;
+    private final QuoteRepository quoteRepository;
+    private final CoverageOptionRepository coverageOptionRepository;
+    private final BusinessInformationRepository businessInfoRepository;
+    private final BusinessDirectory businessDirectory;
+    private final QuoteMapper quoteMapper;
+    private final QuoteSnapshotCodec codec;
+    private final EntityManager entityManager;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Counter archivedCounter;
+    private final Timer chunkTimer;
+
+    public QuoteArchiver(ArchiveProperties properties,
+                         QuoteRepository quoteRepository,
+                         CoverageOptionRepository coverageOptionRepository,
+                         BusinessInformationRepository businessInfoRepository,
+                         BusinessDirectory businessDirectory,
+                         QuoteMapper quoteMapper,
+                         QuoteSnapshotCodec codec,
+                         EntityManager entityManager,
+                         ShardRouter shardRouter,
+                         PlatformTransactionManager transactionManager,
+                         MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.quoteRepository = quoteRepository;
+        this.coverageOptionRepository = coverageOptionRepository;
+        this.businessInfoRepository = businessInfoRepository;
+        this.businessDirectory = businessDirectory;
+        this.quoteMapper = quoteMapper;
+        this.codec = codec;
+        this.entityManager = entityManager;
+        this.shardRouter = shardRouter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.archivedCounter = Counter.builder("quote.archive.archived")
+                .description("Closed quotes moved to the archive")
+                .register(meterRegistry);
+        this.chunkTimer = Timer.builder("quote.archive.chunk")
+                .description("Time to copy and delete one chunk of closed quotes")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${app.archive.interval:PT1H}", fixedDelayString = "${app.archive.interval:PT1H}")
+    public void archiveScheduled() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(properties.getMinAge());
+        shardRouter.forEachShard(() -> archiveClosedQuotes(cutoff));
+    }
+
+    /**
+     * Archives closed quotes last changed before the cutoff, up to max-chunks-per-run chunks
+     *
+     * @return the number of quotes archived
+     */
+    public int archiveClosedQuotes(LocalDateTime cutoff) {
+        int archived = 0;
+        for (int chunk = 0; chunk < properties.getMaxChunksPerRun(); chunk++) {
+            Integer moved = chunkTimer.record(() -> transactionTemplate.execute(status -> archiveChunk(cutoff)));
+            if (moved == null || moved == 0) {
+                break;
+            }
+            archived += moved;
+            archivedCounter.increment(moved);
+            if (moved < properties.getChunkSize()) {
+                break;
+            }
+        }
+        if (archived > 0) {
+            logger.info("Archived {} closed quotes last changed before {}", archived, cutoff);
+        }
+        return archived;
+    }
+
+    private int archiveChunk(LocalDateTime cutoff) {
+        List<Long> ids = quoteRepository.findArchivableIds(CLOSED_STATUSES, cutoff,
+                PageRequest.of(0, properties.getChunkSize()));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        LocalDateTime archivedAt = LocalDateTime.now();
+        List<Quote> quotes = quoteRepository.findAllById(ids);
+        Set<Long> businessInfoIds = new LinkedHashSet<>();
+        for (Quote quote : quotes) {
+            // persist rather than save: the archive row reuses the quote ID, so save would merge and select first
+            entityManager.persist(new ArchivedQuote(quote, codec.encode(quoteMapper.toDto(quote)), archivedAt));
+            businessInfoIds.add(quote.getBusinessInformation().getId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        coverageOptionRepository.deleteAllByQuoteIdIn(ids);
+        quoteRepository.deleteAllByIdIn(ids);
+        List<Long> unreferenced = businessInfoRepository.findUnreferencedIds(businessInfoIds);
+        if (!unreferenced.isEmpty()) {
+            businessInfoRepository.deleteAllByIdIn(unreferenced);
+            businessDirectory.evictAfterCommit(unreferenced);
+        }
+        logger.debug("Archived quotes {}", ids);
+        return quotes.size();
+    }
+}
@@ -0,0 +1,45 @@
+package com.insurance.quote.archive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.insurance.quote.dto.QuoteDto;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encodes archived quotes as gzipped JSON of the QuoteDto, business information and coverage options included
+ */
+@Component
+public class QuoteSnapshotCodec {
+
+    private final ObjectMapper objectMapper;
+
+    public QuoteSnapshotCodec(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public byte[] encode(QuoteDto quote) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(512);
+        try (OutputStream gzip = new GZIPOutputStream(bytes)) {
+            objectMapper.writeValue(gzip, quote);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not encode quote " + quote.getId(), e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public QuoteDto decode(byte[] snapshot) {
+        try (InputStream gzip = new GZIPInputStream(new ByteArrayInputStream(snapshot))) {
+            return objectMapper.readValue(gzip, QuoteDto.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not decode archived quote", e);
+        }
+    }
+}
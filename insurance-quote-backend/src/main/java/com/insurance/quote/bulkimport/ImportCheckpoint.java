@@ -0,0 +1,29 @@
+package com.insurance.quote.bulkimport;
+
+/**
+ * Committed progress of one import file, stored in import_checkpoints
+ *
+ * @param lastLine line the last committed or rejected record starts on
+ * @param rejectBytes size of the reject file when the checkpoint was committed
+ */
+public record ImportCheckpoint(String sourceFile,
+                               long fileSize,
+                               long lastLine,
+                               long imported,
+                               long rejected,
+                               long rejectBytes,
+                               boolean completed) {
+
+    static ImportCheckpoint start(String sourceFile, long fileSize) {
+        return new ImportCheckpoint(sourceFile, fileSize, 0, 0, 0, 0, false);
+    }
+
+    ImportCheckpoint advance(long line, long importedRecords, long rejectedRecords, long rejectFileSize) {
+        return new ImportCheckpoint(sourceFile, fileSize, line, imported + importedRecords,
+                rejected + rejectedRecords, rejectFileSize, false);
+    }
+
+    ImportCheckpoint complete() {
+        return new ImportCheckpoint(sourceFile, fileSize, lastLine, imported, rejected, rejectBytes, true);
+    }
+}
@@ -0,0 +1,30 @@
+package com.insurance.quote.bulkimport;
+
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * File formats accepted by the quote import, recognised by file extension
+ */
+public enum ImportFormat {
+    CSV("csv"),
+    NDJSON("ndjson", "jsonl");
+
+    private final String[] extensions;
+
+    ImportFormat(String... extensions) {
+        this.extensions = extensions;
+    }
+
+    public static Optional<ImportFormat> forFileName(String fileName) {
+        String lower = fileName.toLowerCase(Locale.ROOT);
+        for (ImportFormat format : values()) {
+            for (String extension : format.extensions) {
+                if (lower.endsWith("." + extension)) {
+                    return Optional.of(format);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+}
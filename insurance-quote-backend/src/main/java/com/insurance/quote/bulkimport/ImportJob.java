@@ -0,0 +1,145 @@
+package com.insurance.quote.bulkimport;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * State and progress of one import, updated by the import thread and read by status requests
+ */
+public class ImportJob {
+
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    private final String id;
+    private final String file;
+    private final ImportFormat format;
+    private final Path path;
+    private final LocalDateTime requestedAt;
+    private volatile Status status = Status.QUEUED;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile long resumedAfterLine;
+    private volatile long imported;
+    private volatile long rejected;
+    private volatile double recordsPerSecond;
+    private volatile String rejectFile;
+    private volatile String error;
+
+    public ImportJob(String id, String file, ImportFormat format, Path path, LocalDateTime requestedAt) {
+        this.id = id;
+        this.file = file;
+        this.format = format;
+        this.path = path;
+        this.requestedAt = requestedAt;
+    }
+
+    void started(long resumedAfterLine) {
+        this.resumedAfterLine = resumedAfterLine;
+        this.startedAt = LocalDateTime.now();
+        this.status = Status.RUNNING;
+    }
+
+    void progress(long imported, long rejected, long records, long elapsedNanos) {
+        this.imported = imported;
+        this.rejected = rejected;
+        this.recordsPerSecond = elapsedNanos > 0 ? records * 1e9 / elapsedNanos : 0;
+    }
+
+    void rejectFile(Path rejectFile) {
+        this.rejectFile = rejectFile.toString();
+    }
+
+    void completed() {
+        this.finishedAt = LocalDateTime.now();
+        this.status = Status.COMPLETED;
+    }
+
+    void failed(String error) {
+        this.error = error;
+        this.finishedAt = LocalDateTime.now();
+        this.status = Status.FAILED;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getFile() {
+        return file;
+    }
+
+    public ImportFormat getFormat() {
+        return format;
+    }
+
+    Path getPath() {
+        return path;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public LocalDateTime getRequestedAt() {
+        return requestedAt;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    /**
+     * Line the import resumed after, 0 when it started at the beginning of the file
+     */
+    public long getResumedAfterLine() {
+        return resumedAfterLine;
+    }
+
+    /**
+     * Quotes imported from the file, including those of earlier runs when resumed
+     */
+    public long getImported() {
+        return imported;
+    }
+
+    /**
+     * Records written to the reject file, including those of earlier runs when resumed
+     */
+    public long getRejected() {
+        return rejected;
+    }
+
+    /**
+     * Records read by this run per second
+     */
+    public double getRecordsPerSecond() {
+        return recordsPerSecond;
+    }
+
+    public String getRejectFile() {
+        return rejectFile;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public Duration getElapsed() {
+        LocalDateTime start = startedAt;
+        if (start == null) {
+            return null;
+        }
+        LocalDateTime end = finishedAt;
+        return Duration.between(start, end != null ? end : LocalDateTime.now());
+    }
+}
@@ -0,0 +1,8 @@
+package com.insurance.quote.bulkimport;
+
+/**
+ * One record of an import file as read: the line it starts on and its text. A CSV record with quoted line
+ * breaks spans several lines.
+ */
+public record ImportRecord(long line, String text) {
+}
@@ -0,0 +1,73 @@
+package com.insurance.quote.bulkimport;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+/**
+ * Streams the records of an import file through one large read buffer, so memory stays at the buffer and the
+ * records in flight whatever the file size. Blank lines are skipped. A CSV record continues onto the next
+ * line while a quoted field is open.
+ */
+public class ImportRecordReader implements Closeable {
+
+    private final ImportFormat format;
+    private final BufferedReader reader;
+    private long lineNumber;
+
+    public ImportRecordReader(Path file, ImportFormat format, int bufferSize) throws IOException {
+        this.format = format;
+        this.reader = new BufferedReader(new InputStreamReader(Channels.newInputStream(FileChannel.open(file)),
+                StandardCharsets.UTF_8.newDecoder()), bufferSize);
+    }
+
+    /**
+     * Returns the next record, or null at the end of the file
+     */
+    public ImportRecord next() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+            lineNumber++;
+        } while (line.isBlank());
+
+        long start = lineNumber;
+        if (format != ImportFormat.CSV || !hasOpenQuote(line, false)) {
+            return new ImportRecord(start, stripBom(start, line));
+        }
+        StringBuilder text = new StringBuilder(line);
+        boolean open = true;
+        while (open && (line = reader.readLine()) != null) {
+            lineNumber++;
+            text.append('\n').append(line);
+            open = hasOpenQuote(line, true);
+        }
+        return new ImportRecord(start, stripBom(start, text.toString()));
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private static boolean hasOpenQuote(String line, boolean open) {
+        for (int i = 0; i < line.length(); i++) {
+            if (line.charAt(i) == '"') {
+                open = !open;
+            }
+        }
+        return open;
+    }
+
+    private static String stripBom(long line, String text) {
+        return line == 1 && !text.isEmpty() && text.charAt(0) == '\uFEFF' ? text.substring(1) : text;
+    }
+}
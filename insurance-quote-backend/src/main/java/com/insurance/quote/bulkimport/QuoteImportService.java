@@ -0,0 +1,474 @@
+package com.insurance.quote.bulkimport;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.insurance.quote.bulkimport.QuoteRecordParser.ParsedRecord;
+import com.insurance.quote.business.BusinessDirectory;
+import com.insurance.quote.business.BusinessKey;
+import com.insurance.quote.config.ImportProperties;
+import com.insurance.quote.entity.BusinessInformation;
+import com.insurance.quote.entity.CoverageOption;
+import com.insurance.quote.entity.Quote;
+import com.insurance.quote.exception.ResourceNotFoundException;
+import com.insurance.quote.mapper.QuoteMapper;
+import com.insurance.quote.quotenumber.QuoteNumberFilter;
+import com.insurance.quote.workload.Workload;
+import com.insurance.quote.workload.WorkloadContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.validation.Validator;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bulk import of quotes with their business information from CSV or NDJSON files in app.import.directory.
+ *
+ * <p>One import thread streams the file and hands chunks of records to a pool of parser threads, which build
+ * and validate the entities in parallel. Parsed chunks are taken back in file order and inserted through a
+ * Hibernate stateless session, one transaction per chunk, so no persistence context grows with the import.
+ * The same transaction advances the file's row in import_checkpoints, so an interrupted import resumes after
+ * the last committed chunk. Invalid records, and records the database refuses, go to a reject file next to
+ * the import file. A chunk that fails to commit is retried record by record to single out the bad records.
+ * Quotes of a business the business directory already knows reference its row; the row keeps its details.
+ *
+ * <p>Imported quotes are not published as lifecycle events; delta sync clients see them through change_seq.
+ */
+@Service
+public class QuoteImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(QuoteImportService.class);
+
+    private static final DateTimeFormatter NUMBER_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+
+    private static final String SELECT_CHECKPOINT = """
+            SELECT source_file, file_size, last_line, imported, rejected, reject_bytes, completed
+            FROM import_checkpoints WHERE source_file = ?""";
+    private static final String DELETE_CHECKPOINT = "DELETE FROM import_checkpoints WHERE source_file = ?";
+    private static final String MERGE_CHECKPOINT = """
+            MERGE INTO import_checkpoints
+                (source_file, file_size, last_line, imported, rejected, reject_bytes, completed, updated_at)
+            KEY (source_file)
+            VALUES (:sourceFile, :fileSize, :lastLine, :imported, :rejected, :rejectBytes, :completed, :updatedAt)""";
+
+    private final ImportProperties properties;
+    private final SessionFactory sessionFactory;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final QuoteMapper quoteMapper;
+    private final Validator validator;
+    private final MeterRegistry meterRegistry;
+    private final BusinessDirectory businessDirectory;
+    private final QuoteNumberFilter quoteNumberFilter;
+    private final ExecutorService importExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "quote-import");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ExecutorService parserExecutor;
+    private final Map<String, ImportJob> jobs = new LinkedHashMap<>();
+
+    public QuoteImportService(ImportProperties properties, EntityManagerFactory entityManagerFactory,
+                              DataSource dataSource, ObjectMapper objectMapper, QuoteMapper quoteMapper,
+                              Validator validator, MeterRegistry meterRegistry,
+                              BusinessDirectory businessDirectory, QuoteNumberFilter quoteNumberFilter) {
+        this.properties = properties;
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.objectMapper = objectMapper;
+        this.quoteMapper = quoteMapper;
+        this.validator = validator;
+        this.meterRegistry = meterRegistry;
+        this.businessDirectory = businessDirectory;
+        this.quoteNumberFilter = quoteNumberFilter;
+        AtomicInteger parserCount = new AtomicInteger();
+        this.parserExecutor = Executors.newFixedThreadPool(Math.max(1, properties.getParserThreads()), runnable -> {
+            Thread thread = new Thread(runnable, "quote-import-parser-" + parserCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Queues an import of a file in the import directory. The import resumes from the file's checkpoint
+     * unless restart is set.
+     *
+     * @throws ResourceNotFoundException if there is no such file in the import directory
+     * @throws IllegalArgumentException if the file is neither CSV nor NDJSON
+     */
+    public ImportJob submit(String fileName, boolean restart) {
+        ImportJob job = newJob(fileName);
+        importExecutor.execute(WorkloadContext.wrap(Workload.BULK, () -> run(job, restart)));
+        return job;
+    }
+
+    /**
+     * Runs an import on the calling thread
+     */
+    public ImportJob importFile(String fileName, boolean restart) {
+        ImportJob job = newJob(fileName);
+        run(job, restart);
+        return job;
+    }
+
+    public Optional<ImportJob> getJob(String id) {
+        synchronized (jobs) {
+            return Optional.ofNullable(jobs.get(id));
+        }
+    }
+
+    /**
+     * Returns the committed progress of an import file, if it has been imported before
+     */
+    public Optional<ImportCheckpoint> getCheckpoint(String fileName) {
+        return jdbcTemplate.query(SELECT_CHECKPOINT, (rs, rowNum) -> new ImportCheckpoint(rs.getString(1),
+                rs.getLong(2), rs.getLong(3), rs.getLong(4), rs.getLong(5), rs.getLong(6), rs.getBoolean(7)),
+                fileName).stream().findFirst();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        importExecutor.shutdownNow();
+        parserExecutor.shutdownNow();
+    }
+
+    private ImportJob newJob(String fileName) {
+        Path directory = properties.getDirectory().toAbsolutePath().normalize();
+        Path path = directory.resolve(fileName).normalize();
+        if (!path.startsWith(directory) || !Files.isRegularFile(path)) {
+            throw new ResourceNotFoundException("Import file not found: " + fileName);
+        }
+        ImportFormat format = ImportFormat.forFileName(fileName)
+                .orElseThrow(() -> new IllegalArgumentException("Import files must be .csv, .ndjson or .jsonl: " + fileName));
+        String id = UUID.randomUUID().toString();
+        ImportJob job = new ImportJob(id, directory.relativize(path).toString(), format, path, LocalDateTime.now());
+        synchronized (jobs) {
+            jobs.put(id, job);
+            while (jobs.size() > properties.getRetainedJobs()) {
+                jobs.remove(jobs.keySet().iterator().next());
+            }
+        }
+        return job;
+    }
+
+    private void run(ImportJob job, boolean restart) {
+        long start = System.nanoTime();
+        String outcome = "success";
+        Run run = null;
+        try {
+            if (restart) {
+                jdbcTemplate.update(DELETE_CHECKPOINT, job.getFile());
+            }
+            long fileSize = Files.size(job.getPath());
+            ImportCheckpoint checkpoint = getCheckpoint(job.getFile())
+                    .orElseGet(() -> ImportCheckpoint.start(job.getFile(), fileSize));
+            if (checkpoint.fileSize() != fileSize) {
+                throw new IllegalStateException("Import file changed since its checkpoint (" + checkpoint.fileSize()
+                        + " bytes, now " + fileSize + "); import it with restart=true to start over");
+            }
+            job.started(checkpoint.lastLine());
+            logger.info("Importing quotes from {} as {}{}", job.getPath(), job.getFormat(),
+                    checkpoint.lastLine() > 0 ? ", resuming after line " + checkpoint.lastLine() : "");
+            run = new Run(job, checkpoint, start);
+            run.execute();
+            job.completed();
+            logger.info("Imported {} quotes from {} with {} rejected ({} records/s)", job.getImported(),
+                    job.getFile(), job.getRejected(), Math.round(job.getRecordsPerSecond()));
+        } catch (Exception e) {
+            outcome = "failure";
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            job.failed(e.getMessage());
+            logger.error("Import {} of {} failed; it resumes from its checkpoint when imported again",
+                    job.getId(), job.getFile(), e);
+        } finally {
+            if (run != null) {
+                Counter.builder("quote.import.records")
+                        .description("Records read by quote imports")
+                        .tags("format", job.getFormat().name(), "result", "imported")
+                        .register(meterRegistry)
+                        .increment(run.importedThisRun);
+                Counter.builder("quote.import.records")
+                        .description("Records read by quote imports")
+                        .tags("format", job.getFormat().name(), "result", "rejected")
+                        .register(meterRegistry)
+                        .increment(run.rejectedThisRun);
+            }
+            Timer.builder("quote.import.duration")
+                    .description("Duration of quote imports")
+                    .tags("format", job.getFormat().name(), "outcome", outcome)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static Path rejectPath(Path file) {
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return file.resolveSibling(name.substring(0, dot) + ".rejects" + name.substring(dot));
+    }
+
+    /**
+     * One run of an import: reads, parses in parallel and stores chunk by chunk in file order
+     */
+    private class Run {
+
+        private final ImportJob job;
+        private final long start;
+        private final long progressIntervalNanos = properties.getProgressInterval().toNanos();
+        // Businesses inserted by the open transaction, registered with the directory once it commits
+        private final Map<BusinessKey, BusinessInformation> newBusinesses = new HashMap<>();
+        private ImportCheckpoint checkpoint;
+        private RejectFile rejects;
+        private long records;
+        private long importedThisRun;
+        private long rejectedThisRun;
+        private long lastProgress;
+
+        Run(ImportJob job, ImportCheckpoint checkpoint, long start) {
+            this.job = job;
+            this.checkpoint = checkpoint;
+            this.start = start;
+            this.lastProgress = start;
+        }
+
+        void execute() throws IOException, InterruptedException, ExecutionException {
+            int chunkSize = Math.max(1, properties.getChunkSize());
+            int maxInFlight = Math.max(1, properties.getParserThreads()) * 2;
+            String numberPrefix = "IMP-" + NUMBER_TIMESTAMP.format(job.getRequestedAt()) + "-";
+            try (ImportRecordReader reader = new ImportRecordReader(job.getPath(), job.getFormat(),
+                    (int) properties.getReadBufferSize().toBytes())) {
+                ImportRecord header = job.getFormat() == ImportFormat.CSV ? reader.next() : null;
+                QuoteRecordParser parser = new QuoteRecordParser(job.getFormat(), header, objectMapper, quoteMapper,
+                        validator, numberPrefix);
+                job.progress(checkpoint.imported(), checkpoint.rejected(), 0, 0);
+                try (RejectFile rejectFile = new RejectFile(rejectPath(job.getPath()), job.getFormat(), header,
+                        objectMapper, checkpoint.rejectBytes())) {
+                    rejects = rejectFile;
+                    job.rejectFile(rejectFile.getPath());
+                    Deque<Future<List<ParsedRecord>>> inFlight = new ArrayDeque<>();
+                    List<ImportRecord> chunk = new ArrayList<>(chunkSize);
+                    ImportRecord record;
+                    while ((record = reader.next()) != null) {
+                        if (record.line() <= checkpoint.lastLine()) {
+                            continue;
+                        }
+                        chunk.add(record);
+                        if (chunk.size() == chunkSize) {
+                            inFlight.add(parse(parser, chunk));
+                            chunk = new ArrayList<>(chunkSize);
+                            if (inFlight.size() >= maxInFlight) {
+                                store(inFlight.poll().get());
+                            }
+                        }
+                    }
+                    if (!chunk.isEmpty()) {
+                        inFlight.add(parse(parser, chunk));
+                    }
+                    while (!inFlight.isEmpty()) {
+                        store(inFlight.poll().get());
+                    }
+                }
+            }
+            commitCheckpoint(checkpoint.complete());
+        }
+
+        private Future<List<ParsedRecord>> parse(QuoteRecordParser parser, List<ImportRecord> chunk) {
+            return parserExecutor.submit(() -> {
+                List<ParsedRecord> parsed = new ArrayList<>(chunk.size());
+                for (ImportRecord record : chunk) {
+                    try {
+                        parsed.add(parser.parse(record));
+                    } catch (RuntimeException e) {
+                        parsed.add(new ParsedRecord(record, null, e.getMessage()));
+                    }
+                }
+                return parsed;
+            });
+        }
+
+        private void store(List<ParsedRecord> chunk) throws IOException {
+            long rejectSize = rejects.flush();
+            long imported = 0;
+            long rejected = 0;
+            List<Quote> quotes = new ArrayList<>(chunk.size());
+            for (ParsedRecord parsed : chunk) {
+                if (parsed.isValid()) {
+                    quotes.add(parsed.quote());
+                    imported++;
+                } else {
+                    rejects.append(parsed.record(), parsed.rejectReason());
+                    rejected++;
+                }
+            }
+            long lastLine = chunk.get(chunk.size() - 1).record().line();
+            ImportCheckpoint next = checkpoint.advance(lastLine, imported, rejected, rejects.flush());
+
+            try (StatelessSession session = sessionFactory.openStatelessSession()) {
+                Transaction transaction = session.beginTransaction();
+                try {
+                    for (Quote quote : quotes) {
+                        insert(session, quote);
+                    }
+                    writeCheckpoint(session, next);
+                    transaction.commit();
+                    registerNewBusinesses();
+                    quotes.forEach(quote -> quoteNumberFilter.add(quote.getQuoteNumber()));
+                    checkpoint = next;
+                    counted(imported, rejected);
+                    return;
+                } catch (RuntimeException e) {
+                    if (transaction.isActive()) {
+                        transaction.rollback();
+                    }
+                    newBusinesses.clear();
+                    logger.warn("Import chunk ending at line {} of {} failed ({}); retrying it record by record",
+                            lastLine, job.getFile(), e.getMessage());
+                }
+            }
+            rejects.truncate(rejectSize);
+            storeEach(chunk);
+        }
+
+        private void storeEach(List<ParsedRecord> chunk) throws IOException {
+            try (StatelessSession session = sessionFactory.openStatelessSession()) {
+                for (ParsedRecord parsed : chunk) {
+                    long line = parsed.record().line();
+                    if (!parsed.isValid()) {
+                        rejects.append(parsed.record(), parsed.rejectReason());
+                        checkpoint = checkpoint.advance(line, 0, 1, checkpoint.rejectBytes());
+                        counted(0, 1);
+                        continue;
+                    }
+                    resetIds(parsed.quote());
+                    ImportCheckpoint next = checkpoint.advance(line, 1, 0, rejects.flush());
+                    Transaction transaction = session.beginTransaction();
+                    try {
+                        insert(session, parsed.quote());
+                        writeCheckpoint(session, next);
+                        transaction.commit();
+                        registerNewBusinesses();
+                        quoteNumberFilter.add(parsed.quote().getQuoteNumber());
+                        checkpoint = next;
+                        counted(1, 0);
+                    } catch (RuntimeException e) {
+                        if (transaction.isActive()) {
+                            transaction.rollback();
+                        }
+                        newBusinesses.clear();
+                        rejects.append(parsed.record(), rootCause(e));
+                        checkpoint = checkpoint.advance(line, 0, 1, checkpoint.rejectBytes());
+                        counted(0, 1);
+                    }
+                }
+            }
+            checkpoint = checkpoint.advance(checkpoint.lastLine(), 0, 0, rejects.flush());
+            commitCheckpoint(checkpoint);
+        }
+
+        private void insert(StatelessSession session, Quote quote) {
+            BusinessInformation business = quote.getBusinessInformation();
+            BusinessKey key = BusinessKey.of(business);
+            BusinessInformation inserted = newBusinesses.get(key);
+            Long businessId = inserted != null ? inserted.getId() : businessDirectory.findId(key).orElse(null);
+            if (businessId == null) {
+                session.insert(business);
+                newBusinesses.put(key, business);
+            } else {
+                business.setId(businessId);
+            }
+            // Added before the insert as well as after commit, so a check never misses a number being imported
+            quoteNumberFilter.add(quote.getQuoteNumber());
+            session.insert(quote);
+            for (CoverageOption option : quote.getCoverageOptions()) {
+                session.insert(option);
+            }
+        }
+
+        private void registerNewBusinesses() {
+            newBusinesses.values().forEach(businessDirectory::register);
+            newBusinesses.clear();
+        }
+
+        private void resetIds(Quote quote) {
+            quote.setId(null);
+            quote.getBusinessInformation().setId(null);
+            for (CoverageOption option : quote.getCoverageOptions()) {
+                option.setId(null);
+            }
+        }
+
+        private void commitCheckpoint(ImportCheckpoint next) {
+            try (StatelessSession session = sessionFactory.openStatelessSession()) {
+                Transaction transaction = session.beginTransaction();
+                writeCheckpoint(session, next);
+                transaction.commit();
+            }
+            checkpoint = next;
+        }
+
+        private void writeCheckpoint(StatelessSession session, ImportCheckpoint next) {
+            session.createNativeMutationQuery(MERGE_CHECKPOINT)
+                    .setParameter("sourceFile", next.sourceFile())
+                    .setParameter("fileSize", next.fileSize())
+                    .setParameter("lastLine", next.lastLine())
+                    .setParameter("imported", next.imported())
+                    .setParameter("rejected", next.rejected())
+                    .setParameter("rejectBytes", next.rejectBytes())
+                    .setParameter("completed", next.completed())
+                    .setParameter("updatedAt", LocalDateTime.now())
+                    .executeUpdate();
+        }
+
+        private void counted(long imported, long rejected) {
+            records += imported + rejected;
+            importedThisRun += imported;
+            rejectedThisRun += rejected;
+            long now = System.nanoTime();
+            job.progress(checkpoint.imported(), checkpoint.rejected(), records, now - start);
+            if (now - lastProgress >= progressIntervalNanos) {
+                lastProgress = now;
+                logger.info("Import {}: line {}, {} imported, {} rejected, {} records/s", job.getId(),
+                        checkpoint.lastLine(), checkpoint.imported(), checkpoint.rejected(),
+                        Math.round(job.getRecordsPerSecond()));
+            }
+        }
+
+        private static String rootCause(Throwable e) {
+            Throwable cause = e;
+            while (cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            return cause.getMessage();
+        }
+    }
+}
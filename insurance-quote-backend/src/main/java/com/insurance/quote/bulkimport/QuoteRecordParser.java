@@ -0,0 +1,240 @@
+package com.insurance.quote.bulkimport;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.insurance.quote.dto.QuoteDto;
+import com.insurance.quote.entity.BusinessInformation;
+import com.insurance.quote.entity.CoverageOption;
+import com.insurance.quote.entity.Quote;
+import com.insurance.quote.mapper.QuoteMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Turns import records into quote entities and checks them against the entities' Bean Validation constraints.
+ * Stateless apart from the CSV header, so parser threads share one instance.
+ *
+ * <p>A CSV record is one quote with its business; columns are matched by header name, unknown columns are
+ * ignored. An NDJSON record is a quote in the JSON shape of the REST API, coverage options included.
+ * A quote without a number gets one derived from the import and the record's line.
+ */
+public class QuoteRecordParser {
+
+    static final List<String> CSV_COLUMNS = List.of("quote_number", "status", "total_premium", "risk_rating",
+            "underwriter_notes", "valid_until", "business_name", "business_type", "industry", "state");
+    static final List<String> REQUIRED_CSV_COLUMNS = List.of("business_name", "business_type", "industry", "state");
+
+    private final ImportFormat format;
+    private final Map<String, Integer> columns;
+    private final ObjectMapper objectMapper;
+    private final QuoteMapper quoteMapper;
+    private final Validator validator;
+    private final String quoteNumberPrefix;
+
+    /**
+     * @param header the CSV header record, or null for NDJSON
+     * @param quoteNumberPrefix prefix of the numbers given to quotes without one
+     */
+    public QuoteRecordParser(ImportFormat format, ImportRecord header, ObjectMapper objectMapper,
+                             QuoteMapper quoteMapper, Validator validator, String quoteNumberPrefix) {
+        this.format = format;
+        this.objectMapper = objectMapper;
+        this.quoteMapper = quoteMapper;
+        this.validator = validator;
+        this.quoteNumberPrefix = quoteNumberPrefix;
+        this.columns = format == ImportFormat.CSV ? headerColumns(header) : Map.of();
+    }
+
+    /**
+     * Returns the quote of the record, or the reason it is rejected
+     */
+    public ParsedRecord parse(ImportRecord record) {
+        Quote quote;
+        try {
+            quote = format == ImportFormat.CSV ? fromCsv(record) : fromJson(record);
+        } catch (IllegalArgumentException e) {
+            return ParsedRecord.rejected(record, e.getMessage());
+        }
+        if (quote.getQuoteNumber() == null || quote.getQuoteNumber().isBlank()) {
+            quote.setQuoteNumber(quoteNumberPrefix + record.line());
+        }
+        if (!quote.getCoverageOptions().isEmpty()) {
+            quote.calculateTotalPremium();
+        }
+
+        Set<String> violations = new TreeSet<>();
+        collect(violations, "", validator.validate(quote));
+        if (quote.getBusinessInformation() != null) {
+            collect(violations, "businessInformation.", validator.validate(quote.getBusinessInformation()));
+        }
+        for (int i = 0; i < quote.getCoverageOptions().size(); i++) {
+            collect(violations, "coverageOptions[" + i + "].", validator.validate(quote.getCoverageOptions().get(i)));
+        }
+        return violations.isEmpty()
+                ? ParsedRecord.valid(record, quote)
+                : ParsedRecord.rejected(record, String.join("; ", violations));
+    }
+
+    private Quote fromJson(ImportRecord record) {
+        QuoteDto dto;
+        try {
+            dto = objectMapper.readValue(record.text(), QuoteDto.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid JSON: " + e.getOriginalMessage());
+        }
+        Quote quote = quoteMapper.toEntity(dto);
+        quote.setId(null);
+        quote.setCreatedAt(null);
+        quote.setUpdatedAt(null);
+        if (quote.getBusinessInformation() != null) {
+            quote.getBusinessInformation().setId(null);
+        }
+        for (CoverageOption option : quote.getCoverageOptions()) {
+            option.setId(null);
+            option.setQuote(quote);
+        }
+        return quote;
+    }
+
+    private Quote fromCsv(ImportRecord record) {
+        List<String> fields = splitCsv(record.text());
+        BusinessInformation business = new BusinessInformation();
+        business.setName(field(fields, "business_name"));
+        business.setBusinessType(enumField(fields, "business_type", BusinessInformation.BusinessType.class));
+        business.setIndustry(enumField(fields, "industry", BusinessInformation.Industry.class));
+        business.setState(field(fields, "state"));
+
+        Quote quote = new Quote();
+        quote.setBusinessInformation(business);
+        quote.setQuoteNumber(field(fields, "quote_number"));
+        Quote.QuoteStatus status = enumField(fields, "status", Quote.QuoteStatus.class);
+        if (status != null) {
+            quote.setStatus(status);
+        }
+        String totalPremium = field(fields, "total_premium");
+        if (totalPremium != null) {
+            try {
+                quote.setTotalPremium(new BigDecimal(totalPremium));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("total_premium: not a number '" + totalPremium + "'");
+            }
+        }
+        quote.setRiskRating(field(fields, "risk_rating"));
+        quote.setUnderwriterNotes(field(fields, "underwriter_notes"));
+        String validUntil = field(fields, "valid_until");
+        if (validUntil != null) {
+            try {
+                quote.setValidUntil(LocalDateTime.parse(validUntil));
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("valid_until: not an ISO date-time '" + validUntil + "'");
+            }
+        }
+        return quote;
+    }
+
+    private String field(List<String> fields, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).strip();
+        return value.isEmpty() ? null : value;
+    }
+
+    private <E extends Enum<E>> E enumField(List<String> fields, String column, Class<E> type) {
+        String value = field(fields, column);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Enum.valueOf(type, value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(column + ": unknown value '" + value + "'");
+        }
+    }
+
+    private static void collect(Set<String> violations, String prefix, Set<? extends ConstraintViolation<?>> found) {
+        for (ConstraintViolation<?> violation : found) {
+            violations.add(prefix + violation.getPropertyPath() + ": " + violation.getMessage());
+        }
+    }
+
+    private static Map<String, Integer> headerColumns(ImportRecord header) {
+        if (header == null) {
+            throw new IllegalArgumentException("CSV import file is empty");
+        }
+        List<String> names = splitCsv(header.text());
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            String name = names.get(i).strip().toLowerCase(Locale.ROOT);
+            if (CSV_COLUMNS.contains(name)) {
+                columns.putIfAbsent(name, i);
+            }
+        }
+        List<String> missing = REQUIRED_CSV_COLUMNS.stream().filter(name -> !columns.containsKey(name)).toList();
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException("CSV header is missing columns " + missing);
+        }
+        return columns;
+    }
+
+    /**
+     * Splits one RFC 4180 record into its fields
+     */
+    static List<String> splitCsv(String text) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /**
+     * A parsed record: either a valid quote ready to insert or the reason the record is rejected
+     */
+    public record ParsedRecord(ImportRecord record, Quote quote, String rejectReason) {
+
+        static ParsedRecord valid(ImportRecord record, Quote quote) {
+            return new ParsedRecord(record, quote, null);
+        }
+
+        static ParsedRecord rejected(ImportRecord record, String reason) {
+            return new ParsedRecord(record, null, reason);
+        }
+
+        public boolean isValid() {
+            return quote != null;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.insurance.quote.bulkimport;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Rejected records of an import, in the format of the import file so they can be corrected and imported
+ * again: CSV records gain a reject_reason column, NDJSON objects a rejectReason property. The file is
+ * created on the first reject. On resume it is cut back to the size recorded by the checkpoint, dropping
+ * rejects of a chunk that never committed.
+ */
+public class RejectFile implements Closeable {
+
+    private final Path file;
+    private final ImportFormat format;
+    private final ImportRecord header;
+    private final ObjectMapper objectMapper;
+    private FileChannel channel;
+    private Writer writer;
+
+    public RejectFile(Path file, ImportFormat format, ImportRecord header, ObjectMapper objectMapper,
+                      long committedSize) throws IOException {
+        this.file = file;
+        this.format = format;
+        this.header = header;
+        this.objectMapper = objectMapper;
+        if (committedSize == 0) {
+            Files.deleteIfExists(file);
+        } else if (Files.exists(file)) {
+            try (FileChannel existing = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                existing.truncate(committedSize);
+            }
+        }
+    }
+
+    public Path getPath() {
+        return file;
+    }
+
+    public void append(ImportRecord record, String reason) throws IOException {
+        if (writer == null) {
+            open();
+        }
+        if (format == ImportFormat.CSV) {
+            writer.write(record.text());
+            writer.write(',');
+            writer.write(quoteCsv("line " + record.line() + ": " + reason));
+        } else {
+            writer.write(rejectJson(record, reason));
+        }
+        writer.write('\n');
+    }
+
+    /**
+     * Writes buffered rejects to the file and returns its size
+     */
+    public long flush() throws IOException {
+        if (writer == null) {
+            return 0;
+        }
+        writer.flush();
+        return channel.size();
+    }
+
+    /**
+     * Drops rejects written after the file had the given size
+     */
+    public void truncate(long size) throws IOException {
+        if (writer == null) {
+            return;
+        }
+        writer.flush();
+        if (size == 0) {
+            writer.close();
+            writer = null;
+            Files.deleteIfExists(file);
+        } else {
+            channel.truncate(size);
+            channel.position(size);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+        }
+    }
+
+    private void open() throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        channel.position(channel.size());
+        writer = Channels.newWriter(channel, StandardCharsets.UTF_8);
+        if (format == ImportFormat.CSV && channel.size() == 0) {
+            writer.write(header.text());
+            writer.write(",reject_reason\n");
+        }
+    }
+
+    private String rejectJson(ImportRecord record, String reason) throws JsonProcessingException {
+        JsonNode parsed;
+        try {
+            parsed = objectMapper.readTree(record.text());
+        } catch (JsonProcessingException e) {
+            parsed = null;
+        }
+        ObjectNode reject;
+        if (parsed instanceof ObjectNode object) {
+            reject = object;
+        } else {
+            reject = objectMapper.createObjectNode();
+            reject.put("record", record.text());
+        }
+        reject.put("rejectReason", "line " + record.line() + ": " + reason);
+        return objectMapper.writeValueAsString(reject);
+    }
+
+    private static String quoteCsv(String text) {
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,273 @@
+package com.insurance.quote.business;
+
+import com.insurance.quote.entity.BusinessInformation;
+import com.insurance.quote.repository.BusinessInformationRepository;
+import com.insurance.quote.sharding.ShardContext;
+import com.insurance.quote.sharding.ShardRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory index from business key (normalized name and state) to business_information id, so quotes for a
+ * known business reuse its row by primary key.
+ *
+ * <p>The index is loaded from the table when the application is ready. A miss falls back to
+ * findByNormalizedNameAndState, since the index lacks rows other nodes inserted and rows whose transaction has
+ * not finished committing. Entries for inserted rows are added, and entries for deleted rows removed, after
+ * the transaction commits, so the index never holds a row that was rolled back. A key never changes for a
+ * row: renaming a quote's business points the quote at another row.
+ *
+ * <p>A new business is inserted in the quote's transaction, so a quote that rolls back takes its business
+ * with it. The insert goes through JDBC rather than the persistence context: when concurrent first quotes for
+ * a business race on the unique key, the loser's insert waits for the winner to commit and then fails on its
+ * own, leaving the loser's transaction and session usable to read the winner's row instead.
+ *
+ * <p>The directory also keeps the BusinessSimilarityIndex and the BusinessNameSuggester in step, and checks
+ * each new business against the former: a new business that resembles known ones is logged and counted as a
+ * probable duplicate.
+ *
+ * <p>With sharding the directory holds the businesses of every shard. A business row belongs to the shard its
+ * id encodes, so a quote on another shard for the same business gets a row of its own there.
+ */
+@Component
+public class BusinessDirectory {
+
+    private static final Logger logger = LoggerFactory.getLogger(BusinessDirectory.class);
+
+    private static final String LOAD_SQL =
+            "SELECT id, normalized_name, state, name, industry FROM business_information";
+    private static final int LOAD_FETCH_SIZE = 1000;
+    private static final String INSERT_SQL = "INSERT INTO business_information "
+            + "(name, normalized_name, business_type, industry, state, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final BusinessInformationRepository businessInfoRepository;
+    private final BusinessSimilarityIndex similarityIndex;
+    private final BusinessNameSuggester nameSuggester;
+    private final ShardRouter shardRouter;
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<BusinessKey, Long> idsByKey = new ConcurrentHashMap<>();
+    private final Map<Long, BusinessKey> keysById = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter probableDuplicates;
+
+    public BusinessDirectory(BusinessInformationRepository businessInfoRepository,
+                             BusinessSimilarityIndex similarityIndex, BusinessNameSuggester nameSuggester,
+                             ShardRouter shardRouter, DataSource dataSource, MeterRegistry meterRegistry) {
+        this.businessInfoRepository = businessInfoRepository;
+        this.similarityIndex = similarityIndex;
+        this.nameSuggester = nameSuggester;
+        this.shardRouter = shardRouter;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(LOAD_FETCH_SIZE);
+        Gauge.builder("business.directory.size", idsByKey, Map::size)
+                .description("Businesses in the in-memory business directory")
+                .register(meterRegistry);
+        this.hits = Counter.builder("business.directory.lookups")
+                .description("Business directory lookups by result")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("business.directory.lookups")
+                .description("Business directory lookups by result")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        this.probableDuplicates = Counter.builder("business.duplicates.flagged")
+                .description("New businesses that resemble known ones")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.nanoTime();
+        shardRouter.forEachShard(() -> jdbcTemplate.query(LOAD_SQL, rs -> {
+            put(new BusinessKey(rs.getString(2), rs.getString(3)), new BusinessEntry(rs.getLong(1), rs.getString(4),
+                    rs.getString(3), BusinessInformation.Industry.valueOf(rs.getString(5))));
+        }));
+        logger.info("Loaded {} businesses into the business directory in {} ms", idsByKey.size(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Returns the business row for the candidate's name and state, inserting the candidate if the business is
+     * new. An existing row is returned unchanged even if the candidate's spelling of the name, business type or
+     * industry differs: the row is shared by every quote of the business, including submitted and approved
+     * ones, so a quote must not rewrite it. Must be called in a transaction.
+     */
+    public BusinessInformation resolve(BusinessInformation candidate) {
+        BusinessKey key = BusinessKey.of(candidate);
+        Optional<BusinessInformation> existing = find(key);
+        if (existing.isPresent()) {
+            return reuse(existing.get(), candidate);
+        }
+        List<DuplicateCandidate> similar = similarityIndex.findCandidates(candidate.getName(), candidate.getState(),
+                candidate.getIndustry());
+        if (!similar.isEmpty()) {
+            probableDuplicates.increment();
+            logger.info("New business '{}' ({}) resembles {}", candidate.getName(), candidate.getState(), similar);
+        }
+        Optional<BusinessInformation> created = insert(candidate);
+        if (created.isEmpty()) {
+            logger.debug("Business {} was inserted concurrently, reusing its row", key);
+            BusinessInformation business = lookUp(key).orElseThrow(() ->
+                    new IllegalStateException("Business " + key + " conflicts with a row that no longer exists"));
+            return reuse(business, candidate);
+        }
+        BusinessEntry entry = BusinessEntry.of(created.get());
+        afterCommit(() -> put(key, entry));
+        logger.debug("Added business {} ({})", entry.id(), key);
+        return created.get();
+    }
+
+    /**
+     * Returns the id of the business with the given key, for writers that bypass the persistence context
+     */
+    public Optional<Long> findId(BusinessKey key) {
+        Long id = idsByKey.get(key);
+        if (id != null && isOnCurrentShard(id)) {
+            hits.increment();
+            return Optional.of(id);
+        }
+        misses.increment();
+        return lookUp(key).map(BusinessInformation::getId);
+    }
+
+    /**
+     * Adds a business whose insert has committed
+     */
+    public void register(BusinessInformation business) {
+        put(BusinessKey.of(business), BusinessEntry.of(business));
+    }
+
+    /**
+     * Removes businesses deleted by the current transaction once it commits
+     */
+    public void evictAfterCommit(Collection<Long> ids) {
+        if (!ids.isEmpty()) {
+            List<Long> evicted = List.copyOf(ids);
+            afterCommit(() -> evicted.forEach(this::remove));
+        }
+    }
+
+    public int size() {
+        return idsByKey.size();
+    }
+
+    private Optional<BusinessInformation> find(BusinessKey key) {
+        Long id = idsByKey.get(key);
+        if (id != null && isOnCurrentShard(id)) {
+            Optional<BusinessInformation> business = businessInfoRepository.findById(id);
+            if (business.isPresent()) {
+                hits.increment();
+                return business;
+            }
+            // Deleted outside this directory
+            remove(id);
+        }
+        misses.increment();
+        return lookUp(key);
+    }
+
+    private Optional<BusinessInformation> lookUp(BusinessKey key) {
+        Optional<BusinessInformation> business =
+                businessInfoRepository.findByNormalizedNameAndState(key.normalizedName(), key.state());
+        business.ifPresent(found -> put(key, BusinessEntry.of(found)));
+        return business;
+    }
+
+    private static BusinessInformation reuse(BusinessInformation business, BusinessInformation candidate) {
+        if (!business.getName().equals(candidate.getName())
+                || business.getBusinessType() != candidate.getBusinessType()
+                || business.getIndustry() != candidate.getIndustry()) {
+            logger.debug("Quote for business {} gives '{}' ({}, {}), keeping '{}' ({}, {})", business.getId(),
+                    candidate.getName(), candidate.getBusinessType(), candidate.getIndustry(), business.getName(),
+                    business.getBusinessType(), business.getIndustry());
+        }
+        return business;
+    }
+
+    /**
+     * Inserts the business on the caller's connection, or returns empty if another transaction inserted the
+     * same key first. The quote only needs the inserted row's id, so the candidate is returned with it rather
+     * than read back into the persistence context.
+     */
+    private Optional<BusinessInformation> insert(BusinessInformation candidate) {
+        LocalDateTime now = LocalDateTime.now();
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        try {
+            jdbcTemplate.update(connection -> {
+                PreparedStatement statement = connection.prepareStatement(INSERT_SQL, new String[]{"id"});
+                statement.setString(1, candidate.getName());
+                statement.setString(2, candidate.getNormalizedName());
+                statement.setString(3, candidate.getBusinessType().name());
+                statement.setString(4, candidate.getIndustry().name());
+                statement.setString(5, candidate.getState());
+                statement.setTimestamp(6, Timestamp.valueOf(now));
+                statement.setTimestamp(7, Timestamp.valueOf(now));
+                return statement;
+            }, keyHolder);
+        } catch (DuplicateKeyException e) {
+            return Optional.empty();
+        }
+        candidate.setId(keyHolder.getKeyAs(Long.class));
+        candidate.setCreatedAt(now);
+        candidate.setUpdatedAt(now);
+        return Optional.of(candidate);
+    }
+
+    private static boolean isOnCurrentShard(long id) {
+        Integer shard = ShardContext.current();
+        return ShardRouter.shardOfId(id) == (shard == null ? 0 : shard);
+    }
+
+    private void put(BusinessKey key, BusinessEntry business) {
+        idsByKey.put(key, business.id());
+        keysById.put(business.id(), key);
+        similarityIndex.put(business);
+        nameSuggester.put(business);
+    }
+
+    private void remove(long id) {
+        BusinessKey key = keysById.remove(id);
+        if (key != null) {
+            idsByKey.remove(key, id);
+        }
+        similarityIndex.remove(id);
+        nameSuggester.remove(id);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
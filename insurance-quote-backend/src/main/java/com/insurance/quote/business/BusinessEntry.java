@@ -0,0 +1,13 @@
+package com.insurance.quote.business;
+
+import com.insurance.quote.entity.BusinessInformation;
+
+/**
+ * The attributes of a business that duplicate detection compares
+ */
+public record BusinessEntry(long id, String name, String state, BusinessInformation.Industry industry) {
+
+    public static BusinessEntry of(BusinessInformation business) {
+        return new BusinessEntry(business.getId(), business.getName(), business.getState(), business.getIndustry());
+    }
+}
@@ -0,0 +1,13 @@
+package com.insurance.quote.business;
+
+import com.insurance.quote.entity.BusinessInformation;
+
+/**
+ * Identity of a business: its normalized name and its state, as enforced by uk_business_information_name_state
+ */
+public record BusinessKey(String normalizedName, String state) {
+
+    public static BusinessKey of(BusinessInformation business) {
+        return new BusinessKey(BusinessInformation.normalize(business.getName()), business.getState());
+    }
+}
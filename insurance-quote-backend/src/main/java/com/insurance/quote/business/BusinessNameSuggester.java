@@ -0,0 +1,202 @@
+package com.insurance.quote.business;
+
+import com.insurance.quote.config.TypeaheadProperties;
+import com.insurance.quote.entity.BusinessInformation;
+import com.insurance.quote.event.QuoteLifecycleEvent;
+import com.insurance.quote.repository.QuoteRepository;
+import com.insurance.quote.sharding.ShardRouter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Business name typeahead: the most quoted known businesses whose normalized name starts with what the broker
+ * has typed, answered from an immutable BusinessNameTrie without touching the database.
+ *
+ * <p>Changes are applied as they happen to a name set kept sorted by normalized name and a map of quote counts.
+ * BusinessDirectory adds and removes businesses after commit, and committed quote creations and deletions
+ * adjust the counts. Every app.typeahead.rebuild-interval, if anything changed, a new trie is built from that
+ * sorted set in one linear pass and swapped in, so lookups never wait for a rebuild and always see a complete
+ * trie. Changes made outside QuoteService (imports, archiving, a quote pointed at another business) reach the
+ * counts when they are re-read every app.typeahead.count-refresh-interval.
+ */
+@Component
+public class BusinessNameSuggester {
+
+    private static final Logger logger = LoggerFactory.getLogger(BusinessNameSuggester.class);
+
+    private static final Comparator<Named> BY_KEY = Comparator.comparing(Named::key).thenComparingLong(Named::id);
+
+    private final QuoteRepository quoteRepository;
+    private final ShardRouter shardRouter;
+    private final int maxResults;
+    private final Map<Long, Named> businesses = new ConcurrentHashMap<>();
+    private final NavigableSet<Named> sorted = new ConcurrentSkipListSet<>(BY_KEY);
+    private final Map<Long, Long> quoteCounts = new ConcurrentHashMap<>();
+    private final AtomicLong changes = new AtomicLong();
+    private final Timer rebuildTimer;
+    private final Timer lookupTimer;
+    private volatile long builtChanges = -1;
+    private volatile BusinessNameTrie trie = BusinessNameTrie.EMPTY;
+
+    public BusinessNameSuggester(TypeaheadProperties properties, QuoteRepository quoteRepository,
+                                 ShardRouter shardRouter, MeterRegistry meterRegistry) {
+        this.quoteRepository = quoteRepository;
+        this.shardRouter = shardRouter;
+        this.maxResults = properties.getMaxResults();
+        Gauge.builder("business.typeahead.size", this, suggester -> suggester.trie.size())
+                .description("Businesses in the current typeahead trie")
+                .register(meterRegistry);
+        this.rebuildTimer = Timer.builder("business.typeahead.rebuild")
+                .description("Time to build a new typeahead trie")
+                .register(meterRegistry);
+        this.lookupTimer = Timer.builder("business.typeahead.lookup")
+                .description("Time to find the suggestions for a prefix")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns up to limit businesses whose name starts with the prefix, most quoted first. Case and punctuation
+     * are ignored as in BusinessInformation.normalize, except that a trailing separator only matches names
+     * with another word after it.
+     */
+    public List<BusinessSuggestion> suggest(String prefix, int limit) {
+        long start = System.nanoTime();
+        String key = BusinessInformation.normalize(prefix);
+        if (key == null || key.isEmpty()) {
+            return List.of();
+        }
+        if (!Character.isLetterOrDigit(prefix.charAt(prefix.length() - 1))) {
+            key += ' ';
+        }
+        List<BusinessSuggestion> suggestions = trie.complete(key, Math.min(limit, maxResults));
+        lookupTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return suggestions;
+    }
+
+    /**
+     * Adds a business, or takes over its new spelling of the name
+     */
+    public void put(BusinessEntry business) {
+        Named named = new Named(BusinessInformation.normalize(business.name()), business.id(), business.name(),
+                business.state());
+        synchronized (sorted) {
+            Named previous = businesses.put(business.id(), named);
+            if (named.equals(previous)) {
+                return;
+            }
+            if (previous != null) {
+                sorted.remove(previous);
+            }
+            sorted.add(named);
+        }
+        changes.incrementAndGet();
+    }
+
+    public void remove(long id) {
+        synchronized (sorted) {
+            Named previous = businesses.remove(id);
+            if (previous == null) {
+                return;
+            }
+            sorted.remove(previous);
+        }
+        quoteCounts.remove(id);
+        changes.incrementAndGet();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLifecycleEvent(QuoteLifecycleEvent event) {
+        if (event.quote() == null || event.quote().getBusinessInformation() == null
+                || event.quote().getBusinessInformation().getId() == null) {
+            return;
+        }
+        long delta = switch (event.type()) {
+            case CREATED -> 1;
+            case DELETED -> -1;
+            case UPDATED -> 0;
+        };
+        if (delta != 0) {
+            quoteCounts.merge(event.quote().getBusinessInformation().getId(), delta, Long::sum);
+            changes.incrementAndGet();
+        }
+    }
+
+    /**
+     * Re-reads the quote count of every business to correct for changes made outside QuoteService
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${app.typeahead.count-refresh-interval:PT10M}")
+    public void refreshQuoteCounts() {
+        Map<Long, Long> counts = new HashMap<>();
+        shardRouter.forEachShard(() -> {
+            for (Object[] row : quoteRepository.countGroupedByBusiness()) {
+                counts.put((Long) row[0], (Long) row[1]);
+            }
+        });
+        // A change committed while the query ran is overwritten until the next refresh; counts only rank
+        boolean removed = quoteCounts.keySet().retainAll(counts.keySet());
+        if (removed || !quoteCounts.equals(counts)) {
+            quoteCounts.putAll(counts);
+            changes.incrementAndGet();
+        }
+        logger.debug("Refreshed typeahead quote counts of {} businesses", counts.size());
+    }
+
+    @Scheduled(initialDelayString = "${app.typeahead.rebuild-interval:PT1S}",
+            fixedDelayString = "${app.typeahead.rebuild-interval:PT1S}")
+    public void rebuildIfChanged() {
+        if (changes.get() != builtChanges) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Builds a trie of the current businesses and swaps it in
+     */
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        long version = changes.get();
+        // The set may change while it is copied; anything missed bumps the version and is picked up next time
+        Named[] names = sorted.toArray(new Named[0]);
+        String[] keys = new String[names.length];
+        BusinessSuggestion[] suggestions = new BusinessSuggestion[names.length];
+        for (int i = 0; i < names.length; i++) {
+            Named named = names[i];
+            keys[i] = named.key();
+            suggestions[i] = new BusinessSuggestion(named.id(), named.name(), named.state(),
+                    Math.max(quoteCounts.getOrDefault(named.id(), 0L), 0));
+        }
+        BusinessNameTrie built = BusinessNameTrie.build(keys, suggestions, maxResults);
+        trie = built;
+        builtChanges = version;
+        long elapsed = System.nanoTime() - start;
+        rebuildTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        logger.debug("Rebuilt the typeahead trie: {} businesses, {} nodes in {} ms", built.size(), built.nodeCount(),
+                elapsed / 1_000_000);
+    }
+
+    /**
+     * Number of businesses in the current trie
+     */
+    public int size() {
+        return trie.size();
+    }
+
+    private record Named(String key, long id, String name, String state) {
+    }
+}
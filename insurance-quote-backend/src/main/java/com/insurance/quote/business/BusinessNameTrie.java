@@ -0,0 +1,258 @@
+package com.insurance.quote.business;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable radix trie over normalized business names (see BusinessInformation.normalize) that returns the most
+ * quoted businesses whose name starts with a prefix, in time proportional to the prefix length.
+ *
+ * <p>The trie is stored in flat arrays. All edge labels share one char array. Chains of single children are
+ * collapsed into one edge. Each node stores its label range, its children as a contiguous block of node ids
+ * ordered by first label char, and its top suggestions, precomputed when the trie is built. A lookup walks
+ * the prefix, which may end inside an edge, and copies at most maxResults suggestions. Equal quote counts
+ * rank alphabetically. Memory is the suggestions plus about 24 bytes per node and 4 bytes per precomputed
+ * suggestion.
+ */
+public final class BusinessNameTrie {
+
+    public static final BusinessNameTrie EMPTY = build(new String[0], new BusinessSuggestion[0], 0);
+
+    private final BusinessSuggestion[] suggestions;
+    private final char[] labels;
+    private final int[] labelStart;
+    private final int[] labelEnd;
+    private final int[] childStart;
+    private final int[] childEnd;
+    private final int[] topStart;
+    private final int[] topEnd;
+    private final int[] top;
+
+    private BusinessNameTrie(Builder builder) {
+        this.suggestions = builder.suggestions;
+        this.labels = builder.labels.toString().toCharArray();
+        this.labelStart = Arrays.copyOf(builder.labelStart, builder.nodes);
+        this.labelEnd = Arrays.copyOf(builder.labelEnd, builder.nodes);
+        this.childStart = Arrays.copyOf(builder.childStart, builder.nodes);
+        this.childEnd = Arrays.copyOf(builder.childEnd, builder.nodes);
+        this.topStart = Arrays.copyOf(builder.topStart, builder.nodes);
+        this.topEnd = Arrays.copyOf(builder.topEnd, builder.nodes);
+        this.top = Arrays.copyOf(builder.top, builder.topSize);
+    }
+
+    /**
+     * Builds a trie in which each node keeps its maxResults best suggestions
+     *
+     * @param keys        normalized names in ascending order; empty names are skipped
+     * @param suggestions the suggestion for each key
+     */
+    public static BusinessNameTrie build(String[] keys, BusinessSuggestion[] suggestions, int maxResults) {
+        if (keys.length != suggestions.length) {
+            throw new IllegalArgumentException("Expected one suggestion per key");
+        }
+        int first = 0;
+        while (first < keys.length && keys[first].isEmpty()) {
+            first++;
+        }
+        Builder builder = new Builder(Arrays.copyOfRange(keys, first, keys.length),
+                Arrays.copyOfRange(suggestions, first, suggestions.length), maxResults);
+        if (builder.keys.length > 0) {
+            builder.reserve(1);
+            builder.build(0, 0, builder.keys.length, 0);
+        }
+        return new BusinessNameTrie(builder);
+    }
+
+    /**
+     * Returns the best suggestions for names starting with the normalized prefix
+     */
+    public List<BusinessSuggestion> complete(String prefix, int limit) {
+        if (labelStart.length == 0) {
+            return List.of();
+        }
+        int node = 0;
+        int matched = 0;
+        while (true) {
+            for (int i = labelStart[node]; i < labelEnd[node]; i++, matched++) {
+                if (matched == prefix.length()) {
+                    return top(node, limit);
+                }
+                if (labels[i] != prefix.charAt(matched)) {
+                    return List.of();
+                }
+            }
+            if (matched == prefix.length()) {
+                return top(node, limit);
+            }
+            node = child(node, prefix.charAt(matched));
+            if (node < 0) {
+                return List.of();
+            }
+        }
+    }
+
+    /**
+     * Number of businesses in the trie
+     */
+    public int size() {
+        return suggestions.length;
+    }
+
+    public int nodeCount() {
+        return labelStart.length;
+    }
+
+    private List<BusinessSuggestion> top(int node, int limit) {
+        int end = Math.min(topEnd[node], topStart[node] + limit);
+        List<BusinessSuggestion> result = new ArrayList<>(Math.max(end - topStart[node], 0));
+        for (int i = topStart[node]; i < end; i++) {
+            result.add(suggestions[top[i]]);
+        }
+        return result;
+    }
+
+    private int child(int node, char c) {
+        int low = childStart[node];
+        int high = childEnd[node] - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            char first = labels[labelStart[mid]];
+            if (first < c) {
+                low = mid + 1;
+            } else if (first > c) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private static final class Builder {
+
+        private final String[] keys;
+        private final BusinessSuggestion[] suggestions;
+        private final int maxResults;
+        private final StringBuilder labels = new StringBuilder();
+        private int[] labelStart = new int[16];
+        private int[] labelEnd = new int[16];
+        private int[] childStart = new int[16];
+        private int[] childEnd = new int[16];
+        private int[] topStart = new int[16];
+        private int[] topEnd = new int[16];
+        private int[] top = new int[16];
+        private long[] ranked = new long[16];
+        private int nodes;
+        private int topSize;
+
+        private Builder(String[] keys, BusinessSuggestion[] suggestions, int maxResults) {
+            this.keys = keys;
+            this.suggestions = suggestions;
+            this.maxResults = maxResults;
+        }
+
+        /**
+         * Fills in the node for the keys in [lo, hi), which share their first depth chars
+         */
+        private void build(int node, int lo, int hi, int depth) {
+            String first = keys[lo];
+            String last = keys[hi - 1];
+            // Sorted keys: the common prefix of the range is the common prefix of its first and last key
+            int end = depth;
+            int max = Math.min(first.length(), last.length());
+            while (end < max && first.charAt(end) == last.charAt(end)) {
+                end++;
+            }
+            labelStart[node] = labels.length();
+            labels.append(first, depth, end);
+            labelEnd[node] = labels.length();
+
+            // Keys ending at this node sort before the longer ones
+            int terminals = lo;
+            while (terminals < hi && keys[terminals].length() == end) {
+                terminals++;
+            }
+            int children = 0;
+            for (int i = terminals; i < hi; i = next(i, hi, end)) {
+                children++;
+            }
+            int firstChild = reserve(children);
+            childStart[node] = firstChild;
+            childEnd[node] = firstChild + children;
+            int child = firstChild;
+            for (int i = terminals; i < hi; ) {
+                int j = next(i, hi, end);
+                build(child++, i, j, end);
+                i = j;
+            }
+            rank(node, lo, terminals, firstChild, firstChild + children);
+        }
+
+        /**
+         * Returns the end of the run of keys starting at i that share the char at depth
+         */
+        private int next(int i, int hi, int depth) {
+            char c = keys[i].charAt(depth);
+            int j = i + 1;
+            while (j < hi && keys[j].charAt(depth) == c) {
+                j++;
+            }
+            return j;
+        }
+
+        /**
+         * Keeps the best of the node's own keys and its children's top suggestions
+         */
+        private void rank(int node, int terminalStart, int terminalEnd, int firstChild, int lastChild) {
+            int candidates = terminalEnd - terminalStart;
+            for (int child = firstChild; child < lastChild; child++) {
+                candidates += topEnd[child] - topStart[child];
+            }
+            // Ascending order of (quote count descending, key position ascending); children are done, so the
+            // scratch array is free
+            if (candidates > ranked.length) {
+                ranked = new long[Math.max(ranked.length * 2, candidates)];
+            }
+            int n = 0;
+            for (int i = terminalStart; i < terminalEnd; i++) {
+                ranked[n++] = rank(i);
+            }
+            for (int child = firstChild; child < lastChild; child++) {
+                for (int i = topStart[child]; i < topEnd[child]; i++) {
+                    ranked[n++] = rank(top[i]);
+                }
+            }
+            Arrays.sort(ranked, 0, candidates);
+            int kept = Math.min(maxResults, candidates);
+            if (topSize + kept > top.length) {
+                top = Arrays.copyOf(top, Math.max(top.length * 2, topSize + kept));
+            }
+            topStart[node] = topSize;
+            for (int i = 0; i < kept; i++) {
+                top[topSize++] = (int) ranked[i];
+            }
+            topEnd[node] = topSize;
+        }
+
+        private long rank(int position) {
+            long count = Math.min(Math.max(suggestions[position].quoteCount(), 0), Integer.MAX_VALUE);
+            return (Integer.MAX_VALUE - count) << 32 | position;
+        }
+
+        private int reserve(int count) {
+            int first = nodes;
+            nodes += count;
+            if (nodes > labelStart.length) {
+                int capacity = Math.max(labelStart.length * 2, nodes);
+                labelStart = Arrays.copyOf(labelStart, capacity);
+                labelEnd = Arrays.copyOf(labelEnd, capacity);
+                childStart = Arrays.copyOf(childStart, capacity);
+                childEnd = Arrays.copyOf(childEnd, capacity);
+                topStart = Arrays.copyOf(topStart, capacity);
+                topEnd = Arrays.copyOf(topEnd, capacity);
+            }
+            return first;
+        }
+    }
+}
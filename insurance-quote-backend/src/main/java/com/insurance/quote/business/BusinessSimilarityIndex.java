@@ -0,0 +1,155 @@
+package com.insurance.quote.business;
+
+import com.insurance.quote.config.DuplicateDetectionProperties;
+import com.insurance.quote.entity.BusinessInformation;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory MinHash/LSH index of the known businesses (see MinHash), answering "which businesses look like
+ * this one" without scanning business_information.
+ *
+ * <p>Each business is filed under one bucket per band. A lookup collects the businesses sharing a bucket with
+ * the query and keeps those whose exact shingle similarity reaches app.duplicates.threshold, so the cost
+ * depends on the number of similar businesses, not on the size of the table. BusinessDirectory keeps the
+ * index in step with the table. Memory is roughly bands * 100 bytes per business.
+ */
+@Component
+public class BusinessSimilarityIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(BusinessSimilarityIndex.class);
+
+    private static final long[] NO_IDS = new long[0];
+
+    private final MinHash minHash;
+    private final double threshold;
+    private final int maxCandidates;
+    private final Map<Long, Indexed> businesses = new ConcurrentHashMap<>();
+    private final Map<Long, long[]> buckets = new ConcurrentHashMap<>();
+    private final Timer lookupTimer;
+
+    public BusinessSimilarityIndex(DuplicateDetectionProperties properties, MeterRegistry meterRegistry) {
+        this.minHash = new MinHash(properties.getBands(), properties.getRows());
+        this.threshold = properties.getThreshold();
+        this.maxCandidates = properties.getMaxCandidates();
+        Gauge.builder("business.duplicates.indexed", businesses, Map::size)
+                .description("Businesses in the duplicate detection index")
+                .register(meterRegistry);
+        this.lookupTimer = Timer.builder("business.duplicates.lookup")
+                .description("Time to find the candidate duplicates of a business")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Adds a business, or re-files it if its name or industry changed
+     */
+    public void put(BusinessEntry business) {
+        long[] shingles = MinHash.shingles(business.name(), business.industry());
+        long[] bandKeys = minHash.bandKeys(shingles, business.state());
+        Indexed previous = businesses.put(business.id(), new Indexed(business, shingles, bandKeys));
+        if (previous != null) {
+            if (Arrays.equals(previous.bandKeys(), bandKeys)) {
+                return;
+            }
+            unfile(business.id(), previous.bandKeys());
+        }
+        for (long key : bandKeys) {
+            buckets.merge(key, new long[]{business.id()}, BusinessSimilarityIndex::append);
+        }
+    }
+
+    public void remove(long id) {
+        Indexed previous = businesses.remove(id);
+        if (previous != null) {
+            unfile(id, previous.bandKeys());
+        }
+    }
+
+    public int size() {
+        return businesses.size();
+    }
+
+    /**
+     * Returns the most similar known businesses in the same state, best first
+     */
+    public List<DuplicateCandidate> findCandidates(String name, String state, BusinessInformation.Industry industry) {
+        long start = System.nanoTime();
+        long[] shingles = MinHash.shingles(name, industry);
+        Set<Long> seen = new HashSet<>();
+        List<DuplicateCandidate> candidates = new ArrayList<>();
+        for (long key : minHash.bandKeys(shingles, state)) {
+            for (long id : buckets.getOrDefault(key, NO_IDS)) {
+                if (!seen.add(id)) {
+                    continue;
+                }
+                Indexed indexed = businesses.get(id);
+                if (indexed == null) {
+                    continue;
+                }
+                double similarity = MinHash.similarity(shingles, indexed.shingles());
+                if (similarity >= threshold) {
+                    BusinessEntry business = indexed.business();
+                    candidates.add(new DuplicateCandidate(business.id(), business.name(), business.state(),
+                            business.industry(), similarity));
+                }
+            }
+        }
+        candidates.sort(Comparator.comparingDouble(DuplicateCandidate::similarity).reversed()
+                .thenComparingLong(DuplicateCandidate::id));
+        List<DuplicateCandidate> best = candidates.size() > maxCandidates
+                ? List.copyOf(candidates.subList(0, maxCandidates)) : candidates;
+        lookupTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        logger.debug("{} candidate duplicates of '{}' ({}) among {} bucket neighbours", candidates.size(), name,
+                state, seen.size());
+        return best;
+    }
+
+    private void unfile(long id, long[] bandKeys) {
+        for (long key : bandKeys) {
+            buckets.computeIfPresent(key, (k, ids) -> without(ids, id));
+        }
+    }
+
+    private static long[] append(long[] ids, long[] added) {
+        long[] merged = Arrays.copyOf(ids, ids.length + 1);
+        merged[ids.length] = added[0];
+        return merged;
+    }
+
+    private static long[] without(long[] ids, long id) {
+        int index = -1;
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] == id) {
+                index = i;
+                break;
+            }
+        }
+        if (index < 0) {
+            return ids;
+        }
+        if (ids.length == 1) {
+            return null;
+        }
+        long[] remaining = new long[ids.length - 1];
+        System.arraycopy(ids, 0, remaining, 0, index);
+        System.arraycopy(ids, index + 1, remaining, index, ids.length - index - 1);
+        return remaining;
+    }
+
+    private record Indexed(BusinessEntry business, long[] shingles, long[] bandKeys) {
+    }
+}
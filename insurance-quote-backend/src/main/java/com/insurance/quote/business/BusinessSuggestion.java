@@ -0,0 +1,7 @@
+package com.insurance.quote.business;
+
+/**
+ * A known business whose name starts with the typed prefix, with the number of quotes written for it
+ */
+public record BusinessSuggestion(long id, String name, String state, long quoteCount) {
+}
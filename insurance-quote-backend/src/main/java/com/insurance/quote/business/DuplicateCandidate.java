@@ -0,0 +1,10 @@
+package com.insurance.quote.business;
+
+import com.insurance.quote.entity.BusinessInformation;
+
+/**
+ * A known business that may be the same as the one looked up, with the Jaccard similarity of their shingles
+ */
+public record DuplicateCandidate(long id, String name, String state, BusinessInformation.Industry industry,
+                                 double similarity) {
+}
@@ -0,0 +1,19 @@
+package com.insurance.quote.business;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Result of one clustering run over all businesses: the groups of businesses that are probably the same
+ * business, largest first, of which at most app.duplicates.reported-clusters are listed
+ *
+ * @param candidatePairs pairs that shared an LSH bucket and were compared
+ * @param similarPairs compared pairs whose similarity reached the threshold
+ */
+public record DuplicateClusterReport(LocalDateTime generatedAt, int businesses, long candidatePairs,
+                                     long similarPairs, int clusterCount, long durationMillis,
+                                     List<Cluster> clusters) {
+
+    public record Cluster(List<BusinessEntry> businesses) {
+    }
+}
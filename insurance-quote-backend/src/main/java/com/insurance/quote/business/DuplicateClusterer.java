@@ -0,0 +1,220 @@
+package com.insurance.quote.business;
+
+import com.insurance.quote.config.DuplicateDetectionProperties;
+import com.insurance.quote.entity.BusinessInformation;
+import com.insurance.quote.sharding.ShardRouter;
+import com.insurance.quote.workload.Workload;
+import com.insurance.quote.workload.WorkloadContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+/**
+ * Offline all-pairs duplicate clustering of business_information, every app.duplicates.cluster-interval or
+ * on request.
+ *
+ * <p>Instead of comparing every pair of businesses, each band of the MinHash signatures is processed in turn:
+ * the band keys of all businesses are sorted, and only businesses with equal keys are compared. Similar
+ * pairs are joined with union-find, and pairs already in one cluster are not compared again. Memory is a
+ * shingle set per business plus one long per business for the band being sorted, so the job scales to
+ * millions of businesses; a band key shared by more than app.duplicates.max-bucket-size businesses only
+ * compares each with its nearest neighbours in the sort order. Clusters are transitive: A and C end up
+ * together if both resemble B.
+ */
+@Component
+public class DuplicateClusterer {
+
+    private static final Logger logger = LoggerFactory.getLogger(DuplicateClusterer.class);
+
+    private static final String LOAD_SQL = "SELECT id, name, state, industry FROM business_information";
+    private static final int LOAD_FETCH_SIZE = 1000;
+
+    private final DuplicateDetectionProperties properties;
+    private final DataSource dataSource;
+    private final ShardRouter shardRouter;
+    private final MinHash minHash;
+    private final Timer clusteringTimer;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "business-clustering");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile DuplicateClusterReport lastReport;
+
+    public DuplicateClusterer(DuplicateDetectionProperties properties, DataSource dataSource,
+                              ShardRouter shardRouter, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.dataSource = dataSource;
+        this.shardRouter = shardRouter;
+        this.minHash = new MinHash(properties.getBands(), properties.getRows());
+        this.clusteringTimer = Timer.builder("business.duplicates.clustering")
+                .description("Time to cluster all businesses into probable duplicates")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${app.duplicates.cluster-interval:PT24H}",
+            fixedDelayString = "${app.duplicates.cluster-interval:PT24H}")
+    public void scheduledRun() {
+        if (properties.isClusteringEnabled()) {
+            run();
+        }
+    }
+
+    /**
+     * Starts a clustering run in the background
+     *
+     * @return false if a run is already in progress
+     */
+    public boolean submit() {
+        if (running.get()) {
+            return false;
+        }
+        executor.execute(WorkloadContext.wrap(Workload.BACKGROUND, this::run));
+        return true;
+    }
+
+    /**
+     * Clusters all businesses on the calling thread, unless a run is already in progress
+     */
+    public Optional<DuplicateClusterReport> run() {
+        if (!running.compareAndSet(false, true)) {
+            logger.info("Duplicate clustering is already running");
+            return Optional.empty();
+        }
+        try {
+            List<BusinessEntry> businesses = new ArrayList<>();
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            jdbcTemplate.setFetchSize(LOAD_FETCH_SIZE);
+            shardRouter.forEachShard(() -> jdbcTemplate.query(LOAD_SQL, rs -> {
+                businesses.add(new BusinessEntry(rs.getLong(1), rs.getString(2), rs.getString(3),
+                        BusinessInformation.Industry.valueOf(rs.getString(4))));
+            }));
+            DuplicateClusterReport report = cluster(businesses);
+            lastReport = report;
+            logger.info("Clustered {} businesses into {} probable duplicate groups in {} ms ({} pairs compared)",
+                    report.businesses(), report.clusterCount(), report.durationMillis(), report.candidatePairs());
+            return Optional.of(report);
+        } catch (RuntimeException e) {
+            logger.error("Duplicate clustering failed", e);
+            throw e;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    public Optional<DuplicateClusterReport> getLastReport() {
+        return Optional.ofNullable(lastReport);
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Clusters the given businesses
+     */
+    public DuplicateClusterReport cluster(List<BusinessEntry> businesses) {
+        long start = System.nanoTime();
+        int count = businesses.size();
+        long[][] shingles = new long[count][];
+        long[] stateHashes = new long[count];
+        IntStream.range(0, count).parallel().forEach(i -> {
+            BusinessEntry business = businesses.get(i);
+            shingles[i] = MinHash.shingles(business.name(), business.industry());
+            stateHashes[i] = MinHash.stateHash(business.state());
+        });
+
+        // The low bits of each sorted key carry the business's position, the high bits its band key
+        int positionBits = Math.max(1, 64 - Long.numberOfLeadingZeros(Math.max(1, count - 1)));
+        long positionMask = (1L << positionBits) - 1;
+        int maxBucketSize = Math.max(1, properties.getMaxBucketSize());
+        double threshold = properties.getThreshold();
+        int[] parent = IntStream.range(0, count).toArray();
+        long[] keys = new long[count];
+        long candidatePairs = 0;
+        long similarPairs = 0;
+        for (int band = 0; band < minHash.getBands(); band++) {
+            int currentBand = band;
+            Arrays.parallelSetAll(keys, i ->
+                    minHash.bandKey(shingles[i], stateHashes[i], currentBand) & ~positionMask | i);
+            Arrays.parallelSort(keys);
+            int bucketStart = 0;
+            for (int i = 1; i <= count; i++) {
+                if (i < count && (keys[i] & ~positionMask) == (keys[bucketStart] & ~positionMask)) {
+                    continue;
+                }
+                for (int j = bucketStart + 1; j < i; j++) {
+                    int a = (int) (keys[j] & positionMask);
+                    for (int k = Math.max(bucketStart, j - maxBucketSize); k < j; k++) {
+                        int b = (int) (keys[k] & positionMask);
+                        int rootA = find(parent, a);
+                        int rootB = find(parent, b);
+                        if (rootA == rootB) {
+                            continue;
+                        }
+                        candidatePairs++;
+                        if (MinHash.similarity(shingles[a], shingles[b]) >= threshold) {
+                            parent[Math.max(rootA, rootB)] = Math.min(rootA, rootB);
+                            similarPairs++;
+                        }
+                    }
+                }
+                bucketStart = i;
+            }
+        }
+
+        // A root is the first business of its cluster, so it is met before the other members
+        Map<Integer, List<BusinessEntry>> groups = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            int root = find(parent, i);
+            if (root != i) {
+                groups.computeIfAbsent(root, r -> new ArrayList<>(List.of(businesses.get(r)))).add(businesses.get(i));
+            }
+        }
+        List<DuplicateClusterReport.Cluster> clusters = groups.values().stream()
+                .sorted(Comparator.<List<BusinessEntry>>comparingInt(List::size).reversed()
+                        .thenComparingLong(group -> group.get(0).id()))
+                .limit(Math.max(0, properties.getReportedClusters()))
+                .map(group -> new DuplicateClusterReport.Cluster(List.copyOf(group)))
+                .toList();
+        long elapsed = System.nanoTime() - start;
+        clusteringTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        return new DuplicateClusterReport(LocalDateTime.now(), count, candidatePairs, similarPairs, groups.size(),
+                elapsed / 1_000_000, clusters);
+    }
+
+    private static int find(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+}
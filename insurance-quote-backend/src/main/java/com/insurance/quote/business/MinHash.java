@@ -0,0 +1,157 @@
+package com.insurance.quote.business;
+
+import com.insurance.quote.entity.BusinessInformation;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * MinHash signatures of businesses for locality-sensitive hashing.
+ *
+ * <p>A business is compared as a set of shingles: the character trigrams of its name, run together without
+ * spaces, punctuation, legal suffixes and filler words, plus one token for its industry. "Joe's Pizza LLC" and
+ * "Joes Pizza" have the same set. The signature takes bands * rows minimum hashes of the set; two businesses
+ * share a band with probability 1 - (1 - s^rows)^bands for a Jaccard similarity s, so similar businesses
+ * almost always meet in some band and dissimilar ones rarely do. Band keys include the state: businesses in
+ * different states never meet.
+ */
+public final class MinHash {
+
+    private static final Set<String> IGNORED_WORDS = Set.of("the", "and", "llc", "pllc", "inc", "incorporated",
+            "corp", "corporation", "co", "company", "ltd", "limited", "lp", "llp");
+    private static final int SHINGLE_LENGTH = 3;
+    private static final long INDUSTRY_TOKEN = 1L << 62;
+    private static final long SEED = 0x5DEECE66DL;
+
+    private final int bands;
+    private final int rows;
+    private final long[] multipliers;
+    private final long[] increments;
+
+    public MinHash(int bands, int rows) {
+        if (bands < 1 || rows < 1) {
+            throw new IllegalArgumentException("MinHash needs at least one band of one row");
+        }
+        this.bands = bands;
+        this.rows = rows;
+        // h(x) = a * x + b with an odd a is a permutation of the 64-bit values
+        SplittableRandom random = new SplittableRandom(SEED);
+        this.multipliers = new long[bands * rows];
+        this.increments = new long[bands * rows];
+        for (int i = 0; i < multipliers.length; i++) {
+            multipliers[i] = random.nextLong() | 1;
+            increments[i] = random.nextLong();
+        }
+    }
+
+    public int getBands() {
+        return bands;
+    }
+
+    /**
+     * Returns the name as compared: the normalized words without legal suffixes and filler words, run together
+     */
+    public static String compactName(String name) {
+        String normalized = BusinessInformation.normalize(name);
+        StringBuilder compact = new StringBuilder(normalized.length());
+        for (String word : normalized.split(" ")) {
+            if (!IGNORED_WORDS.contains(word)) {
+                compact.append(word);
+            }
+        }
+        return compact.isEmpty() ? normalized.replace(" ", "") : compact.toString();
+    }
+
+    /**
+     * Returns the sorted, distinct shingle hashes of a business
+     */
+    public static long[] shingles(String name, BusinessInformation.Industry industry) {
+        String compact = compactName(name);
+        int count = Math.max(1, compact.length() - SHINGLE_LENGTH + 1);
+        long[] shingles = new long[industry == null ? count : count + 1];
+        for (int i = 0; i < count; i++) {
+            long packed = 0;
+            for (int j = i; j < Math.min(i + SHINGLE_LENGTH, compact.length()); j++) {
+                packed = packed << 16 | compact.charAt(j);
+            }
+            shingles[i] = mix(packed);
+        }
+        if (industry != null) {
+            shingles[count] = mix(INDUSTRY_TOKEN | industry.ordinal());
+        }
+        Arrays.sort(shingles);
+        int distinct = 0;
+        for (int i = 0; i < shingles.length; i++) {
+            if (i == 0 || shingles[i] != shingles[i - 1]) {
+                shingles[distinct++] = shingles[i];
+            }
+        }
+        return distinct == shingles.length ? shingles : Arrays.copyOf(shingles, distinct);
+    }
+
+    /**
+     * Returns the key of each band of the business's signature
+     */
+    public long[] bandKeys(long[] shingles, String state) {
+        long stateHash = stateHash(state);
+        long[] keys = new long[bands];
+        for (int band = 0; band < bands; band++) {
+            keys[band] = bandKey(shingles, stateHash, band);
+        }
+        return keys;
+    }
+
+    long bandKey(long[] shingles, long stateHash, int band) {
+        long key = mix(stateHash + band);
+        for (int row = band * rows; row < (band + 1) * rows; row++) {
+            long min = Long.MAX_VALUE;
+            for (long shingle : shingles) {
+                long hash = (multipliers[row] * shingle + increments[row]) >>> 1;
+                if (hash < min) {
+                    min = hash;
+                }
+            }
+            key = mix(key ^ min);
+        }
+        return key;
+    }
+
+    static long stateHash(String state) {
+        return mix(state == null ? 0 : state.hashCode());
+    }
+
+    /**
+     * Returns the Jaccard similarity of two sorted, distinct shingle sets
+     */
+    public static double similarity(long[] a, long[] b) {
+        int shared = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] == b[j]) {
+                shared++;
+                i++;
+                j++;
+            } else if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        int union = a.length + b.length - shared;
+        return union == 0 ? 1.0 : (double) shared / union;
+    }
+
+    /**
+     * Finalizer of MurmurHash3: spreads every input bit over the whole result
+     */
+    static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xFF51AFD7ED558CCDL;
+        value ^= value >>> 33;
+        value *= 0xC4CEB9FE1A85EC53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
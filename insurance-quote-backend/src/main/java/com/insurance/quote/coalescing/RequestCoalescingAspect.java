@@ -0,0 +1,127 @@
+package com.insurance.quote.coalescing;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.insurance.quote.replica.ReplicaRouter;
+import com.insurance.quote.sharding.ShardContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single-flight layer for {@link Coalesced} service methods.
+ * Ordered ahead of the transaction interceptor so that callers waiting on an in-flight call
+ * do not open a transaction or hold a pooled connection while they wait.
+ * <p>
+ * Every committed read-write transaction starts a new write generation, and callers only join calls
+ * started in the current one: a caller that has just saved a quote never shares a read that began
+ * before its commit. Callers that join receive their own copy of the result, since DTOs are mutable.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 100)
+@ConditionalOnProperty(prefix = "app.coalescing", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class RequestCoalescingAspect implements TransactionExecutionListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(RequestCoalescingAspect.class);
+
+    private final SingleFlight<CallKey, Object> singleFlight = new SingleFlight<>();
+    private final Map<String, MethodCounters> counters = new ConcurrentHashMap<>();
+    private final AtomicLong writeGeneration = new AtomicLong();
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper;
+    private final ReplicaRouter replicaRouter;
+
+    public RequestCoalescingAspect(MeterRegistry meterRegistry, ObjectMapper objectMapper,
+                                   ObjectProvider<ReplicaRouter> replicaRouter) {
+        this.meterRegistry = meterRegistry;
+        this.objectMapper = objectMapper;
+        this.replicaRouter = replicaRouter.getIfAvailable();
+        meterRegistry.gauge("quote.coalescing.inflight", singleFlight, SingleFlight::inFlightCount);
+    }
+
+    @Around("@annotation(com.insurance.quote.coalescing.Coalesced)")
+    public Object coalesce(ProceedingJoinPoint joinPoint) throws Throwable {
+        // Inside an existing transaction the caller may depend on its own uncommitted writes
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+
+        String method = joinPoint.getSignature().getName();
+        MethodCounters methodCounters = counters.computeIfAbsent(method, this::registerCounters);
+        // The same call on another shard reads another database, and a client reading its own writes reads the
+        // primary where others may read a replica
+        String stickyClient = replicaRouter != null ? replicaRouter.stickyClient() : null;
+        CallKey key = new CallKey(method, ShardContext.current(), stickyClient, Arrays.asList(joinPoint.getArgs()));
+
+        AtomicBoolean joined = new AtomicBoolean();
+        Object result = singleFlight.execute(key, writeGeneration.get(), joinPoint::proceed, coalesced -> {
+            if (coalesced) {
+                methodCounters.coalesced.increment();
+                logger.debug("Coalesced call to {} with args {}", method, key.args());
+            } else {
+                methodCounters.executed.increment();
+            }
+            joined.set(coalesced);
+        });
+        return joined.get() ? copy(result, (MethodSignature) joinPoint.getSignature()) : result;
+    }
+
+    @Override
+    public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+        if (commitFailure == null && !transaction.isReadOnly()) {
+            writeGeneration.incrementAndGet();
+        }
+    }
+
+    private Object copy(Object result, MethodSignature signature) {
+        if (result == null) {
+            return null;
+        }
+        JavaType type = objectMapper.getTypeFactory().constructType(signature.getMethod().getGenericReturnType());
+        try {
+            return objectMapper.readValue(objectMapper.writeValueAsBytes(result), type);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not copy coalesced result of " + signature.getName(), e);
+        }
+    }
+
+    private MethodCounters registerCounters(String method) {
+        return new MethodCounters(
+                Counter.builder("quote.coalescing.calls")
+                        .description("Coalesced service calls by method and outcome")
+                        .tags("method", method, "outcome", "executed")
+                        .register(meterRegistry),
+                Counter.builder("quote.coalescing.calls")
+                        .description("Coalesced service calls by method and outcome")
+                        .tags("method", method, "outcome", "coalesced")
+                        .register(meterRegistry));
+    }
+
+    private record CallKey(String method, Integer shard, String stickyClient, List<Object> args) {
+    }
+
+    private record MethodCounters(Counter executed, Counter coalesced) {
+    }
+}
@@ -0,0 +1,76 @@
+package com.insurance.quote.coalescing;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collapses concurrent calls with the same key into a single execution.
+ * The first caller for a key runs the call; callers arriving while it is in flight wait for
+ * and share its result (or its exception). Nothing is cached once the call completes.
+ * A call may carry a generation: a caller only joins a flight started in its own generation or a
+ * later one, and otherwise starts a new flight that later callers join instead.
+ */
+public class SingleFlight<K, V> {
+
+    private final Map<K, Flight<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * A call to execute once per key
+     */
+    @FunctionalInterface
+    public interface Call<V> {
+        V execute() throws Throwable;
+    }
+
+    /**
+     * Outcome listener, told whether the caller executed the call or joined one already in flight
+     */
+    @FunctionalInterface
+    public interface Listener {
+        void onCall(boolean coalesced);
+    }
+
+    public V execute(K key, Call<V> call, Listener listener) throws Throwable {
+        return execute(key, 0, call, listener);
+    }
+
+    public V execute(K key, long generation, Call<V> call, Listener listener) throws Throwable {
+        Flight<V> flight = new Flight<>(new CompletableFuture<>(), generation);
+        Flight<V> joined = inFlight.compute(key,
+                (k, existing) -> existing != null && existing.generation() >= generation ? existing : flight);
+
+        if (joined != flight) {
+            listener.onCall(true);
+            return await(joined.future());
+        }
+
+        listener.onCall(false);
+        try {
+            V result = call.execute();
+            flight.future().complete(result);
+            return result;
+        } catch (Throwable t) {
+            flight.future().completeExceptionally(t);
+            throw t;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private V await(CompletableFuture<V> future) throws Throwable {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw e.getCause() != null ? e.getCause() : e;
+        }
+    }
+
+    private record Flight<V>(CompletableFuture<V> future, long generation) {
+    }
+}
@@ -0,0 +1,141 @@
+package com.insurance.quote.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Configuration for per-client rate limiting and adaptive load shedding in front of the quote API
+ */
+@Component
+@ConfigurationProperties(prefix = "app.admission")
+public class AdmissionControlProperties {
+
+    private boolean enabled = true;
+    private String clientHeader = "X-Client-Id";
+    private double requestsPerSecond = 20.0;
+    private int burst = 40;
+    private double minRateFactor = 0.2;
+    private int maxTrackedClients = 10000;
+    private Duration idleClientTtl = Duration.ofMinutes(10);
+    private int initialConcurrencyLimit = 20;
+    private int minConcurrencyLimit = 4;
+    private int maxConcurrencyLimit = 200;
+    private Duration latencyTarget = Duration.ofMillis(250);
+    private double backoffRatio = 0.9;
+    private double poolSaturationThreshold = 0.9;
+    private Duration shedRetryAfter = Duration.ofSeconds(1);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getClientHeader() {
+        return clientHeader;
+    }
+
+    public void setClientHeader(String clientHeader) {
+        this.clientHeader = clientHeader;
+    }
+
+    public double getRequestsPerSecond() {
+        return requestsPerSecond;
+    }
+
+    public void setRequestsPerSecond(double requestsPerSecond) {
+        this.requestsPerSecond = requestsPerSecond;
+    }
+
+    public int getBurst() {
+        return burst;
+    }
+
+    public void setBurst(int burst) {
+        this.burst = burst;
+    }
+
+    public double getMinRateFactor() {
+        return minRateFactor;
+    }
+
+    public void setMinRateFactor(double minRateFactor) {
+        this.minRateFactor = minRateFactor;
+    }
+
+    public int getMaxTrackedClients() {
+        return maxTrackedClients;
+    }
+
+    public void setMaxTrackedClients(int maxTrackedClients) {
+        this.maxTrackedClients = maxTrackedClients;
+    }
+
+    public Duration getIdleClientTtl() {
+        return idleClientTtl;
+    }
+
+    public void setIdleClientTtl(Duration idleClientTtl) {
+        this.idleClientTtl = idleClientTtl;
+    }
+
+    public int getInitialConcurrencyLimit() {
+        return initialConcurrencyLimit;
+    }
+
+    public void setInitialConcurrencyLimit(int initialConcurrencyLimit) {
+        this.initialConcurrencyLimit = initialConcurrencyLimit;
+    }
+
+    public int getMinConcurrencyLimit() {
+        return minConcurrencyLimit;
+    }
+
+    public void setMinConcurrencyLimit(int minConcurrencyLimit) {
+        this.minConcurrencyLimit = minConcurrencyLimit;
+    }
+
+    public int getMaxConcurrencyLimit() {
+        return maxConcurrencyLimit;
+    }
+
+    public void setMaxConcurrencyLimit(int maxConcurrencyLimit) {
+        this.maxConcurrencyLimit = maxConcurrencyLimit;
+    }
+
+    public Duration getLatencyTarget() {
+        return latencyTarget;
+    }
+
+    public void setLatencyTarget(Duration latencyTarget) {
+        this.latencyTarget = latencyTarget;
+    }
+
+    public double getBackoffRatio() {
+        return backoffRatio;
+    }
+
+    public void setBackoffRatio(double backoffRatio) {
+        this.backoffRatio = backoffRatio;
+    }
+
+    public double getPoolSaturationThreshold() {
+        return poolSaturationThreshold;
+    }
+
+    public void setPoolSaturationThreshold(double poolSaturationThreshold) {
+        this.poolSaturationThreshold = poolSaturationThreshold;
+    }
+
+    public Duration getShedRetryAfter() {
+        return shedRetryAfter;
+    }
+
+    public void setShedRetryAfter(Duration shedRetryAfter) {
+        this.shedRetryAfter = shedRetryAfter;
+    }
+}
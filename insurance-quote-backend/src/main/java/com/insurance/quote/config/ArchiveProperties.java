@@ -0,0 +1,60 @@
+package com.insurance.quote.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Configuration for moving closed quotes from the quotes tables to the quote_archive table
+ */
+@Component
+@ConfigurationProperties(prefix = "app.archive")
+public class ArchiveProperties {
+
+    private boolean enabled = true;
+    private Duration minAge = Duration.ofDays(90);
+    private int chunkSize = 200;
+    private int maxChunksPerRun = 50;
+    private Duration interval = Duration.ofHours(1);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getMinAge() {
+        return minAge;
+    }
+
+    public void setMinAge(Duration minAge) {
+        this.minAge = minAge;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public int getMaxChunksPerRun() {
+        return maxChunksPerRun;
+    }
+
+    public void setMaxChunksPerRun(int maxChunksPerRun) {
+        this.maxChunksPerRun = maxChunksPerRun;
+    }
+
+    public Duration getInterval() {
+        return interval;
+    }
+
+    public void setInterval(Duration interval) {
+        this.interval = interval;
+    }
+}
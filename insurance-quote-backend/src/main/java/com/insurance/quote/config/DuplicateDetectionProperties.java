@@ -0,0 +1,87 @@
+package com.insurance.quote.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Configuration for finding near-duplicate businesses with MinHash locality-sensitive hashing
+ */
+@Component
+@ConfigurationProperties(prefix = "app.duplicates")
+public class DuplicateDetectionProperties {
+
+    private int bands = 24;
+    private int rows = 4;
+    private double threshold = 0.6;
+    private int maxCandidates = 5;
+    private int maxBucketSize = 500;
+    private boolean clusteringEnabled = true;
+    private Duration clusterInterval = Duration.ofHours(24);
+    private int reportedClusters = 1000;
+
+    public int getBands() {
+        return bands;
+    }
+
+    public void setBands(int bands) {
+        this.bands = bands;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public void setRows(int rows) {
+        this.rows = rows;
+    }
+
+    public double getThreshold() {
+        return threshold;
+    }
+
+    public void setThreshold(double threshold) {
+        this.threshold = threshold;
+    }
+
+    public int getMaxCandidates() {
+        return maxCandidates;
+    }
+
+    public void setMaxCandidates(int maxCandidates) {
+        this.maxCandidates = maxCandidates;
+    }
+
+    public int getMaxBucketSize() {
+        return maxBucketSize;
+    }
+
+    public void setMaxBucketSize(int maxBucketSize) {
+        this.maxBucketSize = maxBucketSize;
+    }
+
+    public boolean isClusteringEnabled() {
+        return clusteringEnabled;
+    }
+
+    public void setClusteringEnabled(boolean clusteringEnabled) {
+        this.clusteringEnabled = clusteringEnabled;
+    }
+
+    public Duration getClusterInterval() {
+        return clusterInterval;
+    }
+
+    public void setClusterInterval(Duration clusterInterval) {
+        this.clusterInterval = clusterInterval;
+    }
+
+    public int getReportedClusters() {
+        return reportedClusters;
+    }
+
+    public void setReportedClusters(int reportedClusters) {
+        this.reportedClusters = reportedClusters;
+    }
+}
@@ -0,0 +1,80 @@
+package com.insurance.quote.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Configuration for bulk exports of quotes to local files
+ */
+@Component
+@ConfigurationProperties(prefix = "app.export")
+public class ExportProperties {
+
+    private Path directory = Path.of("exports");
+    private int fetchSize = 1000;
+    private DataSize bufferSize = DataSize.ofMegabytes(1);
+    private int arrowBatchRows = 8192;
+    private int maxRowsPerSecond = 0;
+    private Duration progressInterval = Duration.ofSeconds(10);
+    private int retainedJobs = 20;
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(Path directory) {
+        this.directory = directory;
+    }
+
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    public void setFetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+    }
+
+    public DataSize getBufferSize() {
+        return bufferSize;
+    }
+
+    public void setBufferSize(DataSize bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    public int getArrowBatchRows() {
+        return arrowBatchRows;
+    }
+
+    public void setArrowBatchRows(int arrowBatchRows) {
+        this.arrowBatchRows = arrowBatchRows;
+    }
+
+    public int getMaxRowsPerSecond() {
+        return maxRowsPerSecond;
+    }
+
+    public void setMaxRowsPerSecond(int maxRowsPerSecond) {
+        this.maxRowsPerSecond = maxRowsPerSecond;
+    }
+
+    public Duration getProgressInterval() {
+        return progressInterval;
+    }
+
+    public void setProgressInterval(Duration progressInterval) {
+        this.progressInterval = progressInterval;
+    }
+
+    public int getRetainedJobs() {
+        return retainedJobs;
+    }
+
+    public void setRetainedJobs(int retainedJobs) {
+        this.retainedJobs = retainedJobs;
+    }
+}
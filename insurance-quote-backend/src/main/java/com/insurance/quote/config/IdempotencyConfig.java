@@ -0,0 +1,43 @@
+package com.insurance.quote.config;
+
+import com.insurance.quote.idempotency.DatabaseIdempotencyStore;
+import com.insurance.quote.idempotency.IdempotencyStore;
+import com.insurance.quote.idempotency.InMemoryIdempotencyStore;
+import com.insurance.quote.repository.IdempotencyRecordRepository;
+import com.insurance.quote.sharding.ShardRouter;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Selects the idempotency store: in memory for a single node, or the idempotency_keys table for several
+ */
+@Configuration
+public class IdempotencyConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyConfig.class);
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.idempotency", name = "store", havingValue = "memory", matchIfMissing = true)
+    public IdempotencyStore inMemoryIdempotencyStore(IdempotencyProperties properties) {
+        logger.info("Using in-memory idempotency store with up to {} keys", properties.getMaxEntries());
+        return new InMemoryIdempotencyStore(properties);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.idempotency", name = "store", havingValue = "database")
+    public IdempotencyStore databaseIdempotencyStore(IdempotencyProperties properties,
+                                                     IdempotencyRecordRepository repository,
+                                                     EntityManager entityManager,
+                                                     PlatformTransactionManager transactionManager,
+                                                     ShardRouter shardRouter) {
+        logger.info("Using database idempotency store");
+        // The table is on shard 0, so only without sharding is it in every request's database
+        return new DatabaseIdempotencyStore(properties, repository, entityManager, transactionManager,
+                !shardRouter.isEnabled());
+    }
+}
@@ -0,0 +1,69 @@
+package com.insurance.quote.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Configuration for Idempotency-Key handling on quote creation and state transitions
+ */
+@Component
+@ConfigurationProperties(prefix = "app.idempotency")
+public class IdempotencyProperties {
+
+    private boolean enabled = true;
+    private String store = "memory";
+    private Duration ttl = Duration.ofHours(24);
+    private Duration inProgressTimeout = Duration.ofSeconds(30);
+    private int maxEntries = 10000;
+    private Duration cleanupInterval = Duration.ofMinutes(5);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getStore() {
+        return store;
+    }
+
+    public void setStore(String store) {
+        this.store = store;
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public void setTtl(Duration ttl) {
+        this.ttl = ttl;
+    }
+
+    public Duration getInProgressTimeout() {
+        return inProgressTimeout;
+    }
+
+    public void setInProgressTimeout(Duration inProgressTimeout) {
+        this.inProgressTimeout = inProgressTimeout;
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public void setMaxEntries(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public Duration getCleanupInterval() {
+        return cleanupInterval;
+    }
+
+    public void setCleanupInterval(Duration cleanupInterval) {
+        this.cleanupInterval = cleanupInterval;
+    }
+}
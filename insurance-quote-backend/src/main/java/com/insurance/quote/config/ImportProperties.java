@@ -0,0 +1,71 @@
+package com.insurance.quote.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Configuration for bulk imports of quotes from local CSV and NDJSON files
+ */
+@Component
+@ConfigurationProperties(prefix = "app.import")
+public class ImportProperties {
+
+    private Path directory = Path.of("imports");
+    private int chunkSize = 500;
+    private int parserThreads = Runtime.getRuntime().availableProcessors();
+    private DataSize readBufferSize = DataSize.ofMegabytes(1);
+    private Duration progressInterval = Duration.ofSeconds(10);
+    private int retainedJobs = 20;
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(Path directory) {
+        this.directory = directory;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public int getParserThreads() {
+        return parserThreads;
+    }
+
+    public void setParserThreads(int parserThreads) {
+        this.parserThreads = parserThreads;
+    }
+
+    public DataSize getReadBufferSize() {
+        return readBufferSize;
+    }
+
+    public void setReadBufferSize(DataSize readBufferSize) {
+        this.readBufferSize = readBufferSize;
+    }
+
+    public Duration getProgressInterval() {
+        return progressInterval;
+    }
+
+    public void setProgressInterval(Duration progressInterval) {
+        this.progressInterval = progressInterval;
+    }
+
+    public int getRetainedJobs() {
+        return retainedJobs;
+    }
+
+    public void setRetainedJobs(int retainedJobs) {
+        this.retainedJobs = retainedJobs;
+    }
+}
@@ -0,0 +1,40 @@
+package com.insurance.quote.config;
+
+import com.insurance.quote.metrics.TimedJacksonHttpMessageConverter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Swaps the Jackson message converter for one that times JSON serialization
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.metrics", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class MetricsConfig implements WebMvcConfigurer {
+
+    private static final Logger logger = LoggerFactory.getLogger(MetricsConfig.class);
+
+    private final MeterRegistry meterRegistry;
+
+    public MetricsConfig(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        for (int i = 0; i < converters.size(); i++) {
+            if (converters.get(i) instanceof MappingJackson2HttpMessageConverter jackson
+                    && !(jackson instanceof TimedJacksonHttpMessageConverter)) {
+                converters.set(i, new TimedJacksonHttpMessageConverter(jackson.getObjectMapper(), meterRegistry));
+                logger.info("Timing JSON serialization as {}", TimedJacksonHttpMessageConverter.WRITE_TIMER);
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.insurance.quote.config;
+
+import com.insurance.quote.bulkimport.ImportJob;
+import com.insurance.quote.business.BusinessSuggestion;
+import com.insurance.quote.business.DuplicateCandidate;
+import com.insurance.quote.business.DuplicateClusterReport;
+import com.insurance.quote.dto.BusinessInformationDto;
+import com.insurance.quote.dto.CoverageOptionDto;
+import com.insurance.quote.dto.QuoteDto;
+import com.insurance.quote.entity.ArchivedQuote;
+import com.insurance.quote.entity.BusinessInformation;
+import com.insurance.quote.entity.CoverageOption;
+import com.insurance.quote.entity.IdempotencyRecord;
+import com.insurance.quote.entity.OutboxEvent;
+import com.insurance.quote.entity.QuoteTombstone;
+import com.insurance.quote.entity.Quote;
+import com.insurance.quote.exception.GlobalExceptionHandler;
+import com.insurance.quote.export.ExportJob;
+import com.insurance.quote.logging.LogSamplingTurboFilter;
+import com.insurance.quote.outbox.OutboxMessage;
+import com.insurance.quote.stream.QuoteChange;
+import com.insurance.quote.sync.QuoteChangeSet;
+import com.insurance.quote.service.QuoteService;
+import net.ttddyy.dsproxy.proxy.ProxyJdbcObject;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import javax.sql.DataSource;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Reachability metadata for the GraalVM native image (mvn -Pnative native:compile).
+ * Spring AOT covers the bean graph; these hints cover what is reached by reflection or proxies at runtime.
+ */
+@Configuration
+@ImportRuntimeHints(NativeImageConfig.QuoteRuntimeHints.class)
+public class NativeImageConfig {
+
+    static final String QUOTE_MAPPER_IMPL = "com.insurance.quote.mapper.QuoteMapperImpl";
+    static final String H2_DRIVER = "org.h2.Driver";
+
+    public static class QuoteRuntimeHints implements RuntimeHintsRegistrar {
+
+        private final BindingReflectionHintsRegistrar bindingHints = new BindingReflectionHintsRegistrar();
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            // Hibernate entities: field access, no-arg constructors, enum columns
+            for (Class<?> entity : List.of(Quote.class, BusinessInformation.class, CoverageOption.class,
+                    IdempotencyRecord.class, ArchivedQuote.class, OutboxEvent.class, QuoteTombstone.class)) {
+                hints.reflection().registerType(entity, MemberCategory.DECLARED_FIELDS,
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_DECLARED_METHODS);
+            }
+            for (Class<?> enumType : List.of(Quote.QuoteStatus.class, BusinessInformation.BusinessType.class,
+                    BusinessInformation.Industry.class, CoverageOption.CoverageType.class)) {
+                hints.reflection().registerType(enumType, MemberCategory.PUBLIC_FIELDS, MemberCategory.INVOKE_PUBLIC_METHODS);
+            }
+
+            // Jackson bodies, including idempotent responses read back from the store
+            bindingHints.registerReflectionHints(hints.reflection(), QuoteDto.class, BusinessInformationDto.class,
+                    CoverageOptionDto.class, QuoteService.QuoteStatistics.class, GlobalExceptionHandler.ErrorResponse.class,
+                    OutboxMessage.class, QuoteChange.class, QuoteChangeSet.class, ExportJob.class, ImportJob.class,
+                    DuplicateCandidate.class, DuplicateClusterReport.class, BusinessSuggestion.class);
+
+            // MapStruct generates the mapper at compile time; it is only referenced through QuoteMapper
+            hints.reflection().registerType(TypeReference.of(QUOTE_MAPPER_IMPL),
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+
+            // Loaded by name from spring.datasource.driver-class-name; the H2 jar ships metadata for its engine
+            hints.reflection().registerType(TypeReference.of(H2_DRIVER), MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+
+            // datasource-proxy wraps the pool and every JDBC object in JDK proxies (SqlMonitoringConfig)
+            for (Class<?> jdbcType : List.of(DataSource.class, Connection.class, Statement.class,
+                    PreparedStatement.class, CallableStatement.class, ResultSet.class)) {
+                hints.proxies().registerJdkProxy(ProxyJdbcObject.class, jdbcType);
+            }
+
+            // Instantiated and configured by logback from logback-spring.xml
+            hints.reflection().registerType(LogSamplingTurboFilter.class,
+                    MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.insurance.quote.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.insurance.quote.outbox.FileOutboxSink;
+import com.insurance.quote.outbox.InMemoryOutboxSink;
+import com.insurance.quote.outbox.OutboxDispatcher;
+import com.insurance.quote.outbox.OutboxSink;
+import com.insurance.quote.repository.OutboxEventRepository;
+import com.insurance.quote.sharding.ShardRouter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Selects the outbox sink (a local JSON-lines file, or in memory for tests) and starts the dispatcher
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.outbox", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxConfig.class);
+
+    private static final int IN_MEMORY_CAPACITY = 10000;
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.outbox", name = "sink", havingValue = "file", matchIfMissing = true)
+    public OutboxSink fileOutboxSink(OutboxProperties properties, ObjectMapper objectMapper) {
+        logger.info("Delivering quote events to {}", properties.getFile().toAbsolutePath());
+        return new FileOutboxSink(properties.getFile(), objectMapper);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.outbox", name = "sink", havingValue = "memory")
+    public InMemoryOutboxSink inMemoryOutboxSink() {
+        logger.info("Delivering quote events in memory");
+        return new InMemoryOutboxSink(IN_MEMORY_CAPACITY);
+    }
+
+    @Bean
+    public OutboxDispatcher outboxDispatcher(OutboxProperties properties,
+                                             OutboxEventRepository outboxEventRepository,
+                                             OutboxSink outboxSink,
+                                             ShardRouter shardRouter,
+                                             PlatformTransactionManager transactionManager,
+                                             MeterRegistry meterRegistry) {
+        logger.info("Dispatching the quote outbox every {} in batches of {}",
+                properties.getPollInterval(), properties.getBatchSize());
+        return new OutboxDispatcher(properties, outboxEventRepository, outboxSink, shardRouter, transactionManager,
+                meterRegistry);
+    }
+}
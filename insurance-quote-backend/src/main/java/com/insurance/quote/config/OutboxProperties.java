@@ -0,0 +1,79 @@
+package com.insurance.quote.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Configuration for the quote event outbox and its dispatcher
+ */
+@Component
+@ConfigurationProperties(prefix = "app.outbox")
+public class OutboxProperties {
+
+    private boolean enabled = true;
+    private String sink = "file";
+    private Path file = Path.of("outbox", "quote-events.jsonl");
+    private int batchSize = 100;
+    private int maxBatchesPerPoll = 10;
+    private Duration pollInterval = Duration.ofMillis(500);
+    private Duration maxLag = Duration.ofSeconds(30);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getSink() {
+        return sink;
+    }
+
+    public void setSink(String sink) {
+        this.sink = sink;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public void setFile(Path file) {
+        this.file = file;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public int getMaxBatchesPerPoll() {
+        return maxBatchesPerPoll;
+    }
+
+    public void setMaxBatchesPerPoll(int maxBatchesPerPoll) {
+        this.maxBatchesPerPoll = maxBatchesPerPoll;
+    }
+
+    public Duration getPollInterval() {
+        return pollInterval;
+    }
+
+    public void setPollInterval(Duration pollInterval) {
+        this.pollInterval = pollInterval;
+    }
+
+    public Duration getMaxLag() {
+        return maxLag;
+    }
+
+    public void setMaxLag(Duration maxLag) {
+        this.maxLag = maxLag;
+    }
+}
@@ -0,0 +1,61 @@
+package com.insurance.quote.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Configuration for the Bloom filter of issued quote numbers
+ */
+@Component
+@ConfigurationProperties(prefix = "app.quote-number-filter")
+public class QuoteNumberFilterProperties {
+
+    private boolean enabled = true;
+    private long expectedNumbers = 1_000_000;
+    private double falsePositiveRate = 0.01;
+    private DataSize maxMemory = DataSize.ofMegabytes(16);
+    private Duration checkInterval = Duration.ofMinutes(10);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getExpectedNumbers() {
+        return expectedNumbers;
+    }
+
+    public void setExpectedNumbers(long expectedNumbers) {
+        this.expectedNumbers = expectedNumbers;
+    }
+
+    public double getFalsePositiveRate() {
+        return falsePositiveRate;
+    }
+
+    public void setFalsePositiveRate(double falsePositiveRate) {
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    public DataSize getMaxMemory() {
+        return maxMemory;
+    }
+
+    public void setMaxMemory(DataSize maxMemory) {
+        this.maxMemory = maxMemory;
+    }
+
+    public Duration getCheckInterval() {
+        return checkInterval;
+    }
+
+    public void setCheckInterval(Duration checkInterval) {
+        this.checkInterval = checkInterval;
+    }
+}
@@ -0,0 +1,108 @@
+package com.insurance.quote.config;
+
+import com.insurance.quote.ratelimit.ClientKeyResolver;
+import com.insurance.quote.replica.ClientContextFilter;
+import com.insurance.quote.replica.ReplicaLagMonitor;
+import com.insurance.quote.replica.ReplicaRouter;
+import com.insurance.quote.replica.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Replaces the single DataSource with the primary (spring.datasource) and the read replicas of app.replicas
+ * behind a ReplicaRoutingDataSource, checks the replicas' lag on a schedule and tags each request with its client
+ * so that the client reads its own writes.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.replicas", name = "enabled", havingValue = "true")
+public class ReplicaConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaConfig.class);
+
+    @Bean
+    public ReplicaRouter replicaRouter(ReplicaProperties properties, MeterRegistry meterRegistry) {
+        return new ReplicaRouter(properties, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceProperties dataSourceProperties,
+                                 ReplicaProperties properties,
+                                 ReplicaRouter replicaRouter,
+                                 Environment environment,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${spring.jpa.open-in-view:true}") boolean openInView,
+                                 @Value("${app.sharding.enabled:false}") boolean sharding) {
+        if (sharding) {
+            throw new IllegalStateException("Read replicas are not supported together with app.sharding");
+        }
+        // An entity manager held open for a whole request keeps the connection, and so the database, of its
+        // first transaction: a write after a read would go to the replica
+        if (openInView) {
+            throw new IllegalStateException("Read replicas need spring.jpa.open-in-view: false");
+        }
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        if (primary.getPoolName() == null) {
+            primary.setPoolName(ReplicaRouter.PRIMARY);
+        }
+        primary.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (ReplicaProperties.Replica config : properties.getReplicas()) {
+            HikariConfig hikari = new HikariConfig();
+            hikari.setPoolName("replica-" + config.getName());
+            hikari.setJdbcUrl(config.getUrl());
+            hikari.setUsername(config.getUsername());
+            hikari.setPassword(config.getPassword());
+            hikari.setMaximumPoolSize(config.getMaximumPoolSize());
+            hikari.setReadOnly(true);
+            // A replica that is down at startup is left out by the lag checks until it answers
+            hikari.setInitializationFailTimeout(-1);
+            hikari.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            replicas.put(config.getName(), new HikariDataSource(hikari));
+            logger.info("Read replica {} at {}", config.getName(), config.getUrl());
+        }
+        logger.info("Routing read-only transactions to {} replica(s) lagging at most {}{}", replicas.size(),
+                properties.getMaxLag(), properties.isReadYourWrites() ? ", reading each client's own writes" : "");
+        return new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(primary, replicas, replicaRouter));
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(DataSource dataSource, ReplicaRouter replicaRouter)
+            throws SQLException {
+        return new ReplicaLagMonitor(dataSource.unwrap(ReplicaRoutingDataSource.class), replicaRouter);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ClientContextFilter> clientContextFilter(ClientKeyResolver clientKeyResolver) {
+        FilterRegistrationBean<ClientContextFilter> registration = new FilterRegistrationBean<>(
+                new ClientContextFilter(clientKeyResolver));
+        registration.addUrlPatterns("/quotes", "/quotes/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 20);
+        return registration;
+    }
+}
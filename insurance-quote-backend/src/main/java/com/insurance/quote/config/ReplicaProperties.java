@@ -0,0 +1,114 @@
+package com.insurance.quote.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuration for sending read-only transactions to read replicas of the primary database
+ */
+@Component
+@ConfigurationProperties(prefix = "app.replicas")
+public class ReplicaProperties {
+
+    private boolean enabled = false;
+    private List<Replica> replicas = new ArrayList<>();
+    private Duration maxLag = Duration.ofSeconds(5);
+    private Duration lagCheckInterval = Duration.ofSeconds(1);
+    private boolean readYourWrites = true;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    public void setReplicas(List<Replica> replicas) {
+        this.replicas = replicas;
+    }
+
+    public Duration getMaxLag() {
+        return maxLag;
+    }
+
+    public void setMaxLag(Duration maxLag) {
+        this.maxLag = maxLag;
+    }
+
+    public Duration getLagCheckInterval() {
+        return lagCheckInterval;
+    }
+
+    public void setLagCheckInterval(Duration lagCheckInterval) {
+        this.lagCheckInterval = lagCheckInterval;
+    }
+
+    public boolean isReadYourWrites() {
+        return readYourWrites;
+    }
+
+    public void setReadYourWrites(boolean readYourWrites) {
+        this.readYourWrites = readYourWrites;
+    }
+
+    /**
+     * One read replica database
+     */
+    public static class Replica {
+
+        private String name;
+        private String url;
+        private String username = "sa";
+        private String password = "";
+        private int maximumPoolSize = 10;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public void setUsername(String username) {
+            this.username = username;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public void setPassword(String password) {
+            this.password = password;
+        }
+
+        public int getMaximumPoolSize() {
+            return maximumPoolSize;
+        }
+
+        public void setMaximumPoolSize(int maximumPoolSize) {
+            this.maximumPoolSize = maximumPoolSize;
+        }
+    }
+}
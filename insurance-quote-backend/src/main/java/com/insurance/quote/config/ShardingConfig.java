@@ -0,0 +1,96 @@
+package com.insurance.quote.config;
+
+import com.insurance.quote.service.QuoteService;
+import com.insurance.quote.service.impl.QuoteServiceImpl;
+import com.insurance.quote.sharding.ShardRouter;
+import com.insurance.quote.sharding.ShardRoutingDataSource;
+import com.insurance.quote.sharding.ShardedQuoteService;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.output.MigrateResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the single DataSource with one database per shard (app.sharding.shards) behind a
+ * ShardRoutingDataSource, and QuoteService with the ShardedQuoteService that picks the shard of each call.
+ * Every shard is migrated with Flyway, and its sharded tables start their ids at the shard's id range.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.sharding", name = "enabled", havingValue = "true")
+public class ShardingConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardingConfig.class);
+
+    // Tables whose ids identify a row across shards; outbox event ids are the consumers' de-duplication key
+    private static final String[] SHARDED_ID_TABLES = {"business_information", "quotes", "coverage_options", "quote_outbox"};
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardingProperties properties,
+                                 @Value("${spring.flyway.locations:classpath:db/migration}") String[] migrations,
+                                 @Value("${spring.jpa.open-in-view:true}") boolean openInView) {
+        // An entity manager held open for a whole request keeps the connection, and so the shard, of its first
+        // transaction
+        if (openInView) {
+            throw new IllegalStateException("Sharding needs spring.jpa.open-in-view: false");
+        }
+        List<DataSource> shards = new ArrayList<>();
+        for (int shard = 0; shard < properties.getShards().size(); shard++) {
+            ShardingProperties.Shard config = properties.getShards().get(shard);
+            HikariConfig hikari = new HikariConfig();
+            hikari.setPoolName("shard-" + shard);
+            hikari.setJdbcUrl(config.getUrl());
+            hikari.setUsername(config.getUsername());
+            hikari.setPassword(config.getPassword());
+            hikari.setMaximumPoolSize(config.getMaximumPoolSize());
+            HikariDataSource dataSource = new HikariDataSource(hikari);
+            MigrateResult migration = Flyway.configure().dataSource(dataSource).locations(migrations).load().migrate();
+            startIds(dataSource, shard, migration.initialSchemaVersion == null);
+            shards.add(dataSource);
+            logger.info("Shard {} at {} holds states {}", shard, config.getUrl(),
+                    config.getStates().isEmpty() ? "by hash only" : config.getStates());
+        }
+        return new ShardRoutingDataSource(shards);
+    }
+
+    @Bean
+    @Primary
+    public QuoteService shardedQuoteService(QuoteServiceImpl quoteServiceImpl, ShardRouter shardRouter,
+                                            ShardingProperties properties) {
+        return new ShardedQuoteService(quoteServiceImpl, shardRouter, properties.getScatterThreads(),
+                properties.getScatterTimeout());
+    }
+
+    /**
+     * Starts the ids of a new shard's tables at its range and checks that an existing shard's ids are in it
+     */
+    private static void startIds(DataSource dataSource, int shard, boolean created) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        long first = ShardRouter.firstId(shard);
+        long next = ShardRouter.firstId(shard + 1);
+        for (String table : SHARDED_ID_TABLES) {
+            Long min = jdbcTemplate.queryForObject("SELECT MIN(id) FROM " + table, Long.class);
+            Long max = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+            if (min != null && (min < first || max >= next)) {
+                throw new IllegalStateException("Table " + table + " of shard " + shard + " holds ids " + min + " to "
+                        + max + " outside the shard's range; was the shard list reordered?");
+            }
+            // Only on a new database: once rows were deleted, an empty table may still have used ids
+            if (created && shard > 0) {
+                jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + first);
+            }
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.insurance.quote.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuration for sharding quotes across several databases by business state
+ */
+@Component
+@ConfigurationProperties(prefix = "app.sharding")
+public class ShardingProperties {
+
+    private boolean enabled = false;
+    private List<Shard> shards = new ArrayList<>();
+    private int scatterThreads = 8;
+    private Duration scatterTimeout = Duration.ofSeconds(30);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public List<Shard> getShards() {
+        return shards;
+    }
+
+    public void setShards(List<Shard> shards) {
+        this.shards = shards;
+    }
+
+    public int getScatterThreads() {
+        return scatterThreads;
+    }
+
+    public void setScatterThreads(int scatterThreads) {
+        this.scatterThreads = scatterThreads;
+    }
+
+    public Duration getScatterTimeout() {
+        return scatterTimeout;
+    }
+
+    public void setScatterTimeout(Duration scatterTimeout) {
+        this.scatterTimeout = scatterTimeout;
+    }
+
+    /**
+     * One shard database and the states whose quotes it holds
+     */
+    public static class Shard {
+
+        private String url;
+        private String username = "sa";
+        private String password = "";
+        private int maximumPoolSize = 10;
+        private List<String> states = new ArrayList<>();
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public void setUsername(String username) {
+            this.username = username;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public void setPassword(String password) {
+            this.password = password;
+        }
+
+        public int getMaximumPoolSize() {
+            return maximumPoolSize;
+        }
+
+        public void setMaximumPoolSize(int maximumPoolSize) {
+            this.maximumPoolSize = maximumPoolSize;
+        }
+
+        public List<String> getStates() {
+            return states;
+        }
+
+        public void setStates(List<String> states) {
+            this.states = states;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.insurance.quote.config;
+
+import com.insurance.quote.sqlmonitor.SqlBudgetFilter;
+import com.insurance.quote.sqlmonitor.SqlMonitorEndpoint;
+import com.insurance.quote.sqlmonitor.SqlMonitoringListener;
+import com.insurance.quote.sqlmonitor.SqlOffenderLog;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the DataSource in a statement-counting proxy and registers the per-request SQL budget filter
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.sql-monitoring", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SqlMonitoringConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlMonitoringConfig.class);
+
+    @Bean
+    public SqlOffenderLog sqlOffenderLog(SqlMonitoringProperties properties) {
+        return new SqlOffenderLog(properties.getCapturedOffenders());
+    }
+
+    @Bean
+    public SqlMonitoringListener sqlMonitoringListener(SqlMonitoringProperties properties,
+                                                       SqlOffenderLog sqlOffenderLog,
+                                                       MeterRegistry meterRegistry) {
+        return new SqlMonitoringListener(properties, sqlOffenderLog, meterRegistry);
+    }
+
+    @Bean
+    public static BeanPostProcessor sqlMonitoringDataSourceProxy(ObjectProvider<SqlMonitoringListener> listener) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource) {
+                    logger.info("Monitoring SQL statements on DataSource '{}'", beanName);
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .listener(listener.getObject())
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<SqlBudgetFilter> sqlBudgetFilter(SqlMonitoringProperties properties,
+                                                                   SqlOffenderLog sqlOffenderLog,
+                                                                   MeterRegistry meterRegistry) {
+        logger.info("Configuring SQL statement budget {} per request, slow query threshold {}",
+                properties.getStatementBudget(), properties.getSlowQueryThreshold());
+
+        FilterRegistrationBean<SqlBudgetFilter> registration = new FilterRegistrationBean<>(
+                new SqlBudgetFilter(properties, sqlOffenderLog, meterRegistry));
+        registration.addUrlPatterns("/quotes", "/quotes/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 20);
+        return registration;
+    }
+
+    @Bean
+    public SqlMonitorEndpoint sqlMonitorEndpoint(SqlMonitoringProperties properties, SqlOffenderLog sqlOffenderLog) {
+        return new SqlMonitorEndpoint(properties, sqlOffenderLog);
+    }
+}
@@ -0,0 +1,78 @@
+package com.insurance.quote.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Configuration for per-request SQL statement budgets and slow-query capture
+ */
+@Component
+@ConfigurationProperties(prefix = "app.sql-monitoring")
+public class SqlMonitoringProperties {
+
+    private boolean enabled = true;
+    private int statementBudget = 25;
+    private Map<String, Integer> endpointBudgets = new LinkedHashMap<>();
+    private Duration slowQueryThreshold = Duration.ofMillis(200);
+    private int capturedOffenders = 50;
+    private int maxSqlLength = 1000;
+
+    /**
+     * Statement budget for an endpoint such as "GET /quotes/{id}", falling back to the global budget
+     */
+    public int budgetFor(String endpoint) {
+        return endpointBudgets.getOrDefault(endpoint, statementBudget);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getStatementBudget() {
+        return statementBudget;
+    }
+
+    public void setStatementBudget(int statementBudget) {
+        this.statementBudget = statementBudget;
+    }
+
+    public Map<String, Integer> getEndpointBudgets() {
+        return endpointBudgets;
+    }
+
+    public void setEndpointBudgets(Map<String, Integer> endpointBudgets) {
+        this.endpointBudgets = endpointBudgets;
+    }
+
+    public Duration getSlowQueryThreshold() {
+        return slowQueryThreshold;
+    }
+
+    public void setSlowQueryThreshold(Duration slowQueryThreshold) {
+        this.slowQueryThreshold = slowQueryThreshold;
+    }
+
+    public int getCapturedOffenders() {
+        return capturedOffenders;
+    }
+
+    public void setCapturedOffenders(int capturedOffenders) {
+        this.capturedOffenders = capturedOffenders;
+    }
+
+    public int getMaxSqlLength() {
+        return maxSqlLength;
+    }
+
+    public void setMaxSqlLength(int maxSqlLength) {
+        this.maxSqlLength = maxSqlLength;
+    }
+}
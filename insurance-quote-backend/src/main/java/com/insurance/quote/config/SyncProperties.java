@@ -0,0 +1,32 @@
+package com.insurance.quote.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration for the delta sync feed of quote changes
+ */
+@Component
+@ConfigurationProperties(prefix = "app.sync")
+public class SyncProperties {
+
+    private int defaultBatchSize = 200;
+    private int maxBatchSize = 1000;
+
+    public int getDefaultBatchSize() {
+        return defaultBatchSize;
+    }
+
+    public void setDefaultBatchSize(int defaultBatchSize) {
+        this.defaultBatchSize = defaultBatchSize;
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public void setMaxBatchSize(int maxBatchSize) {
+        this.maxBatchSize = maxBatchSize;
+    }
+
+}
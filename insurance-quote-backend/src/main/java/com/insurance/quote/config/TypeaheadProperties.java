@@ -0,0 +1,42 @@
+package com.insurance.quote.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Configuration for the business name typeahead
+ */
+@Component
+@ConfigurationProperties(prefix = "app.typeahead")
+public class TypeaheadProperties {
+
+    private int maxResults = 10;
+    private Duration rebuildInterval = Duration.ofSeconds(1);
+    private Duration countRefreshInterval = Duration.ofMinutes(10);
+
+    public int getMaxResults() {
+        return maxResults;
+    }
+
+    public void setMaxResults(int maxResults) {
+        this.maxResults = maxResults;
+    }
+
+    public Duration getRebuildInterval() {
+        return rebuildInterval;
+    }
+
+    public void setRebuildInterval(Duration rebuildInterval) {
+        this.rebuildInterval = rebuildInterval;
+    }
+
+    public Duration getCountRefreshInterval() {
+        return countRefreshInterval;
+    }
+
+    public void setCountRefreshInterval(Duration countRefreshInterval) {
+        this.countRefreshInterval = countRefreshInterval;
+    }
+}
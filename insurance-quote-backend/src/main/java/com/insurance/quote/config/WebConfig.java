@@ -1,9 +1,18 @@
 package com.insurance.quote.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.insurance.quote.logging.RequestIdFilter;
+import com.insurance.quote.ratelimit.AdmissionControlFilter;
+import com.insurance.quote.ratelimit.ClientKeyResolver;
+import com.insurance.quote.ratelimit.PoolSaturationProbe;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
@@ -18,6 +27,9 @@ public class WebConfig implements WebMvcConfigurer {
     @Autowired
     private CorsProperties corsProperties;
 
+    @Autowired
+    private AdmissionControlProperties admissionControlProperties;
+
     @Override
     public void addCorsMappings(CorsRegistry registry) {
         logger.info("Configuring CORS with allowed origins: {}", corsProperties.getAllowedOrigins());
@@ -29,4 +41,32 @@ public class WebConfig implements WebMvcConfigurer {
                 .allowCredentials(corsProperties.isAllowCredentials())
                 .maxAge(corsProperties.getMaxAge());
     }
-}
\ No newline at end of file
+
+    @Bean
+    public FilterRegistrationBean<RequestIdFilter> requestIdFilter() {
+        FilterRegistrationBean<RequestIdFilter> registration = new FilterRegistrationBean<>(new RequestIdFilter());
+        registration.addUrlPatterns("/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    @Bean
+    public FilterRegistrationBean<AdmissionControlFilter> admissionControlFilter(
+            ClientKeyResolver clientKeyResolver,
+            PoolSaturationProbe poolSaturationProbe,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
+        logger.info("Configuring admission control: {} req/s per client, burst {}, concurrency limit {}-{}",
+                admissionControlProperties.getRequestsPerSecond(),
+                admissionControlProperties.getBurst(),
+                admissionControlProperties.getMinConcurrencyLimit(),
+                admissionControlProperties.getMaxConcurrencyLimit());
+
+        FilterRegistrationBean<AdmissionControlFilter> registration = new FilterRegistrationBean<>(
+                new AdmissionControlFilter(admissionControlProperties, clientKeyResolver,
+                        poolSaturationProbe, objectMapper, meterRegistry));
+        registration.addUrlPatterns("/quotes", "/quotes/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
@@ -0,0 +1,104 @@
+package com.insurance.quote.config;
+
+import com.insurance.quote.ratelimit.ClientKeyResolver;
+import com.insurance.quote.ratelimit.PoolSaturationProbe;
+import com.insurance.quote.workload.Workload;
+import com.insurance.quote.workload.WorkloadContext;
+import com.insurance.quote.workload.WorkloadFilter;
+import com.insurance.quote.workload.WorkloadPoolEndpoint;
+import com.insurance.quote.workload.WorkloadRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.task.ThreadPoolTaskSchedulerCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Map;
+
+/**
+ * Replaces the single connection pool with one pool per workload class (app.workload-pools) behind a
+ * WorkloadRoutingDataSource, runs scheduled jobs as background work, classifies requests as interactive or bulk
+ * and publishes each pool's saturation as a metric and on /actuator/pools.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.workload-pools", name = "enabled", havingValue = "true")
+public class WorkloadPoolConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(WorkloadPoolConfig.class);
+
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceProperties dataSourceProperties,
+                                 WorkloadPoolProperties properties,
+                                 Environment environment,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${app.sharding.enabled:false}") boolean sharding,
+                                 @Value("${app.replicas.enabled:false}") boolean replicas) {
+        if (sharding || replicas) {
+            throw new IllegalStateException("Workload pools are not supported together with app.sharding or app.replicas");
+        }
+        Map<Workload, HikariDataSource> pools = new EnumMap<>(Workload.class);
+        for (Workload workload : Workload.values()) {
+            WorkloadPoolProperties.Pool config = properties.pool(workload);
+            HikariDataSource pool = dataSourceProperties.initializeDataSourceBuilder()
+                    .type(HikariDataSource.class)
+                    .build();
+            // spring.datasource.hikari applies to every pool; the workload's own settings win
+            Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+            pool.setPoolName(workload.poolName());
+            pool.setMaximumPoolSize(config.getMaximumPoolSize());
+            pool.setMinimumIdle(Math.min(config.getMinimumIdle(), config.getMaximumPoolSize()));
+            pool.setConnectionTimeout(config.getConnectionTimeout().toMillis());
+            pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            pools.put(workload, pool);
+            Gauge.builder("quote.pool.saturation", pool, PoolSaturationProbe::saturation)
+                    .description("Share of the workload class's connection pool in use, 1.0 when callers queue")
+                    .tag("workload", workload.poolName())
+                    .register(meterRegistry);
+            logger.info("Workload pool {}: {} connections, waiting at most {}", workload.poolName(),
+                    config.getMaximumPoolSize(), config.getConnectionTimeout());
+        }
+        return new WorkloadRoutingDataSource(pools);
+    }
+
+    @Bean
+    public ThreadPoolTaskSchedulerCustomizer backgroundWorkloadScheduler() {
+        // Scheduler threads run nothing but scheduled jobs, so each runs as background work for its whole life;
+        // the scheduler still names and configures them
+        return scheduler -> scheduler.setThreadFactory(
+                worker -> scheduler.newThread(WorkloadContext.wrap(Workload.BACKGROUND, worker)));
+    }
+
+    @Bean
+    public FilterRegistrationBean<WorkloadFilter> workloadFilter(ClientKeyResolver clientKeyResolver,
+                                                                 WorkloadPoolProperties properties) {
+        FilterRegistrationBean<WorkloadFilter> registration = new FilterRegistrationBean<>(
+                new WorkloadFilter(clientKeyResolver, new HashSet<>(properties.getBulkClients())));
+        registration.addUrlPatterns("/*");
+        // Ahead of admission control, which sheds load by the saturation of the request's own pool
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 5);
+        return registration;
+    }
+
+    @Bean
+    public WorkloadPoolEndpoint workloadPoolEndpoint(DataSource dataSource) throws SQLException {
+        return new WorkloadPoolEndpoint(dataSource.unwrap(WorkloadRoutingDataSource.class));
+    }
+}
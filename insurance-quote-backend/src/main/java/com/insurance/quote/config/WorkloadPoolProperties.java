@@ -0,0 +1,114 @@
+package com.insurance.quote.config;
+
+import com.insurance.quote.workload.Workload;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuration for separate connection pools per workload class
+ */
+@Component
+@ConfigurationProperties(prefix = "app.workload-pools")
+public class WorkloadPoolProperties {
+
+    private boolean enabled = false;
+    private List<String> bulkClients = new ArrayList<>();
+    private Pool interactive = new Pool(10, 5, Duration.ofSeconds(20));
+    private Pool bulk = new Pool(4, 1, Duration.ofSeconds(30));
+    private Pool background = new Pool(3, 1, Duration.ofSeconds(60));
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public List<String> getBulkClients() {
+        return bulkClients;
+    }
+
+    public void setBulkClients(List<String> bulkClients) {
+        this.bulkClients = bulkClients;
+    }
+
+    public Pool getInteractive() {
+        return interactive;
+    }
+
+    public void setInteractive(Pool interactive) {
+        this.interactive = interactive;
+    }
+
+    public Pool getBulk() {
+        return bulk;
+    }
+
+    public void setBulk(Pool bulk) {
+        this.bulk = bulk;
+    }
+
+    public Pool getBackground() {
+        return background;
+    }
+
+    public void setBackground(Pool background) {
+        this.background = background;
+    }
+
+    public Pool pool(Workload workload) {
+        return switch (workload) {
+            case INTERACTIVE -> interactive;
+            case BULK -> bulk;
+            case BACKGROUND -> background;
+        };
+    }
+
+    /**
+     * Size and wait limit of one workload class's pool
+     */
+    public static class Pool {
+
+        private int maximumPoolSize;
+        private int minimumIdle;
+        private Duration connectionTimeout;
+
+        public Pool() {
+        }
+
+        public Pool(int maximumPoolSize, int minimumIdle, Duration connectionTimeout) {
+            this.maximumPoolSize = maximumPoolSize;
+            this.minimumIdle = minimumIdle;
+            this.connectionTimeout = connectionTimeout;
+        }
+
+        public int getMaximumPoolSize() {
+            return maximumPoolSize;
+        }
+
+        public void setMaximumPoolSize(int maximumPoolSize) {
+            this.maximumPoolSize = maximumPoolSize;
+        }
+
+        public int getMinimumIdle() {
+            return minimumIdle;
+        }
+
+        public void setMinimumIdle(int minimumIdle) {
+            this.minimumIdle = minimumIdle;
+        }
+
+        public Duration getConnectionTimeout() {
+            return connectionTimeout;
+        }
+
+        public void setConnectionTimeout(Duration connectionTimeout) {
+            this.connectionTimeout = connectionTimeout;
+        }
+    }
+}
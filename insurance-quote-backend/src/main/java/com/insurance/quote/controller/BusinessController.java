@@ -0,0 +1,100 @@
+package com.insurance.quote.controller;
+
+import com.insurance.quote.business.BusinessNameSuggester;
+import com.insurance.quote.business.BusinessSimilarityIndex;
+import com.insurance.quote.business.BusinessSuggestion;
+import com.insurance.quote.business.DuplicateCandidate;
+import com.insurance.quote.business.DuplicateClusterReport;
+import com.insurance.quote.business.DuplicateClusterer;
+import com.insurance.quote.entity.BusinessInformation;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+import java.util.List;
+
+/**
+ * REST controller for the businesses that quotes are written for
+ */
+@RestController
+@RequestMapping("/businesses")
+@Tag(name = "Businesses", description = "APIs for suggesting business names and finding duplicate businesses")
+@CrossOrigin
+public class BusinessController {
+
+    private static final Logger logger = LoggerFactory.getLogger(BusinessController.class);
+    private final BusinessSimilarityIndex similarityIndex;
+    private final DuplicateClusterer duplicateClusterer;
+    private final BusinessNameSuggester nameSuggester;
+
+    public BusinessController(BusinessSimilarityIndex similarityIndex, DuplicateClusterer duplicateClusterer,
+                              BusinessNameSuggester nameSuggester) {
+        this.similarityIndex = similarityIndex;
+        this.duplicateClusterer = duplicateClusterer;
+        this.nameSuggester = nameSuggester;
+    }
+
+    @GetMapping("/suggestions")
+    @Operation(summary = "Suggest business names",
+            description = "Known businesses whose name, ignoring case and punctuation, starts with the prefix, "
+                    + "most quoted first. Served from memory; businesses and quote counts lag by up to "
+                    + "app.typeahead.rebuild-interval")
+    public ResponseEntity<List<BusinessSuggestion>> suggestNames(
+            @RequestParam String prefix,
+            @Parameter(description = "Maximum number of suggestions, at most app.typeahead.max-results")
+            @RequestParam(defaultValue = "10") int limit) {
+        logger.debug("REST request to suggest business names for prefix {}", prefix);
+        return ResponseEntity.ok(nameSuggester.suggest(prefix, limit));
+    }
+
+    @GetMapping("/duplicates")
+    @Operation(summary = "Find candidate duplicates of a business",
+            description = "Known businesses in the same state whose name, ignoring case, punctuation and legal "
+                    + "suffixes, and industry resemble the given ones, most similar first")
+    public ResponseEntity<List<DuplicateCandidate>> findDuplicates(
+            @RequestParam String name,
+            @RequestParam String state,
+            @Parameter(description = "Industry of the business; matching industries raise the similarity")
+            @RequestParam(required = false) BusinessInformation.Industry industry) {
+        logger.debug("REST request to find duplicates of business {} ({})", name, state);
+        return ResponseEntity.ok(similarityIndex.findCandidates(name, state, industry));
+    }
+
+    @PostMapping("/duplicates/clusters")
+    @Operation(summary = "Start duplicate clustering",
+            description = "Queues a low-priority run that groups all businesses into clusters of probable duplicates")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Clustering queued"),
+            @ApiResponse(responseCode = "409", description = "A clustering run is already in progress")
+    })
+    public ResponseEntity<Void> startClustering() {
+        logger.info("REST request to cluster duplicate businesses");
+        if (!duplicateClusterer.submit()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        return ResponseEntity.accepted()
+                .location(URI.create("/businesses/duplicates/clusters"))
+                .build();
+    }
+
+    @GetMapping("/duplicates/clusters")
+    @Operation(summary = "Get duplicate clusters", description = "Result of the latest completed clustering run")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Clusters found"),
+            @ApiResponse(responseCode = "404", description = "No clustering run has completed yet")
+    })
+    public ResponseEntity<DuplicateClusterReport> getClusters() {
+        logger.info("REST request to get duplicate business clusters");
+        return duplicateClusterer.getLastReport()
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
@@ -1,8 +1,21 @@
 package com.insurance.quote.controller;
 
+import com.insurance.quote.bulkimport.ImportFormat;
+import com.insurance.quote.bulkimport.ImportJob;
+import com.insurance.quote.bulkimport.QuoteImportService;
 import com.insurance.quote.dto.QuoteDto;
 import com.insurance.quote.entity.Quote;
+import com.insurance.quote.export.ExportFormat;
+import com.insurance.quote.export.ExportJob;
+import com.insurance.quote.export.QuoteExportService;
+import com.insurance.quote.idempotency.IdempotencyService;
 import com.insurance.quote.service.QuoteService;
+import com.insurance.quote.stream.QuoteChange;
+import com.insurance.quote.stream.QuoteChangeFilter;
+import com.insurance.quote.stream.QuoteEventHub;
+import com.insurance.quote.stream.QuoteSubscription;
+import com.insurance.quote.sync.QuoteChangeFeed;
+import com.insurance.quote.sync.QuoteChangeSet;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -18,14 +31,20 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.math.BigDecimal;
+import java.net.URI;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 /**
  * REST controller for managing insurance quotes
@@ -37,10 +56,23 @@ import java.util.Map;
 public class QuoteController {
 
     private static final Logger logger = LoggerFactory.getLogger(QuoteController.class);
+    private static final String STREAM_RETRY_AFTER_SECONDS = "5";
     private final QuoteService quoteService;
+    private final IdempotencyService idempotencyService;
+    private final QuoteEventHub quoteEventHub;
+    private final QuoteChangeFeed quoteChangeFeed;
+    private final QuoteExportService quoteExportService;
+    private final QuoteImportService quoteImportService;
 
-    public QuoteController(QuoteService quoteService) {
+    public QuoteController(QuoteService quoteService, IdempotencyService idempotencyService,
+                           QuoteEventHub quoteEventHub, QuoteChangeFeed quoteChangeFeed,
+                           QuoteExportService quoteExportService, QuoteImportService quoteImportService) {
         this.quoteService = quoteService;
+        this.idempotencyService = idempotencyService;
+        this.quoteEventHub = quoteEventHub;
+        this.quoteChangeFeed = quoteChangeFeed;
+        this.quoteExportService = quoteExportService;
+        this.quoteImportService = quoteImportService;
     }
 
     @PostMapping
@@ -49,12 +81,17 @@ public class QuoteController {
             @ApiResponse(responseCode = "201", description = "Quote created successfully",
                     content = @Content(schema = @Schema(implementation = QuoteDto.class))),
             @ApiResponse(responseCode = "400", description = "Invalid input data"),
+            @ApiResponse(responseCode = "409", description = "A request with the same idempotency key is in progress"),
+            @ApiResponse(responseCode = "422", description = "Idempotency key was used for a different request"),
             @ApiResponse(responseCode = "500", description = "Internal server error")
     })
-    public ResponseEntity<QuoteDto> createQuote(@Valid @RequestBody QuoteDto quoteDto) {
+    public ResponseEntity<QuoteDto> createQuote(
+            @Valid @RequestBody QuoteDto quoteDto,
+            @Parameter(description = "Client-generated key that makes retries of this request safe")
+            @RequestHeader(value = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
         logger.info("REST request to create quote for business: {}", quoteDto.getBusinessInformation().getName());
-        QuoteDto createdQuote = quoteService.createQuote(quoteDto);
-        return new ResponseEntity<>(createdQuote, HttpStatus.CREATED);
+        return idempotencyService.execute(idempotencyKey, "createQuote", quoteDto, QuoteDto.class,
+                () -> new ResponseEntity<>(quoteService.createQuote(quoteDto), HttpStatus.CREATED));
     }
 
     @PutMapping("/{id}")
@@ -86,6 +123,50 @@ public class QuoteController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream changes of a quote",
+            description = "Server-sent events: a SNAPSHOT of the quote, then a CREATED, UPDATED or DELETED event per committed change")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Event stream opened"),
+            @ApiResponse(responseCode = "404", description = "Quote not found"),
+            @ApiResponse(responseCode = "503", description = "Too many open event streams, retry later")
+    })
+    public ResponseEntity<SseEmitter> streamQuoteChanges(@PathVariable Long id) {
+        logger.info("REST request to stream changes of quote: {}", id);
+        Optional<QuoteSubscription> subscription = quoteEventHub.subscribeWithSnapshot(QuoteChangeFilter.forQuote(id));
+        if (subscription.isEmpty()) {
+            return streamUnavailable();
+        }
+        // Subscribe before reading, so a change committed in between is not lost: the subscription holds it
+        // until the snapshot is sent, then streams it only if the snapshot does not already include it
+        Optional<QuoteDto> quote = quoteService.getQuoteById(id);
+        if (quote.isEmpty()) {
+            subscription.get().close();
+            return ResponseEntity.notFound().build();
+        }
+        subscription.get().sendSnapshot(QuoteChange.snapshot(quote.get()));
+        return ResponseEntity.ok(subscription.get().getEmitter());
+    }
+
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream changes of a set of quotes",
+            description = "Server-sent events for committed changes of the quotes matching every given filter; "
+                    + "a status filter matches changes into or out of that status")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Event stream opened"),
+            @ApiResponse(responseCode = "503", description = "Too many open event streams, retry later")
+    })
+    public ResponseEntity<SseEmitter> streamChanges(
+            @RequestParam(value = "quoteId", required = false) Set<Long> quoteIds,
+            @RequestParam(value = "status", required = false) Set<Quote.QuoteStatus> statuses,
+            @RequestParam(value = "state", required = false) Set<String> states) {
+        QuoteChangeFilter filter = new QuoteChangeFilter(quoteIds, statuses, states);
+        logger.info("REST request to stream quote changes matching {}", filter);
+        return quoteEventHub.subscribe(filter)
+                .map(subscription -> ResponseEntity.ok(subscription.getEmitter()))
+                .orElseGet(this::streamUnavailable);
+    }
+
     @GetMapping("/number/{quoteNumber}")
     @Operation(summary = "Get quote by quote number", description = "Retrieves a quote by its unique quote number")
     public ResponseEntity<QuoteDto> getQuoteByNumber(@PathVariable String quoteNumber) {
@@ -140,6 +221,86 @@ public class QuoteController {
         return ResponseEntity.ok(quotes);
     }
 
+    @GetMapping("/changes")
+    @Operation(summary = "Get quote changes since a token",
+            description = "Delta sync: quotes created or modified and tombstones of quotes deleted after the change token, "
+                    + "oldest first. Start with since=0 and pass nextToken back until hasMore is false. A batch stops "
+                    + "before changes still being committed; they come with a later call.")
+    public ResponseEntity<QuoteChangeSet> getChangesSince(
+            @Parameter(description = "nextToken of the previous call, or 0 for a full sync")
+            @RequestParam(defaultValue = "0") long since,
+            @Parameter(description = "Maximum number of changes to return, capped by app.sync.max-batch-size")
+            @RequestParam(required = false) Integer limit) {
+        logger.info("REST request to get quote changes since token {}", since);
+        return ResponseEntity.ok(quoteChangeFeed.changesSince(since, limit));
+    }
+
+    @PostMapping("/exports")
+    @Operation(summary = "Start a quote export",
+            description = "Queues a low-priority export of every quote with its business and coverage rows to a file "
+                    + "in app.export.directory, as CSV or LZ4 compressed Arrow IPC. Poll the returned job for progress.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Export queued")
+    })
+    public ResponseEntity<ExportJob> startExport(@RequestParam(defaultValue = "CSV") ExportFormat format) {
+        logger.info("REST request to export quotes as {}", format);
+        ExportJob job = quoteExportService.submit(format);
+        return ResponseEntity.accepted()
+                .location(URI.create("/quotes/exports/" + job.getId()))
+                .body(job);
+    }
+
+    @GetMapping("/exports/{jobId}")
+    @Operation(summary = "Get a quote export", description = "Status, row count and rows per second of an export job")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Export job found"),
+            @ApiResponse(responseCode = "404", description = "Export job not found or no longer retained")
+    })
+    public ResponseEntity<ExportJob> getExport(@PathVariable String jobId) {
+        logger.info("REST request to get export job: {}", jobId);
+        return quoteExportService.getJob(jobId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/imports")
+    @Operation(summary = "Start a quote import",
+            description = "Queues a bulk import of quotes with their business information from a CSV or NDJSON file "
+                    + "in app.import.directory. Records failing validation go to a reject file next to it. The import "
+                    + "resumes after the last committed chunk of an earlier run unless restart is set.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Import queued"),
+            @ApiResponse(responseCode = "400", description = "File is neither .csv, .ndjson nor .jsonl"),
+            @ApiResponse(responseCode = "404", description = "File not found in the import directory")
+    })
+    public ResponseEntity<ImportJob> startImport(
+            @Parameter(description = "File name relative to app.import.directory")
+            @RequestParam String file,
+            @Parameter(description = "Discard the file's checkpoint and reject file and import it from the start")
+            @RequestParam(defaultValue = "false") boolean restart) {
+        logger.info("REST request to import quotes from {}", file);
+        if (ImportFormat.forFileName(file).isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        ImportJob job = quoteImportService.submit(file, restart);
+        return ResponseEntity.accepted()
+                .location(URI.create("/quotes/imports/" + job.getId()))
+                .body(job);
+    }
+
+    @GetMapping("/imports/{jobId}")
+    @Operation(summary = "Get a quote import", description = "Status, imported and rejected counts and records per second of an import job")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Import job found"),
+            @ApiResponse(responseCode = "404", description = "Import job not found or no longer retained")
+    })
+    public ResponseEntity<ImportJob> getImport(@PathVariable String jobId) {
+        logger.info("REST request to get import job: {}", jobId);
+        return quoteImportService.getJob(jobId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     @GetMapping("/expired")
     @Operation(summary = "Get expired quotes", description = "Retrieves all expired quotes")
     public ResponseEntity<List<QuoteDto>> getExpiredQuotes() {
@@ -174,12 +335,16 @@ public class QuoteController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Quote submitted successfully"),
             @ApiResponse(responseCode = "404", description = "Quote not found"),
+            @ApiResponse(responseCode = "409", description = "A request with the same idempotency key is in progress"),
             @ApiResponse(responseCode = "422", description = "Quote cannot be submitted in current state")
     })
-    public ResponseEntity<QuoteDto> submitQuote(@PathVariable Long id) {
+    public ResponseEntity<QuoteDto> submitQuote(
+            @PathVariable Long id,
+            @Parameter(description = "Client-generated key that makes retries of this request safe")
+            @RequestHeader(value = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
         logger.info("REST request to submit quote: {}", id);
-        QuoteDto submittedQuote = quoteService.submitQuote(id);
-        return ResponseEntity.ok(submittedQuote);
+        return idempotencyService.execute(idempotencyKey, "submitQuote", id, QuoteDto.class,
+                () -> ResponseEntity.ok(quoteService.submitQuote(id)));
     }
 
     @PostMapping("/{id}/approve")
@@ -187,12 +352,16 @@ public class QuoteController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Quote approved successfully"),
             @ApiResponse(responseCode = "404", description = "Quote not found"),
+            @ApiResponse(responseCode = "409", description = "A request with the same idempotency key is in progress"),
             @ApiResponse(responseCode = "422", description = "Quote cannot be approved in current state")
     })
-    public ResponseEntity<QuoteDto> approveQuote(@PathVariable Long id) {
+    public ResponseEntity<QuoteDto> approveQuote(
+            @PathVariable Long id,
+            @Parameter(description = "Client-generated key that makes retries of this request safe")
+            @RequestHeader(value = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
         logger.info("REST request to approve quote: {}", id);
-        QuoteDto approvedQuote = quoteService.approveQuote(id);
-        return ResponseEntity.ok(approvedQuote);
+        return idempotencyService.execute(idempotencyKey, "approveQuote", id, QuoteDto.class,
+                () -> ResponseEntity.ok(quoteService.approveQuote(id)));
     }
 
     @PostMapping("/{id}/reject")
@@ -200,14 +369,17 @@ public class QuoteController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Quote rejected successfully"),
             @ApiResponse(responseCode = "404", description = "Quote not found"),
+            @ApiResponse(responseCode = "409", description = "A request with the same idempotency key is in progress"),
             @ApiResponse(responseCode = "422", description = "Quote cannot be rejected in current state")
     })
     public ResponseEntity<QuoteDto> rejectQuote(
             @PathVariable Long id,
-            @RequestParam String reason) {
+            @RequestParam String reason,
+            @Parameter(description = "Client-generated key that makes retries of this request safe")
+            @RequestHeader(value = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
         logger.info("REST request to reject quote: {} with reason: {}", id, reason);
-        QuoteDto rejectedQuote = quoteService.rejectQuote(id, reason);
-        return ResponseEntity.ok(rejectedQuote);
+        return idempotencyService.execute(idempotencyKey, "rejectQuote", Map.of("id", id, "reason", reason),
+                QuoteDto.class, () -> ResponseEntity.ok(quoteService.rejectQuote(id, reason)));
     }
 
     @GetMapping("/statistics")
@@ -225,4 +397,10 @@ public class QuoteController {
         boolean isUnique = quoteService.isQuoteNumberUnique(quoteNumber);
         return ResponseEntity.ok(Map.of("isUnique", isUnique));
     }
-}
\ No newline at end of file
+
+    private ResponseEntity<SseEmitter> streamUnavailable() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, STREAM_RETRY_AFTER_SECONDS)
+                .build();
+    }
+}
@@ -0,0 +1,146 @@
+package com.insurance.quote.entity;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Entity representing a closed quote moved out of the quotes table, with the quote kept as a compressed snapshot
+ */
+@Entity
+@Table(name = "quote_archive")
+public class ArchivedQuote {
+
+    @Id
+    @Column(name = "quote_id")
+    private Long quoteId;
+
+    @Column(name = "quote_number", unique = true, length = 50)
+    private String quoteNumber;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private Quote.QuoteStatus status;
+
+    @Column(name = "total_premium", nullable = false, precision = 12, scale = 2)
+    private BigDecimal totalPremium;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "closed_at")
+    private LocalDateTime closedAt;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    @Lob
+    @Column(name = "snapshot", nullable = false)
+    private byte[] snapshot;
+
+    // Constructors
+    public ArchivedQuote() {}
+
+    public ArchivedQuote(Quote quote, byte[] snapshot, LocalDateTime archivedAt) {
+        this.quoteId = quote.getId();
+        this.quoteNumber = quote.getQuoteNumber();
+        this.status = quote.getStatus();
+        this.totalPremium = quote.getTotalPremium();
+        this.createdAt = quote.getCreatedAt();
+        this.closedAt = quote.getUpdatedAt();
+        this.archivedAt = archivedAt;
+        this.snapshot = snapshot;
+    }
+
+    // Getters and Setters
+    public Long getQuoteId() {
+        return quoteId;
+    }
+
+    public void setQuoteId(Long quoteId) {
+        this.quoteId = quoteId;
+    }
+
+    public String getQuoteNumber() {
+        return quoteNumber;
+    }
+
+    public void setQuoteNumber(String quoteNumber) {
+        this.quoteNumber = quoteNumber;
+    }
+
+    public Quote.QuoteStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(Quote.QuoteStatus status) {
+        this.status = status;
+    }
+
+    public BigDecimal getTotalPremium() {
+        return totalPremium;
+    }
+
+    public void setTotalPremium(BigDecimal totalPremium) {
+        this.totalPremium = totalPremium;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getClosedAt() {
+        return closedAt;
+    }
+
+    public void setClosedAt(LocalDateTime closedAt) {
+        this.closedAt = closedAt;
+    }
+
+    public LocalDateTime getArchivedAt() {
+        return archivedAt;
+    }
+
+    public void setArchivedAt(LocalDateTime archivedAt) {
+        this.archivedAt = archivedAt;
+    }
+
+    public byte[] getSnapshot() {
+        return snapshot;
+    }
+
+    public void setSnapshot(byte[] snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ArchivedQuote that = (ArchivedQuote) o;
+        return Objects.equals(quoteId, that.quoteId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(quoteId);
+    }
+
+    @Override
+    public String toString() {
+        return "ArchivedQuote{" +
+                "quoteId=" + quoteId +
+                ", quoteNumber='" + quoteNumber + '\'' +
+                ", status=" + status +
+                ", totalPremium=" + totalPremium +
+                ", closedAt=" + closedAt +
+                ", archivedAt=" + archivedAt +
+                '}';
+    }
+}
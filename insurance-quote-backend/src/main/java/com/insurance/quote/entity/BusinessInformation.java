@@ -9,15 +9,20 @@ import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
+import java.util.Locale;
 import java.util.Objects;
 
 /**
- * Entity representing business information for insurance quotes
+ * Entity representing business information for insurance quotes. One row per business, shared by all of its
+ * quotes and identified by normalized name and state.
  */
 @Entity
-@Table(name = "business_information")
+@Table(name = "business_information", uniqueConstraints = @UniqueConstraint(
+        name = "uk_business_information_name_state", columnNames = {"normalized_name", "state"}))
 public class BusinessInformation {
 
+    private static final java.util.regex.Pattern NON_ALPHANUMERIC = java.util.regex.Pattern.compile("[^\\p{L}\\p{N}]+");
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -27,6 +32,10 @@ public class BusinessInformation {
     @Column(name = "name", nullable = false)
     private String name;
 
+    // Lower-cased name with punctuation and whitespace runs folded to single spaces, kept in step by setName
+    @Column(name = "normalized_name", nullable = false)
+    private String normalizedName;
+
     @NotNull(message = "Business type is required")
     @Enumerated(EnumType.STRING)
     @Column(name = "business_type", nullable = false)
@@ -54,7 +63,7 @@ public class BusinessInformation {
     public BusinessInformation() {}
 
     public BusinessInformation(String name, BusinessType businessType, Industry industry, String state) {
-        this.name = name;
+        setName(name);
         this.businessType = businessType;
         this.industry = industry;
         this.state = state;
@@ -75,6 +84,20 @@ public class BusinessInformation {
 
     public void setName(String name) {
         this.name = name;
+        this.normalizedName = normalize(name);
+    }
+
+    public String getNormalizedName() {
+        return normalizedName;
+    }
+
+    /**
+     * Folds a business name for matching: lower case, and every run of characters other than letters and
+     * digits becomes one space, so "ACME  Widgets, Inc." and "acme widgets inc" match. V7 backfills existing
+     * rows with the same rule in SQL.
+     */
+    public static String normalize(String name) {
+        return name == null ? null : NON_ALPHANUMERIC.matcher(name.toLowerCase(Locale.ROOT)).replaceAll(" ").strip();
     }
 
     public BusinessType getBusinessType() {
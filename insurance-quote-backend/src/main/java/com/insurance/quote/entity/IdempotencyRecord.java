@@ -0,0 +1,130 @@
+package com.insurance.quote.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Entity recording an Idempotency-Key, the fingerprint of its request and the response it produced
+ */
+@Entity
+@Table(name = "idempotency_keys")
+public class IdempotencyRecord {
+
+    @Id
+    @Column(name = "idempotency_key", length = 200)
+    private String idempotencyKey;
+
+    @Column(name = "fingerprint", nullable = false, length = 64)
+    private String fingerprint;
+
+    @Column(name = "completed", nullable = false)
+    private Boolean completed = false;
+
+    @Column(name = "http_status")
+    private Integer httpStatus;
+
+    @Lob
+    @Column(name = "response_body")
+    private String responseBody;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    // Constructors
+    public IdempotencyRecord() {}
+
+    public IdempotencyRecord(String idempotencyKey, String fingerprint,
+                             LocalDateTime createdAt, LocalDateTime expiresAt) {
+        this.idempotencyKey = idempotencyKey;
+        this.fingerprint = fingerprint;
+        this.createdAt = createdAt;
+        this.expiresAt = expiresAt;
+        this.completed = false;
+    }
+
+    // Getters and Setters
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public void setFingerprint(String fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+
+    public Boolean getCompleted() {
+        return completed;
+    }
+
+    public void setCompleted(Boolean completed) {
+        this.completed = completed;
+    }
+
+    public Integer getHttpStatus() {
+        return httpStatus;
+    }
+
+    public void setHttpStatus(Integer httpStatus) {
+        this.httpStatus = httpStatus;
+    }
+
+    public String getResponseBody() {
+        return responseBody;
+    }
+
+    public void setResponseBody(String responseBody) {
+        this.responseBody = responseBody;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        IdempotencyRecord that = (IdempotencyRecord) o;
+        return Objects.equals(idempotencyKey, that.idempotencyKey);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(idempotencyKey);
+    }
+
+    @Override
+    public String toString() {
+        return "IdempotencyRecord{" +
+                "idempotencyKey='" + idempotencyKey + '\'' +
+                ", completed=" + completed +
+                ", httpStatus=" + httpStatus +
+                ", createdAt=" + createdAt +
+                ", expiresAt=" + expiresAt +
+                '}';
+    }
+}
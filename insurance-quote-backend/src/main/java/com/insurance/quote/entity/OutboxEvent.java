@@ -0,0 +1,147 @@
+package com.insurance.quote.entity;
+
+import com.insurance.quote.event.QuoteLifecycleEvent;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Entity representing a quote lifecycle event waiting in the outbox for delivery to downstream systems
+ */
+@Entity
+@Table(name = "quote_outbox")
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 20)
+    private QuoteLifecycleEvent.Type eventType;
+
+    @Column(name = "quote_id", nullable = false)
+    private Long quoteId;
+
+    @Column(name = "quote_number", length = 50)
+    private String quoteNumber;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 20)
+    private Quote.QuoteStatus status;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "previous_status", length = 20)
+    private Quote.QuoteStatus previousStatus;
+
+    @Lob
+    @Column(name = "payload", nullable = false)
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public OutboxEvent() {}
+
+    public OutboxEvent(QuoteLifecycleEvent event, String payload, LocalDateTime createdAt) {
+        this.eventType = event.type();
+        this.quoteId = event.quote().getId();
+        this.quoteNumber = event.quote().getQuoteNumber();
+        this.status = event.quote().getStatus();
+        this.previousStatus = event.previousStatus();
+        this.payload = payload;
+        this.createdAt = createdAt;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public QuoteLifecycleEvent.Type getEventType() {
+        return eventType;
+    }
+
+    public void setEventType(QuoteLifecycleEvent.Type eventType) {
+        this.eventType = eventType;
+    }
+
+    public Long getQuoteId() {
+        return quoteId;
+    }
+
+    public void setQuoteId(Long quoteId) {
+        this.quoteId = quoteId;
+    }
+
+    public String getQuoteNumber() {
+        return quoteNumber;
+    }
+
+    public void setQuoteNumber(String quoteNumber) {
+        this.quoteNumber = quoteNumber;
+    }
+
+    public Quote.QuoteStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(Quote.QuoteStatus status) {
+        this.status = status;
+    }
+
+    public Quote.QuoteStatus getPreviousStatus() {
+        return previousStatus;
+    }
+
+    public void setPreviousStatus(Quote.QuoteStatus previousStatus) {
+        this.previousStatus = previousStatus;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        OutboxEvent that = (OutboxEvent) o;
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+
+    @Override
+    public String toString() {
+        return "OutboxEvent{" +
+                "id=" + id +
+                ", eventType=" + eventType +
+                ", quoteId=" + quoteId +
+                ", status=" + status +
+                ", previousStatus=" + previousStatus +
+                ", createdAt=" + createdAt +
+                '}';
+    }
+}
@@ -23,8 +23,9 @@ public class Quote {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // Shared by every quote of the business (see BusinessDirectory), so neither persisted nor removed with the quote
     @NotNull(message = "Business information is required")
-    @OneToOne(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "business_info_id", nullable = false)
     private BusinessInformation businessInformation;
 
@@ -61,6 +62,10 @@ public class Quote {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // Assigned by the database on every insert and update (quote_change_seq); stale on a managed instance
+    @Column(name = "change_seq", insertable = false, updatable = false)
+    private Long changeSeq;
+
     // Quote Status Enum
     public enum QuoteStatus {
         DRAFT("Draft"),
@@ -208,6 +213,10 @@ public class Quote {
         this.updatedAt = updatedAt;
     }
 
+    public Long getChangeSeq() {
+        return changeSeq;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -0,0 +1,101 @@
+package com.insurance.quote.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Entity recording that a quote was deleted, so delta sync clients can remove their copy
+ */
+@Entity
+@Table(name = "quote_tombstones")
+public class QuoteTombstone {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Assigned by the database from quote_change_seq, the same sequence as Quote.changeSeq
+    @Column(name = "change_seq", insertable = false, updatable = false)
+    private Long changeSeq;
+
+    @Column(name = "quote_id", nullable = false)
+    private Long quoteId;
+
+    @Column(name = "quote_number", length = 50)
+    private String quoteNumber;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+
+    // Constructors
+    public QuoteTombstone() {}
+
+    public QuoteTombstone(Long quoteId, String quoteNumber, LocalDateTime deletedAt) {
+        this.quoteId = quoteId;
+        this.quoteNumber = quoteNumber;
+        this.deletedAt = deletedAt;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getChangeSeq() {
+        return changeSeq;
+    }
+
+    public Long getQuoteId() {
+        return quoteId;
+    }
+
+    public void setQuoteId(Long quoteId) {
+        this.quoteId = quoteId;
+    }
+
+    public String getQuoteNumber() {
+        return quoteNumber;
+    }
+
+    public void setQuoteNumber(String quoteNumber) {
+        this.quoteNumber = quoteNumber;
+    }
+
+    public LocalDateTime getDeletedAt() {
+        return deletedAt;
+    }
+
+    public void setDeletedAt(LocalDateTime deletedAt) {
+        this.deletedAt = deletedAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        QuoteTombstone that = (QuoteTombstone) o;
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+
+    @Override
+    public String toString() {
+        return "QuoteTombstone{" +
+                "id=" + id +
+                ", changeSeq=" + changeSeq +
+                ", quoteId=" + quoteId +
+                ", quoteNumber='" + quoteNumber + '\'' +
+                ", deletedAt=" + deletedAt +
+                '}';
+    }
+}
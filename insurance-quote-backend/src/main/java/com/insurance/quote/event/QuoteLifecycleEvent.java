@@ -0,0 +1,28 @@
+package com.insurance.quote.event;
+
+import com.insurance.quote.dto.QuoteDto;
+import com.insurance.quote.entity.Quote;
+
+/**
+ * Published by QuoteService whenever a quote is created, updated, moved to a new status or deleted.
+ * Listeners run inside the service transaction unless they are transactional event listeners.
+ *
+ * @param type           what happened to the quote
+ * @param quote          the quote after the change (before it was removed, for deletions)
+ * @param previousStatus the status before the change, or null for a new quote
+ */
+public record QuoteLifecycleEvent(Type type, QuoteDto quote, Quote.QuoteStatus previousStatus) {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    /**
+     * Whether the change moved the quote to a different status
+     */
+    public boolean isStatusChange() {
+        return type != Type.DELETED && quote != null && quote.getStatus() != previousStatus;
+    }
+}
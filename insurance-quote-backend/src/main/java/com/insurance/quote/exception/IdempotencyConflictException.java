@@ -0,0 +1,23 @@
+package com.insurance.quote.exception;
+
+/**
+ * Exception thrown when a request reuses an Idempotency-Key that is still being processed
+ */
+public class IdempotencyConflictException extends RuntimeException {
+    
+    public IdempotencyConflictException() {
+        super();
+    }
+
+    public IdempotencyConflictException(String message) {
+        super(message);
+    }
+
+    public IdempotencyConflictException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public IdempotencyConflictException(Throwable cause) {
+        super(cause);
+    }
+}
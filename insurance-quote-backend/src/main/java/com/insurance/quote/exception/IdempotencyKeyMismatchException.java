@@ -0,0 +1,23 @@
+package com.insurance.quote.exception;
+
+/**
+ * Exception thrown when an Idempotency-Key is reused with a different request payload
+ */
+public class IdempotencyKeyMismatchException extends RuntimeException {
+    
+    public IdempotencyKeyMismatchException() {
+        super();
+    }
+
+    public IdempotencyKeyMismatchException(String message) {
+        super(message);
+    }
+
+    public IdempotencyKeyMismatchException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public IdempotencyKeyMismatchException(Throwable cause) {
+        super(cause);
+    }
+}
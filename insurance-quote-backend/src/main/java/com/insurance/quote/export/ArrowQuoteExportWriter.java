@@ -0,0 +1,215 @@
+package com.insurance.quote.export;
+
+import org.apache.arrow.compression.CommonsCompressionFactory;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.BitVector;
+import org.apache.arrow.vector.DecimalVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.TimeStampMicroVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.compression.CompressionUtil;
+import org.apache.arrow.vector.ipc.ArrowFileWriter;
+import org.apache.arrow.vector.ipc.message.IpcOption;
+import org.apache.arrow.vector.types.TimeUnit;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.FieldType;
+import org.apache.arrow.vector.types.pojo.Schema;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Arrow IPC file (Feather v2) with LZ4 frame compressed record batches. Rows are collected column-wise into
+ * one batch of vectors that is written to the file channel and reset every batchRows rows, so memory stays
+ * at one batch. Timestamps are local date-times stored as microseconds without a time zone.
+ */
+public class ArrowQuoteExportWriter implements QuoteExportWriter {
+
+    private static final int PREMIUM_PRECISION = 12;
+    private static final int COVERAGE_PREMIUM_PRECISION = 10;
+    private static final int PREMIUM_SCALE = 2;
+
+    static final Schema SCHEMA = new Schema(List.of(
+            notNull("quote_id", new ArrowType.Int(64, true)),
+            nullable("quote_number", ArrowType.Utf8.INSTANCE),
+            notNull("status", ArrowType.Utf8.INSTANCE),
+            notNull("total_premium", new ArrowType.Decimal(PREMIUM_PRECISION, PREMIUM_SCALE, 128)),
+            nullable("risk_rating", ArrowType.Utf8.INSTANCE),
+            nullable("valid_until", new ArrowType.Timestamp(TimeUnit.MICROSECOND, null)),
+            nullable("created_at", new ArrowType.Timestamp(TimeUnit.MICROSECOND, null)),
+            nullable("updated_at", new ArrowType.Timestamp(TimeUnit.MICROSECOND, null)),
+            notNull("business_name", ArrowType.Utf8.INSTANCE),
+            notNull("business_type", ArrowType.Utf8.INSTANCE),
+            notNull("industry", ArrowType.Utf8.INSTANCE),
+            notNull("state", ArrowType.Utf8.INSTANCE),
+            nullable("coverage_id", new ArrowType.Int(64, true)),
+            nullable("coverage_type", ArrowType.Utf8.INSTANCE),
+            nullable("coverage_name", ArrowType.Utf8.INSTANCE),
+            nullable("coverage_premium", new ArrowType.Decimal(COVERAGE_PREMIUM_PRECISION, PREMIUM_SCALE, 128)),
+            nullable("coverage_selected", ArrowType.Bool.INSTANCE)));
+
+    private final FileChannel channel;
+    private final BufferAllocator allocator;
+    private final VectorSchemaRoot root;
+    private final ArrowFileWriter writer;
+    private final int batchRows;
+    private int batchIndex;
+
+    private final BigIntVector quoteId;
+    private final VarCharVector quoteNumber;
+    private final VarCharVector status;
+    private final DecimalVector totalPremium;
+    private final VarCharVector riskRating;
+    private final TimeStampMicroVector validUntil;
+    private final TimeStampMicroVector createdAt;
+    private final TimeStampMicroVector updatedAt;
+    private final VarCharVector businessName;
+    private final VarCharVector businessType;
+    private final VarCharVector industry;
+    private final VarCharVector state;
+    private final BigIntVector coverageId;
+    private final VarCharVector coverageType;
+    private final VarCharVector coverageName;
+    private final DecimalVector coveragePremium;
+    private final BitVector coverageSelected;
+
+    public ArrowQuoteExportWriter(Path file, int batchRows) throws IOException {
+        this.batchRows = batchRows;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE);
+        this.allocator = new RootAllocator();
+        this.root = VectorSchemaRoot.create(SCHEMA, allocator);
+        this.writer = new ArrowFileWriter(root, null, channel, null, IpcOption.DEFAULT,
+                CommonsCompressionFactory.INSTANCE, CompressionUtil.CodecType.LZ4_FRAME);
+
+        this.quoteId = (BigIntVector) root.getVector("quote_id");
+        this.quoteNumber = (VarCharVector) root.getVector("quote_number");
+        this.status = (VarCharVector) root.getVector("status");
+        this.totalPremium = (DecimalVector) root.getVector("total_premium");
+        this.riskRating = (VarCharVector) root.getVector("risk_rating");
+        this.validUntil = (TimeStampMicroVector) root.getVector("valid_until");
+        this.createdAt = (TimeStampMicroVector) root.getVector("created_at");
+        this.updatedAt = (TimeStampMicroVector) root.getVector("updated_at");
+        this.businessName = (VarCharVector) root.getVector("business_name");
+        this.businessType = (VarCharVector) root.getVector("business_type");
+        this.industry = (VarCharVector) root.getVector("industry");
+        this.state = (VarCharVector) root.getVector("state");
+        this.coverageId = (BigIntVector) root.getVector("coverage_id");
+        this.coverageType = (VarCharVector) root.getVector("coverage_type");
+        this.coverageName = (VarCharVector) root.getVector("coverage_name");
+        this.coveragePremium = (DecimalVector) root.getVector("coverage_premium");
+        this.coverageSelected = (BitVector) root.getVector("coverage_selected");
+
+        root.allocateNew();
+        writer.start();
+    }
+
+    @Override
+    public void write(QuoteExportRow row) throws IOException {
+        int i = batchIndex;
+        quoteId.setSafe(i, row.quoteId());
+        setText(quoteNumber, i, row.quoteNumber());
+        setText(status, i, row.status());
+        setDecimal(totalPremium, i, row.totalPremium());
+        setText(riskRating, i, row.riskRating());
+        setTimestamp(validUntil, i, row.validUntil());
+        setTimestamp(createdAt, i, row.createdAt());
+        setTimestamp(updatedAt, i, row.updatedAt());
+        setText(businessName, i, row.businessName());
+        setText(businessType, i, row.businessType());
+        setText(industry, i, row.industry());
+        setText(state, i, row.state());
+        if (row.coverageId() == null) {
+            coverageId.setNull(i);
+        } else {
+            coverageId.setSafe(i, row.coverageId());
+        }
+        setText(coverageType, i, row.coverageType());
+        setText(coverageName, i, row.coverageName());
+        setDecimal(coveragePremium, i, row.coveragePremium());
+        if (row.coverageSelected() == null) {
+            coverageSelected.setNull(i);
+        } else {
+            coverageSelected.setSafe(i, row.coverageSelected() ? 1 : 0);
+        }
+
+        if (++batchIndex == batchRows) {
+            writeBatch();
+        }
+    }
+
+    @Override
+    public long bytesWritten() {
+        try {
+            return channel.position();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try (channel; allocator; root; writer) {
+            if (batchIndex > 0) {
+                writeBatch();
+            }
+            writer.end();
+            channel.force(false);
+        }
+    }
+
+    private void writeBatch() throws IOException {
+        root.setRowCount(batchIndex);
+        writer.writeBatch();
+        // Reset keeps the allocated buffers, so the next batch reuses them
+        for (FieldVector vector : root.getFieldVectors()) {
+            vector.reset();
+        }
+        batchIndex = 0;
+    }
+
+    private static void setText(VarCharVector vector, int index, String value) {
+        if (value == null) {
+            vector.setNull(index);
+        } else {
+            vector.setSafe(index, value.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static void setDecimal(DecimalVector vector, int index, BigDecimal value) {
+        if (value == null) {
+            vector.setNull(index);
+        } else {
+            vector.setSafe(index, value.setScale(PREMIUM_SCALE, RoundingMode.HALF_UP));
+        }
+    }
+
+    private static void setTimestamp(TimeStampMicroVector vector, int index, LocalDateTime value) {
+        if (value == null) {
+            vector.setNull(index);
+        } else {
+            vector.setSafe(index, ChronoUnit.MICROS.between(LocalDateTime.ofEpochSecond(0, 0, ZoneOffset.UTC), value));
+        }
+    }
+
+    private static Field notNull(String name, ArrowType type) {
+        return new Field(name, FieldType.notNullable(type), null);
+    }
+
+    private static Field nullable(String name, ArrowType type) {
+        return new Field(name, FieldType.nullable(type), null);
+    }
+}
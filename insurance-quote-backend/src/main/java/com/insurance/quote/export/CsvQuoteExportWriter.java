@@ -0,0 +1,126 @@
+package com.insurance.quote.export;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+
+/**
+ * RFC 4180 CSV with a header line, UTF-8 encoded straight into a direct buffer that is written to the file
+ * channel whenever it fills, so memory stays at one buffer and one line whatever the number of rows
+ */
+public class CsvQuoteExportWriter implements QuoteExportWriter {
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+    private final StringBuilder line = new StringBuilder(512);
+    private long bytesWritten;
+
+    public CsvQuoteExportWriter(Path file, int bufferSize) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE);
+        this.buffer = ByteBuffer.allocateDirect(bufferSize);
+        for (int i = 0; i < QuoteExportRow.COLUMNS.length; i++) {
+            if (i > 0) {
+                line.append(',');
+            }
+            line.append(QuoteExportRow.COLUMNS[i]);
+        }
+        endLine();
+    }
+
+    @Override
+    public void write(QuoteExportRow row) throws IOException {
+        line.append(row.quoteId()).append(',');
+        appendField(row.quoteNumber()).append(',');
+        appendField(row.status()).append(',');
+        appendField(row.totalPremium()).append(',');
+        appendField(row.riskRating()).append(',');
+        appendField(row.validUntil()).append(',');
+        appendField(row.createdAt()).append(',');
+        appendField(row.updatedAt()).append(',');
+        appendField(row.businessName()).append(',');
+        appendField(row.businessType()).append(',');
+        appendField(row.industry()).append(',');
+        appendField(row.state()).append(',');
+        appendField(row.coverageId()).append(',');
+        appendField(row.coverageType()).append(',');
+        appendField(row.coverageName()).append(',');
+        appendField(row.coveragePremium()).append(',');
+        appendField(row.coverageSelected());
+        endLine();
+    }
+
+    @Override
+    public long bytesWritten() {
+        return bytesWritten + buffer.position();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try (channel) {
+            flush();
+            channel.force(false);
+        }
+    }
+
+    private StringBuilder appendField(Object value) {
+        if (value == null) {
+            return line;
+        }
+        String text = value instanceof LocalDateTime dateTime ? dateTime.toString() : value.toString();
+        if (!needsQuoting(text)) {
+            return line.append(text);
+        }
+        line.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"') {
+                line.append('"');
+            }
+            line.append(c);
+        }
+        return line.append('"');
+    }
+
+    private static boolean needsQuoting(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void endLine() throws IOException {
+        line.append("\r\n");
+        CharBuffer chars = CharBuffer.wrap(line);
+        CoderResult result;
+        do {
+            result = encoder.encode(chars, buffer, true);
+            if (result.isOverflow()) {
+                flush();
+            } else if (result.isError()) {
+                result.throwException();
+            }
+        } while (result.isOverflow());
+        encoder.reset();
+        line.setLength(0);
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            bytesWritten += channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
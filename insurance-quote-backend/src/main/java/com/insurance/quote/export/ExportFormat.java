@@ -0,0 +1,19 @@
+package com.insurance.quote.export;
+
+/**
+ * File formats of the quote export
+ */
+public enum ExportFormat {
+    CSV("csv"),
+    ARROW("arrow");
+
+    private final String extension;
+
+    ExportFormat(String extension) {
+        this.extension = extension;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+}
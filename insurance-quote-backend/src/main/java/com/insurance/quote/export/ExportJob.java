@@ -0,0 +1,116 @@
+package com.insurance.quote.export;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * State and progress of one export, updated by the export thread and read by status requests
+ */
+public class ExportJob {
+
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    private final String id;
+    private final ExportFormat format;
+    private final Path file;
+    private final LocalDateTime requestedAt;
+    private volatile Status status = Status.QUEUED;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile long rows;
+    private volatile long bytes;
+    private volatile double rowsPerSecond;
+    private volatile String error;
+
+    public ExportJob(String id, ExportFormat format, Path file, LocalDateTime requestedAt) {
+        this.id = id;
+        this.format = format;
+        this.file = file;
+        this.requestedAt = requestedAt;
+    }
+
+    void started() {
+        this.startedAt = LocalDateTime.now();
+        this.status = Status.RUNNING;
+    }
+
+    void progress(long rows, long bytes, long elapsedNanos) {
+        this.rows = rows;
+        this.bytes = bytes;
+        this.rowsPerSecond = elapsedNanos > 0 ? rows * 1e9 / elapsedNanos : 0;
+    }
+
+    void completed() {
+        this.finishedAt = LocalDateTime.now();
+        this.status = Status.COMPLETED;
+    }
+
+    void failed(String error) {
+        this.error = error;
+        this.finishedAt = LocalDateTime.now();
+        this.status = Status.FAILED;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public ExportFormat getFormat() {
+        return format;
+    }
+
+    public String getFile() {
+        return file.toString();
+    }
+
+    Path getPath() {
+        return file;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public LocalDateTime getRequestedAt() {
+        return requestedAt;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    public double getRowsPerSecond() {
+        return rowsPerSecond;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public Duration getElapsed() {
+        LocalDateTime start = startedAt;
+        if (start == null) {
+            return null;
+        }
+        LocalDateTime end = finishedAt;
+        return Duration.between(start, end != null ? end : LocalDateTime.now());
+    }
+}
@@ -0,0 +1,118 @@
+package com.insurance.quote.export;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Reads the quotes/business_information/coverage_options join through a forward-only, read-only cursor,
+ * handing each row to the consumer as it is fetched. Entities are bypassed, so nothing accumulates in a
+ * persistence context. H2 materializes query results unless lazy query execution is on, so it is switched on
+ * for the export connection; other databases stream in batches of the fetch size.
+ */
+@Component
+public class QuoteExportReader {
+
+    private static final Logger logger = LoggerFactory.getLogger(QuoteExportReader.class);
+
+    static final String EXPORT_SQL = """
+            SELECT q.id, q.quote_number, q.status, q.total_premium, q.risk_rating, q.valid_until, q.created_at,
+                   q.updated_at, b.name, b.business_type, b.industry, b.state,
+                   c.id, c.coverage_type, c.name, c.premium, c.is_selected
+            FROM quotes q
+            JOIN business_information b ON b.id = q.business_info_id
+            LEFT JOIN coverage_options c ON c.quote_id = q.id
+            ORDER BY q.id""";
+
+    /**
+     * Receives export rows; may throw IOException from the file it writes to
+     */
+    @FunctionalInterface
+    public interface RowHandler {
+        void handle(QuoteExportRow row) throws IOException;
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public QuoteExportReader(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * Streams every export row to the handler on a single connection and returns the number of rows
+     */
+    public long read(int fetchSize, RowHandler handler) {
+        Long rows = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            boolean h2 = connection.getMetaData().getDatabaseProductName().equals("H2");
+            if (h2) {
+                setLazyQueryExecution(connection, true);
+            }
+            try (PreparedStatement statement = connection.prepareStatement(EXPORT_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                statement.setFetchSize(fetchSize);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    long count = 0;
+                    while (resultSet.next()) {
+                        handler.handle(toRow(resultSet));
+                        count++;
+                    }
+                    return count;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                if (h2) {
+                    setLazyQueryExecution(connection, false);
+                }
+            }
+        });
+        logger.debug("Read {} export rows", rows);
+        return rows == null ? 0 : rows;
+    }
+
+    private static QuoteExportRow toRow(ResultSet rs) throws SQLException {
+        long coverageId = rs.getLong(13);
+        boolean hasCoverage = !rs.wasNull();
+        return new QuoteExportRow(
+                rs.getLong(1),
+                rs.getString(2),
+                rs.getString(3),
+                rs.getBigDecimal(4),
+                rs.getString(5),
+                toLocalDateTime(rs.getTimestamp(6)),
+                toLocalDateTime(rs.getTimestamp(7)),
+                toLocalDateTime(rs.getTimestamp(8)),
+                rs.getString(9),
+                rs.getString(10),
+                rs.getString(11),
+                rs.getString(12),
+                hasCoverage ? coverageId : null,
+                rs.getString(14),
+                rs.getString(15),
+                rs.getBigDecimal(16),
+                hasCoverage ? rs.getBoolean(17) : null);
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toLocalDateTime();
+    }
+
+    private static void setLazyQueryExecution(Connection connection, boolean lazy) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET LAZY_QUERY_EXECUTION " + (lazy ? "TRUE" : "FALSE"));
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.insurance.quote.export;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One row of the quote export: a quote with its business information and one of its coverage options.
+ * The coverage columns are null for a quote without coverage options.
+ */
+public record QuoteExportRow(long quoteId,
+                             String quoteNumber,
+                             String status,
+                             BigDecimal totalPremium,
+                             String riskRating,
+                             LocalDateTime validUntil,
+                             LocalDateTime createdAt,
+                             LocalDateTime updatedAt,
+                             String businessName,
+                             String businessType,
+                             String industry,
+                             String state,
+                             Long coverageId,
+                             String coverageType,
+                             String coverageName,
+                             BigDecimal coveragePremium,
+                             Boolean coverageSelected) {
+
+    static final String[] COLUMNS = {
+            "quote_id", "quote_number", "status", "total_premium", "risk_rating", "valid_until", "created_at",
+            "updated_at", "business_name", "business_type", "industry", "state", "coverage_id", "coverage_type",
+            "coverage_name", "coverage_premium", "coverage_selected"
+    };
+}
@@ -0,0 +1,190 @@
+package com.insurance.quote.export;
+
+import com.insurance.quote.config.ExportProperties;
+import com.insurance.quote.workload.Workload;
+import com.insurance.quote.workload.WorkloadContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs quote exports one at a time on a single minimum-priority daemon thread, so an export uses one pooled
+ * connection and at most one core while live traffic continues. app.export.max-rows-per-second throttles
+ * it further. Progress and the rows per second rate are logged every progress interval, kept on the job and
+ * recorded as quote.export.rows and quote.export.duration.
+ */
+@Service
+public class QuoteExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(QuoteExportService.class);
+
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    // Rows between checks of the clock for throttling and progress
+    private static final int CHECK_INTERVAL_ROWS = 1000;
+
+    private final ExportProperties properties;
+    private final QuoteExportReader reader;
+    private final MeterRegistry meterRegistry;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "quote-export");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+    private final Map<String, ExportJob> jobs = new LinkedHashMap<>();
+
+    public QuoteExportService(ExportProperties properties, QuoteExportReader reader, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.reader = reader;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Queues an export of every quote to a new file in the export directory
+     */
+    public ExportJob submit(ExportFormat format) {
+        ExportJob job = newJob(format);
+        executor.execute(WorkloadContext.wrap(Workload.BACKGROUND, () -> run(job)));
+        return job;
+    }
+
+    /**
+     * Runs an export on the calling thread
+     */
+    public ExportJob export(ExportFormat format) {
+        ExportJob job = newJob(format);
+        run(job);
+        return job;
+    }
+
+    public Optional<ExportJob> getJob(String id) {
+        synchronized (jobs) {
+            return Optional.ofNullable(jobs.get(id));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private ExportJob newJob(ExportFormat format) {
+        LocalDateTime now = LocalDateTime.now();
+        String id = UUID.randomUUID().toString();
+        Path file = properties.getDirectory()
+                .resolve("quotes-" + FILE_TIMESTAMP.format(now) + "-" + id.substring(0, 8) + "." + format.getExtension());
+        ExportJob job = new ExportJob(id, format, file, now);
+        synchronized (jobs) {
+            jobs.put(id, job);
+            while (jobs.size() > properties.getRetainedJobs()) {
+                jobs.remove(jobs.keySet().iterator().next());
+            }
+        }
+        return job;
+    }
+
+    private void run(ExportJob job) {
+        job.started();
+        logger.info("Exporting quotes as {} to {}", job.getFormat(), job.getPath().toAbsolutePath());
+        long start = System.nanoTime();
+        String outcome = "success";
+        try {
+            Files.createDirectories(job.getPath().toAbsolutePath().getParent());
+            long rows;
+            try (QuoteExportWriter writer = openWriter(job)) {
+                Progress progress = new Progress(job, writer, start);
+                rows = reader.read(properties.getFetchSize(), row -> {
+                    writer.write(row);
+                    progress.row();
+                });
+            }
+            job.progress(rows, Files.size(job.getPath()), System.nanoTime() - start);
+            job.completed();
+            logger.info("Exported {} quote rows as {} to {} ({} bytes, {} rows/s)", job.getRows(), job.getFormat(),
+                    job.getPath(), job.getBytes(), Math.round(job.getRowsPerSecond()));
+        } catch (Exception e) {
+            outcome = "failure";
+            job.failed(e.getMessage());
+            logger.error("Export {} to {} failed after {} rows", job.getId(), job.getPath(), job.getRows(), e);
+        } finally {
+            Counter.builder("quote.export.rows")
+                    .description("Rows written by quote exports")
+                    .tag("format", job.getFormat().name())
+                    .register(meterRegistry)
+                    .increment(job.getRows());
+            Timer.builder("quote.export.duration")
+                    .description("Duration of quote exports")
+                    .tags("format", job.getFormat().name(), "outcome", outcome)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private QuoteExportWriter openWriter(ExportJob job) throws IOException {
+        return switch (job.getFormat()) {
+            case CSV -> new CsvQuoteExportWriter(job.getPath(), (int) properties.getBufferSize().toBytes());
+            case ARROW -> new ArrowQuoteExportWriter(job.getPath(), properties.getArrowBatchRows());
+        };
+    }
+
+    /**
+     * Counts rows, paces them to the configured maximum rate and logs progress
+     */
+    private class Progress {
+
+        private final ExportJob job;
+        private final QuoteExportWriter writer;
+        private final long start;
+        private final long progressIntervalNanos = properties.getProgressInterval().toNanos();
+        private final int maxRowsPerSecond = properties.getMaxRowsPerSecond();
+        private long lastProgress;
+        private long rows;
+
+        Progress(ExportJob job, QuoteExportWriter writer, long start) {
+            this.job = job;
+            this.writer = writer;
+            this.start = start;
+            this.lastProgress = start;
+        }
+
+        void row() throws IOException {
+            if (++rows % CHECK_INTERVAL_ROWS != 0) {
+                return;
+            }
+            long now = System.nanoTime();
+            job.progress(rows, writer.bytesWritten(), now - start);
+            if (now - lastProgress >= progressIntervalNanos) {
+                lastProgress = now;
+                logger.info("Export {}: {} rows, {} rows/s", job.getId(), rows, Math.round(job.getRowsPerSecond()));
+            }
+            if (maxRowsPerSecond > 0) {
+                long aheadNanos = rows * 1_000_000_000L / maxRowsPerSecond - (now - start);
+                if (aheadNanos > 0) {
+                    LockSupport.parkNanos(aheadNanos);
+                    if (Thread.currentThread().isInterrupted()) {
+                        throw new InterruptedIOException("Export interrupted");
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.insurance.quote.export;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Writes export rows to a file in one format; close completes the file
+ */
+public interface QuoteExportWriter extends Closeable {
+
+    void write(QuoteExportRow row) throws IOException;
+
+    /**
+     * Bytes written to the file so far
+     */
+    long bytesWritten();
+}
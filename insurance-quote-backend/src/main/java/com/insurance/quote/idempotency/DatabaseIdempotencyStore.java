@@ -0,0 +1,142 @@
+package com.insurance.quote.idempotency;
+
+import com.insurance.quote.config.IdempotencyProperties;
+import com.insurance.quote.entity.IdempotencyRecord;
+import com.insurance.quote.repository.IdempotencyRecordRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency store backed by the idempotency_keys table, so that keys are shared between nodes.
+ * The primary key on the idempotency key makes concurrent reservations race safely.
+ *
+ * <p>When the table lives in the database of the quotes, a request and its recorded response commit in one
+ * transaction: a node that fails in between leaves neither, and a request whose reservation was taken over
+ * rolls back instead of committing a second time. With sharding the table is on shard 0 while a request writes
+ * to its quote's shard, so the response is recorded in a transaction of its own after the request's.
+ */
+public class DatabaseIdempotencyStore implements IdempotencyStore {
+
+    private final IdempotencyProperties properties;
+    private final IdempotencyRecordRepository repository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate requestTemplate;
+    private final boolean sharedTransaction;
+
+    /**
+     * @param sharedTransaction whether a request and its recorded response can commit in one transaction
+     */
+    public DatabaseIdempotencyStore(IdempotencyProperties properties,
+                                    IdempotencyRecordRepository repository,
+                                    EntityManager entityManager,
+                                    PlatformTransactionManager transactionManager,
+                                    boolean sharedTransaction) {
+        this.properties = properties;
+        this.repository = repository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.requestTemplate = new TransactionTemplate(transactionManager);
+        this.sharedTransaction = sharedTransaction;
+    }
+
+    @Override
+    public Optional<IdempotencyEntry> find(String key, Instant now) {
+        return repository.findById(key)
+                .map(this::toEntry)
+                .filter(entry -> !entry.isExpired(now));
+    }
+
+    @Override
+    public boolean reserve(String key, String fingerprint, Instant now) {
+        try {
+            Boolean reserved = transactionTemplate.execute(status -> {
+                // Conditional, so that of two nodes taking over the same expired entry only one deletes it
+                repository.deleteIfExpired(key, toLocal(now));
+                entityManager.persist(new IdempotencyRecord(key, fingerprint,
+                        toLocal(now), toLocal(now.plus(properties.getInProgressTimeout()))));
+                entityManager.flush();
+                return true;
+            });
+            return Boolean.TRUE.equals(reserved);
+        } catch (PersistenceException | DataIntegrityViolationException e) {
+            // The flush goes through the raw EntityManager, so a lost race surfaces untranslated
+            if (isDuplicateKey(e)) {
+                // Another node reserved the same key concurrently
+                return false;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean renew(String key, Instant reservedAt, Instant now) {
+        Integer renewed = transactionTemplate.execute(status -> repository.renew(key, toLocal(reservedAt),
+                toLocal(now.plus(properties.getInProgressTimeout()))));
+        return renewed != null && renewed > 0;
+    }
+
+    @Override
+    public <T> T execute(Supplier<T> execution) {
+        return sharedTransaction ? requestTemplate.execute(status -> execution.get()) : execution.get();
+    }
+
+    @Override
+    public boolean complete(String key, Instant reservedAt, int httpStatus, String responseBody) {
+        // Joins the transaction of execute, if there is one
+        Integer completed = requestTemplate.execute(status -> repository.complete(key, toLocal(reservedAt),
+                httpStatus, responseBody, toLocal(reservedAt.plus(properties.getTtl()))));
+        return completed != null && completed > 0;
+    }
+
+    @Override
+    public void release(String key, Instant reservedAt) {
+        transactionTemplate.executeWithoutResult(status -> repository.release(key, toLocal(reservedAt)));
+    }
+
+    @Override
+    public int evictExpired(Instant now) {
+        Integer evicted = transactionTemplate.execute(status -> repository.deleteExpired(toLocal(now)));
+        return evicted != null ? evicted : 0;
+    }
+
+    private static boolean isDuplicateKey(RuntimeException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException || cause instanceof DataIntegrityViolationException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private IdempotencyEntry toEntry(IdempotencyRecord record) {
+        return new IdempotencyEntry(
+                record.getIdempotencyKey(),
+                record.getFingerprint(),
+                Boolean.TRUE.equals(record.getCompleted()),
+                record.getHttpStatus() != null ? record.getHttpStatus() : 0,
+                record.getResponseBody(),
+                toInstant(record.getCreatedAt()),
+                toInstant(record.getExpiresAt()));
+    }
+
+    private static LocalDateTime toLocal(Instant instant) {
+        return LocalDateTime.ofInstant(instant, ZoneOffset.UTC);
+    }
+
+    private static Instant toInstant(LocalDateTime dateTime) {
+        return dateTime.toInstant(ZoneOffset.UTC);
+    }
+}
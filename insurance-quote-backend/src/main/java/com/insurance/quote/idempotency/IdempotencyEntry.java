@@ -0,0 +1,40 @@
+package com.insurance.quote.idempotency;
+
+import java.time.Instant;
+
+/**
+ * An idempotency key with the fingerprint of its request and, once completed, the recorded response.
+ * createdAt identifies the reservation; expiresAt is the end of the in-progress lease until the entry completes,
+ * and the end of its retention after.
+ */
+public record IdempotencyEntry(String key,
+                               String fingerprint,
+                               boolean completed,
+                               int httpStatus,
+                               String responseBody,
+                               Instant createdAt,
+                               Instant expiresAt) {
+
+    public static IdempotencyEntry inProgress(String key, String fingerprint, Instant createdAt, Instant expiresAt) {
+        return new IdempotencyEntry(key, fingerprint, false, 0, null, createdAt, expiresAt);
+    }
+
+    public IdempotencyEntry renew(Instant leaseExpiresAt) {
+        return new IdempotencyEntry(key, fingerprint, completed, httpStatus, responseBody, createdAt, leaseExpiresAt);
+    }
+
+    public IdempotencyEntry complete(int status, String body, Instant retainedUntil) {
+        return new IdempotencyEntry(key, fingerprint, true, status, body, createdAt, retainedUntil);
+    }
+
+    /**
+     * Whether this is the in-progress reservation made at reservedAt
+     */
+    public boolean isReservation(Instant reservedAt) {
+        return !completed && createdAt.equals(reservedAt);
+    }
+
+    public boolean isExpired(Instant now) {
+        return !now.isBefore(expiresAt);
+    }
+}
@@ -0,0 +1,246 @@
+package com.insurance.quote.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.insurance.quote.config.IdempotencyProperties;
+import com.insurance.quote.exception.IdempotencyConflictException;
+import com.insurance.quote.exception.IdempotencyKeyMismatchException;
+import com.insurance.quote.ratelimit.ClientKeyResolver;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Executes a request at most once per Idempotency-Key.
+ * Keys are scoped to the API client and operation. A retry with the same key and payload gets the
+ * recorded response without re-executing; a retry while the first request is still running gets 409,
+ * and reusing a key for a different payload gets 422. Failed requests release their key.
+ *
+ * <p>A reservation is a lease of app.idempotency.in-progress-timeout, renewed while its request runs, so a
+ * key is only taken over once the node running its request has stopped. The store decides whether the request
+ * and its recorded response commit together (see DatabaseIdempotencyStore). Where they cannot, a node failing
+ * between the two, or failing to record the response, leaves a key that a retry executes again.
+ */
+@Service
+public class IdempotencyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyService.class);
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_STORED_KEY_LENGTH = 200;
+
+    private final IdempotencyStore store;
+    private final IdempotencyProperties properties;
+    private final ClientKeyResolver clientKeyResolver;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter fingerprintWriter;
+
+    private final Counter executedCounter;
+    private final Counter replayedCounter;
+    private final Counter conflictCounter;
+    private final Counter mismatchCounter;
+    private final ScheduledExecutorService leaseRenewer;
+
+    public IdempotencyService(IdempotencyStore store,
+                              IdempotencyProperties properties,
+                              ClientKeyResolver clientKeyResolver,
+                              ObjectMapper objectMapper,
+                              MeterRegistry meterRegistry) {
+        this.store = store;
+        this.properties = properties;
+        this.clientKeyResolver = clientKeyResolver;
+        this.objectMapper = objectMapper;
+        // Map iteration order (Map.of in particular) varies between JVMs; retries may reach another node
+        this.fingerprintWriter = objectMapper.writer().with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+        this.executedCounter = outcomeCounter(meterRegistry, "executed");
+        this.replayedCounter = outcomeCounter(meterRegistry, "replayed");
+        this.conflictCounter = outcomeCounter(meterRegistry, "conflict");
+        this.mismatchCounter = outcomeCounter(meterRegistry, "mismatch");
+        this.leaseRenewer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "idempotency-lease");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        leaseRenewer.shutdownNow();
+    }
+
+    public <T> ResponseEntity<T> execute(String idempotencyKey, String operation, Object request,
+                                         Class<T> responseType, Supplier<ResponseEntity<T>> action) {
+        if (!properties.isEnabled() || !StringUtils.hasText(idempotencyKey)) {
+            return action.get();
+        }
+
+        String key = storageKey(operation, idempotencyKey.trim());
+        String fingerprint = fingerprint(operation, request);
+        // Also identifies the reservation, so kept to a precision that every database stores exactly
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+
+        Optional<IdempotencyEntry> existing = store.find(key, now);
+        if (existing.isPresent() && existing.get().completed()) {
+            return replay(existing.get(), fingerprint, responseType);
+        }
+
+        if (!store.reserve(key, fingerprint, now)) {
+            // Either still in progress, or completed between the lookup and the reservation
+            IdempotencyEntry current = store.find(key, now)
+                    .orElseThrow(() -> conflict(idempotencyKey));
+            if (current.completed()) {
+                return replay(current, fingerprint, responseType);
+            }
+            checkFingerprint(current, fingerprint);
+            throw conflict(idempotencyKey);
+        }
+
+        ScheduledFuture<?> lease = renewWhileRunning(key, now);
+        ResponseEntity<T> response;
+        try {
+            response = store.execute(() -> {
+                ResponseEntity<T> result = action.get();
+                if (!store.complete(key, now, result.getStatusCode().value(), serialize(result.getBody()))) {
+                    logger.warn("Idempotency key {} was taken over while its request was running", key);
+                    throw conflict(idempotencyKey);
+                }
+                return result;
+            });
+        } catch (RuntimeException e) {
+            store.release(key, now);
+            throw e;
+        } finally {
+            lease.cancel(false);
+        }
+
+        executedCounter.increment();
+        return response;
+    }
+
+    @Scheduled(fixedDelayString = "${app.idempotency.cleanup-interval:PT5M}")
+    public void evictExpired() {
+        int evicted = store.evictExpired(Instant.now());
+        if (evicted > 0) {
+            logger.debug("Evicted {} expired idempotency keys", evicted);
+        }
+    }
+
+    private ScheduledFuture<?> renewWhileRunning(String key, Instant reservedAt) {
+        long periodMillis = Math.max(1L, properties.getInProgressTimeout().toMillis() / 3);
+        return leaseRenewer.scheduleAtFixedRate(() -> {
+            try {
+                if (!store.renew(key, reservedAt, Instant.now())) {
+                    logger.warn("Could not renew idempotency key {}, it is no longer reserved", key);
+                }
+            } catch (RuntimeException e) {
+                logger.warn("Could not renew idempotency key {}", key, e);
+            }
+        }, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private <T> ResponseEntity<T> replay(IdempotencyEntry entry, String fingerprint, Class<T> responseType) {
+        checkFingerprint(entry, fingerprint);
+        replayedCounter.increment();
+        logger.info("Replaying recorded response for idempotency key {}", entry.key());
+        return ResponseEntity.status(entry.httpStatus())
+                .header(REPLAYED_HEADER, "true")
+                .body(deserialize(entry.responseBody(), responseType));
+    }
+
+    private void checkFingerprint(IdempotencyEntry entry, String fingerprint) {
+        if (!entry.fingerprint().equals(fingerprint)) {
+            mismatchCounter.increment();
+            throw new IdempotencyKeyMismatchException(
+                    "Idempotency key was already used for a different request");
+        }
+    }
+
+    private IdempotencyConflictException conflict(String idempotencyKey) {
+        conflictCounter.increment();
+        return new IdempotencyConflictException(
+                "A request with idempotency key " + idempotencyKey + " is still being processed");
+    }
+
+    private String storageKey(String operation, String idempotencyKey) {
+        String key = currentClientKey() + ":" + operation + ":" + idempotencyKey;
+        return key.length() <= MAX_STORED_KEY_LENGTH ? key : sha256(key);
+    }
+
+    private String currentClientKey() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servletAttributes) {
+            HttpServletRequest request = servletAttributes.getRequest();
+            return clientKeyResolver.resolve(request);
+        }
+        return "internal";
+    }
+
+    private String fingerprint(String operation, Object request) {
+        try {
+            return sha256(operation + ":" + fingerprintWriter.writeValueAsString(request));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize idempotent request", e);
+        }
+    }
+
+    private String serialize(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize idempotent request or response", e);
+        }
+    }
+
+    private <T> T deserialize(String body, Class<T> type) {
+        if (body == null || type == Void.class) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(body, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not read recorded idempotent response", e);
+        }
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static Counter outcomeCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("quote.idempotency.requests")
+                .description("Requests carrying an Idempotency-Key by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
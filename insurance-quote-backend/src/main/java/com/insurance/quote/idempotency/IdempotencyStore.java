@@ -0,0 +1,58 @@
+package com.insurance.quote.idempotency;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Storage for idempotency key reservations and the responses recorded against them.
+ * A reservation is identified by its key and the instant it was made, so that a request whose reservation was
+ * taken over can no longer complete or release it.
+ */
+public interface IdempotencyStore {
+
+    /**
+     * Find the entry for a key, if it exists and has not expired
+     */
+    Optional<IdempotencyEntry> find(String key, Instant now);
+
+    /**
+     * Atomically reserve a key for a request that is about to execute, leased for the in-progress timeout.
+     * Expired entries, including reservations whose lease ran out, are taken over.
+     *
+     * @return true if the key was reserved, false if another request already holds it
+     */
+    boolean reserve(String key, String fingerprint, Instant now);
+
+    /**
+     * Extend the lease of a reservation whose request is still running
+     *
+     * @return false if the reservation is no longer held
+     */
+    boolean renew(String key, Instant reservedAt, Instant now);
+
+    /**
+     * Run a request and the complete call at its end. A store that can makes them one transaction, so the
+     * request's changes commit only together with its recorded response.
+     */
+    default <T> T execute(Supplier<T> execution) {
+        return execution.get();
+    }
+
+    /**
+     * Record the response for a reserved key
+     *
+     * @return false if the reservation is no longer held
+     */
+    boolean complete(String key, Instant reservedAt, int httpStatus, String responseBody);
+
+    /**
+     * Drop a reservation whose request failed, so that the client may retry
+     */
+    void release(String key, Instant reservedAt);
+
+    /**
+     * Remove expired entries
+     */
+    int evictExpired(Instant now);
+}
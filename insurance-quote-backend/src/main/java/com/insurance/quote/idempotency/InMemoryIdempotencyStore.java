@@ -0,0 +1,98 @@
+package com.insurance.quote.idempotency;
+
+import com.insurance.quote.config.IdempotencyProperties;
+
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Bounded in-memory idempotency store for single-node deployments.
+ * Entries are kept in insertion order; once the store is full the oldest entries are dropped.
+ *
+ * <p>A response is recorded after the request's transaction has committed, and the entries do not survive a
+ * restart, so a retry of a request that was running when the node went down executes again.
+ */
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    private final IdempotencyProperties properties;
+    private final Map<String, IdempotencyEntry> entries;
+
+    public InMemoryIdempotencyStore(IdempotencyProperties properties) {
+        this.properties = properties;
+        this.entries = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, IdempotencyEntry> eldest) {
+                return size() > properties.getMaxEntries();
+            }
+        };
+    }
+
+    @Override
+    public synchronized Optional<IdempotencyEntry> find(String key, Instant now) {
+        IdempotencyEntry entry = entries.get(key);
+        if (entry == null || entry.isExpired(now)) {
+            return Optional.empty();
+        }
+        return Optional.of(entry);
+    }
+
+    @Override
+    public synchronized boolean reserve(String key, String fingerprint, Instant now) {
+        IdempotencyEntry existing = entries.get(key);
+        if (existing != null && !existing.isExpired(now)) {
+            return false;
+        }
+        entries.remove(key);
+        entries.put(key, IdempotencyEntry.inProgress(key, fingerprint, now,
+                now.plus(properties.getInProgressTimeout())));
+        return true;
+    }
+
+    @Override
+    public synchronized boolean renew(String key, Instant reservedAt, Instant now) {
+        IdempotencyEntry entry = entries.get(key);
+        if (entry == null || !entry.isReservation(reservedAt)) {
+            return false;
+        }
+        entries.put(key, entry.renew(now.plus(properties.getInProgressTimeout())));
+        return true;
+    }
+
+    @Override
+    public synchronized boolean complete(String key, Instant reservedAt, int httpStatus, String responseBody) {
+        IdempotencyEntry entry = entries.get(key);
+        if (entry == null || !entry.isReservation(reservedAt)) {
+            return false;
+        }
+        entries.put(key, entry.complete(httpStatus, responseBody, reservedAt.plus(properties.getTtl())));
+        return true;
+    }
+
+    @Override
+    public synchronized void release(String key, Instant reservedAt) {
+        IdempotencyEntry entry = entries.get(key);
+        if (entry != null && entry.isReservation(reservedAt)) {
+            entries.remove(key);
+        }
+    }
+
+    @Override
+    public synchronized int evictExpired(Instant now) {
+        int evicted = 0;
+        Iterator<IdempotencyEntry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().isExpired(now)) {
+                iterator.remove();
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+}
@@ -0,0 +1,77 @@
+package com.insurance.quote.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps only a fraction of the high-volume request logs of the configured loggers.
+ * <p>
+ * The decision is made from the request id in the MDC, so a request keeps or drops all of its lines
+ * together; events without a request id are sampled round-robin. Events at or above the
+ * threshold level (WARN by default) always pass. Runs before the logging event is built,
+ * so dropped lines cost no formatting or queueing.
+ * <pre>
+ * &lt;turboFilter class="com.insurance.quote.logging.LogSamplingTurboFilter"&gt;
+ *     &lt;logger&gt;com.insurance.quote.controller&lt;/logger&gt;
+ *     &lt;rate&gt;0.1&lt;/rate&gt;
+ * &lt;/turboFilter&gt;
+ * </pre>
+ */
+public class LogSamplingTurboFilter extends TurboFilter {
+
+    private static final int BUCKETS = 10_000;
+
+    private final List<String> loggers = new ArrayList<>();
+    private final AtomicLong unkeyedEvents = new AtomicLong();
+    private double rate = 1.0;
+    private Level threshold = Level.WARN;
+    private int keptBuckets = BUCKETS;
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (keptBuckets >= BUCKETS || level == null || level.isGreaterOrEqual(threshold) || !isSampled(logger.getName())) {
+            return FilterReply.NEUTRAL;
+        }
+        String requestId = MDC.get(RequestIdFilter.REQUEST_ID_MDC_KEY);
+        long bucket = requestId != null
+                ? (requestId.hashCode() & 0x7fffffff) % BUCKETS
+                : unkeyedEvents.getAndIncrement() * 7919 % BUCKETS;
+        return bucket < keptBuckets ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    private boolean isSampled(String loggerName) {
+        for (String prefix : loggers) {
+            if (loggerName.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void start() {
+        keptBuckets = (int) Math.round(Math.max(0.0, Math.min(1.0, rate)) * BUCKETS);
+        addInfo("Sampling " + loggers + " below " + threshold + " at rate " + rate);
+        super.start();
+    }
+
+    public void addLogger(String logger) {
+        loggers.add(logger.trim());
+    }
+
+    public void setRate(double rate) {
+        this.rate = rate;
+    }
+
+    public void setThreshold(String threshold) {
+        this.threshold = Level.toLevel(threshold, Level.WARN);
+    }
+}
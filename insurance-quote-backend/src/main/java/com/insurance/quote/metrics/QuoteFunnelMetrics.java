@@ -0,0 +1,97 @@
+package com.insurance.quote.metrics;
+
+import com.insurance.quote.entity.Quote;
+import com.insurance.quote.event.QuoteLifecycleEvent;
+import com.insurance.quote.repository.QuoteRepository;
+import com.insurance.quote.sharding.ShardRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Quote funnel meters: a counter per status transition and a gauge per QuoteStatus.
+ * Gauges follow committed lifecycle events and are re-synchronised from the database on a schedule,
+ * so a scrape never runs a query.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.metrics", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class QuoteFunnelMetrics {
+
+    private static final Logger logger = LoggerFactory.getLogger(QuoteFunnelMetrics.class);
+
+    private static final Quote.QuoteStatus[] STATUSES = Quote.QuoteStatus.values();
+    private static final String NEW = "NEW";
+
+    private final QuoteRepository quoteRepository;
+    private final ShardRouter shardRouter;
+    private final Map<Quote.QuoteStatus, AtomicLong> statusCounts = new EnumMap<>(Quote.QuoteStatus.class);
+    // Indexed by [from ordinal + 1][to ordinal]; row 0 holds transitions from a new quote
+    private final Counter[][] transitions = new Counter[STATUSES.length + 1][STATUSES.length];
+
+    public QuoteFunnelMetrics(QuoteRepository quoteRepository, ShardRouter shardRouter, MeterRegistry meterRegistry) {
+        this.quoteRepository = quoteRepository;
+        this.shardRouter = shardRouter;
+        for (Quote.QuoteStatus status : STATUSES) {
+            AtomicLong count = new AtomicLong();
+            statusCounts.put(status, count);
+            Gauge.builder("quote.status.current", count, AtomicLong::get)
+                    .description("Quotes currently in each status")
+                    .tag("status", status.name())
+                    .register(meterRegistry);
+        }
+        for (int from = 0; from <= STATUSES.length; from++) {
+            String fromTag = from == 0 ? NEW : STATUSES[from - 1].name();
+            for (Quote.QuoteStatus to : STATUSES) {
+                transitions[from][to.ordinal()] = Counter.builder("quote.status.transitions")
+                        .description("Quote status transitions")
+                        .tags("from", fromTag, "to", to.name())
+                        .register(meterRegistry);
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLifecycleEvent(QuoteLifecycleEvent event) {
+        if (event.type() == QuoteLifecycleEvent.Type.DELETED) {
+            if (event.previousStatus() != null) {
+                statusCounts.get(event.previousStatus()).decrementAndGet();
+            }
+            return;
+        }
+        if (!event.isStatusChange()) {
+            return;
+        }
+        Quote.QuoteStatus from = event.previousStatus();
+        Quote.QuoteStatus to = event.quote().getStatus();
+        transitions[from == null ? 0 : from.ordinal() + 1][to.ordinal()].increment();
+        if (from != null) {
+            statusCounts.get(from).decrementAndGet();
+        }
+        statusCounts.get(to).incrementAndGet();
+    }
+
+    /**
+     * Re-reads the status counts to correct for changes made outside QuoteService
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${app.metrics.status-gauge-refresh:PT1M}")
+    public void refreshStatusCounts() {
+        Map<Quote.QuoteStatus, Long> counts = new EnumMap<>(Quote.QuoteStatus.class);
+        shardRouter.forEachShard(() -> {
+            for (Object[] row : quoteRepository.countGroupedByStatus()) {
+                counts.merge((Quote.QuoteStatus) row[0], (Long) row[1], Long::sum);
+            }
+        });
+        statusCounts.forEach((status, count) -> count.set(counts.getOrDefault(status, 0L)));
+        logger.debug("Refreshed quote status gauges: {}", counts);
+    }
+}
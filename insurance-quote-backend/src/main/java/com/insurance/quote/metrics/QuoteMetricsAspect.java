@@ -0,0 +1,122 @@
+package com.insurance.quote.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Percentile-histogram timers for every public QuoteService and QuoteMapper call.
+ * Timers are built once per method and cached, so the hot path only reads the clock and records.
+ * Repository calls are timed by Spring Data as spring.data.repository.invocations.
+ * Ordered outermost so service timings include coalescing waits and the transaction commit.
+ * With sharding the per-shard service calls are timed, not the ShardedQuoteService that fans them out.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 50)
+@ConditionalOnProperty(prefix = "app.metrics", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class QuoteMetricsAspect {
+
+    public static final String SERVICE_TIMER = "quote.service.invocations";
+    public static final String MAPPER_TIMER = "quote.mapper.invocations";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<Method, MethodTimers> serviceTimers = new ConcurrentHashMap<>();
+    private final Map<Method, MethodTimers> mapperTimers = new ConcurrentHashMap<>();
+
+    public QuoteMetricsAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("execution(public * com.insurance.quote.service.QuoteService+.*(..)) && !within(com.insurance.quote.sharding..*)")
+    public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(joinPoint, serviceTimers, SERVICE_TIMER, "QuoteService method calls", Duration.ofMillis(1));
+    }
+
+    @Around("execution(public * com.insurance.quote.mapper.QuoteMapper+.*(..))")
+    public Object timeMapper(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(joinPoint, mapperTimers, MAPPER_TIMER, "QuoteMapper method calls", Duration.ofNanos(500));
+    }
+
+    private Object time(ProceedingJoinPoint joinPoint, Map<Method, MethodTimers> timers, String name,
+                        String description, Duration minimumExpected) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        MethodTimers methodTimers = timers.get(method);
+        if (methodTimers == null) {
+            methodTimers = timers.computeIfAbsent(method,
+                    key -> new MethodTimers(name, description, methodTag(key), minimumExpected));
+        }
+
+        long start = System.nanoTime();
+        try {
+            Object result = joinPoint.proceed();
+            methodTimers.success.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (Throwable e) {
+            methodTimers.failure(e.getClass()).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    /**
+     * Method name, with parameter types appended only for overloaded methods such as QuoteMapper.toDto
+     */
+    static String methodTag(Method method) {
+        long overloads = Arrays.stream(method.getDeclaringClass().getMethods())
+                .filter(candidate -> candidate.getName().equals(method.getName()))
+                .count();
+        if (overloads <= 1) {
+            return method.getName();
+        }
+        return Arrays.stream(method.getParameterTypes())
+                .map(Class::getSimpleName)
+                .collect(Collectors.joining(",", method.getName() + "(", ")"));
+    }
+
+    private final class MethodTimers {
+
+        private final String name;
+        private final String description;
+        private final String method;
+        private final Duration minimumExpected;
+        private final Timer success;
+        private final Map<Class<?>, Timer> failures = new ConcurrentHashMap<>();
+
+        private MethodTimers(String name, String description, String method, Duration minimumExpected) {
+            this.name = name;
+            this.description = description;
+            this.method = method;
+            this.minimumExpected = minimumExpected;
+            this.success = register("none");
+        }
+
+        private Timer failure(Class<?> exceptionType) {
+            return failures.computeIfAbsent(exceptionType, type -> register(type.getSimpleName()));
+        }
+
+        private Timer register(String exception) {
+            return Timer.builder(name)
+                    .description(description)
+                    .tags("method", method, "exception", exception)
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(minimumExpected)
+                    .maximumExpectedValue(Duration.ofSeconds(30))
+                    .register(meterRegistry);
+        }
+    }
+}
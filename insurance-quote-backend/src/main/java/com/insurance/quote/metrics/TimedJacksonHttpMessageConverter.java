@@ -0,0 +1,57 @@
+package com.insurance.quote.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson converter that times response serialization per body type, so the time spent writing JSON
+ * can be told apart from the service call behind it
+ */
+public class TimedJacksonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    public static final String WRITE_TIMER = "quote.json.write";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<Class<?>, Timer> timers = new ConcurrentHashMap<>();
+
+    public TimedJacksonHttpMessageConverter(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        super(objectMapper);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        Timer timer = timers.get(object.getClass());
+        if (timer == null) {
+            timer = timers.computeIfAbsent(object.getClass(), this::register);
+        }
+        long start = System.nanoTime();
+        try {
+            super.writeInternal(object, type, outputMessage);
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer register(Class<?> bodyType) {
+        return Timer.builder(WRITE_TIMER)
+                .description("JSON response serialization by body type")
+                .tag("type", bodyType.getSimpleName())
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(1000))
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,52 @@
+package com.insurance.quote.outbox;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Hands events to in-process subscribers and keeps the most recent ones, for tests and local development
+ */
+public class InMemoryOutboxSink implements OutboxSink {
+
+    private final int capacity;
+    private final List<OutboxMessage> received = new ArrayList<>();
+    private final List<Consumer<OutboxMessage>> subscribers = new CopyOnWriteArrayList<>();
+
+    public InMemoryOutboxSink(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public void subscribe(Consumer<OutboxMessage> subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    @Override
+    public void deliver(List<OutboxMessage> batch) {
+        for (OutboxMessage message : batch) {
+            subscribers.forEach(subscriber -> subscriber.accept(message));
+        }
+        synchronized (received) {
+            received.addAll(batch);
+            if (received.size() > capacity) {
+                received.subList(0, received.size() - capacity).clear();
+            }
+        }
+    }
+
+    /**
+     * The most recently delivered events, oldest first
+     */
+    public List<OutboxMessage> received() {
+        synchronized (received) {
+            return List.copyOf(received);
+        }
+    }
+
+    public void clear() {
+        synchronized (received) {
+            received.clear();
+        }
+    }
+}
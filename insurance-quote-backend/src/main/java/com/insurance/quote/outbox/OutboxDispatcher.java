@@ -0,0 +1,172 @@
+package com.insurance.quote.outbox;
+
+import com.insurance.quote.config.OutboxProperties;
+import com.insurance.quote.entity.OutboxEvent;
+import com.insurance.quote.repository.OutboxEventRepository;
+import com.insurance.quote.sharding.ShardRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Drains the outbox in id order: reads a batch, hands it to the sink and deletes it once the sink returns.
+ * Events are deleted only after delivery, so a crash or a failing sink leads to redelivery, never to loss.
+ * Lag is exposed as quote.outbox.pending, quote.outbox.lag (age of the oldest undelivered event, growing
+ * between polls if the dispatcher stalls) and the quote.outbox.delivery.lag timer per delivered event.
+ * With sharding each shard's outbox is drained in turn; the gauges cover all of them.
+ */
+public class OutboxDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxDispatcher.class);
+
+    private final OutboxProperties properties;
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxSink sink;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate transactionTemplate;
+
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicReference<LocalDateTime> oldestPending = new AtomicReference<>();
+    private final Counter deliveredCounter;
+    private final Counter failureCounter;
+    private final Timer deliveryLag;
+    private boolean lagging;
+
+    public OutboxDispatcher(OutboxProperties properties,
+                            OutboxEventRepository outboxEventRepository,
+                            OutboxSink sink,
+                            ShardRouter shardRouter,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.outboxEventRepository = outboxEventRepository;
+        this.sink = sink;
+        this.shardRouter = shardRouter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+        Gauge.builder("quote.outbox.pending", pending, AtomicLong::get)
+                .description("Outbox events not yet delivered, as of the last poll")
+                .register(meterRegistry);
+        Gauge.builder("quote.outbox.lag", this, OutboxDispatcher::currentLagSeconds)
+                .description("Age of the oldest undelivered outbox event")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        this.deliveredCounter = Counter.builder("quote.outbox.delivered")
+                .description("Outbox events delivered to the sink")
+                .register(meterRegistry);
+        this.failureCounter = Counter.builder("quote.outbox.failures")
+                .description("Outbox batches the sink failed to accept")
+                .register(meterRegistry);
+        this.deliveryLag = Timer.builder("quote.outbox.delivery.lag")
+                .description("Time from writing an outbox event to delivering it")
+                .serviceLevelObjectives(properties.getMaxLag())
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${app.outbox.poll-interval:PT0.5S}", fixedDelayString = "${app.outbox.poll-interval:PT0.5S}")
+    public void poll() {
+        dispatch();
+    }
+
+    /**
+     * Delivers up to max-batches-per-poll batches per shard, stopping a shard at its first sink failure
+     *
+     * @return the number of events delivered
+     */
+    public synchronized int dispatch() {
+        List<Backlog> backlogs = shardRouter.onEachShard(this::dispatchShard);
+        long pendingEvents = 0;
+        LocalDateTime oldest = null;
+        int delivered = 0;
+        for (Backlog backlog : backlogs) {
+            delivered += backlog.delivered();
+            pendingEvents += backlog.pending();
+            if (backlog.oldest() != null && (oldest == null || backlog.oldest().isBefore(oldest))) {
+                oldest = backlog.oldest();
+            }
+        }
+        updatePending(pendingEvents, oldest);
+        return delivered;
+    }
+
+    private Backlog dispatchShard() {
+        int delivered = 0;
+        boolean drained = false;
+        for (int batchNumber = 0; batchNumber < properties.getMaxBatchesPerPoll(); batchNumber++) {
+            List<OutboxEvent> events = outboxEventRepository.findNextBatch(PageRequest.of(0, properties.getBatchSize()));
+            if (events.isEmpty()) {
+                drained = true;
+                break;
+            }
+
+            List<OutboxMessage> batch = events.stream().map(OutboxMessage::of).toList();
+            try {
+                sink.deliver(batch);
+            } catch (Exception e) {
+                failureCounter.increment();
+                logger.warn("Outbox sink failed to accept {} events from id {}, retrying on the next poll",
+                        batch.size(), batch.get(0).id(), e);
+                break;
+            }
+
+            List<Long> ids = events.stream().map(OutboxEvent::getId).toList();
+            transactionTemplate.executeWithoutResult(status -> outboxEventRepository.deleteAllByIdInBatch(ids));
+            LocalDateTime now = LocalDateTime.now();
+            for (OutboxEvent event : events) {
+                deliveryLag.record(Duration.between(event.getCreatedAt(), now));
+            }
+            deliveredCounter.increment(events.size());
+            delivered += events.size();
+
+            if (events.size() < properties.getBatchSize()) {
+                drained = true;
+                break;
+            }
+        }
+        if (drained) {
+            return new Backlog(delivered, 0, null);
+        }
+        Object[] summary = outboxEventRepository.summarizePending().get(0);
+        return new Backlog(delivered, (Long) summary[0], (LocalDateTime) summary[1]);
+    }
+
+    private void updatePending(long pendingEvents, LocalDateTime oldest) {
+        pending.set(pendingEvents);
+        oldestPending.set(oldest);
+
+        boolean overMaxLag = currentLagSeconds() > properties.getMaxLag().toSeconds();
+        if (overMaxLag != lagging) {
+            lagging = overMaxLag;
+            if (overMaxLag) {
+                logger.warn("Outbox lag exceeds {} with {} events pending", properties.getMaxLag(), pending.get());
+            } else {
+                logger.info("Outbox lag back under {}", properties.getMaxLag());
+            }
+        }
+    }
+
+    private double currentLagSeconds() {
+        LocalDateTime oldest = oldestPending.get();
+        if (oldest == null) {
+            return 0;
+        }
+        return Math.max(0, Duration.between(oldest, LocalDateTime.now()).toMillis()) / (double) TimeUnit.SECONDS.toMillis(1);
+    }
+
+    private record Backlog(int delivered, long pending, LocalDateTime oldest) {
+    }
+}
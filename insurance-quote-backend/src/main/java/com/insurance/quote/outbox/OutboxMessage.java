@@ -0,0 +1,29 @@
+package com.insurance.quote.outbox;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import com.insurance.quote.entity.OutboxEvent;
+import com.insurance.quote.entity.Quote;
+import com.insurance.quote.event.QuoteLifecycleEvent;
+
+import java.time.LocalDateTime;
+
+/**
+ * A quote lifecycle event as handed to an OutboxSink. Delivery is at least once: sinks and their consumers
+ * should de-duplicate on id, which increases in the order the events were committed.
+ *
+ * @param quote the quote as JSON, after the change (before removal, for deletions)
+ */
+public record OutboxMessage(long id,
+                            QuoteLifecycleEvent.Type type,
+                            long quoteId,
+                            String quoteNumber,
+                            Quote.QuoteStatus status,
+                            Quote.QuoteStatus previousStatus,
+                            LocalDateTime createdAt,
+                            @JsonRawValue String quote) {
+
+    static OutboxMessage of(OutboxEvent event) {
+        return new OutboxMessage(event.getId(), event.getEventType(), event.getQuoteId(), event.getQuoteNumber(),
+                event.getStatus(), event.getPreviousStatus(), event.getCreatedAt(), event.getPayload());
+    }
+}
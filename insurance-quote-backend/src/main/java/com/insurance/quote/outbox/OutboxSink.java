@@ -0,0 +1,13 @@
+package com.insurance.quote.outbox;
+
+import java.util.List;
+
+/**
+ * Destination for outbox events. A batch counts as delivered when deliver returns; if it throws, the whole
+ * batch is offered again on the next poll, so a sink may see an event more than once.
+ */
+@FunctionalInterface
+public interface OutboxSink {
+
+    void deliver(List<OutboxMessage> batch) throws Exception;
+}
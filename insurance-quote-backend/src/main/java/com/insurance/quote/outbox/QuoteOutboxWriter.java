@@ -0,0 +1,44 @@
+package com.insurance.quote.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.insurance.quote.entity.OutboxEvent;
+import com.insurance.quote.event.QuoteLifecycleEvent;
+import com.insurance.quote.repository.OutboxEventRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+
+/**
+ * Writes every quote lifecycle event to the outbox inside the transaction that changed the quote,
+ * so an event is recorded if and only if the change commits
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.outbox", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class QuoteOutboxWriter {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    public QuoteOutboxWriter(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onLifecycleEvent(QuoteLifecycleEvent event) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(event.quote());
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException("Could not serialize quote " + event.quote().getId(), e);
+        }
+        outboxEventRepository.save(new OutboxEvent(event, payload, LocalDateTime.now()));
+    }
+}
@@ -0,0 +1,115 @@
+package com.insurance.quote.quotenumber;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-size Bloom filter of strings that is safe for concurrent adds and lookups.
+ *
+ * <p>A string sets hashes bits, chosen by double hashing two 64-bit hashes of its chars, so mightContain never
+ * answers false for an added string. Strings cannot be removed. The expected false positive rate is the
+ * share of set bits raised to the number of hashes, so it can be read off the filter as it fills.
+ */
+public final class BloomFilter {
+
+    private static final double LN2 = Math.log(2);
+
+    private final AtomicLongArray words;
+    private final long bits;
+    private final int hashes;
+    private final LongAdder setBits = new LongAdder();
+    private final LongAdder insertions = new LongAdder();
+
+    private BloomFilter(long bits, int hashes) {
+        this.words = new AtomicLongArray(Math.toIntExact(bits / Long.SIZE));
+        this.bits = bits;
+        this.hashes = hashes;
+    }
+
+    /**
+     * Sizes a filter for the expected number of strings at the target false positive rate, capped at maxBits;
+     * a capped filter has a higher false positive rate at that number of strings
+     */
+    public static BloomFilter create(long expectedInsertions, double falsePositiveRate, long maxBits) {
+        long expected = Math.max(expectedInsertions, 1);
+        long optimalBits = (long) Math.ceil(-expected * Math.log(falsePositiveRate) / (LN2 * LN2));
+        long bits = Math.min(Math.max(optimalBits, Long.SIZE), Math.max(maxBits, Long.SIZE));
+        bits = (bits + Long.SIZE - 1) / Long.SIZE * Long.SIZE;
+        int hashes = (int) Math.max(1, Math.min(16, Math.round((double) bits / expected * LN2)));
+        return new BloomFilter(bits, hashes);
+    }
+
+    public void add(String value) {
+        long h1 = hash(value, 0xcbf29ce484222325L);
+        long h2 = hash(value, 0x84222325cbf29ce4L) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bits);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long previous = words.getAndUpdate(word, w -> w | mask);
+            if ((previous & mask) == 0) {
+                setBits.increment();
+            }
+        }
+        insertions.increment();
+    }
+
+    /**
+     * False if the value was never added; true if it was, or for a false positive
+     */
+    public boolean mightContain(String value) {
+        long h1 = hash(value, 0xcbf29ce484222325L);
+        long h2 = hash(value, 0x84222325cbf29ce4L) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bits);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Probability that mightContain answers true for a value that was never added, at the current fill
+     */
+    public double expectedFalsePositiveRate() {
+        return Math.pow((double) setBits.sum() / bits, hashes);
+    }
+
+    /**
+     * Number of add calls, counting repeats
+     */
+    public long insertions() {
+        return insertions.sum();
+    }
+
+    public long bitSize() {
+        return bits;
+    }
+
+    public int hashCount() {
+        return hashes;
+    }
+
+    public long memoryBytes() {
+        return bits / Byte.SIZE;
+    }
+
+    /**
+     * FNV-1a over the chars, finished with the MurmurHash3 64-bit mix
+     */
+    private static long hash(String value, long seed) {
+        long h = seed;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= value.length();
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,213 @@
+package com.insurance.quote.quotenumber;
+
+import com.insurance.quote.config.QuoteNumberFilterProperties;
+import com.insurance.quote.event.QuoteLifecycleEvent;
+import com.insurance.quote.sharding.ShardRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * Bloom filter of the quote numbers issued so far, live and archived, in front of the database checks for
+ * quote number uniqueness. Nearly every checked number is new, and the filter answers those without a query;
+ * only possible hits are looked up.
+ *
+ * <p>The filter is loaded from quotes and quote_archive when the application is ready, and sized for twice
+ * the numbers found (at least app.quote-number-filter.expected-numbers) within
+ * app.quote-number-filter.max-memory. Until then every check goes to the database. A number is added as soon
+ * as it is given to a quote and again after the transaction commits, so a check never misses an issued
+ * number, including one committed while the filter is being rebuilt. A Bloom filter cannot forget: the
+ * number of a deleted quote stays a possible hit, answered by the database, until the next rebuild. The
+ * filter is rebuilt when its expected false positive rate passes twice the target or deleted numbers pass a
+ * tenth of its entries, checked every app.quote-number-filter.check-interval. With sharding the filter holds
+ * the numbers of every shard.
+ */
+@Component
+public class QuoteNumberFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(QuoteNumberFilter.class);
+
+    private static final String COUNT_SQL =
+            "SELECT (SELECT COUNT(quote_number) FROM quotes) + (SELECT COUNT(quote_number) FROM quote_archive)";
+    private static final String LOAD_SQL = "SELECT quote_number FROM quotes WHERE quote_number IS NOT NULL "
+            + "UNION ALL SELECT quote_number FROM quote_archive WHERE quote_number IS NOT NULL";
+    private static final int LOAD_FETCH_SIZE = 1000;
+    private static final double STALE_REBUILD_RATIO = 0.1;
+
+    private final QuoteNumberFilterProperties properties;
+    private final DataSource dataSource;
+    private final ShardRouter shardRouter;
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+    private final AtomicLong deleted = new AtomicLong();
+    private final Counter absent;
+    private final Counter present;
+    private final Counter falsePositives;
+    private volatile BloomFilter filter;
+    private volatile Set<String> addedDuringRebuild;
+
+    public QuoteNumberFilter(QuoteNumberFilterProperties properties, DataSource dataSource, ShardRouter shardRouter,
+                             MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.dataSource = dataSource;
+        this.shardRouter = shardRouter;
+        this.absent = checks(meterRegistry, "absent");
+        this.present = checks(meterRegistry, "present");
+        this.falsePositives = checks(meterRegistry, "false_positive");
+        Gauge.builder("quote.number.filter.false.positive.rate", this,
+                        f -> f.filter == null ? Double.NaN : f.filter.expectedFalsePositiveRate())
+                .description("Expected false positive rate of the quote number filter at its current fill")
+                .register(meterRegistry);
+        Gauge.builder("quote.number.filter.memory", this, f -> f.filter == null ? 0 : f.filter.memoryBytes())
+                .description("Memory used by the quote number filter")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("quote.number.filter.numbers", this, f -> f.filter == null ? 0 : f.filter.insertions())
+                .description("Quote numbers added to the quote number filter")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (properties.isEnabled()) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Whether the quote number has been issued: false without a query if the filter rules it out, otherwise
+     * the answer of the database lookup
+     */
+    public boolean exists(String quoteNumber, Predicate<String> database) {
+        BloomFilter current = filter;
+        if (current != null && !current.mightContain(quoteNumber)) {
+            absent.increment();
+            return false;
+        }
+        boolean exists = database.test(quoteNumber);
+        if (current != null) {
+            (exists ? present : falsePositives).increment();
+        }
+        return exists;
+    }
+
+    /**
+     * Adds a quote number that is being issued, now and, inside a transaction, again after it commits
+     */
+    public void add(String quoteNumber) {
+        if (quoteNumber == null) {
+            return;
+        }
+        record(quoteNumber);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    record(quoteNumber);
+                }
+            });
+        }
+    }
+
+    @TransactionalEventListener(condition = "#event.type() == T(com.insurance.quote.event.QuoteLifecycleEvent.Type).DELETED",
+            fallbackExecution = true)
+    public void onQuoteDeleted(QuoteLifecycleEvent event) {
+        deleted.incrementAndGet();
+    }
+
+    @Scheduled(initialDelayString = "${app.quote-number-filter.check-interval:PT10M}",
+            fixedDelayString = "${app.quote-number-filter.check-interval:PT10M}")
+    public void rebuildIfDegraded() {
+        BloomFilter current = filter;
+        if (current == null) {
+            return;
+        }
+        double falsePositiveRate = current.expectedFalsePositiveRate();
+        if (falsePositiveRate > 2 * properties.getFalsePositiveRate()
+                || deleted.get() > STALE_REBUILD_RATIO * current.insertions()) {
+            logger.info("Rebuilding the quote number filter: expected false positive rate {}, {} deleted numbers",
+                    falsePositiveRate, deleted.get());
+            rebuild();
+        }
+    }
+
+    /**
+     * Loads a new filter from the database and swaps it in
+     */
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.setFetchSize(LOAD_FETCH_SIZE);
+        Set<String> journal = ConcurrentHashMap.newKeySet();
+        swapLock.writeLock().lock();
+        try {
+            addedDuringRebuild = journal;
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+        // Numbers committed before the load query are in its results; later ones are recorded in the journal
+        long numbers = shardRouter.onEachShard(() -> jdbcTemplate.queryForObject(COUNT_SQL, Long.class)).stream()
+                .mapToLong(Long::longValue)
+                .sum();
+        deleted.set(0);
+        BloomFilter next = BloomFilter.create(Math.max(properties.getExpectedNumbers(), 2 * numbers),
+                properties.getFalsePositiveRate(), properties.getMaxMemory().toBytes() * Byte.SIZE);
+        shardRouter.forEachShard(() -> jdbcTemplate.query(LOAD_SQL, rs -> {
+            next.add(rs.getString(1));
+        }));
+        swapLock.writeLock().lock();
+        try {
+            journal.forEach(next::add);
+            filter = next;
+            addedDuringRebuild = null;
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+        logger.info("Loaded {} quote numbers into a {} KB filter ({} hashes) in {} ms", next.insertions(),
+                next.memoryBytes() / 1024, next.hashCount(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public boolean isLoaded() {
+        return filter != null;
+    }
+
+    private void record(String quoteNumber) {
+        swapLock.readLock().lock();
+        try {
+            BloomFilter current = filter;
+            if (current != null) {
+                current.add(quoteNumber);
+            }
+            Set<String> journal = addedDuringRebuild;
+            if (journal != null) {
+                journal.add(quoteNumber);
+            }
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    private static Counter checks(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("quote.number.filter.checks")
+                .description("Quote number existence checks by filter result")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,74 @@
+package com.insurance.quote.ratelimit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * AIMD concurrency limiter.
+ * The limit grows by one request per full window of fast completions and is cut by the backoff ratio
+ * whenever a request is slower than the latency target or the connection pool is saturated.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyTargetNanos;
+    private final double backoffRatio;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit,
+                                      long latencyTargetNanos, double backoffRatio) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.initialLimit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.latencyTargetNanos = latencyTargetNanos;
+        this.backoffRatio = backoffRatio;
+        this.limit = this.initialLimit;
+    }
+
+    /**
+     * Reserve a slot for a new request, or return false if the current limit is reached
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Release a slot and feed the observed latency and pool state back into the limit
+     */
+    public void release(long latencyNanos, boolean poolSaturated) {
+        inFlight.decrementAndGet();
+        synchronized (this) {
+            if (poolSaturated || latencyNanos > latencyTargetNanos) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+            } else {
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+            }
+        }
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    /**
+     * How far the limit has backed off from its initial value, between 0 and 1
+     */
+    public double getHeadroom() {
+        return Math.min(1.0, limit / initialLimit);
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
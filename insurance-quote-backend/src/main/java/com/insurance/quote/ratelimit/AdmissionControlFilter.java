@@ -0,0 +1,173 @@
+package com.insurance.quote.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.insurance.quote.config.AdmissionControlProperties;
+import com.insurance.quote.exception.GlobalExceptionHandler;
+import com.insurance.quote.workload.Workload;
+import com.insurance.quote.workload.WorkloadContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission control in front of the quote API.
+ * Each client is held to its own token bucket, whose refill rate shrinks as the adaptive concurrency
+ * limit backs off. Requests over the client's rate get 429, requests over the concurrency limit get 503;
+ * both carry a Retry-After header and are rejected before any database work is done.
+ * Each workload has a concurrency limit of its own that backs off on its own pool's saturation, so bulk
+ * traffic saturating the bulk pool sheds bulk requests, not interactive ones.
+ */
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdmissionControlFilter.class);
+    private static final String OVERFLOW_CLIENT_KEY = "__overflow__";
+
+    private final AdmissionControlProperties properties;
+    private final ClientKeyResolver clientKeyResolver;
+    private final PoolSaturationProbe poolSaturationProbe;
+    private final ObjectMapper objectMapper;
+    private final Map<Workload, AdaptiveConcurrencyLimiter> limiters = new EnumMap<>(Workload.class);
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    private final Counter admittedCounter;
+    private final Counter rateLimitedCounter;
+    private final Counter shedCounter;
+
+    public AdmissionControlFilter(AdmissionControlProperties properties,
+                                  ClientKeyResolver clientKeyResolver,
+                                  PoolSaturationProbe poolSaturationProbe,
+                                  ObjectMapper objectMapper,
+                                  MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.clientKeyResolver = clientKeyResolver;
+        this.poolSaturationProbe = poolSaturationProbe;
+        this.objectMapper = objectMapper;
+        for (Workload workload : Workload.values()) {
+            AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+                    properties.getInitialConcurrencyLimit(),
+                    properties.getMinConcurrencyLimit(),
+                    properties.getMaxConcurrencyLimit(),
+                    properties.getLatencyTarget().toNanos(),
+                    properties.getBackoffRatio());
+            limiters.put(workload, limiter);
+            Gauge.builder("quote.admission.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                    .description("Current adaptive concurrency limit")
+                    .tag("workload", workload.poolName())
+                    .register(meterRegistry);
+            Gauge.builder("quote.admission.inflight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                    .description("Requests currently admitted and in flight")
+                    .tag("workload", workload.poolName())
+                    .register(meterRegistry);
+        }
+
+        this.admittedCounter = decisionCounter(meterRegistry, "admitted");
+        this.rateLimitedCounter = decisionCounter(meterRegistry, "rate_limited");
+        this.shedCounter = decisionCounter(meterRegistry, "shed");
+        Gauge.builder("quote.admission.clients", buckets, Map::size)
+                .description("Clients with an active token bucket")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        long now = System.nanoTime();
+        String clientKey = clientKeyResolver.resolve(request);
+        AdaptiveConcurrencyLimiter limiter = limiters.get(WorkloadContext.current());
+
+        TokenBucket bucket = bucketFor(clientKey, now);
+        long waitNanos = bucket.tryAcquire(currentRatePerSecond(limiter), now);
+        if (waitNanos > 0) {
+            rateLimitedCounter.increment();
+            logger.debug("Rate limited client {}", clientKey);
+            reject(request, response, HttpStatus.TOO_MANY_REQUESTS, waitNanos,
+                    "Rate limit exceeded for client " + clientKey);
+            return;
+        }
+
+        if (!limiter.tryAcquire()) {
+            // Shedding is the server's doing, so it must not count against the client's rate
+            bucket.refund();
+            shedCounter.increment();
+            logger.debug("Shedding request from client {} at concurrency limit {}", clientKey, limiter.getLimit());
+            reject(request, response, HttpStatus.SERVICE_UNAVAILABLE, properties.getShedRetryAfter().toNanos(),
+                    "Service is at capacity, please retry");
+            return;
+        }
+
+        admittedCounter.increment();
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            boolean poolSaturated = poolSaturationProbe.saturation() >= properties.getPoolSaturationThreshold();
+            limiter.release(System.nanoTime() - start, poolSaturated);
+        }
+    }
+
+    private double currentRatePerSecond(AdaptiveConcurrencyLimiter limiter) {
+        return properties.getRequestsPerSecond() * Math.max(properties.getMinRateFactor(), limiter.getHeadroom());
+    }
+
+    private TokenBucket bucketFor(String clientKey, long now) {
+        TokenBucket bucket = buckets.get(clientKey);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= properties.getMaxTrackedClients()) {
+            evictIdleBuckets(now);
+            if (buckets.size() >= properties.getMaxTrackedClients()) {
+                clientKey = OVERFLOW_CLIENT_KEY;
+            }
+        }
+        return buckets.computeIfAbsent(clientKey, key -> new TokenBucket(properties.getBurst(), now));
+    }
+
+    private void evictIdleBuckets(long now) {
+        long idleNanos = properties.getIdleClientTtl().toNanos();
+        buckets.values().removeIf(bucket -> now - bucket.getLastAccessNanos() > idleNanos);
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, HttpStatus status,
+                        long retryAfterNanos, String message) throws IOException {
+        long retryAfterSeconds = Math.max(1L, TimeUnit.NANOSECONDS.toSeconds(retryAfterNanos + 999_999_999L));
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new GlobalExceptionHandler.ErrorResponse(
+                status.value(),
+                message,
+                "uri=" + request.getRequestURI(),
+                LocalDateTime.now()
+        ));
+    }
+
+    private static Counter decisionCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("quote.admission.requests")
+                .description("Admission control decisions for quote API requests")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
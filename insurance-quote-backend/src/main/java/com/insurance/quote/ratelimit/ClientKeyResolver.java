@@ -0,0 +1,30 @@
+package com.insurance.quote.ratelimit;
+
+import com.insurance.quote.config.AdmissionControlProperties;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+/**
+ * Identifies the API client behind a request: the configured client header, or the remote address
+ */
+@Component
+public class ClientKeyResolver {
+
+    private static final int MAX_KEY_LENGTH = 64;
+
+    private final AdmissionControlProperties properties;
+
+    public ClientKeyResolver(AdmissionControlProperties properties) {
+        this.properties = properties;
+    }
+
+    public String resolve(HttpServletRequest request) {
+        String clientId = request.getHeader(properties.getClientHeader());
+        if (StringUtils.hasText(clientId)) {
+            String trimmed = clientId.trim();
+            return trimmed.length() > MAX_KEY_LENGTH ? trimmed.substring(0, MAX_KEY_LENGTH) : trimmed;
+        }
+        return request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,73 @@
+package com.insurance.quote.ratelimit;
+
+import com.insurance.quote.workload.WorkloadRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+/**
+ * Reads the saturation of the Hikari connection pool backing the application DataSource, or with workload pools
+ * the pool of the current workload class
+ */
+@Component
+public class PoolSaturationProbe {
+
+    private static final Logger logger = LoggerFactory.getLogger(PoolSaturationProbe.class);
+
+    private final WorkloadRoutingDataSource workloadPools;
+    private final HikariDataSource hikariDataSource;
+
+    public PoolSaturationProbe(DataSource dataSource) {
+        this.workloadPools = unwrapWorkloadPools(dataSource);
+        this.hikariDataSource = workloadPools == null ? unwrap(dataSource) : null;
+    }
+
+    /**
+     * Fraction of the pool in use, or 1.0 when callers are already queueing for a connection
+     */
+    public double saturation() {
+        return saturation(workloadPools != null ? workloadPools.currentPool() : hikariDataSource);
+    }
+
+    public static double saturation(HikariDataSource hikariDataSource) {
+        if (hikariDataSource == null) {
+            return 0.0;
+        }
+        HikariPoolMXBean pool = hikariDataSource.getHikariPoolMXBean();
+        if (pool == null) {
+            return 0.0;
+        }
+        if (pool.getThreadsAwaitingConnection() > 0) {
+            return 1.0;
+        }
+        return (double) pool.getActiveConnections() / hikariDataSource.getMaximumPoolSize();
+    }
+
+    private static WorkloadRoutingDataSource unwrapWorkloadPools(DataSource dataSource) {
+        try {
+            if (dataSource.isWrapperFor(WorkloadRoutingDataSource.class)) {
+                return dataSource.unwrap(WorkloadRoutingDataSource.class);
+            }
+        } catch (SQLException e) {
+            logger.warn("Could not unwrap DataSource to workload pools: {}", e.getMessage());
+        }
+        return null;
+    }
+
+    private static HikariDataSource unwrap(DataSource dataSource) {
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                return dataSource.unwrap(HikariDataSource.class);
+            }
+        } catch (SQLException e) {
+            logger.warn("Could not unwrap DataSource to Hikari: {}", e.getMessage());
+        }
+        logger.info("DataSource is not backed by Hikari, pool saturation will not be considered");
+        return null;
+    }
+}
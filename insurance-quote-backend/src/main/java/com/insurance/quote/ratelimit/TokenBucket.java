@@ -0,0 +1,58 @@
+package com.insurance.quote.ratelimit;
+
+/**
+ * Token bucket for a single API client.
+ * The refill rate is supplied on every call so that it can follow the adaptive concurrency limit.
+ */
+public class TokenBucket {
+
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+    private final int capacity;
+    private double tokens;
+    private long lastRefillNanos;
+    private volatile long lastAccessNanos;
+
+    public TokenBucket(int capacity, long nowNanos) {
+        this.capacity = capacity;
+        this.tokens = capacity;
+        this.lastRefillNanos = nowNanos;
+        this.lastAccessNanos = nowNanos;
+    }
+
+    /**
+     * Try to take one token.
+     *
+     * @return 0 if a token was taken, otherwise the nanoseconds until the next token becomes available
+     */
+    public synchronized long tryAcquire(double ratePerSecond, long nowNanos) {
+        lastAccessNanos = nowNanos;
+        refill(ratePerSecond, nowNanos);
+
+        if (tokens >= 1.0) {
+            tokens -= 1.0;
+            return 0L;
+        }
+
+        return (long) Math.ceil((1.0 - tokens) / ratePerSecond * NANOS_PER_SECOND);
+    }
+
+    /**
+     * Give back a token taken for a request that was not served after all
+     */
+    public synchronized void refund() {
+        tokens = Math.min(capacity, tokens + 1.0);
+    }
+
+    private void refill(double ratePerSecond, long nowNanos) {
+        long elapsed = nowNanos - lastRefillNanos;
+        if (elapsed > 0) {
+            tokens = Math.min(capacity, tokens + elapsed / NANOS_PER_SECOND * ratePerSecond);
+            lastRefillNanos = nowNanos;
+        }
+    }
+
+    public long getLastAccessNanos() {
+        return lastAccessNanos;
+    }
+}
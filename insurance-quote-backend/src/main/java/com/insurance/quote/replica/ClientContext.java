@@ -0,0 +1,52 @@
+package com.insurance.quote.replica;
+
+import java.util.function.Supplier;
+
+/**
+ * The API client the current thread works for, as resolved by ClientContextFilter. ReplicaRouter keeps the reads
+ * of a client on the primary until the replicas have applied its last write; work outside of any request has no
+ * client and reads from any fresh replica.
+ */
+public final class ClientContext {
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private ClientContext() {
+    }
+
+    /**
+     * The current client, or null outside of any request
+     */
+    public static String current() {
+        return CURRENT.get();
+    }
+
+    public static <T> T call(String client, Supplier<T> task) {
+        String previous = CURRENT.get();
+        CURRENT.set(client);
+        try {
+            return task.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    public static void run(String client, Runnable task) {
+        call(client, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    static void set(String client) {
+        CURRENT.set(client);
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+}
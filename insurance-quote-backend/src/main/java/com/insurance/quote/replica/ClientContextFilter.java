@@ -0,0 +1,33 @@
+package com.insurance.quote.replica;
+
+import com.insurance.quote.ratelimit.ClientKeyResolver;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Runs each request in the ClientContext of its API client, identified like admission control identifies it
+ */
+public class ClientContextFilter extends OncePerRequestFilter {
+
+    private final ClientKeyResolver clientKeyResolver;
+
+    public ClientContextFilter(ClientKeyResolver clientKeyResolver) {
+        this.clientKeyResolver = clientKeyResolver;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        ClientContext.set(clientKeyResolver.resolve(request));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ClientContext.clear();
+        }
+    }
+}
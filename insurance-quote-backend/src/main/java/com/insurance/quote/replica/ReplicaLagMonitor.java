@@ -0,0 +1,63 @@
+package com.insurance.quote.replica;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Measures replication lag with the replication_heartbeat row: each check stamps the row on the primary with
+ * the current time and reads it back from every replica. The stamp a replica holds is the instant up to which it
+ * has applied the primary's commits; its distance to the new stamp is the replica's lag. A replica that cannot be
+ * read is unavailable until a later check reads it.
+ */
+public class ReplicaLagMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private static final String STAMP_SQL = "UPDATE replication_heartbeat SET beat_at = ? WHERE id = 1";
+    private static final String READ_SQL = "SELECT beat_at FROM replication_heartbeat WHERE id = 1";
+
+    private final JdbcTemplate primary;
+    private final Map<String, JdbcTemplate> replicas;
+    private final ReplicaRouter router;
+
+    public ReplicaLagMonitor(ReplicaRoutingDataSource dataSource, ReplicaRouter router) {
+        this.primary = new JdbcTemplate(dataSource.getPrimary());
+        this.replicas = new LinkedHashMap<>();
+        dataSource.getReplicas().forEach((name, replica) -> replicas.put(name, new JdbcTemplate(replica)));
+        this.router = router;
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${app.replicas.lag-check-interval:PT1S}")
+    public void check() {
+        Instant beat = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        try {
+            primary.update(STAMP_SQL, Timestamp.from(beat));
+        } catch (DataAccessException e) {
+            // Without a new stamp the replicas' lag cannot be told from the primary's idleness; keep the last one
+            logger.warn("Could not stamp the replication heartbeat on the primary: {}", e.getMessage());
+            return;
+        }
+        replicas.forEach((name, replica) -> {
+            try {
+                Instant applied = replica.queryForObject(READ_SQL, Timestamp.class).toInstant();
+                Duration lag = applied.isBefore(beat) ? Duration.between(applied, beat) : Duration.ZERO;
+                router.replicaMeasured(name, applied, lag);
+                logger.debug("Replica {} is {} ms behind the primary", name, lag.toMillis());
+            } catch (DataAccessException e) {
+                router.replicaUnavailable(name, e.getMessage());
+            }
+        });
+        router.forgetAppliedWrites(beat);
+    }
+}
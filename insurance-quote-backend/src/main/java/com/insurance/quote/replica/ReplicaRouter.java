@@ -0,0 +1,192 @@
+package com.insurance.quote.replica;
+
+import com.insurance.quote.config.ReplicaProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Picks the database of each read-only transaction. A replica serves reads while it is fresh: it answered the
+ * last lag check and has applied every primary commit older than app.replicas.max-lag. With read-your-writes
+ * on, a client that committed a write keeps reading from the primary until a fresh replica has applied that
+ * write, so it never reads back an older version of what it just saved. Fresh replicas take turns; without
+ * one, reads go to the primary.
+ */
+public class ReplicaRouter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRouter.class);
+
+    public static final String PRIMARY = "primary";
+
+    private final Duration maxLag;
+    private final boolean readYourWrites;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final Map<String, Replica> replicasByName = new ConcurrentHashMap<>();
+    private final Map<String, Instant> lastWrites = new ConcurrentHashMap<>();
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final Counter staleReads;
+    private final Counter readYourWritesReads;
+
+    public ReplicaRouter(ReplicaProperties properties, MeterRegistry meterRegistry) {
+        this.maxLag = properties.getMaxLag();
+        this.readYourWrites = properties.isReadYourWrites();
+        if (properties.getReplicas().isEmpty()) {
+            throw new IllegalArgumentException("Read replicas are enabled but app.replicas.replicas is empty");
+        }
+        // A replica in sync is measured once per check, so it trails by up to a check interval
+        if (properties.getLagCheckInterval().compareTo(maxLag) >= 0) {
+            throw new IllegalArgumentException("app.replicas.max-lag must be longer than app.replicas.lag-check-interval");
+        }
+        Set<String> names = new HashSet<>();
+        for (ReplicaProperties.Replica config : properties.getReplicas()) {
+            String name = config.getName();
+            if (name == null || name.isBlank() || PRIMARY.equals(name) || !names.add(name)) {
+                throw new IllegalArgumentException("Read replicas need distinct names other than '" + PRIMARY
+                        + "', got " + name);
+            }
+            Replica replica = new Replica(name, Counter.builder("quote.replica.reads")
+                    .description("Read-only transactions by the database that served them and why")
+                    .tags("target", name, "reason", "replica")
+                    .register(meterRegistry));
+            replicas.add(replica);
+            replicasByName.put(name, replica);
+            Gauge.builder("quote.replica.lag", replica, Replica::lagSeconds)
+                    .description("Replication lag of the replica at the last lag check, in seconds")
+                    .tag("replica", name)
+                    .register(meterRegistry);
+            Gauge.builder("quote.replica.available", replica, r -> r.available ? 1 : 0)
+                    .description("Whether the replica answered the last lag check")
+                    .tag("replica", name)
+                    .register(meterRegistry);
+        }
+        this.staleReads = Counter.builder("quote.replica.reads")
+                .description("Read-only transactions by the database that served them and why")
+                .tags("target", PRIMARY, "reason", "stale")
+                .register(meterRegistry);
+        this.readYourWritesReads = Counter.builder("quote.replica.reads")
+                .description("Read-only transactions by the database that served them and why")
+                .tags("target", PRIMARY, "reason", "read-your-writes")
+                .register(meterRegistry);
+        Gauge.builder("quote.replica.sticky.clients", lastWrites, Map::size)
+                .description("Clients whose recent writes keep their reads on the primary")
+                .register(meterRegistry);
+    }
+
+    public List<String> replicaNames() {
+        return replicas.stream().map(replica -> replica.name).toList();
+    }
+
+    /**
+     * The replica to serve a read-only transaction of the current client, or PRIMARY
+     */
+    public String routeRead() {
+        String client = readYourWrites ? ClientContext.current() : null;
+        Instant lastWrite = client != null ? lastWrites.get(client) : null;
+        Instant now = Instant.now();
+        boolean fresh = false;
+        int start = Math.floorMod(nextReplica.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (!replica.isFresh(now, maxLag)) {
+                continue;
+            }
+            fresh = true;
+            if (lastWrite == null || !replica.appliedThrough.isBefore(lastWrite)) {
+                replica.reads.increment();
+                return replica.name;
+            }
+        }
+        (fresh ? readYourWritesReads : staleReads).increment();
+        return PRIMARY;
+    }
+
+    /**
+     * Called when a read-write transaction takes its connection: remembers the client's write once it commits
+     */
+    public void trackWrite() {
+        String client = ClientContext.current();
+        if (!readYourWrites || client == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                // Heartbeats are stored to the microsecond; one written after the commit must not compare earlier
+                Instant committed = Instant.now().truncatedTo(ChronoUnit.MICROS);
+                lastWrites.merge(client, committed, (previous, latest) -> latest.isAfter(previous) ? latest : previous);
+            }
+        });
+    }
+
+    /**
+     * The current client if its last write may not have reached every replica yet, otherwise null
+     */
+    public String stickyClient() {
+        String client = readYourWrites ? ClientContext.current() : null;
+        return client != null && lastWrites.containsKey(client) ? client : null;
+    }
+
+    void replicaMeasured(String name, Instant appliedThrough, Duration lag) {
+        Replica replica = replicasByName.get(name);
+        if (!replica.available) {
+            logger.info("Replica {} is available, {} ms behind the primary", name, lag.toMillis());
+        }
+        replica.appliedThrough = appliedThrough;
+        replica.lag = lag;
+        replica.available = true;
+    }
+
+    void replicaUnavailable(String name, String cause) {
+        Replica replica = replicasByName.get(name);
+        if (replica.available) {
+            logger.warn("Replica {} did not answer the lag check, reading from the others: {}", name, cause);
+        }
+        replica.available = false;
+    }
+
+    /**
+     * Forgets writes that every fresh replica has applied: a replica without them is stale anyway
+     */
+    void forgetAppliedWrites(Instant now) {
+        Instant horizon = now.minus(maxLag);
+        lastWrites.values().removeIf(committed -> committed.isBefore(horizon));
+    }
+
+    private static final class Replica {
+
+        private final String name;
+        private final Counter reads;
+        private volatile Instant appliedThrough = Instant.EPOCH;
+        private volatile Duration lag;
+        private volatile boolean available;
+
+        private Replica(String name, Counter reads) {
+            this.name = name;
+            this.reads = reads;
+        }
+
+        private boolean isFresh(Instant now, Duration maxLag) {
+            return available && Duration.between(appliedThrough, now).compareTo(maxLag) <= 0;
+        }
+
+        private double lagSeconds() {
+            Duration current = lag;
+            return current == null ? Double.NaN : current.toNanos() / 1e9;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.insurance.quote.replica;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * DataSource that hands out connections of read-only transactions to the replica ReplicaRouter picks, and all
+ * others to the primary. The read-only flag of a transaction is only known once it has begun, so this
+ * DataSource sits behind a LazyConnectionDataSourceProxy that asks for the connection at the first statement.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final DataSource primary;
+    private final Map<String, DataSource> replicas;
+    private final ReplicaRouter router;
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, ReplicaRouter router) {
+        this.primary = primary;
+        this.replicas = Map.copyOf(replicas);
+        this.router = router;
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(ReplicaRouter.PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    public DataSource getPrimary() {
+        return primary;
+    }
+
+    public Map<String, DataSource> getReplicas() {
+        return replicas;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return router.routeRead();
+        }
+        router.trackWrite();
+        return ReplicaRouter.PRIMARY;
+    }
+}
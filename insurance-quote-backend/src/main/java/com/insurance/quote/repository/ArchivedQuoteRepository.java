@@ -0,0 +1,32 @@
+package com.insurance.quote.repository;
+
+import com.insurance.quote.entity.ArchivedQuote;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository interface for ArchivedQuote entity operations
+ */
+@Repository
+public interface ArchivedQuoteRepository extends JpaRepository<ArchivedQuote, Long> {
+
+    /**
+     * Find archived quote by quote number
+     */
+    Optional<ArchivedQuote> findByQuoteNumber(String quoteNumber);
+
+    /**
+     * Check if quote number exists in the archive
+     */
+    boolean existsByQuoteNumber(String quoteNumber);
+
+    /**
+     * Count and total premium of archived quotes per status, as [status, count, premium] rows
+     */
+    @Query("SELECT a.status, COUNT(a), COALESCE(SUM(a.totalPremium), 0) FROM ArchivedQuote a GROUP BY a.status")
+    List<Object[]> summarizeByStatus();
+}
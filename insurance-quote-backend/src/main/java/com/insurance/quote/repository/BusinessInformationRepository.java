@@ -2,10 +2,12 @@ package com.insurance.quote.repository;
 
 import com.insurance.quote.entity.BusinessInformation;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,6 +22,11 @@ public interface BusinessInformationRepository extends JpaRepository<BusinessInf
      */
     Optional<BusinessInformation> findByNameIgnoreCase(String name);
 
+    /**
+     * Find the business with the given normalized name in a state (see BusinessInformation.normalize)
+     */
+    Optional<BusinessInformation> findByNormalizedNameAndState(String normalizedName, String state);
+
     /**
      * Find business information by name containing specified text
      */
@@ -88,4 +95,18 @@ public interface BusinessInformationRepository extends JpaRepository<BusinessInf
      */
     @Query("SELECT b FROM BusinessInformation b WHERE b.createdAt >= CURRENT_TIMESTAMP - :days DAY")
     List<BusinessInformation> findRecentBusinesses(@Param("days") int days);
-}
\ No newline at end of file
+
+    /**
+     * Find which of the given businesses no quote references any more
+     */
+    @Query("SELECT b.id FROM BusinessInformation b WHERE b.id IN :ids "
+            + "AND NOT EXISTS (SELECT q.id FROM Quote q WHERE q.businessInformation = b)")
+    List<Long> findUnreferencedIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Delete business information by ID without loading it
+     */
+    @Modifying
+    @Query("DELETE FROM BusinessInformation b WHERE b.id IN :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<Long> ids);
+}
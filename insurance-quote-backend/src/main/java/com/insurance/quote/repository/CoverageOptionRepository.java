@@ -3,11 +3,13 @@ package com.insurance.quote.repository;
 import com.insurance.quote.entity.CoverageOption;
 import com.insurance.quote.entity.Quote;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -122,4 +124,11 @@ public interface CoverageOptionRepository extends JpaRepository<CoverageOption,
      * Delete coverage options by quote
      */
     void deleteByQuote(Quote quote);
-}
\ No newline at end of file
+
+    /**
+     * Delete the coverage options of the given quotes without loading them
+     */
+    @Modifying
+    @Query("DELETE FROM CoverageOption co WHERE co.quote.id IN :quoteIds")
+    int deleteAllByQuoteIdIn(@Param("quoteIds") Collection<Long> quoteIds);
+}
@@ -0,0 +1,59 @@
+package com.insurance.quote.repository;
+
+import com.insurance.quote.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Repository interface for IdempotencyRecord entity operations
+ */
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    /**
+     * Delete records whose retention period has passed
+     */
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+
+    /**
+     * Delete the record of a key if its retention period or in-progress lease has passed
+     */
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.idempotencyKey = :key AND r.expiresAt <= :now")
+    int deleteIfExpired(@Param("key") String key, @Param("now") LocalDateTime now);
+
+    /**
+     * Extend the lease of an in-progress reservation, if it is still the one made at reservedAt
+     */
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.expiresAt = :expiresAt "
+            + "WHERE r.idempotencyKey = :key AND r.createdAt = :reservedAt AND r.completed = false")
+    int renew(@Param("key") String key, @Param("reservedAt") LocalDateTime reservedAt,
+              @Param("expiresAt") LocalDateTime expiresAt);
+
+    /**
+     * Record the response of an in-progress reservation, if it is still the one made at reservedAt
+     */
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.completed = true, r.httpStatus = :httpStatus, "
+            + "r.responseBody = :responseBody, r.expiresAt = :expiresAt "
+            + "WHERE r.idempotencyKey = :key AND r.createdAt = :reservedAt AND r.completed = false")
+    int complete(@Param("key") String key, @Param("reservedAt") LocalDateTime reservedAt,
+                 @Param("httpStatus") int httpStatus, @Param("responseBody") String responseBody,
+                 @Param("expiresAt") LocalDateTime expiresAt);
+
+    /**
+     * Delete an in-progress reservation, if it is still the one made at reservedAt
+     */
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r "
+            + "WHERE r.idempotencyKey = :key AND r.createdAt = :reservedAt AND r.completed = false")
+    int release(@Param("key") String key, @Param("reservedAt") LocalDateTime reservedAt);
+}
@@ -0,0 +1,28 @@
+package com.insurance.quote.repository;
+
+import com.insurance.quote.entity.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository interface for OutboxEvent entity operations
+ */
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Find the oldest undelivered events, in the order they were written
+     */
+    @Query("SELECT e FROM OutboxEvent e ORDER BY e.id")
+    List<OutboxEvent> findNextBatch(Pageable pageable);
+
+    /**
+     * Number of undelivered events and the creation time of the oldest, as a single [count, createdAt] row
+     */
+    @Query("SELECT COUNT(e), MIN(e.createdAt) FROM OutboxEvent e")
+    List<Object[]> summarizePending();
+}
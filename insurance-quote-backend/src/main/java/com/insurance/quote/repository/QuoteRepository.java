@@ -4,11 +4,13 @@ import com.insurance.quote.entity.Quote;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -68,6 +70,18 @@ public interface QuoteRepository extends JpaRepository<Quote, Long> {
      */
     long countByStatus(Quote.QuoteStatus status);
 
+    /**
+     * Count quotes per status in a single query, as [status, count] rows
+     */
+    @Query("SELECT q.status, COUNT(q) FROM Quote q GROUP BY q.status")
+    List<Object[]> countGroupedByStatus();
+
+    /**
+     * Count quotes per business in a single query, as [business id, count] rows
+     */
+    @Query("SELECT q.businessInformation.id, COUNT(q) FROM Quote q GROUP BY q.businessInformation.id")
+    List<Object[]> countGroupedByBusiness();
+
     /**
      * Find quotes with total premium greater than specified amount
      */
@@ -90,4 +104,25 @@ public interface QuoteRepository extends JpaRepository<Quote, Long> {
      * Check if quote number exists
      */
     boolean existsByQuoteNumber(String quoteNumber);
-}
\ No newline at end of file
+
+    /**
+     * Find IDs of quotes in the given statuses last changed before the cutoff, oldest IDs first
+     */
+    @Query("SELECT q.id FROM Quote q WHERE q.status IN :statuses AND q.updatedAt < :cutoff ORDER BY q.id")
+    List<Long> findArchivableIds(@Param("statuses") Collection<Quote.QuoteStatus> statuses,
+                                 @Param("cutoff") LocalDateTime cutoff,
+                                 Pageable pageable);
+
+    /**
+     * Delete quotes by ID without loading them; coverage options and business information are not cascaded
+     */
+    @Modifying
+    @Query("DELETE FROM Quote q WHERE q.id IN :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Find quotes created or modified after the given change token, oldest change first, with their business information
+     */
+    @Query("SELECT q FROM Quote q JOIN FETCH q.businessInformation WHERE q.changeSeq > :since ORDER BY q.changeSeq")
+    List<Quote> findChangedSince(@Param("since") long since, Pageable pageable);
+}
@@ -0,0 +1,23 @@
+package com.insurance.quote.repository;
+
+import com.insurance.quote.entity.QuoteTombstone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository interface for QuoteTombstone entity operations
+ */
+@Repository
+public interface QuoteTombstoneRepository extends JpaRepository<QuoteTombstone, Long> {
+
+    /**
+     * Find tombstones written after the given change token, oldest first
+     */
+    @Query("SELECT t FROM QuoteTombstone t WHERE t.changeSeq > :since ORDER BY t.changeSeq")
+    List<QuoteTombstone> findChangedSince(@Param("since") long since, Pageable pageable);
+}
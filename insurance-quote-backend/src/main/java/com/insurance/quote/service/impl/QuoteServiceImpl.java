@@ -1,21 +1,28 @@
 package com.insurance.quote.service.impl;
 
+import com.insurance.quote.archive.QuoteArchive;
+import com.insurance.quote.business.BusinessDirectory;
+import com.insurance.quote.coalescing.Coalesced;
 import com.insurance.quote.dto.BusinessInformationDto;
 import com.insurance.quote.dto.CoverageOptionDto;
 import com.insurance.quote.dto.QuoteDto;
 import com.insurance.quote.entity.BusinessInformation;
 import com.insurance.quote.entity.CoverageOption;
 import com.insurance.quote.entity.Quote;
+import com.insurance.quote.event.QuoteLifecycleEvent;
 import com.insurance.quote.exception.ResourceNotFoundException;
 import com.insurance.quote.exception.InvalidQuoteStateException;
 import com.insurance.quote.mapper.QuoteMapper;
-import com.insurance.quote.repository.BusinessInformationRepository;
+import com.insurance.quote.quotenumber.QuoteNumberFilter;
 import com.insurance.quote.repository.CoverageOptionRepository;
 import com.insurance.quote.repository.QuoteRepository;
 import com.insurance.quote.service.QuoteService;
+import com.insurance.quote.sharding.ShardContext;
+import com.insurance.quote.sharding.ShardRouter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -26,6 +33,7 @@ import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Random;
 import java.util.stream.Collectors;
@@ -40,24 +48,33 @@ public class QuoteServiceImpl implements QuoteService {
     private static final Logger logger = LoggerFactory.getLogger(QuoteServiceImpl.class);
 
     private final QuoteRepository quoteRepository;
-    private final BusinessInformationRepository businessInfoRepository;
+    private final BusinessDirectory businessDirectory;
     private final CoverageOptionRepository coverageOptionRepository;
     private final QuoteMapper quoteMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final QuoteArchive quoteArchive;
+    private final QuoteNumberFilter quoteNumberFilter;
 
     @Value("${app.quote.validity-days:30}")
-    private int quoteValidityDays;
+    private int quoteValidityDays = 30;
 
     @Value("${app.quote.quote-number-prefix:IQ}")
-    private String quoteNumberPrefix;
+    private String quoteNumberPrefix = "IQ";
 
     public QuoteServiceImpl(QuoteRepository quoteRepository,
-                           BusinessInformationRepository businessInfoRepository,
+                           BusinessDirectory businessDirectory,
                            CoverageOptionRepository coverageOptionRepository,
-                           QuoteMapper quoteMapper) {
+                           QuoteMapper quoteMapper,
+                           ApplicationEventPublisher eventPublisher,
+                           QuoteArchive quoteArchive,
+                           QuoteNumberFilter quoteNumberFilter) {
         this.quoteRepository = quoteRepository;
-        this.businessInfoRepository = businessInfoRepository;
+        this.businessDirectory = businessDirectory;
         this.coverageOptionRepository = coverageOptionRepository;
         this.quoteMapper = quoteMapper;
+        this.eventPublisher = eventPublisher;
+        this.quoteArchive = quoteArchive;
+        this.quoteNumberFilter = quoteNumberFilter;
     }
 
     @Override
@@ -67,8 +84,12 @@ public class QuoteServiceImpl implements QuoteService {
         // Map DTO to entity
         Quote quote = quoteMapper.toEntity(quoteDto);
         
+        // Reuse the business row if the business is known
+        quote.setBusinessInformation(businessDirectory.resolve(quote.getBusinessInformation()));
+
         // Generate quote number
         quote.setQuoteNumber(generateQuoteNumber());
+        quoteNumberFilter.add(quote.getQuoteNumber());
         
         // Set validity period
         quote.setValidUntil(LocalDateTime.now().plusDays(quoteValidityDays));
@@ -90,29 +111,29 @@ public class QuoteServiceImpl implements QuoteService {
         Quote savedQuote = quoteRepository.save(quote);
         logger.info("Created quote with ID: {} and number: {}", savedQuote.getId(), savedQuote.getQuoteNumber());
         
-        return quoteMapper.toDto(savedQuote);
+        QuoteDto createdQuote = quoteMapper.toDto(savedQuote);
+        publish(QuoteLifecycleEvent.Type.CREATED, createdQuote, null);
+        return createdQuote;
     }
 
     @Override
     public QuoteDto updateQuote(Long id, QuoteDto quoteDto) {
         logger.info("Updating quote with ID: {}", id);
         
-        Quote existingQuote = quoteRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Quote not found with id: " + id));
+        Quote existingQuote = findLiveQuote(id);
         
         // Check if quote can be updated
         if (existingQuote.getStatus() == Quote.QuoteStatus.APPROVED ||
             existingQuote.getStatus() == Quote.QuoteStatus.REJECTED) {
             throw new InvalidQuoteStateException("Cannot update quote in " + existingQuote.getStatus() + " status");
         }
+        Quote.QuoteStatus previousStatus = existingQuote.getStatus();
         
-        // Update business information
-        BusinessInformation businessInfo = existingQuote.getBusinessInformation();
+        // Update business information: the row is shared, so a different name or state points the quote at
+        // another business rather than renaming this one
         BusinessInformationDto businessInfoDto = quoteDto.getBusinessInformation();
-        businessInfo.setName(businessInfoDto.getName());
-        businessInfo.setBusinessType(businessInfoDto.getBusinessType());
-        businessInfo.setIndustry(businessInfoDto.getIndustry());
-        businessInfo.setState(businessInfoDto.getState());
+        existingQuote.setBusinessInformation(businessDirectory.resolve(new BusinessInformation(businessInfoDto.getName(),
+                businessInfoDto.getBusinessType(), businessInfoDto.getIndustry(), businessInfoDto.getState())));
         
         // Update coverage options
         updateCoverageOptions(existingQuote, quoteDto.getCoverageOptions());
@@ -129,27 +150,33 @@ public class QuoteServiceImpl implements QuoteService {
         
         // Recalculate premium
         existingQuote.calculateTotalPremium();
+        // Touch the quote row even if only its business information or coverage changed, so it gets a new change token
+        existingQuote.setUpdatedAt(LocalDateTime.now());
         
         Quote updatedQuote = quoteRepository.save(existingQuote);
         logger.info("Updated quote with ID: {}", updatedQuote.getId());
         
-        return quoteMapper.toDto(updatedQuote);
+        return publishUpdate(updatedQuote, previousStatus);
     }
 
     @Override
+    @Coalesced
     @Transactional(readOnly = true)
     public Optional<QuoteDto> getQuoteById(Long id) {
         logger.debug("Fetching quote with ID: {}", id);
         return quoteRepository.findById(id)
-                .map(quoteMapper::toDto);
+                .map(quoteMapper::toDto)
+                .or(() -> quoteArchive.findById(id));
     }
 
     @Override
+    @Coalesced
     @Transactional(readOnly = true)
     public Optional<QuoteDto> getQuoteByNumber(String quoteNumber) {
         logger.debug("Fetching quote with number: {}", quoteNumber);
         return quoteRepository.findByQuoteNumber(quoteNumber)
-                .map(quoteMapper::toDto);
+                .map(quoteMapper::toDto)
+                .or(() -> quoteArchive.findByQuoteNumber(quoteNumber));
     }
 
     @Override
@@ -208,36 +235,42 @@ public class QuoteServiceImpl implements QuoteService {
     public void deleteQuote(Long id) {
         logger.info("Deleting quote with ID: {}", id);
         
-        Quote quote = quoteRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Quote not found with id: " + id));
+        Quote quote = findLiveQuote(id);
         
         // Only allow deletion of draft quotes
         if (quote.getStatus() != Quote.QuoteStatus.DRAFT) {
             throw new InvalidQuoteStateException("Only draft quotes can be deleted");
         }
         
+        QuoteDto deletedQuote = quoteMapper.toDto(quote);
         quoteRepository.delete(quote);
         logger.info("Deleted quote with ID: {}", id);
+        publish(QuoteLifecycleEvent.Type.DELETED, deletedQuote, quote.getStatus());
     }
 
     @Override
+    @Coalesced
     @Transactional(readOnly = true)
     public BigDecimal calculateQuotePremium(Long quoteId) {
         logger.debug("Calculating premium for quote ID: {}", quoteId);
         
-        Quote quote = quoteRepository.findById(quoteId)
-                .orElseThrow(() -> new ResourceNotFoundException("Quote not found with id: " + quoteId));
+        Optional<Quote> quote = quoteRepository.findById(quoteId);
+        if (quote.isEmpty()) {
+            // Archived quotes are closed, so their premium is final
+            return quoteArchive.findById(quoteId)
+                    .map(QuoteDto::getTotalPremium)
+                    .orElseThrow(() -> new ResourceNotFoundException("Quote not found with id: " + quoteId));
+        }
         
-        quote.calculateTotalPremium();
-        return quote.getTotalPremium();
+        quote.get().calculateTotalPremium();
+        return quote.get().getTotalPremium();
     }
 
     @Override
     public QuoteDto submitQuote(Long id) {
         logger.info("Submitting quote with ID: {}", id);
         
-        Quote quote = quoteRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Quote not found with id: " + id));
+        Quote quote = findLiveQuote(id);
         
         // Validate quote can be submitted
         if (quote.getStatus() != Quote.QuoteStatus.SAVED) {
@@ -256,15 +289,14 @@ public class QuoteServiceImpl implements QuoteService {
         Quote updatedQuote = quoteRepository.save(quote);
         
         logger.info("Submitted quote with ID: {}", id);
-        return quoteMapper.toDto(updatedQuote);
+        return publishUpdate(updatedQuote, Quote.QuoteStatus.SAVED);
     }
 
     @Override
     public QuoteDto approveQuote(Long id) {
         logger.info("Approving quote with ID: {}", id);
         
-        Quote quote = quoteRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Quote not found with id: " + id));
+        Quote quote = findLiveQuote(id);
         
         if (quote.getStatus() != Quote.QuoteStatus.SUBMITTED) {
             throw new InvalidQuoteStateException("Only submitted quotes can be approved");
@@ -274,15 +306,14 @@ public class QuoteServiceImpl implements QuoteService {
         Quote updatedQuote = quoteRepository.save(quote);
         
         logger.info("Approved quote with ID: {}", id);
-        return quoteMapper.toDto(updatedQuote);
+        return publishUpdate(updatedQuote, Quote.QuoteStatus.SUBMITTED);
     }
 
     @Override
     public QuoteDto rejectQuote(Long id, String reason) {
         logger.info("Rejecting quote with ID: {} for reason: {}", id, reason);
         
-        Quote quote = quoteRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Quote not found with id: " + id));
+        Quote quote = findLiveQuote(id);
         
         if (quote.getStatus() != Quote.QuoteStatus.SUBMITTED) {
             throw new InvalidQuoteStateException("Only submitted quotes can be rejected");
@@ -293,31 +324,35 @@ public class QuoteServiceImpl implements QuoteService {
         Quote updatedQuote = quoteRepository.save(quote);
         
         logger.info("Rejected quote with ID: {}", id);
-        return quoteMapper.toDto(updatedQuote);
+        return publishUpdate(updatedQuote, Quote.QuoteStatus.SUBMITTED);
     }
 
     @Override
     @Transactional(readOnly = true)
     public boolean isQuoteNumberUnique(String quoteNumber) {
-        return !quoteRepository.existsByQuoteNumber(quoteNumber);
+        return !quoteNumberFilter.exists(quoteNumber,
+                number -> quoteRepository.existsByQuoteNumber(number) || quoteArchive.containsQuoteNumber(number));
     }
 
     @Override
     public String generateQuoteNumber() {
         String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"));
+        // On a shard the number carries the shard, and is only checked against that shard's numbers
+        String prefix = quoteNumberPrefix + "-" + ShardRouter.quoteNumberTag(ShardContext.current()) + timestamp + "-";
         String random = String.format("%04d", new Random().nextInt(10000));
-        String quoteNumber = quoteNumberPrefix + "-" + timestamp + "-" + random;
+        String quoteNumber = prefix + random;
         
         // Ensure uniqueness
         while (!isQuoteNumberUnique(quoteNumber)) {
             random = String.format("%04d", new Random().nextInt(10000));
-            quoteNumber = quoteNumberPrefix + "-" + timestamp + "-" + random;
+            quoteNumber = prefix + random;
         }
         
         return quoteNumber;
     }
 
     @Override
+    @Coalesced
     @Transactional(readOnly = true)
     public QuoteStatistics getQuoteStatistics() {
         logger.debug("Calculating quote statistics");
@@ -336,12 +371,28 @@ public class QuoteServiceImpl implements QuoteService {
         BigDecimal totalPremium = allQuotes.stream()
                 .map(Quote::getTotalPremium)
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
+        long quoteCount = allQuotes.size();
+        
+        // Add archived quotes, which are all closed
+        Map<Quote.QuoteStatus, QuoteArchive.StatusTotals> archived = quoteArchive.totalsByStatus();
+        for (Map.Entry<Quote.QuoteStatus, QuoteArchive.StatusTotals> entry : archived.entrySet()) {
+            long count = entry.getValue().count();
+            switch (entry.getKey()) {
+                case APPROVED -> stats.setApprovedQuotes(stats.getApprovedQuotes() + count);
+                case REJECTED -> stats.setRejectedQuotes(stats.getRejectedQuotes() + count);
+                case EXPIRED -> stats.setExpiredQuotes(stats.getExpiredQuotes() + count);
+                default -> logger.warn("Unexpected archived quote status {}", entry.getKey());
+            }
+            stats.setTotalQuotes(stats.getTotalQuotes() + count);
+            totalPremium = totalPremium.add(entry.getValue().totalPremium());
+            quoteCount += count;
+        }
         
         stats.setTotalPremiumValue(totalPremium);
         
-        if (!allQuotes.isEmpty()) {
+        if (quoteCount > 0) {
             stats.setAveragePremium(totalPremium.divide(
-                    BigDecimal.valueOf(allQuotes.size()), 2, RoundingMode.HALF_UP));
+                    BigDecimal.valueOf(quoteCount), 2, RoundingMode.HALF_UP));
         } else {
             stats.setAveragePremium(BigDecimal.ZERO);
         }
@@ -350,6 +401,22 @@ public class QuoteServiceImpl implements QuoteService {
     }
 
     // Helper methods
+    private Quote findLiveQuote(Long id) {
+        return quoteRepository.findById(id).orElseThrow(() -> quoteArchive.contains(id)
+                ? new InvalidQuoteStateException("Quote " + id + " is archived and can no longer be changed")
+                : new ResourceNotFoundException("Quote not found with id: " + id));
+    }
+
+    private QuoteDto publishUpdate(Quote updatedQuote, Quote.QuoteStatus previousStatus) {
+        QuoteDto quoteDto = quoteMapper.toDto(updatedQuote);
+        publish(QuoteLifecycleEvent.Type.UPDATED, quoteDto, previousStatus);
+        return quoteDto;
+    }
+
+    private void publish(QuoteLifecycleEvent.Type type, QuoteDto quoteDto, Quote.QuoteStatus previousStatus) {
+        eventPublisher.publishEvent(new QuoteLifecycleEvent(type, quoteDto, previousStatus));
+    }
+
     private void initializeDefaultCoverageOptions(Quote quote) {
         // Create default coverage options based on configuration
         CoverageOption generalLiability = new CoverageOption(
@@ -396,7 +463,7 @@ public class QuoteServiceImpl implements QuoteService {
         }
     }
 
-    private void validateStatusTransition(Quote.QuoteStatus currentStatus, Quote.QuoteStatus newStatus) {
+    void validateStatusTransition(Quote.QuoteStatus currentStatus, Quote.QuoteStatus newStatus) {
         // Define valid status transitions
         boolean validTransition = switch (currentStatus) {
             case DRAFT -> newStatus == Quote.QuoteStatus.SAVED;
@@ -0,0 +1,44 @@
+package com.insurance.quote.sharding;
+
+import java.util.function.Supplier;
+
+/**
+ * The shard the current thread works on. ShardRoutingDataSource hands out connections to that shard's
+ * database, or to the default shard 0 when none is set. The shard must be set before a transaction starts:
+ * a transaction keeps the connection it started with.
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    /**
+     * The current shard, or null outside of any shard
+     */
+    public static Integer current() {
+        return CURRENT.get();
+    }
+
+    public static <T> T call(int shard, Supplier<T> task) {
+        Integer previous = CURRENT.get();
+        CURRENT.set(shard);
+        try {
+            return task.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    public static void run(int shard, Runnable task) {
+        call(shard, () -> {
+            task.run();
+            return null;
+        });
+    }
+}
@@ -0,0 +1,138 @@
+package com.insurance.quote.sharding;
+
+import com.insurance.quote.config.ShardingProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Maps quotes to shards. A quote lives on the shard of its business state, taken from
+ * app.sharding.shards[].states or, for a state no shard lists, from a hash of the state. Its id and quote
+ * number carry that shard, so a quote is found again without knowing its state: ids of shard n start at
+ * n << 48, and quote numbers read PREFIX-nn-timestamp-random. With sharding disabled there is a single
+ * shard, ids and quote numbers are unchanged and the methods that run a task per shard run it once.
+ */
+@Component
+public class ShardRouter {
+
+    /**
+     * Low bits of an id left for the row sequence within a shard; 32 shards keep ids below 2^53, which
+     * JavaScript clients read exactly
+     */
+    public static final int SHARD_ID_SHIFT = 48;
+    public static final int MAX_SHARDS = 32;
+
+    private final boolean enabled;
+    private final int shardCount;
+    private final Map<String, Integer> shardsByState = new HashMap<>();
+
+    public ShardRouter(ShardingProperties properties) {
+        this.enabled = properties.isEnabled();
+        this.shardCount = enabled ? properties.getShards().size() : 1;
+        if (enabled && (shardCount < 1 || shardCount > MAX_SHARDS)) {
+            throw new IllegalArgumentException("Sharding needs between 1 and " + MAX_SHARDS + " shards, got "
+                    + shardCount);
+        }
+        if (enabled) {
+            for (int shard = 0; shard < shardCount; shard++) {
+                for (String state : properties.getShards().get(shard).getStates()) {
+                    Integer previous = shardsByState.put(state.toUpperCase(Locale.ROOT), shard);
+                    if (previous != null) {
+                        throw new IllegalArgumentException("State " + state + " is assigned to shards " + previous
+                                + " and " + shard);
+                    }
+                }
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int shardCount() {
+        return shardCount;
+    }
+
+    public boolean contains(int shard) {
+        return shard >= 0 && shard < shardCount;
+    }
+
+    public int shardForState(String state) {
+        if (!enabled || state == null) {
+            return 0;
+        }
+        String key = state.toUpperCase(Locale.ROOT);
+        Integer shard = shardsByState.get(key);
+        return shard != null ? shard : Math.floorMod(key.hashCode(), shardCount);
+    }
+
+    /**
+     * Runs the task on each shard in turn, or once outside of any shard when sharding is disabled
+     */
+    public void forEachShard(Runnable task) {
+        onEachShard(() -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs the task on each shard in turn and returns its results in shard order
+     */
+    public <T> List<T> onEachShard(Supplier<T> task) {
+        if (!enabled) {
+            return Collections.singletonList(task.get());
+        }
+        List<T> results = new ArrayList<>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            results.add(ShardContext.call(shard, task));
+        }
+        return results;
+    }
+
+    public static int shardOfId(long id) {
+        return (int) (id >>> SHARD_ID_SHIFT);
+    }
+
+    /**
+     * First id of the shard's rows
+     */
+    public static long firstId(int shard) {
+        return ((long) shard << SHARD_ID_SHIFT) + 1;
+    }
+
+    /**
+     * The shard segment of a quote number issued on the shard, "nn-", or "" outside of any shard
+     */
+    public static String quoteNumberTag(Integer shard) {
+        return shard == null ? "" : String.format("%02d-", shard);
+    }
+
+    /**
+     * The shard in a quote number, or -1 if it does not have one
+     */
+    public static int shardOfQuoteNumber(String quoteNumber) {
+        if (quoteNumber == null) {
+            return -1;
+        }
+        int start = quoteNumber.indexOf('-') + 1;
+        int end = quoteNumber.indexOf('-', start);
+        // Unsharded numbers read PREFIX-timestamp-random: the segment after the prefix is 14 digits
+        if (start == 0 || end != start + 2 || quoteNumber.indexOf('-', end + 1) < 0) {
+            return -1;
+        }
+        char tens = quoteNumber.charAt(start);
+        char ones = quoteNumber.charAt(start + 1);
+        if (tens < '0' || tens > '9' || ones < '0' || ones > '9') {
+            return -1;
+        }
+        return (tens - '0') * 10 + ones - '0';
+    }
+}
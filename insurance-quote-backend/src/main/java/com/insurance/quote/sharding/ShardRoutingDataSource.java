@@ -0,0 +1,40 @@
+package com.insurance.quote.sharding;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DataSource that hands out connections to the database of the shard in ShardContext, or of shard 0 outside
+ * of any shard. Shard 0 also holds the tables used outside of any shard (idempotency keys, import
+ * checkpoints).
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final List<DataSource> shards;
+
+    public ShardRoutingDataSource(List<DataSource> shards) {
+        this.shards = List.copyOf(shards);
+        Map<Object, Object> targets = new HashMap<>();
+        for (int shard = 0; shard < shards.size(); shard++) {
+            targets.put(shard, shards.get(shard));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(shards.get(0));
+        // An unknown shard is a routing bug, not a reason to write to shard 0
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    public List<DataSource> getShards() {
+        return shards;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ShardContext.current();
+    }
+}
@@ -0,0 +1,335 @@
+package com.insurance.quote.sharding;
+
+import com.insurance.quote.dto.BusinessInformationDto;
+import com.insurance.quote.dto.QuoteDto;
+import com.insurance.quote.entity.Quote;
+import com.insurance.quote.exception.InvalidQuoteStateException;
+import com.insurance.quote.exception.ResourceNotFoundException;
+import com.insurance.quote.service.QuoteService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * QuoteService in front of the per-shard QuoteServiceImpl. It picks the shard of each call before the
+ * delegate's transaction starts: quotes are created on the shard of their business state, calls with a quote
+ * id or number go to the shard encoded in it, and queries over all quotes run on every shard in parallel
+ * and are merged (scatter-gather).
+ *
+ * <p>A page of a merged query takes the first (page + 1) * size rows of each shard, sorted by the requested
+ * order with the id as tiebreaker, so deep pages cost more than on a single database. A quote stays on the
+ * shard it was created on: moving it to a state of another shard is rejected. Bulk imports write to shard 0,
+ * so quotes by state are read from the state's shard and shard 0.
+ */
+public class ShardedQuoteService implements QuoteService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardedQuoteService.class);
+
+    private static final Sort ID_ORDER = Sort.by("id");
+
+    private final QuoteService delegate;
+    private final ShardRouter shardRouter;
+    private final Duration scatterTimeout;
+    private final ExecutorService executor;
+
+    public ShardedQuoteService(QuoteService delegate, ShardRouter shardRouter, int scatterThreads,
+                               Duration scatterTimeout) {
+        this.delegate = delegate;
+        this.shardRouter = shardRouter;
+        this.scatterTimeout = scatterTimeout;
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Math.max(1, scatterThreads), runnable -> {
+            Thread thread = new Thread(runnable, "shard-scatter-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public QuoteDto createQuote(QuoteDto quoteDto) {
+        BusinessInformationDto business = quoteDto.getBusinessInformation();
+        int shard = shardRouter.shardForState(business == null ? null : business.getState());
+        return ShardContext.call(shard, () -> delegate.createQuote(quoteDto));
+    }
+
+    @Override
+    public QuoteDto updateQuote(Long id, QuoteDto quoteDto) {
+        int shard = shardOfQuote(id);
+        BusinessInformationDto business = quoteDto.getBusinessInformation();
+        return ShardContext.call(shard, () -> {
+            if (business != null && shardRouter.shardForState(business.getState()) != shard) {
+                // Allowed only if the state is unchanged, as for a quote imported to shard 0
+                String state = delegate.getQuoteById(id)
+                        .map(existing -> existing.getBusinessInformation().getState())
+                        .orElseThrow(() -> new ResourceNotFoundException("Quote not found with id: " + id));
+                if (!state.equalsIgnoreCase(business.getState())) {
+                    throw new InvalidQuoteStateException("Quote " + id + " cannot move from " + state + " to "
+                            + business.getState() + ", which is stored on another shard; create a new quote instead");
+                }
+            }
+            return delegate.updateQuote(id, quoteDto);
+        });
+    }
+
+    @Override
+    public Optional<QuoteDto> getQuoteById(Long id) {
+        int shard = id == null ? -1 : ShardRouter.shardOfId(id);
+        if (!shardRouter.contains(shard)) {
+            return Optional.empty();
+        }
+        return ShardContext.call(shard, () -> delegate.getQuoteById(id));
+    }
+
+    @Override
+    public Optional<QuoteDto> getQuoteByNumber(String quoteNumber) {
+        int shard = ShardRouter.shardOfQuoteNumber(quoteNumber);
+        if (shardRouter.contains(shard)) {
+            return ShardContext.call(shard, () -> delegate.getQuoteByNumber(quoteNumber));
+        }
+        // Imported quotes and quotes numbered before sharding have no shard in their number
+        return scatter(allShards(), () -> delegate.getQuoteByNumber(quoteNumber)).stream()
+                .flatMap(Optional::stream)
+                .findFirst();
+    }
+
+    @Override
+    public Page<QuoteDto> getAllQuotes(Pageable pageable) {
+        return mergePages(pageable, delegate::getAllQuotes);
+    }
+
+    @Override
+    public List<QuoteDto> getQuotesByStatus(Quote.QuoteStatus status) {
+        return concat(scatter(allShards(), () -> delegate.getQuotesByStatus(status)));
+    }
+
+    @Override
+    public Page<QuoteDto> searchQuotesByBusinessName(String businessName, Pageable pageable) {
+        return mergePages(pageable, page -> delegate.searchQuotesByBusinessName(businessName, page));
+    }
+
+    @Override
+    public List<QuoteDto> getQuotesByState(String state) {
+        int shard = shardRouter.shardForState(state);
+        int[] shards = shard == 0 ? new int[]{0} : new int[]{shard, 0};
+        return concat(scatter(shards, () -> delegate.getQuotesByState(state)));
+    }
+
+    @Override
+    public List<QuoteDto> getQuotesCreatedBetween(LocalDateTime startDate, LocalDateTime endDate) {
+        return concat(scatter(allShards(), () -> delegate.getQuotesCreatedBetween(startDate, endDate)));
+    }
+
+    @Override
+    public List<QuoteDto> getExpiredQuotes() {
+        return concat(scatter(allShards(), delegate::getExpiredQuotes));
+    }
+
+    @Override
+    public void deleteQuote(Long id) {
+        ShardContext.run(shardOfQuote(id), () -> delegate.deleteQuote(id));
+    }
+
+    @Override
+    public BigDecimal calculateQuotePremium(Long quoteId) {
+        return ShardContext.call(shardOfQuote(quoteId), () -> delegate.calculateQuotePremium(quoteId));
+    }
+
+    @Override
+    public QuoteDto submitQuote(Long id) {
+        return ShardContext.call(shardOfQuote(id), () -> delegate.submitQuote(id));
+    }
+
+    @Override
+    public QuoteDto approveQuote(Long id) {
+        return ShardContext.call(shardOfQuote(id), () -> delegate.approveQuote(id));
+    }
+
+    @Override
+    public QuoteDto rejectQuote(Long id, String reason) {
+        return ShardContext.call(shardOfQuote(id), () -> delegate.rejectQuote(id, reason));
+    }
+
+    @Override
+    public boolean isQuoteNumberUnique(String quoteNumber) {
+        int shard = ShardRouter.shardOfQuoteNumber(quoteNumber);
+        if (shardRouter.contains(shard)) {
+            return ShardContext.call(shard, () -> delegate.isQuoteNumberUnique(quoteNumber));
+        }
+        return scatter(allShards(), () -> delegate.isQuoteNumberUnique(quoteNumber)).stream()
+                .allMatch(Boolean::booleanValue);
+    }
+
+    @Override
+    public String generateQuoteNumber() {
+        // A number is only unique on the shard that issues it, so one issued here belongs to shard 0
+        Integer current = ShardContext.current();
+        return ShardContext.call(current == null ? 0 : current, delegate::generateQuoteNumber);
+    }
+
+    @Override
+    public QuoteStatistics getQuoteStatistics() {
+        QuoteStatistics total = new QuoteStatistics();
+        total.setTotalPremiumValue(BigDecimal.ZERO);
+        for (QuoteStatistics shard : scatter(allShards(), delegate::getQuoteStatistics)) {
+            total.setTotalQuotes(total.getTotalQuotes() + shard.getTotalQuotes());
+            total.setDraftQuotes(total.getDraftQuotes() + shard.getDraftQuotes());
+            total.setSavedQuotes(total.getSavedQuotes() + shard.getSavedQuotes());
+            total.setSubmittedQuotes(total.getSubmittedQuotes() + shard.getSubmittedQuotes());
+            total.setApprovedQuotes(total.getApprovedQuotes() + shard.getApprovedQuotes());
+            total.setRejectedQuotes(total.getRejectedQuotes() + shard.getRejectedQuotes());
+            total.setExpiredQuotes(total.getExpiredQuotes() + shard.getExpiredQuotes());
+            total.setTotalPremiumValue(total.getTotalPremiumValue().add(shard.getTotalPremiumValue()));
+        }
+        total.setAveragePremium(total.getTotalQuotes() > 0
+                ? total.getTotalPremiumValue().divide(BigDecimal.valueOf(total.getTotalQuotes()), 2, RoundingMode.HALF_UP)
+                : BigDecimal.ZERO);
+        return total;
+    }
+
+    private int shardOfQuote(Long id) {
+        int shard = id == null ? -1 : ShardRouter.shardOfId(id);
+        if (!shardRouter.contains(shard)) {
+            throw new ResourceNotFoundException("Quote not found with id: " + id);
+        }
+        return shard;
+    }
+
+    private int[] allShards() {
+        return IntStream.range(0, shardRouter.shardCount()).toArray();
+    }
+
+    /**
+     * Runs the query on the shards in parallel and returns their results in shard order
+     */
+    private <T> List<T> scatter(int[] shards, Supplier<T> query) {
+        if (shards.length == 1) {
+            return List.of(ShardContext.call(shards[0], query));
+        }
+        List<Future<T>> futures = new ArrayList<>(shards.length);
+        for (int shard : shards) {
+            futures.add(executor.submit(() -> ShardContext.call(shard, query)));
+        }
+        long deadline = System.nanoTime() + scatterTimeout.toNanos();
+        List<T> results = new ArrayList<>(shards.length);
+        try {
+            for (Future<T> future : futures) {
+                results.add(future.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS));
+            }
+            return results;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Shard query failed", e.getCause());
+        } catch (TimeoutException e) {
+            logger.warn("Shard query timed out after {} with {} of {} shards answered", scatterTimeout,
+                    results.size(), shards.length);
+            throw new IllegalStateException("Shard query timed out after " + scatterTimeout, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for shards", e);
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+
+    private Page<QuoteDto> mergePages(Pageable pageable, Function<Pageable, Page<QuoteDto>> query) {
+        Sort sort = pageable.getSort().getOrderFor("id") == null ? pageable.getSort().and(ID_ORDER) : pageable.getSort();
+        if (pageable.isUnpaged()) {
+            List<QuoteDto> quotes = concat(scatter(allShards(), () -> query.apply(Pageable.unpaged()).getContent()));
+            return new PageImpl<>(sorted(quotes, sort));
+        }
+        // Every row of the merged page is among the first offset + size rows of its shard
+        int perShard = (int) Math.min(Integer.MAX_VALUE, pageable.getOffset() + pageable.getPageSize());
+        List<Page<QuoteDto>> pages = scatter(allShards(), () -> query.apply(PageRequest.of(0, perShard, sort)));
+        long total = pages.stream().mapToLong(Page::getTotalElements).sum();
+        List<QuoteDto> merged = sorted(concat(pages.stream().map(Page::getContent).toList()), sort);
+        int from = (int) Math.min(pageable.getOffset(), merged.size());
+        int to = Math.min(from + pageable.getPageSize(), merged.size());
+        return new PageImpl<>(new ArrayList<>(merged.subList(from, to)), pageable, total);
+    }
+
+    private static List<QuoteDto> concat(List<List<QuoteDto>> lists) {
+        List<QuoteDto> quotes = new ArrayList<>();
+        lists.forEach(quotes::addAll);
+        return quotes;
+    }
+
+    /**
+     * Sorts quotes the way the database sorts their rows: enums by name, nulls first in ascending order
+     */
+    private static List<QuoteDto> sorted(List<QuoteDto> quotes, Sort sort) {
+        List<Sort.Order> orders = sort.toList();
+        List<SortKey> keys = new ArrayList<>(quotes.size());
+        for (QuoteDto quote : quotes) {
+            BeanWrapperImpl wrapper = new BeanWrapperImpl(quote);
+            Comparable<?>[] values = new Comparable<?>[orders.size()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = sortValue(wrapper.getPropertyValue(orders.get(i).getProperty()), orders.get(i));
+            }
+            keys.add(new SortKey(quote, values));
+        }
+        Comparator<SortKey> comparator = null;
+        for (int i = 0; i < orders.size(); i++) {
+            int index = i;
+            Comparator<SortKey> byOrder = Comparator.comparing(key -> comparable(key.values()[index]),
+                    Comparator.nullsFirst(Comparator.<Comparable<Object>>naturalOrder()));
+            if (orders.get(i).isDescending()) {
+                byOrder = byOrder.reversed();
+            }
+            comparator = comparator == null ? byOrder : comparator.thenComparing(byOrder);
+        }
+        if (comparator != null) {
+            keys.sort(comparator);
+        }
+        return keys.stream().map(SortKey::quote).toList();
+    }
+
+    private static Comparable<?> sortValue(Object value, Sort.Order order) {
+        if (value instanceof Enum<?> constant) {
+            return constant.name();
+        }
+        if (value instanceof String text && order.isIgnoreCase()) {
+            return text.toLowerCase();
+        }
+        return (Comparable<?>) value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Comparable<Object> comparable(Comparable<?> value) {
+        return (Comparable<Object>) value;
+    }
+
+    private record SortKey(QuoteDto quote, Comparable<?>[] values) {
+    }
+}
@@ -0,0 +1,103 @@
+package com.insurance.quote.sqlmonitor;
+
+import com.insurance.quote.config.SqlMonitoringProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts and times the SQL statements issued by each request and flags requests over their statement budget
+ */
+public class SqlBudgetFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlBudgetFilter.class);
+
+    private static final int CAPTURED_SHAPES = 5;
+
+    private final SqlMonitoringProperties properties;
+    private final SqlOffenderLog offenderLog;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, EndpointMeters> meters = new ConcurrentHashMap<>();
+
+    public SqlBudgetFilter(SqlMonitoringProperties properties, SqlOffenderLog offenderLog, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.offenderLog = offenderLog;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlStatementContext.begin(request.getMethod() + " " + request.getRequestURI());
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            SqlStatementStats stats = SqlStatementContext.end();
+            if (stats != null) {
+                record(endpoint(request), stats);
+            }
+        }
+    }
+
+    private void record(String endpoint, SqlStatementStats stats) {
+        EndpointMeters endpointMeters = meters.computeIfAbsent(endpoint, this::registerMeters);
+        int total = stats.getTotal();
+        endpointMeters.statements.record(total);
+        endpointMeters.time.record(stats.getElapsedNanos(), TimeUnit.NANOSECONDS);
+
+        int budget = properties.budgetFor(endpoint);
+        if (total > budget) {
+            endpointMeters.budgetExceeded.increment();
+            logger.warn("{} executed {} SQL statements, over its budget of {} ({})", endpoint, total, budget, stats);
+            offenderLog.add(new SqlOffender(Instant.now(), SqlOffender.Kind.STATEMENT_BUDGET, endpoint, total, budget,
+                    stats.getElapsedNanos() / 1e6,
+                    stats.topShapes(CAPTURED_SHAPES).stream()
+                            .map(shape -> new SqlOffender.Shape(shape.getKey(), shape.getValue()))
+                            .toList()));
+        }
+    }
+
+    /**
+     * Method and matched route, e.g. "GET /quotes/{id}", so that meters do not grow with path variables
+     */
+    private static String endpoint(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern != null ? pattern : "UNMATCHED");
+    }
+
+    private EndpointMeters registerMeters(String endpoint) {
+        return new EndpointMeters(
+                DistributionSummary.builder("quote.sql.statements")
+                        .description("SQL statements executed per request")
+                        .tag("endpoint", endpoint)
+                        .publishPercentileHistogram()
+                        .maximumExpectedValue(1000.0)
+                        .register(meterRegistry),
+                Timer.builder("quote.sql.time")
+                        .description("Time spent executing SQL per request")
+                        .tag("endpoint", endpoint)
+                        .register(meterRegistry),
+                Counter.builder("quote.sql.budget.exceeded")
+                        .description("Requests that executed more SQL statements than their budget")
+                        .tag("endpoint", endpoint)
+                        .register(meterRegistry));
+    }
+
+    private record EndpointMeters(DistributionSummary statements, Timer time, Counter budgetExceeded) {
+    }
+}
@@ -0,0 +1,40 @@
+package com.insurance.quote.sqlmonitor;
+
+import com.insurance.quote.config.SqlMonitoringProperties;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Actuator endpoint (/actuator/sqlmonitor) listing captured slow statements and over-budget requests
+ */
+@Endpoint(id = "sqlmonitor")
+public class SqlMonitorEndpoint {
+
+    private final SqlMonitoringProperties properties;
+    private final SqlOffenderLog offenderLog;
+
+    public SqlMonitorEndpoint(SqlMonitoringProperties properties, SqlOffenderLog offenderLog) {
+        this.properties = properties;
+        this.offenderLog = offenderLog;
+    }
+
+    @ReadOperation
+    public Map<String, Object> offenders() {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("statementBudget", properties.getStatementBudget());
+        body.put("endpointBudgets", properties.getEndpointBudgets());
+        body.put("slowQueryThresholdMillis", properties.getSlowQueryThreshold().toMillis());
+        body.put("capacity", offenderLog.getCapacity());
+        body.put("offenders", offenderLog.snapshot());
+        return body;
+    }
+
+    @DeleteOperation
+    public void clear() {
+        offenderLog.clear();
+    }
+}
@@ -0,0 +1,80 @@
+package com.insurance.quote.sqlmonitor;
+
+import com.insurance.quote.config.SqlMonitoringProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * DataSource proxy listener that attributes every statement to the current {@link SqlStatementContext}
+ * and captures statements slower than the configured threshold
+ */
+public class SqlMonitoringListener implements QueryExecutionListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlMonitoringListener.class);
+
+    private static final String START_NANOS = SqlMonitoringListener.class.getName() + ".start";
+    private static final String BACKGROUND = "background";
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final long slowQueryNanos;
+    private final int maxSqlLength;
+    private final SqlOffenderLog offenderLog;
+    private final Counter slowQueries;
+
+    public SqlMonitoringListener(SqlMonitoringProperties properties, SqlOffenderLog offenderLog,
+                                 MeterRegistry meterRegistry) {
+        this.slowQueryNanos = properties.getSlowQueryThreshold().toNanos();
+        this.maxSqlLength = properties.getMaxSqlLength();
+        this.offenderLog = offenderLog;
+        this.slowQueries = Counter.builder("quote.sql.slow.queries")
+                .description("Statements slower than app.sql-monitoring.slow-query-threshold")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        execInfo.addCustomValue(START_NANOS, System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Long start = execInfo.getCustomValue(START_NANOS, Long.class);
+        long nanos = start == null ? 0 : System.nanoTime() - start;
+        SqlStatementStats stats = SqlStatementContext.current();
+
+        // A batch reports several queries for one round trip; share the time between them
+        long nanosPerQuery = queryInfoList.isEmpty() ? nanos : nanos / queryInfoList.size();
+        for (QueryInfo queryInfo : queryInfoList) {
+            String sql = shape(queryInfo.getQuery());
+            if (stats != null) {
+                stats.record(SqlStatementType.of(sql), sql, nanosPerQuery);
+            }
+        }
+
+        if (nanos >= slowQueryNanos && !queryInfoList.isEmpty()) {
+            slowQueries.increment();
+            String endpoint = stats != null ? stats.getLabel() : BACKGROUND;
+            String sql = shape(queryInfoList.get(0).getQuery());
+            logger.warn("Slow SQL ({} ms) in {}: {}", nanos / 1_000_000, endpoint, sql);
+            offenderLog.add(new SqlOffender(Instant.now(), SqlOffender.Kind.SLOW_QUERY, endpoint, 1, 0,
+                    nanos / 1e6, List.of(new SqlOffender.Shape(sql, queryInfoList.size()))));
+        }
+    }
+
+    /**
+     * Statements are already parameterized by Hibernate, so the shape is the SQL with whitespace collapsed
+     */
+    private String shape(String sql) {
+        String collapsed = WHITESPACE.matcher(sql).replaceAll(" ").trim();
+        return collapsed.length() > maxSqlLength ? collapsed.substring(0, maxSqlLength) + "..." : collapsed;
+    }
+}
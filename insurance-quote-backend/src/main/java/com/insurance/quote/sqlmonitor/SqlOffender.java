@@ -0,0 +1,29 @@
+package com.insurance.quote.sqlmonitor;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * A captured slow statement or a request that went over its statement budget
+ *
+ * @param kind          SLOW_QUERY or STATEMENT_BUDGET
+ * @param endpoint      the endpoint (or request line) that issued the SQL
+ * @param statements    statements executed by the request, or 1 for a slow query
+ * @param budget        the statement budget that applied, or 0 for a slow query
+ * @param elapsedMillis statement execution time
+ * @param shapes        the SQL shapes involved, most frequent first
+ */
+public record SqlOffender(Instant timestamp, Kind kind, String endpoint, int statements, int budget,
+                          double elapsedMillis, List<Shape> shapes) {
+
+    public enum Kind {
+        SLOW_QUERY,
+        STATEMENT_BUDGET
+    }
+
+    /**
+     * A parameterized SQL statement and how often it ran
+     */
+    public record Shape(String sql, int count) {
+    }
+}
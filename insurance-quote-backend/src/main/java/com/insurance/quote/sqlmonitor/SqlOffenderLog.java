@@ -0,0 +1,42 @@
+package com.insurance.quote.sqlmonitor;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Bounded ring buffer of the most recent SQL offenders; the oldest entry is dropped when full
+ */
+public class SqlOffenderLog {
+
+    private final int capacity;
+    private final Deque<SqlOffender> offenders;
+
+    public SqlOffenderLog(int capacity) {
+        this.capacity = Math.max(1, capacity);
+        this.offenders = new ArrayDeque<>(this.capacity);
+    }
+
+    public synchronized void add(SqlOffender offender) {
+        if (offenders.size() == capacity) {
+            offenders.removeLast();
+        }
+        offenders.addFirst(offender);
+    }
+
+    /**
+     * Captured offenders, newest first
+     */
+    public synchronized List<SqlOffender> snapshot() {
+        return new ArrayList<>(offenders);
+    }
+
+    public synchronized void clear() {
+        offenders.clear();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+}
@@ -0,0 +1,42 @@
+package com.insurance.quote.sqlmonitor;
+
+/**
+ * Holds the statement statistics of the scopes open on the current thread.
+ * Scopes nest: a statement counts towards the innermost scope and every scope around it.
+ */
+public final class SqlStatementContext {
+
+    private static final ThreadLocal<SqlStatementStats> CURRENT = new ThreadLocal<>();
+
+    private SqlStatementContext() {
+    }
+
+    /**
+     * Opens a scope on this thread, nested inside any scope already open
+     */
+    public static SqlStatementStats begin(String label) {
+        SqlStatementStats stats = new SqlStatementStats(label, CURRENT.get());
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    /**
+     * The open scope on this thread, or null when statements are not being counted
+     */
+    public static SqlStatementStats current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Closes the innermost scope and returns it, or null if none was open
+     */
+    public static SqlStatementStats end() {
+        SqlStatementStats stats = CURRENT.get();
+        if (stats == null || stats.getParent() == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(stats.getParent());
+        }
+        return stats;
+    }
+}
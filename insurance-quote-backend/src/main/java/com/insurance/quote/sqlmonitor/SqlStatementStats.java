@@ -0,0 +1,111 @@
+package com.insurance.quote.sqlmonitor;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Statements executed within one scope (usually one HTTP request), by type and by SQL shape
+ */
+public class SqlStatementStats {
+
+    /** Distinct SQL shapes tracked per scope; later shapes are still counted by type */
+    static final int MAX_SHAPES = 64;
+
+    private final String label;
+    private final SqlStatementStats parent;
+    private final Map<String, Integer> shapeCounts = new HashMap<>();
+    private int selects;
+    private int inserts;
+    private int updates;
+    private int deletes;
+    private int others;
+    private long elapsedNanos;
+
+    public SqlStatementStats(String label) {
+        this(label, null);
+    }
+
+    SqlStatementStats(String label, SqlStatementStats parent) {
+        this.label = label;
+        this.parent = parent;
+    }
+
+    void record(SqlStatementType type, String sql, long nanos) {
+        switch (type) {
+            case SELECT -> selects++;
+            case INSERT -> inserts++;
+            case UPDATE -> updates++;
+            case DELETE -> deletes++;
+            default -> others++;
+        }
+        elapsedNanos += nanos;
+        if (shapeCounts.size() < MAX_SHAPES || shapeCounts.containsKey(sql)) {
+            shapeCounts.merge(sql, 1, Integer::sum);
+        }
+        if (parent != null) {
+            parent.record(type, sql, nanos);
+        }
+    }
+
+    SqlStatementStats getParent() {
+        return parent;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public int getSelects() {
+        return selects;
+    }
+
+    public int getInserts() {
+        return inserts;
+    }
+
+    public int getUpdates() {
+        return updates;
+    }
+
+    public int getDeletes() {
+        return deletes;
+    }
+
+    public int getOthers() {
+        return others;
+    }
+
+    public int getTotal() {
+        return selects + inserts + updates + deletes + others;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * The most frequently executed SQL shapes, most frequent first
+     */
+    public List<Map.Entry<String, Integer>> topShapes(int limit) {
+        return shapeCounts.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder()))
+                .limit(limit)
+                .map(entry -> Map.entry(entry.getKey(), entry.getValue()))
+                .toList();
+    }
+
+    @Override
+    public String toString() {
+        return "SqlStatementStats{" +
+                "label='" + label + '\'' +
+                ", selects=" + selects +
+                ", inserts=" + inserts +
+                ", updates=" + updates +
+                ", deletes=" + deletes +
+                ", others=" + others +
+                ", elapsedNanos=" + elapsedNanos +
+                '}';
+    }
+}
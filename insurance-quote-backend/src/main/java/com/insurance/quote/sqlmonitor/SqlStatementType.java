@@ -0,0 +1,37 @@
+package com.insurance.quote.sqlmonitor;
+
+import java.util.Locale;
+
+/**
+ * Kind of SQL statement, derived from its leading keyword
+ */
+public enum SqlStatementType {
+    SELECT,
+    INSERT,
+    UPDATE,
+    DELETE,
+    OTHER;
+
+    public static SqlStatementType of(String sql) {
+        String trimmed = sql.stripLeading();
+        // Hibernate prefixes statements with a comment when use_sql_comments is on
+        while (trimmed.startsWith("/*")) {
+            int end = trimmed.indexOf("*/");
+            if (end < 0) {
+                return OTHER;
+            }
+            trimmed = trimmed.substring(end + 2).stripLeading();
+        }
+        int keywordEnd = 0;
+        while (keywordEnd < trimmed.length() && Character.isLetter(trimmed.charAt(keywordEnd))) {
+            keywordEnd++;
+        }
+        return switch (trimmed.substring(0, keywordEnd).toUpperCase(Locale.ROOT)) {
+            case "SELECT", "WITH" -> SELECT;
+            case "INSERT" -> INSERT;
+            case "UPDATE" -> UPDATE;
+            case "DELETE" -> DELETE;
+            default -> OTHER;
+        };
+    }
+}
@@ -0,0 +1,48 @@
+package com.insurance.quote.stream;
+
+import com.insurance.quote.dto.QuoteDto;
+import com.insurance.quote.entity.Quote;
+import com.insurance.quote.event.QuoteLifecycleEvent;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * The part of a quote a watching client needs to refresh its view, sent as the data of one stream event
+ *
+ * @param type           CREATED, UPDATED or DELETED, or null for the snapshot sent when a stream opens
+ * @param previousStatus the status before the change, or null for a new quote or a snapshot
+ */
+public record QuoteChange(Long quoteId,
+                          String quoteNumber,
+                          QuoteLifecycleEvent.Type type,
+                          Quote.QuoteStatus status,
+                          Quote.QuoteStatus previousStatus,
+                          BigDecimal totalPremium,
+                          String state,
+                          LocalDateTime updatedAt) {
+
+    public static QuoteChange of(QuoteLifecycleEvent event) {
+        return of(event.type(), event.quote(), event.previousStatus());
+    }
+
+    public static QuoteChange snapshot(QuoteDto quote) {
+        return of(null, quote, null);
+    }
+
+    /**
+     * Whether this change is newer than what a snapshot shows. A deletion always is: the snapshot found the quote.
+     */
+    public boolean isAfter(QuoteChange snapshot) {
+        if (type == QuoteLifecycleEvent.Type.DELETED || updatedAt == null || snapshot.updatedAt() == null) {
+            return true;
+        }
+        return updatedAt.isAfter(snapshot.updatedAt());
+    }
+
+    private static QuoteChange of(QuoteLifecycleEvent.Type type, QuoteDto quote, Quote.QuoteStatus previousStatus) {
+        String state = quote.getBusinessInformation() != null ? quote.getBusinessInformation().getState() : null;
+        return new QuoteChange(quote.getId(), quote.getQuoteNumber(), type, quote.getStatus(), previousStatus,
+                quote.getTotalPremium(), state, quote.getUpdatedAt());
+    }
+}
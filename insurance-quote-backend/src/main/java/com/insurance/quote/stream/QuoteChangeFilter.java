@@ -0,0 +1,35 @@
+package com.insurance.quote.stream;
+
+import com.insurance.quote.entity.Quote;
+
+import java.util.Set;
+
+/**
+ * Selects the quote changes a stream receives. An empty set matches everything; a status filter matches
+ * a change into or out of one of the statuses, so a client watching SUBMITTED quotes sees them leave.
+ */
+public record QuoteChangeFilter(Set<Long> quoteIds, Set<Quote.QuoteStatus> statuses, Set<String> states) {
+
+    public QuoteChangeFilter {
+        quoteIds = quoteIds == null ? Set.of() : Set.copyOf(quoteIds);
+        statuses = statuses == null ? Set.of() : Set.copyOf(statuses);
+        states = states == null ? Set.of() : Set.copyOf(states);
+    }
+
+    public static QuoteChangeFilter forQuote(Long quoteId) {
+        return new QuoteChangeFilter(Set.of(quoteId), null, null);
+    }
+
+    /**
+     * Whether the filter selects exactly one quote, so the hub can index it by id instead of scanning it
+     */
+    public boolean isSingleQuote() {
+        return quoteIds.size() == 1 && statuses.isEmpty() && states.isEmpty();
+    }
+
+    public boolean matches(QuoteChange change) {
+        return (quoteIds.isEmpty() || quoteIds.contains(change.quoteId()))
+                && (statuses.isEmpty() || statuses.contains(change.status()) || statuses.contains(change.previousStatus()))
+                && (states.isEmpty() || states.contains(change.state()));
+    }
+}
@@ -0,0 +1,221 @@
+package com.insurance.quote.stream;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.insurance.quote.config.QuoteStreamProperties;
+import com.insurance.quote.event.QuoteLifecycleEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fans committed quote changes out to open server-sent event streams.
+ * Streams are async requests, so an idle client holds a socket but no thread; writes run on virtual threads,
+ * one drain task per client with pending events. Streams for a single quote are indexed by quote id, so a
+ * change costs one lookup plus a scan of the filtered streams, not a scan of every client.
+ * A comment line is sent on every stream each heartbeat interval to keep proxies from closing idle connections
+ * and to detect clients that went away.
+ */
+@Component
+public class QuoteEventHub {
+
+    private static final Logger logger = LoggerFactory.getLogger(QuoteEventHub.class);
+
+    static final String SNAPSHOT_EVENT = "SNAPSHOT";
+
+    private final QuoteStreamProperties properties;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final Map<Long, Set<QuoteSubscription>> byQuote = new ConcurrentHashMap<>();
+    private final Set<QuoteSubscription> filtered = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private final Set<ResponseBodyEmitter.DataWithMediaType> heartbeat =
+            SseEmitter.event().comment("heartbeat").build();
+
+    private final Counter sentCounter;
+    private final Counter droppedCounter;
+    private final Counter rejectedCounter;
+
+    public QuoteEventHub(QuoteStreamProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+
+        Gauge.builder("quote.stream.subscribers", subscribers, AtomicInteger::get)
+                .description("Open quote event streams")
+                .register(meterRegistry);
+        this.sentCounter = Counter.builder("quote.stream.events")
+                .description("Quote changes and snapshots queued to streams")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("quote.stream.dropped")
+                .description("Streams closed because the client fell too far behind")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("quote.stream.rejected")
+                .description("Streams refused at the subscriber limit")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Opens a stream of the changes matching the filter, or returns empty if streaming is disabled
+     * or the subscriber limit is reached
+     */
+    public Optional<QuoteSubscription> subscribe(QuoteChangeFilter filter) {
+        return subscribe(filter, false);
+    }
+
+    /**
+     * Opens a stream that starts with a snapshot of the quote the caller reads after subscribing. Changes
+     * committed before the snapshot is sent are held back and only streamed if the snapshot predates them.
+     */
+    public Optional<QuoteSubscription> subscribeWithSnapshot(QuoteChangeFilter filter) {
+        return subscribe(filter, true);
+    }
+
+    private Optional<QuoteSubscription> subscribe(QuoteChangeFilter filter, boolean withSnapshot) {
+        if (!properties.isEnabled()) {
+            return Optional.empty();
+        }
+        if (subscribers.incrementAndGet() > properties.getMaxSubscribers()) {
+            subscribers.decrementAndGet();
+            rejectedCounter.increment();
+            logger.warn("Refusing quote event stream at the limit of {} subscribers", properties.getMaxSubscribers());
+            return Optional.empty();
+        }
+
+        SseEmitter emitter = new SseEmitter(properties.getTimeout().toMillis());
+        QuoteSubscription subscription = new QuoteSubscription(emitter, filter, properties.getQueueCapacity(), executor, this,
+                withSnapshot);
+        emitter.onCompletion(subscription::close);
+        emitter.onTimeout(subscription::close);
+        emitter.onError(error -> subscription.close());
+        if (filter.isSingleQuote()) {
+            byQuote.compute(filter.quoteIds().iterator().next(), (quoteId, watchers) -> {
+                Set<QuoteSubscription> updated = watchers != null ? watchers : ConcurrentHashMap.newKeySet();
+                updated.add(subscription);
+                return updated;
+            });
+        } else {
+            filtered.add(subscription);
+        }
+        offer(subscription, SseEmitter.event()
+                .reconnectTime(properties.getReconnectDelay().toMillis())
+                .comment("connected")
+                .build());
+        logger.debug("Opened quote event stream {}", filter);
+        return Optional.of(subscription);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLifecycleEvent(QuoteLifecycleEvent event) {
+        if (subscribers.get() == 0) {
+            return;
+        }
+        QuoteChange change = QuoteChange.of(event);
+        Set<ResponseBodyEmitter.DataWithMediaType> data = SseEmitter.event()
+                .name(event.type().name())
+                .data(json(change))
+                .build();
+
+        Set<QuoteSubscription> watchers = byQuote.get(change.quoteId());
+        if (watchers != null) {
+            watchers.forEach(subscription -> publish(subscription, change, data));
+        }
+        for (QuoteSubscription subscription : filtered) {
+            if (subscription.getFilter().matches(change)) {
+                publish(subscription, change, data);
+            }
+        }
+    }
+
+    @Scheduled(initialDelayString = "${app.stream.heartbeat-interval:PT15S}", fixedDelayString = "${app.stream.heartbeat-interval:PT15S}")
+    public void sendHeartbeats() {
+        byQuote.values().forEach(watchers -> watchers.forEach(subscription -> offer(subscription, heartbeat)));
+        filtered.forEach(subscription -> offer(subscription, heartbeat));
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.get();
+    }
+
+    void sendSnapshot(QuoteSubscription subscription, QuoteChange snapshot) {
+        publish(subscription, SseEmitter.event().name(SNAPSHOT_EVENT).data(json(snapshot)).build());
+    }
+
+    void remove(QuoteSubscription subscription) {
+        boolean[] removed = {false};
+        QuoteChangeFilter filter = subscription.getFilter();
+        if (filter.isSingleQuote()) {
+            byQuote.computeIfPresent(filter.quoteIds().iterator().next(), (quoteId, watchers) -> {
+                removed[0] = watchers.remove(subscription);
+                return watchers.isEmpty() ? null : watchers;
+            });
+        } else {
+            removed[0] = filtered.remove(subscription);
+        }
+        if (removed[0]) {
+            subscribers.decrementAndGet();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        byQuote.values().forEach(watchers -> List.copyOf(watchers).forEach(QuoteSubscription::close));
+        List.copyOf(filtered).forEach(QuoteSubscription::close);
+        executor.shutdown();
+    }
+
+    private void publish(QuoteSubscription subscription, Set<ResponseBodyEmitter.DataWithMediaType> data) {
+        if (offer(subscription, data)) {
+            sentCounter.increment();
+        }
+    }
+
+    private void publish(QuoteSubscription subscription, QuoteChange change,
+                         Set<ResponseBodyEmitter.DataWithMediaType> data) {
+        if (subscription.isClosed()) {
+            return;
+        }
+        if (subscription.offerChange(change, data)) {
+            sentCounter.increment();
+        } else {
+            droppedCounter.increment();
+        }
+    }
+
+    private boolean offer(QuoteSubscription subscription, Set<ResponseBodyEmitter.DataWithMediaType> data) {
+        if (subscription.isClosed()) {
+            return false;
+        }
+        if (!subscription.offer(data)) {
+            droppedCounter.increment();
+            return false;
+        }
+        return true;
+    }
+
+    private String json(QuoteChange change) {
+        try {
+            return objectMapper.writeValueAsString(change);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException("Could not serialize change of quote " + change.quoteId(), e);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.insurance.quote.stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One open event stream. Events are queued and written by at most one drain task at a time, so a
+ * publisher never blocks on a client socket and events reach each client in publish order. A client that
+ * falls more than the queue capacity behind is disconnected; EventSource reconnects and reloads the quote.
+ * A stream that opens with a snapshot holds changes back until the snapshot is sent. It then drops the ones
+ * the snapshot already reflects, so a client never applies an older snapshot over a newer change.
+ */
+public class QuoteSubscription {
+
+    private static final Logger logger = LoggerFactory.getLogger(QuoteSubscription.class);
+
+    private final SseEmitter emitter;
+    private final QuoteChangeFilter filter;
+    private final int capacity;
+    private final Executor executor;
+    private final QuoteEventHub hub;
+
+    private final Queue<Set<ResponseBodyEmitter.DataWithMediaType>> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    private final Object snapshotLock = new Object();
+    private List<HeldChange> heldForSnapshot;
+
+    QuoteSubscription(SseEmitter emitter, QuoteChangeFilter filter, int capacity, Executor executor, QuoteEventHub hub) {
+        this(emitter, filter, capacity, executor, hub, false);
+    }
+
+    QuoteSubscription(SseEmitter emitter, QuoteChangeFilter filter, int capacity, Executor executor, QuoteEventHub hub,
+                      boolean awaitingSnapshot) {
+        this.emitter = emitter;
+        this.filter = filter;
+        this.capacity = capacity;
+        this.executor = executor;
+        this.hub = hub;
+        this.heldForSnapshot = awaitingSnapshot ? new ArrayList<>() : null;
+    }
+
+    public SseEmitter getEmitter() {
+        return emitter;
+    }
+
+    public QuoteChangeFilter getFilter() {
+        return filter;
+    }
+
+    /**
+     * Sends the current state of a quote, for a client that has not loaded it yet
+     */
+    public void sendSnapshot(QuoteChange snapshot) {
+        synchronized (snapshotLock) {
+            hub.sendSnapshot(this, snapshot);
+            List<HeldChange> held = heldForSnapshot;
+            heldForSnapshot = null;
+            if (held == null) {
+                return;
+            }
+            for (HeldChange change : held) {
+                if (change.change().isAfter(snapshot)) {
+                    offer(change.event());
+                } else {
+                    logger.debug("Dropping {} change of quote {} older than the snapshot",
+                            change.change().type(), change.change().quoteId());
+                }
+            }
+        }
+    }
+
+    /**
+     * Queues a committed change, or holds it back while the snapshot is being read; returns false if the
+     * client was too far behind and has been closed
+     */
+    boolean offerChange(QuoteChange change, Set<ResponseBodyEmitter.DataWithMediaType> event) {
+        synchronized (snapshotLock) {
+            if (heldForSnapshot != null) {
+                if (heldForSnapshot.size() >= capacity) {
+                    close();
+                    return false;
+                }
+                heldForSnapshot.add(new HeldChange(change, event));
+                return true;
+            }
+        }
+        return offer(event);
+    }
+
+    /**
+     * Queues an event for this client; returns false if the client was too far behind and has been closed
+     */
+    boolean offer(Set<ResponseBodyEmitter.DataWithMediaType> event) {
+        if (closed.get()) {
+            return false;
+        }
+        if (queued.incrementAndGet() > capacity) {
+            logger.debug("Closing event stream {} with {} undelivered events", filter, capacity);
+            close();
+            return false;
+        }
+        queue.add(event);
+        if (draining.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+        return true;
+    }
+
+    public void close() {
+        if (closed.compareAndSet(false, true)) {
+            hub.remove(this);
+            queue.clear();
+            emitter.complete();
+        }
+    }
+
+    boolean isClosed() {
+        return closed.get();
+    }
+
+    private void drain() {
+        do {
+            Set<ResponseBodyEmitter.DataWithMediaType> event;
+            while ((event = queue.poll()) != null) {
+                queued.decrementAndGet();
+                try {
+                    emitter.send(event);
+                } catch (IOException | IllegalStateException e) {
+                    logger.debug("Event stream {} disconnected: {}", filter, e.getMessage());
+                    close();
+                    return;
+                }
+            }
+            draining.set(false);
+        } while (!queue.isEmpty() && draining.compareAndSet(false, true));
+    }
+
+    private record HeldChange(QuoteChange change, Set<ResponseBodyEmitter.DataWithMediaType> event) {
+    }
+}
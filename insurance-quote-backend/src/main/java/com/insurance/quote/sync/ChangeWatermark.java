@@ -0,0 +1,78 @@
+package com.insurance.quote.sync;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+/**
+ * The highest quote_change_seq value up to which every change has committed or rolled back, as the database
+ * sees it. A sequence value is taken when a row is written but only becomes visible when its transaction
+ * commits, so the delta sync feed must not hand out a token past a value that a running transaction holds.
+ *
+ * <p>Each call notes the last value the sequence handed out, then the sessions that hold uncommitted changes
+ * or are running a statement other than a query. Every value up to the noted one is settled once each of those
+ * sessions has been seen without them, by the same or a later call. Other nodes' transactions are sessions of
+ * the same database, so they are covered too. Listing other sessions needs a database user with admin rights.
+ */
+@Component
+public class ChangeWatermark {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChangeWatermark.class);
+
+    private static final String LAST_VALUE_SQL = "SELECT BASE_VALUE - INCREMENT FROM INFORMATION_SCHEMA.SEQUENCES "
+            + "WHERE SEQUENCE_NAME = 'QUOTE_CHANGE_SEQ'";
+    private static final String BUSY_SESSIONS_SQL = "SELECT SESSION_ID FROM INFORMATION_SCHEMA.SESSIONS "
+            + "WHERE SESSION_ID <> SESSION_ID() AND (CONTAINS_UNCOMMITTED "
+            + "OR (EXECUTING_STATEMENT IS NOT NULL AND NOT REGEXP_LIKE(EXECUTING_STATEMENT, '^\\s*(SELECT|WITH)\\s', 'i')))";
+    // Older candidates are dropped first: a newer one that settles covers them
+    private static final int MAX_PENDING = 32;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Deque<Candidate> pending = new ArrayDeque<>();
+    private long settled;
+
+    public ChangeWatermark(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * Every change with a sequence value up to the returned one is visible to a transaction that starts reading
+     * after this call, or has rolled back
+     */
+    public synchronized long settledThrough() {
+        Long lastValue = jdbcTemplate.queryForObject(LAST_VALUE_SQL, Long.class);
+        Set<Integer> busy = new HashSet<>(jdbcTemplate.queryForList(BUSY_SESSIONS_SQL, Integer.class));
+
+        for (Iterator<Candidate> iterator = pending.iterator(); iterator.hasNext(); ) {
+            Candidate candidate = iterator.next();
+            candidate.sessions().retainAll(busy);
+            if (candidate.sessions().isEmpty()) {
+                settled = Math.max(settled, candidate.lastValue());
+                iterator.remove();
+            }
+        }
+        if (busy.isEmpty()) {
+            settled = Math.max(settled, lastValue);
+        } else if (lastValue > settled) {
+            pending.addLast(new Candidate(lastValue, busy));
+            if (pending.size() > MAX_PENDING) {
+                pending.removeFirst();
+            }
+        }
+        pending.removeIf(candidate -> candidate.lastValue() <= settled);
+
+        logger.debug("Quote changes settled through {} of {}, {} sessions busy", settled, lastValue, busy.size());
+        return settled;
+    }
+
+    private record Candidate(long lastValue, Set<Integer> sessions) {
+    }
+}
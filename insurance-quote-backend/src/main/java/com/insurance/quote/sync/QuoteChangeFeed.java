@@ -0,0 +1,102 @@
+package com.insurance.quote.sync;
+
+import com.insurance.quote.config.SyncProperties;
+import com.insurance.quote.dto.QuoteDto;
+import com.insurance.quote.entity.Quote;
+import com.insurance.quote.entity.QuoteTombstone;
+import com.insurance.quote.mapper.QuoteMapper;
+import com.insurance.quote.repository.QuoteRepository;
+import com.insurance.quote.repository.QuoteTombstoneRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Delta sync: the quotes created, modified or deleted after a change token, in change order.
+ * The token is a value of quote_change_seq, which the database assigns to every quote insert and update
+ * and to every tombstone; both are read through their change_seq index, so a call costs the size of the
+ * batch, not of the table.
+ * A sequence value is taken when a row is written but only becomes visible when its transaction commits, so
+ * a batch stops below the first value that a running transaction may still hold (see ChangeWatermark): the
+ * token never moves past a change that has yet to commit.
+ */
+@Service
+public class QuoteChangeFeed {
+
+    private static final Logger logger = LoggerFactory.getLogger(QuoteChangeFeed.class);
+
+    private final SyncProperties properties;
+    private final QuoteRepository quoteRepository;
+    private final QuoteTombstoneRepository tombstoneRepository;
+    private final QuoteMapper quoteMapper;
+    private final ChangeWatermark watermark;
+
+    public QuoteChangeFeed(SyncProperties properties,
+                           QuoteRepository quoteRepository,
+                           QuoteTombstoneRepository tombstoneRepository,
+                           QuoteMapper quoteMapper,
+                           ChangeWatermark watermark) {
+        this.properties = properties;
+        this.quoteRepository = quoteRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.quoteMapper = quoteMapper;
+        this.watermark = watermark;
+    }
+
+    /**
+     * Returns up to limit changes after the token (0 for a full initial sync); a null limit uses the default batch size
+     */
+    // Not read-only, so that it runs on the primary, whose running transactions bound the batch
+    @Transactional
+    public QuoteChangeSet changesSince(long since, Integer limit) {
+        int batchSize = limit == null ? properties.getDefaultBatchSize()
+                : Math.max(1, Math.min(limit, properties.getMaxBatchSize()));
+        // One row over the batch size tells whether more changes are waiting
+        PageRequest page = PageRequest.of(0, batchSize + 1);
+        // Before the reads, which then see every change up to it
+        long settledThrough = watermark.settledThrough();
+        List<Quote> quotes = quoteRepository.findChangedSince(since, page);
+        List<QuoteTombstone> tombstones = tombstoneRepository.findChangedSince(since, page);
+
+        List<QuoteDto> changed = new ArrayList<>();
+        List<QuoteChangeSet.Tombstone> deleted = new ArrayList<>();
+        long nextToken = since;
+        int q = 0;
+        int t = 0;
+        boolean settled = true;
+        while (changed.size() + deleted.size() < batchSize && (q < quotes.size() || t < tombstones.size())) {
+            boolean takeQuote = t == tombstones.size()
+                    || (q < quotes.size() && quotes.get(q).getChangeSeq() < tombstones.get(t).getChangeSeq());
+            if (takeQuote) {
+                Quote quote = quotes.get(q);
+                if (quote.getChangeSeq() > settledThrough) {
+                    settled = false;
+                    break;
+                }
+                changed.add(quoteMapper.toDto(quote));
+                nextToken = quote.getChangeSeq();
+                q++;
+            } else {
+                QuoteTombstone tombstone = tombstones.get(t);
+                if (tombstone.getChangeSeq() > settledThrough) {
+                    settled = false;
+                    break;
+                }
+                deleted.add(new QuoteChangeSet.Tombstone(tombstone.getQuoteId(), tombstone.getQuoteNumber(),
+                        tombstone.getDeletedAt()));
+                nextToken = tombstone.getChangeSeq();
+                t++;
+            }
+        }
+        boolean hasMore = settled && (q < quotes.size() || t < tombstones.size());
+
+        logger.debug("Delta sync since {}: {} changed, {} deleted, next token {}, more: {}",
+                since, changed.size(), deleted.size(), nextToken, hasMore);
+        return new QuoteChangeSet(changed, deleted, nextToken, hasMore);
+    }
+}
@@ -0,0 +1,20 @@
+package com.insurance.quote.sync;
+
+import com.insurance.quote.dto.QuoteDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * One batch of the delta sync feed
+ *
+ * @param changed   quotes created or modified since the token, in their current state
+ * @param deleted   quotes deleted since the token
+ * @param nextToken the token to pass as since on the next call; equal to the given token if nothing changed
+ * @param hasMore   whether more changes are ready now; if false, call again later with nextToken
+ */
+public record QuoteChangeSet(List<QuoteDto> changed, List<Tombstone> deleted, long nextToken, boolean hasMore) {
+
+    public record Tombstone(Long quoteId, String quoteNumber, LocalDateTime deletedAt) {
+    }
+}
@@ -0,0 +1,32 @@
+package com.insurance.quote.sync;
+
+import com.insurance.quote.entity.QuoteTombstone;
+import com.insurance.quote.event.QuoteLifecycleEvent;
+import com.insurance.quote.repository.QuoteTombstoneRepository;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Records a tombstone for every deleted quote inside the deleting transaction, so the delta sync feed
+ * reports the deletion if and only if it commits
+ */
+@Component
+public class QuoteTombstoneWriter {
+
+    private final QuoteTombstoneRepository tombstoneRepository;
+
+    public QuoteTombstoneWriter(QuoteTombstoneRepository tombstoneRepository) {
+        this.tombstoneRepository = tombstoneRepository;
+    }
+
+    @EventListener(condition = "#event.type() == T(com.insurance.quote.event.QuoteLifecycleEvent.Type).DELETED")
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onQuoteDeleted(QuoteLifecycleEvent event) {
+        tombstoneRepository.save(new QuoteTombstone(event.quote().getId(), event.quote().getQuoteNumber(),
+                LocalDateTime.now()));
+    }
+}
@@ -0,0 +1,29 @@
+package com.insurance.quote.workload;
+
+import java.util.Locale;
+
+/**
+ * Classes of database work that get a connection pool of their own, so that one class running long cannot take
+ * the connections another needs
+ */
+public enum Workload {
+
+    /**
+     * Requests of people working in the quote UI
+     */
+    INTERACTIVE,
+
+    /**
+     * Broker integrations sending quotes in bulk, and bulk imports
+     */
+    BULK,
+
+    /**
+     * Scheduled and queued jobs: archiving expired quotes, exports, reporting gauges, the outbox
+     */
+    BACKGROUND;
+
+    public String poolName() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
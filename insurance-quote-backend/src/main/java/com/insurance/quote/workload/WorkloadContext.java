@@ -0,0 +1,57 @@
+package com.insurance.quote.workload;
+
+import java.util.function.Supplier;
+
+/**
+ * The workload class of the current thread. WorkloadRoutingDataSource hands out connections from that class's
+ * pool; work outside of any class, such as startup, counts as interactive. The class must be set before a
+ * transaction starts: a transaction keeps the connection it started with.
+ */
+public final class WorkloadContext {
+
+    private static final ThreadLocal<Workload> CURRENT = new ThreadLocal<>();
+
+    private WorkloadContext() {
+    }
+
+    public static Workload current() {
+        Workload workload = CURRENT.get();
+        return workload != null ? workload : Workload.INTERACTIVE;
+    }
+
+    public static <T> T call(Workload workload, Supplier<T> task) {
+        Workload previous = CURRENT.get();
+        CURRENT.set(workload);
+        try {
+            return task.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    public static void run(Workload workload, Runnable task) {
+        call(workload, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * The task, run as the given workload on whichever thread executes it
+     */
+    public static Runnable wrap(Workload workload, Runnable task) {
+        return () -> run(workload, task);
+    }
+
+    static void set(Workload workload) {
+        CURRENT.set(workload);
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+}
@@ -0,0 +1,38 @@
+package com.insurance.quote.workload;
+
+import com.insurance.quote.ratelimit.ClientKeyResolver;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Runs requests of the configured bulk clients (app.workload-pools.bulk-clients) as bulk work and all other
+ * requests as interactive work
+ */
+public class WorkloadFilter extends OncePerRequestFilter {
+
+    private final ClientKeyResolver clientKeyResolver;
+    private final Set<String> bulkClients;
+
+    public WorkloadFilter(ClientKeyResolver clientKeyResolver, Set<String> bulkClients) {
+        this.clientKeyResolver = clientKeyResolver;
+        this.bulkClients = Set.copyOf(bulkClients);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        boolean bulk = bulkClients.contains(clientKeyResolver.resolve(request));
+        WorkloadContext.set(bulk ? Workload.BULK : Workload.INTERACTIVE);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            WorkloadContext.clear();
+        }
+    }
+}
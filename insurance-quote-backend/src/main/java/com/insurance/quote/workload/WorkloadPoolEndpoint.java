@@ -0,0 +1,42 @@
+package com.insurance.quote.workload;
+
+import com.insurance.quote.ratelimit.PoolSaturationProbe;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Actuator endpoint (/actuator/pools) showing the size and saturation of each workload class's connection pool
+ */
+@Endpoint(id = "pools")
+public class WorkloadPoolEndpoint {
+
+    private final WorkloadRoutingDataSource dataSource;
+
+    public WorkloadPoolEndpoint(WorkloadRoutingDataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @ReadOperation
+    public Map<String, Object> pools() {
+        Map<String, Object> body = new LinkedHashMap<>();
+        dataSource.getPools().forEach((workload, pool) -> body.put(workload.poolName(), describe(pool)));
+        return body;
+    }
+
+    private static Map<String, Object> describe(HikariDataSource pool) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("maximumPoolSize", pool.getMaximumPoolSize());
+        body.put("connectionTimeoutMillis", pool.getConnectionTimeout());
+        HikariPoolMXBean mxBean = pool.getHikariPoolMXBean();
+        body.put("active", mxBean != null ? mxBean.getActiveConnections() : 0);
+        body.put("idle", mxBean != null ? mxBean.getIdleConnections() : 0);
+        body.put("pending", mxBean != null ? mxBean.getThreadsAwaitingConnection() : 0);
+        body.put("saturation", PoolSaturationProbe.saturation(pool));
+        return body;
+    }
+}
@@ -0,0 +1,41 @@
+package com.insurance.quote.workload;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * DataSource that hands out connections from the pool of the workload class in WorkloadContext. All pools
+ * connect to the same database.
+ */
+public class WorkloadRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final Map<Workload, HikariDataSource> pools;
+
+    public WorkloadRoutingDataSource(Map<Workload, HikariDataSource> pools) {
+        this.pools = new EnumMap<>(pools);
+        if (this.pools.size() != Workload.values().length) {
+            throw new IllegalArgumentException("Every workload class needs a pool, got " + this.pools.keySet());
+        }
+        setTargetDataSources(new HashMap<>(pools));
+        setDefaultTargetDataSource(pools.get(Workload.INTERACTIVE));
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    public Map<Workload, HikariDataSource> getPools() {
+        return pools;
+    }
+
+    public HikariDataSource currentPool() {
+        return pools.get(WorkloadContext.current());
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return WorkloadContext.current();
+    }
+}
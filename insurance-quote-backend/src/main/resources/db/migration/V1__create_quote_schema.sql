@@ -0,0 +1,63 @@
+-- Quote schema as mapped by the JPA entities (Quote, BusinessInformation, CoverageOption, IdempotencyRecord).
+-- Hibernate validates against it at startup (spring.jpa.hibernate.ddl-auto: validate).
+
+CREATE TABLE business_information (
+    id            BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name          VARCHAR(255) NOT NULL,
+    business_type VARCHAR(255) NOT NULL
+        CHECK (business_type IN ('RETAIL', 'RESTAURANT', 'TECHNOLOGY', 'MANUFACTURING', 'HEALTHCARE', 'PROFESSIONAL')),
+    industry      VARCHAR(255) NOT NULL
+        CHECK (industry IN ('FOOD_SERVICE', 'RETAIL_TRADE', 'SOFTWARE', 'HEALTHCARE_SERVICES', 'CONSULTING', 'MANUFACTURING')),
+    state         VARCHAR(2)   NOT NULL,
+    created_at    TIMESTAMP(6),
+    updated_at    TIMESTAMP(6)
+);
+
+CREATE TABLE quotes (
+    id                BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    business_info_id  BIGINT        NOT NULL,
+    total_premium     NUMERIC(12, 2) NOT NULL,
+    risk_rating       VARCHAR(50),
+    underwriter_notes VARCHAR(2000),
+    status            VARCHAR(255)  NOT NULL
+        CHECK (status IN ('DRAFT', 'SAVED', 'SUBMITTED', 'APPROVED', 'REJECTED', 'EXPIRED')),
+    quote_number      VARCHAR(50),
+    valid_until       TIMESTAMP(6),
+    created_at        TIMESTAMP(6),
+    updated_at        TIMESTAMP(6),
+    CONSTRAINT uk_quotes_business_info_id UNIQUE (business_info_id),
+    CONSTRAINT uk_quotes_quote_number UNIQUE (quote_number),
+    CONSTRAINT fk_quotes_business_information FOREIGN KEY (business_info_id) REFERENCES business_information (id)
+);
+
+CREATE TABLE coverage_options (
+    id            BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    quote_id      BIGINT,
+    name          VARCHAR(255)   NOT NULL,
+    coverage_type VARCHAR(255)   NOT NULL
+        CHECK (coverage_type IN ('GENERAL_LIABILITY', 'PROPERTY', 'ADDITIONAL')),
+    premium       NUMERIC(10, 2) NOT NULL,
+    description   VARCHAR(1000),
+    is_active     BOOLEAN        NOT NULL,
+    is_selected   BOOLEAN        NOT NULL,
+    created_at    TIMESTAMP(6),
+    updated_at    TIMESTAMP(6)
+);
+
+-- Coverage options of a quote (batch fetch by quote_id) and findSelectedByQuoteId,
+-- calculateTotalPremiumForQuote, countSelectedByQuoteId. A quote has a handful of options, so is_selected is
+-- filtered on the fetched rows. Created before the foreign key, which H2 then backs with this index.
+CREATE INDEX idx_coverage_options_quote_id ON coverage_options (quote_id);
+
+ALTER TABLE coverage_options
+    ADD CONSTRAINT fk_coverage_options_quote FOREIGN KEY (quote_id) REFERENCES quotes (id);
+
+CREATE TABLE idempotency_keys (
+    idempotency_key VARCHAR(200) NOT NULL PRIMARY KEY,
+    fingerprint     VARCHAR(64)  NOT NULL,
+    completed       BOOLEAN      NOT NULL,
+    http_status     INTEGER,
+    response_body   CLOB,
+    created_at      TIMESTAMP(6) NOT NULL,
+    expires_at      TIMESTAMP(6) NOT NULL
+);
@@ -0,0 +1,26 @@
+-- Secondary indexes, one per repository query path. QuoteRepositoryExplainTest checks the plans.
+-- idx_coverage_options_quote_id is created with its foreign key in V1.
+
+-- findByStatus, countByStatus, countGroupedByStatus; findStaleQuotes (status = DRAFT AND created_at < ?)
+CREATE INDEX idx_quotes_status_created_at ON quotes (status, created_at);
+
+-- findByCreatedAtBetween, findQuotesCreatedToday, GET /quotes sorted by createdAt
+CREATE INDEX idx_quotes_created_at ON quotes (created_at);
+
+-- findExpiredQuotes (valid_until < ?)
+CREATE INDEX idx_quotes_valid_until ON quotes (valid_until);
+
+-- findByTotalPremiumGreaterThan
+CREATE INDEX idx_quotes_total_premium ON quotes (total_premium);
+
+-- findByState, findByBusinessType, findByIndustry: filter business_information, then join
+-- quotes through uk_quotes_business_info_id
+CREATE INDEX idx_business_information_state ON business_information (state);
+CREATE INDEX idx_business_information_business_type ON business_information (business_type);
+CREATE INDEX idx_business_information_industry ON business_information (industry);
+
+-- deleteExpired (expires_at <= ?)
+CREATE INDEX idx_idempotency_keys_expires_at ON idempotency_keys (expires_at);
+
+-- Not indexed: findByBusinessNameContainingIgnoreCase matches LOWER(name) LIKE '%...%', which no B-tree
+-- index can serve, and the remaining BusinessInformationRepository/CoverageOptionRepository finders are unused.
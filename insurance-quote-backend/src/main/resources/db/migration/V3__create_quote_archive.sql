@@ -0,0 +1,18 @@
+-- Cold storage for closed quotes (QuoteArchiver). One row per quote: the columns needed for lookups and
+-- statistics, and the full quote with its business information and coverage options as gzipped JSON.
+
+CREATE TABLE quote_archive (
+    quote_id      BIGINT         NOT NULL PRIMARY KEY,
+    quote_number  VARCHAR(50),
+    status        VARCHAR(255)   NOT NULL
+        CHECK (status IN ('DRAFT', 'SAVED', 'SUBMITTED', 'APPROVED', 'REJECTED', 'EXPIRED')),
+    total_premium NUMERIC(12, 2) NOT NULL,
+    created_at    TIMESTAMP(6),
+    closed_at     TIMESTAMP(6),
+    archived_at   TIMESTAMP(6)   NOT NULL,
+    snapshot      BLOB           NOT NULL,
+    CONSTRAINT uk_quote_archive_quote_number UNIQUE (quote_number)
+);
+
+-- findArchivableIds (status IN (APPROVED, REJECTED, EXPIRED) AND updated_at < ?)
+CREATE INDEX idx_quotes_status_updated_at ON quotes (status, updated_at);
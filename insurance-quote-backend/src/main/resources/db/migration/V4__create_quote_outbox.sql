@@ -0,0 +1,13 @@
+-- Transactional outbox for quote lifecycle events. QuoteOutboxWriter inserts a row in the same transaction as
+-- the quote change; OutboxDispatcher reads rows in id order, delivers them and deletes them once delivered.
+
+CREATE TABLE quote_outbox (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    event_type      VARCHAR(20)  NOT NULL CHECK (event_type IN ('CREATED', 'UPDATED', 'DELETED')),
+    quote_id        BIGINT       NOT NULL,
+    quote_number    VARCHAR(50),
+    status          VARCHAR(20),
+    previous_status VARCHAR(20),
+    payload         CLOB         NOT NULL,
+    created_at      TIMESTAMP(6) NOT NULL
+);
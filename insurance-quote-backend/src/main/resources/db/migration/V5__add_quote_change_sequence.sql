@@ -0,0 +1,20 @@
+-- Change tokens for delta sync (GET /quotes/changes). Every insert and update of a quote row takes the next value
+-- of quote_change_seq, and so does every tombstone of a deleted quote, so one token orders both tables.
+-- The values are assigned by the database; Hibernate neither writes nor reads them back.
+
+CREATE SEQUENCE quote_change_seq START WITH 1;
+
+ALTER TABLE quotes ADD COLUMN change_seq BIGINT
+    DEFAULT NEXT VALUE FOR quote_change_seq ON UPDATE NEXT VALUE FOR quote_change_seq;
+UPDATE quotes SET change_seq = NEXT VALUE FOR quote_change_seq;
+ALTER TABLE quotes ALTER COLUMN change_seq SET NOT NULL;
+CREATE UNIQUE INDEX idx_quotes_change_seq ON quotes (change_seq);
+
+CREATE TABLE quote_tombstones (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    change_seq   BIGINT       DEFAULT NEXT VALUE FOR quote_change_seq NOT NULL,
+    quote_id     BIGINT       NOT NULL,
+    quote_number VARCHAR(50),
+    deleted_at   TIMESTAMP(6) NOT NULL
+);
+CREATE UNIQUE INDEX idx_quote_tombstones_change_seq ON quote_tombstones (change_seq);
@@ -0,0 +1,13 @@
+-- Progress of bulk quote imports, one row per import file. QuoteImportService updates the row in the same
+-- transaction as each chunk of inserted quotes, so a resumed import continues after the last committed line.
+
+CREATE TABLE import_checkpoints (
+    source_file  VARCHAR(255) PRIMARY KEY,
+    file_size    BIGINT       NOT NULL,
+    last_line    BIGINT       NOT NULL,
+    imported     BIGINT       NOT NULL,
+    rejected     BIGINT       NOT NULL,
+    reject_bytes BIGINT       NOT NULL,
+    completed    BOOLEAN      NOT NULL,
+    updated_at   TIMESTAMP(6) NOT NULL
+);
@@ -0,0 +1,40 @@
+-- Quotes of the same business share one business_information row (Quote.businessInformation is many-to-one).
+-- A business is identified by its normalized name and state; BusinessDirectory keeps an in-memory index of
+-- that key. normalized_name uses the same rule as BusinessInformation.normalize: lower case, runs of
+-- characters other than letters and digits folded to one space.
+
+ALTER TABLE business_information ADD COLUMN normalized_name VARCHAR(255);
+
+UPDATE business_information
+SET normalized_name = TRIM(REGEXP_REPLACE(LOWER(name), '[^\p{L}\p{N}]+', ' '));
+
+ALTER TABLE business_information ALTER COLUMN normalized_name SET NOT NULL;
+
+-- Several quotes now reference one business row: replace the unique constraint with a plain index, which
+-- also serves the foreign key and the business attribute queries (findByState, findByBusinessType, ...)
+-- H2 hands the unique index over to the foreign key, so the key is dropped and recreated on the new index.
+CREATE INDEX idx_quotes_business_info_id ON quotes (business_info_id);
+
+ALTER TABLE quotes DROP CONSTRAINT fk_quotes_business_information;
+
+ALTER TABLE quotes DROP CONSTRAINT uk_quotes_business_info_id;
+
+ALTER TABLE quotes
+    ADD CONSTRAINT fk_quotes_business_information FOREIGN KEY (business_info_id) REFERENCES business_information (id);
+
+-- Merge duplicates: point each quote at the oldest row with its business key, then drop the others
+UPDATE quotes q
+SET business_info_id = (
+    SELECT MIN(o.id)
+    FROM business_information b
+    JOIN business_information o ON o.normalized_name = b.normalized_name AND o.state = b.state
+    WHERE b.id = q.business_info_id);
+
+DELETE FROM business_information b
+WHERE EXISTS (
+    SELECT 1 FROM business_information o
+    WHERE o.normalized_name = b.normalized_name AND o.state = b.state AND o.id < b.id);
+
+-- findByNormalizedNameAndState and the directory's miss path
+ALTER TABLE business_information
+    ADD CONSTRAINT uk_business_information_name_state UNIQUE (normalized_name, state);
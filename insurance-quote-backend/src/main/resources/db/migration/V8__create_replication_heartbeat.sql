@@ -0,0 +1,10 @@
+-- Replication heartbeat. With read replicas configured, ReplicaLagMonitor rewrites the single row on the primary
+-- at every lag check and reads it back from each replica: how far a replica's copy trails the primary's is its
+-- replication lag, and the instant it holds is the point up to which the replica has applied the primary's commits.
+
+CREATE TABLE replication_heartbeat (
+    id      INT          PRIMARY KEY,
+    beat_at TIMESTAMP(6) NOT NULL
+);
+
+INSERT INTO replication_heartbeat (id, beat_at) VALUES (1, CURRENT_TIMESTAMP);
@@ -0,0 +1,374 @@
+package com.insurance.quote.startup;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Startup tooling for the {@code startup} Maven profile.
+ * <ul>
+ *     <li>{@code train}: starts the AOT-processed application with {@code -XX:ArchiveClassesAtExit},
+ *     drives the quote endpoints and shuts it down, which writes the CDS archive</li>
+ *     <li>{@code measure}: starts the application repeatedly in each launch mode and reports the time
+ *     from process start to the first successful quote request, the startup time Spring reports and
+ *     the resident set size after the first request; with {@code --load-seconds} also the throughput
+ *     right after startup and the resident set size after it</li>
+ * </ul>
+ * Options are passed as {@code --key=value}; see BENCHMARKS.md.
+ */
+public class StartupRunner {
+
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+    private static final Pattern QUOTE_NUMBER = Pattern.compile("\"quoteNumber\"\\s*:\\s*\"([^\"]+)\"");
+    private static final Pattern STARTED = Pattern.compile("Started \\S+ in ([\\d.]+) seconds");
+    private static final Pattern VM_RSS = Pattern.compile("VmRSS:\\s+(\\d+) kB");
+
+    private final Map<String, String> options;
+    private final Path directory;
+    private final String java;
+    private final int port;
+    private final String baseUrl;
+    private long requestsSent;
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofMillis(200))
+            .version(HttpClient.Version.HTTP_1_1)
+            .build();
+
+    StartupRunner(Map<String, String> options) {
+        this.options = options;
+        this.directory = Path.of(options.getOrDefault("dir", "target"));
+        this.java = options.getOrDefault("java", Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        this.port = Integer.parseInt(options.getOrDefault("port", "18080"));
+        this.baseUrl = "http://localhost:" + port + "/api";
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0 || !List.of("train", "measure").contains(args[0])) {
+            System.err.println("Usage: StartupRunner train|measure [--key=value ...]");
+            System.exit(2);
+        }
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : Arrays.copyOfRange(args, 1, args.length)) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Expected --key=value but got " + arg);
+            }
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        StartupRunner runner = new StartupRunner(options);
+        if (args[0].equals("train")) {
+            runner.train();
+        } else {
+            runner.measure();
+        }
+    }
+
+    /**
+     * Launch modes and their commands. The native executable is included once it has been built
+     * (mvn -Pnative native:compile).
+     */
+    Map<String, List<String>> modes() {
+        String fatJar = directory.resolve(options.getOrDefault("jar", "quote-backend-1.0.0.jar")).toString();
+        String startupJar = startupDirectory().resolve(options.getOrDefault("startup-jar", "quote-backend-1.0.0-startup.jar")).toString();
+        String archive = "-XX:SharedArchiveFile=" + archive();
+        Map<String, List<String>> modes = new LinkedHashMap<>();
+        modes.put("default", List.of(java, "-jar", fatJar));
+        modes.put("unpacked", List.of(java, "-jar", startupJar));
+        modes.put("aot", List.of(java, "-Dspring.aot.enabled=true", "-jar", startupJar));
+        modes.put("cds", List.of(java, archive, "-jar", startupJar));
+        modes.put("aot-cds", List.of(java, archive, "-Dspring.aot.enabled=true", "-jar", startupJar));
+        Path nativeImage = directory.resolve(options.getOrDefault("native-image", "quote-backend"));
+        if (Files.isExecutable(nativeImage) || options.getOrDefault("modes", "").contains("native")) {
+            modes.put("native", List.of(nativeImage.toString()));
+        }
+        return modes;
+    }
+
+    void train() throws Exception {
+        Path archive = archive();
+        Files.deleteIfExists(archive);
+        int rounds = Integer.parseInt(options.getOrDefault("training-rounds", "20"));
+        List<String> command = new ArrayList<>(modes().get("aot"));
+        command.add(1, "-XX:ArchiveClassesAtExit=" + archive);
+
+        System.out.printf("Training run: %d rounds of the quote endpoints%n", rounds);
+        Process process = start(command, startupDirectory().resolve("training.log"));
+        try {
+            awaitFirstRequest(process);
+            for (int round = 0; round < rounds; round++) {
+                exerciseQuoteEndpoints("startup-training-" + round);
+            }
+        } finally {
+            stop(process);
+        }
+        if (!Files.exists(archive)) {
+            throw new IllegalStateException("No CDS archive was written; see " + startupDirectory().resolve("training.log"));
+        }
+        System.out.printf("CDS archive written to %s (%d MB)%n", archive, Files.size(archive) >> 20);
+    }
+
+    void measure() throws Exception {
+        int runs = Integer.parseInt(options.getOrDefault("runs", "3"));
+        long loadSeconds = Long.parseLong(options.getOrDefault("load-seconds", "0"));
+        Map<String, List<String>> modes = modes();
+        List<String> selected = options.containsKey("modes")
+                ? List.of(options.get("modes").split(","))
+                : new ArrayList<>(modes.keySet());
+
+        Map<String, List<Run>> results = new LinkedHashMap<>();
+        for (String mode : selected) {
+            List<String> command = modes.get(mode);
+            if (command == null) {
+                throw new IllegalArgumentException("Unknown mode " + mode + ", expected one of " + modes.keySet());
+            }
+            for (int i = 1; i <= runs; i++) {
+                Path log = startupDirectory().resolve("logs").resolve(mode + "-" + i + ".log");
+                long started = System.nanoTime();
+                Process process = start(command, log);
+                Run run;
+                try {
+                    awaitFirstRequest(process);
+                    long firstRequestMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+                    run = new Run(firstRequestMillis, residentSetKb(process));
+                    if (loadSeconds > 0) {
+                        run = run.withLoad(requestsPerSecond(loadSeconds), residentSetKb(process));
+                    }
+                } finally {
+                    stop(process);
+                }
+                run = run.withReportedStartup(reportedStartupMillis(log));
+                results.computeIfAbsent(mode, key -> new ArrayList<>()).add(run);
+                System.out.printf("%-10s run %d: first request after %d ms%n", mode, i, run.firstRequestMillis());
+            }
+        }
+        report(results);
+    }
+
+    private Process start(List<String> command, Path log) throws IOException {
+        Files.createDirectories(log.getParent());
+        List<String> arguments = new ArrayList<>(command);
+        arguments.add("--server.port=" + port);
+        return new ProcessBuilder(arguments)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+    }
+
+    private void stop(Process process) throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(60, TimeUnit.SECONDS)) {
+            process.destroyForcibly().waitFor();
+        }
+    }
+
+    /**
+     * Polls the quote list until it answers 200; the first request is the readiness probe
+     */
+    private void awaitFirstRequest(Process process) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(Long.parseLong(options.getOrDefault("timeout", "180")));
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/quotes?page=0&size=20"))
+                .timeout(Duration.ofSeconds(10))
+                .header("X-Client-Id", "startup-probe")
+                .GET()
+                .build();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Application exited with status " + process.exitValue());
+            }
+            try {
+                if (httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (ConnectException | HttpTimeoutException e) {
+                // not listening yet
+            }
+            Thread.sleep(5);
+        }
+        throw new IllegalStateException("Application did not answer within the timeout");
+    }
+
+    /**
+     * Throughput right after startup: passes over the quote endpoints, back to back on one connection,
+     * for the given number of seconds. On the JVM this includes JIT warm-up, which is the point.
+     */
+    private double requestsPerSecond(long seconds) throws Exception {
+        long before = requestsSent;
+        long started = System.nanoTime();
+        long deadline = started + TimeUnit.SECONDS.toNanos(seconds);
+        for (int pass = 0; System.nanoTime() < deadline; pass++) {
+            exerciseQuoteEndpoints("startup-load-" + pass);
+        }
+        return (requestsSent - before) * 1e9 / (System.nanoTime() - started);
+    }
+
+    /**
+     * One pass over the quote endpoints: the full lifecycle, a rejection, the read endpoints and a delete
+     */
+    private void exerciseQuoteEndpoints(String clientId) throws Exception {
+        String created = send(clientId, "POST", "/quotes", newQuote());
+        String id = extract(ID, created);
+        String quoteNumber = extract(QUOTE_NUMBER, created);
+        save(clientId, created);
+        send(clientId, "GET", "/quotes/" + id, null);
+        send(clientId, "GET", "/quotes/number/" + quoteNumber, null);
+        send(clientId, "GET", "/quotes/check-number/" + quoteNumber, null);
+        send(clientId, "GET", "/quotes/" + id + "/premium", null);
+        send(clientId, "POST", "/quotes/" + id + "/submit", null);
+        send(clientId, "POST", "/quotes/" + id + "/approve", null);
+
+        String rejected = save(clientId, send(clientId, "POST", "/quotes", newQuote()));
+        send(clientId, "POST", "/quotes/" + rejected + "/submit", null);
+        send(clientId, "POST", "/quotes/" + rejected + "/reject?reason=Training", null);
+
+        send(clientId, "GET", "/quotes?page=0&size=20&sort=createdAt,desc", null);
+        send(clientId, "GET", "/quotes/search?businessName=Startup", null);
+        send(clientId, "GET", "/quotes/status/APPROVED", null);
+        send(clientId, "GET", "/quotes/state/CA", null);
+        send(clientId, "GET", "/quotes/expired", null);
+        send(clientId, "GET", "/quotes/statistics", null);
+        String draft = extract(ID, send(clientId, "POST", "/quotes", newQuote()));
+        send(clientId, "DELETE", "/quotes/" + draft, null);
+    }
+
+    /**
+     * Saves a draft with its first coverage selected so it can be submitted, returning its id
+     */
+    private String save(String clientId, String created) throws Exception {
+        String id = extract(ID, created);
+        String saved = created.replace("\"status\":\"DRAFT\"", "\"status\":\"SAVED\"")
+                .replaceFirst("\"isSelected\":false", "\"isSelected\":true");
+        send(clientId, "PUT", "/quotes/" + id, saved);
+        return id;
+    }
+
+    private String send(String clientId, String method, String path, String body) throws Exception {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Accept", "application/json")
+                .header("X-Client-Id", clientId);
+        if (body != null) {
+            builder.header("Content-Type", "application/json").method(method, HttpRequest.BodyPublishers.ofString(body));
+        } else {
+            builder.method(method, HttpRequest.BodyPublishers.noBody());
+        }
+        HttpResponse<String> response = httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+        requestsSent++;
+        if (response.statusCode() >= 400) {
+            throw new IllegalStateException(method + " " + path + " failed with status " + response.statusCode());
+        }
+        return response.body();
+    }
+
+    private static String newQuote() {
+        return """
+                {"businessInformation":{"name":"Startup Training Bakery","businessType":"RESTAURANT",\
+                "industry":"FOOD_SERVICE","state":"CA"},\
+                "coverageOptions":[{"name":"General Liability","coverageType":"GENERAL_LIABILITY","premium":500,"isSelected":false},\
+                {"name":"Property Insurance","coverageType":"PROPERTY","premium":750,"isSelected":false}],\
+                "totalPremium":0,"status":"DRAFT"}""";
+    }
+
+    private static String extract(Pattern pattern, String json) {
+        Matcher matcher = pattern.matcher(json);
+        if (!matcher.find()) {
+            throw new IllegalStateException("Unexpected response " + json);
+        }
+        return matcher.group(1);
+    }
+
+    private static long residentSetKb(Process process) {
+        try {
+            Matcher matcher = VM_RSS.matcher(Files.readString(Path.of("/proc", String.valueOf(process.pid()), "status")));
+            return matcher.find() ? Long.parseLong(matcher.group(1)) : -1;
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    private static long reportedStartupMillis(Path log) throws IOException {
+        Matcher matcher = STARTED.matcher(Files.readString(log));
+        return matcher.find() ? Math.round(Double.parseDouble(matcher.group(1)) * 1000) : -1;
+    }
+
+    private void report(Map<String, List<Run>> results) throws IOException {
+        long baseline = results.containsKey("default") ? median(results.get("default"), Run::firstRequestMillis) : -1;
+        StringBuilder json = new StringBuilder("{\n");
+        System.out.println();
+        System.out.printf("%-10s %-22s %10s %10s %12s %9s %9s %13s%n",
+                "mode", "first request p50", "min", "max", "spring p50", "rss p50", "req/s p50", "loaded rss p50");
+        for (Map.Entry<String, List<Run>> entry : results.entrySet()) {
+            List<Run> runs = entry.getValue();
+            long firstRequest = median(runs, Run::firstRequestMillis);
+            long min = runs.stream().mapToLong(Run::firstRequestMillis).min().orElse(-1);
+            long max = runs.stream().mapToLong(Run::firstRequestMillis).max().orElse(-1);
+            long reported = median(runs, Run::reportedStartupMillis);
+            long rss = median(runs, Run::residentSetKb);
+            long throughput = median(runs, Run::requestsPerSecond);
+            long loadedRss = median(runs, Run::loadedResidentSetKb);
+            String change = baseline > 0 && !entry.getKey().equals("default")
+                    ? String.format(Locale.ROOT, " (%+.0f%%)", 100.0 * (firstRequest - baseline) / baseline)
+                    : "";
+            System.out.printf("%-10s %-22s %7d ms %7d ms %9d ms %6d MB %9s %13s%n",
+                    entry.getKey(), firstRequest + " ms" + change, min, max, reported, rss >> 10,
+                    throughput < 0 ? "-" : String.valueOf(throughput), loadedRss < 0 ? "-" : (loadedRss >> 10) + " MB");
+            json.append(String.format(Locale.ROOT,
+                    "  \"%s\": {\"runs\": %d, \"firstRequestMillis\": %d, \"minMillis\": %d, \"maxMillis\": %d, "
+                            + "\"reportedStartupMillis\": %d, \"rssKb\": %d, \"requestsPerSecond\": %d, \"loadedRssKb\": %d},%n",
+                    entry.getKey(), runs.size(), firstRequest, min, max, reported, rss, throughput, loadedRss));
+        }
+        if (!results.isEmpty()) {
+            json.setLength(json.length() - System.lineSeparator().length() - 1);
+            json.append(System.lineSeparator());
+        }
+        json.append("}\n");
+        Path report = directory.resolve("startup-report.json");
+        Files.writeString(report, json);
+        System.out.println();
+        System.out.println("Report written to " + report);
+    }
+
+    private static long median(List<Run> runs, java.util.function.ToLongFunction<Run> metric) {
+        long[] values = runs.stream().mapToLong(metric).sorted().toArray();
+        return values.length == 0 ? -1 : values[values.length / 2];
+    }
+
+    private Path startupDirectory() {
+        return directory.resolve("startup");
+    }
+
+    private Path archive() {
+        return startupDirectory().resolve(options.getOrDefault("archive", "quote-backend.jsa"));
+    }
+
+    record Run(long firstRequestMillis, long residentSetKb, long requestsPerSecond, long loadedResidentSetKb,
+               long reportedStartupMillis) {
+
+        Run(long firstRequestMillis, long residentSetKb) {
+            this(firstRequestMillis, residentSetKb, -1, -1, -1);
+        }
+
+        Run withLoad(double requestsPerSecond, long loadedResidentSetKb) {
+            return new Run(firstRequestMillis, residentSetKb, Math.round(requestsPerSecond), loadedResidentSetKb, reportedStartupMillis);
+        }
+
+        Run withReportedStartup(long millis) {
+            return new Run(firstRequestMillis, residentSetKb, requestsPerSecond, loadedResidentSetKb, millis);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.insurance.quote.archive;
+
+import com.insurance.quote.dto.BusinessInformationDto;
+import com.insurance.quote.dto.QuoteDto;
+import com.insurance.quote.entity.ArchivedQuote;
+import com.insurance.quote.entity.BusinessInformation;
+import com.insurance.quote.entity.Quote;
+import com.insurance.quote.exception.InvalidQuoteStateException;
+import com.insurance.quote.repository.ArchivedQuoteRepository;
+import com.insurance.quote.repository.BusinessInformationRepository;
+import com.insurance.quote.repository.CoverageOptionRepository;
+import com.insurance.quote.repository.QuoteRepository;
+import com.insurance.quote.service.QuoteService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "app.archive.chunk-size=2"
+})
+@ActiveProfiles("test")
+@DisplayName("Quote archival")
+class QuoteArchiverTest {
+
+    @Autowired
+    private QuoteArchiver quoteArchiver;
+
+    @Autowired
+    private QuoteService quoteService;
+
+    @Autowired
+    private QuoteRepository quoteRepository;
+
+    @Autowired
+    private CoverageOptionRepository coverageOptionRepository;
+
+    @Autowired
+    private BusinessInformationRepository businessInfoRepository;
+
+    @Autowired
+    private ArchivedQuoteRepository archivedQuoteRepository;
+
+    @AfterEach
+    void tearDown() {
+        quoteRepository.deleteAll();
+        archivedQuoteRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should move closed quotes to the archive in chunks and leave open quotes")
+    void shouldArchiveClosedQuotes() {
+        QuoteDto approved = approve(quoteService.createQuote(newQuote("Archive Bakery")));
+        QuoteDto rejected = reject(quoteService.createQuote(newQuote("Archive Brewery")));
+        QuoteDto alsoApproved = approve(quoteService.createQuote(newQuote("Archive Florist")));
+        QuoteDto draft = quoteService.createQuote(newQuote("Archive Draft"));
+        QuoteService.QuoteStatistics before = quoteService.getQuoteStatistics();
+
+        int archived = quoteArchiver.archiveClosedQuotes(LocalDateTime.now().plusMinutes(1));
+
+        assertThat(archived).isEqualTo(3);
+        assertThat(quoteRepository.findAll()).extracting(Quote::getId).containsExactly(draft.getId());
+        assertThat(coverageOptionRepository.count()).isEqualTo(draft.getCoverageOptions().size());
+        assertThat(businessInfoRepository.findAllById(List.of(approved.getBusinessInformation().getId(),
+                rejected.getBusinessInformation().getId(), alsoApproved.getBusinessInformation().getId()))).isEmpty();
+        assertThat(businessInfoRepository.existsById(draft.getBusinessInformation().getId())).isTrue();
+        assertThat(archivedQuoteRepository.findAll()).extracting(ArchivedQuote::getQuoteId)
+                .containsExactlyInAnyOrder(approved.getId(), rejected.getId(), alsoApproved.getId());
+
+        QuoteService.QuoteStatistics after = quoteService.getQuoteStatistics();
+        assertThat(after.getTotalQuotes()).isEqualTo(before.getTotalQuotes());
+        assertThat(after.getApprovedQuotes()).isEqualTo(2);
+        assertThat(after.getRejectedQuotes()).isEqualTo(1);
+        assertThat(after.getTotalPremiumValue()).isEqualByComparingTo(before.getTotalPremiumValue());
+        assertThat(after.getAveragePremium()).isEqualByComparingTo(before.getAveragePremium());
+    }
+
+    @Test
+    @DisplayName("Should only archive quotes closed before the cutoff")
+    void shouldRespectCutoff() {
+        approve(quoteService.createQuote(newQuote("Recent Bakery")));
+
+        assertThat(quoteArchiver.archiveClosedQuotes(LocalDateTime.now().minusDays(1))).isZero();
+        assertThat(archivedQuoteRepository.count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should resolve archived quotes by id and number, and refuse to change them")
+    void shouldResolveArchivedQuotes() {
+        QuoteDto approved = approve(quoteService.createQuote(newQuote("Archive Bakery")));
+        quoteArchiver.archiveClosedQuotes(LocalDateTime.now().plusMinutes(1));
+
+        QuoteDto byId = quoteService.getQuoteById(approved.getId()).orElseThrow();
+        assertThat(byId.getQuoteNumber()).isEqualTo(approved.getQuoteNumber());
+        assertThat(byId.getStatus()).isEqualTo(Quote.QuoteStatus.APPROVED);
+        assertThat(byId.getBusinessInformation().getName()).isEqualTo("Archive Bakery");
+        assertThat(byId.getCoverageOptions()).hasSameSizeAs(approved.getCoverageOptions());
+        assertThat(byId.getTotalPremium()).isEqualByComparingTo(approved.getTotalPremium());
+        assertThat(quoteService.getQuoteByNumber(approved.getQuoteNumber())).map(QuoteDto::getId).contains(approved.getId());
+        assertThat(quoteService.calculateQuotePremium(approved.getId())).isEqualByComparingTo(approved.getTotalPremium());
+        assertThat(quoteService.isQuoteNumberUnique(approved.getQuoteNumber())).isFalse();
+
+        assertThatThrownBy(() -> quoteService.rejectQuote(approved.getId(), "late"))
+                .isInstanceOf(InvalidQuoteStateException.class)
+                .hasMessageContaining("archived");
+    }
+
+    private QuoteDto approve(QuoteDto quote) {
+        submit(quote);
+        return quoteService.approveQuote(quote.getId());
+    }
+
+    private QuoteDto reject(QuoteDto quote) {
+        submit(quote);
+        return quoteService.rejectQuote(quote.getId(), "Outside appetite");
+    }
+
+    private void submit(QuoteDto quote) {
+        QuoteDto update = quoteService.getQuoteById(quote.getId()).orElseThrow();
+        update.setStatus(Quote.QuoteStatus.SAVED);
+        update.getCoverageOptions().get(0).setIsSelected(true);
+        quoteService.updateQuote(quote.getId(), update);
+        quoteService.submitQuote(quote.getId());
+    }
+
+    private static QuoteDto newQuote(String businessName) {
+        BusinessInformationDto business = new BusinessInformationDto();
+        business.setName(businessName);
+        business.setBusinessType(BusinessInformation.BusinessType.RESTAURANT);
+        business.setIndustry(BusinessInformation.Industry.FOOD_SERVICE);
+        business.setState("CA");
+
+        QuoteDto quote = new QuoteDto();
+        quote.setBusinessInformation(business);
+        quote.setTotalPremium(BigDecimal.ZERO);
+        return quote;
+    }
+}
@@ -0,0 +1,172 @@
+package com.insurance.quote.bulkimport;
+
+import com.insurance.quote.config.ImportProperties;
+import com.insurance.quote.entity.BusinessInformation;
+import com.insurance.quote.entity.Quote;
+import com.insurance.quote.repository.QuoteRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@ActiveProfiles("test")
+@DisplayName("Bulk quote import")
+class QuoteImportServiceTest {
+
+    private static final String CSV_HEADER = "quote_number,status,total_premium,business_name,business_type,industry,state";
+
+    @Autowired
+    private QuoteImportService quoteImportService;
+
+    @Autowired
+    private QuoteRepository quoteRepository;
+
+    @Autowired
+    private ImportProperties importProperties;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    @AfterEach
+    void clearQuotes() {
+        quoteRepository.deleteAll();
+        jdbcTemplate.update("DELETE FROM import_checkpoints");
+    }
+
+    @Test
+    @DisplayName("Should import valid CSV records in chunks and write invalid ones to the reject file")
+    void shouldImportCsvAndRejectInvalidRecords() throws IOException {
+        List<String> lines = new ArrayList<>(List.of(CSV_HEADER));
+        for (int i = 1; i <= 7; i++) {
+            lines.add("LEG-" + i + ",SAVED,1250.50,\"Legacy Diner " + i + ", LLC\",RESTAURANT,FOOD_SERVICE,CA");
+        }
+        lines.add("LEG-8,SAVED,10,Legacy Bakery,RESTAURANT,FOOD_SERVICE,California");
+        lines.add("LEG-9,SAVED,10,Legacy Cafe,SPACESHIP,FOOD_SERVICE,CA");
+        lines.add(",,,\"Legacy\nDeli\",RESTAURANT,FOOD_SERVICE,NY");
+        writeImportFile("legacy.csv", lines);
+
+        int chunkSize = importProperties.getChunkSize();
+        importProperties.setChunkSize(3);
+        ImportJob job;
+        try {
+            job = quoteImportService.importFile("legacy.csv", false);
+        } finally {
+            importProperties.setChunkSize(chunkSize);
+        }
+
+        assertThat(job.getStatus()).isEqualTo(ImportJob.Status.COMPLETED);
+        assertThat(job.getImported()).isEqualTo(8);
+        assertThat(job.getRejected()).isEqualTo(2);
+        assertThat(quoteRepository.count()).isEqualTo(8);
+        transactionTemplate.executeWithoutResult(status -> {
+            Quote quote = quoteRepository.findByQuoteNumber("LEG-3").orElseThrow();
+            assertThat(quote.getStatus()).isEqualTo(Quote.QuoteStatus.SAVED);
+            assertThat(quote.getTotalPremium()).isEqualByComparingTo(new BigDecimal("1250.50"));
+            assertThat(quote.getCreatedAt()).isNotNull();
+            BusinessInformation business = quote.getBusinessInformation();
+            assertThat(business.getName()).isEqualTo("Legacy Diner 3, LLC");
+            assertThat(business.getBusinessType()).isEqualTo(BusinessInformation.BusinessType.RESTAURANT);
+        });
+        assertThat(quoteRepository.findByQuoteNumber(
+                "IMP-" + job.getRequestedAt().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss")) + "-11")).isPresent();
+
+        List<String> rejects = Files.readAllLines(Path.of(job.getRejectFile()), StandardCharsets.UTF_8);
+        assertThat(rejects).hasSize(3);
+        assertThat(rejects.get(0)).isEqualTo(CSV_HEADER + ",reject_reason");
+        assertThat(rejects.get(1)).startsWith("LEG-8,").contains("line 9: businessInformation.state: State must be");
+        assertThat(rejects.get(2)).startsWith("LEG-9,").contains("line 10: business_type: unknown value 'SPACESHIP'");
+
+        ImportCheckpoint checkpoint = quoteImportService.getCheckpoint("legacy.csv").orElseThrow();
+        assertThat(checkpoint.completed()).isTrue();
+        assertThat(checkpoint.lastLine()).isEqualTo(11);
+    }
+
+    @Test
+    @DisplayName("Should import NDJSON quotes with coverage options and reject duplicate quote numbers")
+    void shouldImportNdjsonAndRejectDuplicates() throws IOException {
+        String coverage = "\"coverageOptions\":[{\"name\":\"GL\",\"coverageType\":\"GENERAL_LIABILITY\",\"premium\":400,"
+                + "\"isSelected\":true},{\"name\":\"Property\",\"coverageType\":\"PROPERTY\",\"premium\":300,\"isSelected\":false}]";
+        writeImportFile("legacy.ndjson", List.of(
+                quoteJson("NDJ-1", "Json Bistro", coverage),
+                quoteJson("NDJ-2", "Json Grill", coverage),
+                "",
+                quoteJson("NDJ-1", "Json Copycat", coverage),
+                "{not json"));
+
+        ImportJob job = quoteImportService.importFile("legacy.ndjson", false);
+
+        assertThat(job.getStatus()).isEqualTo(ImportJob.Status.COMPLETED);
+        assertThat(job.getImported()).isEqualTo(2);
+        assertThat(job.getRejected()).isEqualTo(2);
+        transactionTemplate.executeWithoutResult(status -> {
+            Quote quote = quoteRepository.findByQuoteNumber("NDJ-2").orElseThrow();
+            assertThat(quote.getCoverageOptions()).hasSize(2);
+            assertThat(quote.getTotalPremium()).isEqualByComparingTo("400");
+            assertThat(quote.getBusinessInformation().getName()).isEqualTo("Json Grill");
+        });
+        List<String> rejects = Files.readAllLines(Path.of(job.getRejectFile()), StandardCharsets.UTF_8);
+        assertThat(rejects).hasSize(2);
+        assertThat(rejects.get(0)).contains("\"Json Copycat\"").contains("\"rejectReason\":\"line 4: ");
+        assertThat(rejects.get(1)).contains("\"record\":\"{not json\"").contains("Invalid JSON");
+    }
+
+    @Test
+    @DisplayName("Should resume after the checkpointed line and start over on restart")
+    void shouldResumeFromCheckpoint() throws IOException {
+        List<String> lines = new ArrayList<>(List.of(CSV_HEADER));
+        for (int i = 1; i <= 6; i++) {
+            lines.add("RES-" + i + ",DRAFT,0,Resume Shop " + i + ",RETAIL,RETAIL_TRADE,TX");
+        }
+        Path file = writeImportFile("resume.csv", lines);
+        jdbcTemplate.update("INSERT INTO import_checkpoints VALUES (?, ?, 4, 3, 0, 0, FALSE, CURRENT_TIMESTAMP)",
+                "resume.csv", Files.size(file));
+
+        ImportJob resumed = quoteImportService.importFile("resume.csv", false);
+
+        assertThat(resumed.getResumedAfterLine()).isEqualTo(4);
+        assertThat(resumed.getImported()).isEqualTo(6);
+        assertThat(quoteRepository.findAll()).extracting(Quote::getQuoteNumber)
+                .containsExactlyInAnyOrder("RES-4", "RES-5", "RES-6");
+
+        quoteRepository.deleteAll();
+        ImportJob restarted = quoteImportService.importFile("resume.csv", true);
+
+        assertThat(restarted.getResumedAfterLine()).isZero();
+        assertThat(restarted.getImported()).isEqualTo(6);
+        assertThat(quoteRepository.count()).isEqualTo(6);
+    }
+
+    private static String quoteJson(String number, String business, String coverage) {
+        return "{\"quoteNumber\":\"" + number + "\",\"businessInformation\":{\"name\":\"" + business
+                + "\",\"businessType\":\"RESTAURANT\",\"industry\":\"FOOD_SERVICE\",\"state\":\"WA\"}," + coverage + "}";
+    }
+
+    private Path writeImportFile(String name, List<String> lines) throws IOException {
+        Path directory = importProperties.getDirectory();
+        Files.createDirectories(directory);
+        Path file = directory.resolve(name);
+        Files.write(file, lines, StandardCharsets.UTF_8);
+        return file;
+    }
+}
@@ -0,0 +1,237 @@
+package com.insurance.quote.business;
+
+import com.insurance.quote.dto.BusinessInformationDto;
+import com.insurance.quote.dto.QuoteDto;
+import com.insurance.quote.entity.BusinessInformation;
+import com.insurance.quote.repository.BusinessInformationRepository;
+import com.insurance.quote.repository.QuoteRepository;
+import com.insurance.quote.service.QuoteService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@ActiveProfiles("test")
+@DisplayName("Shared business information")
+class BusinessDirectoryTest {
+
+    @Autowired
+    private BusinessDirectory businessDirectory;
+
+    @Autowired
+    private BusinessSimilarityIndex similarityIndex;
+
+    @Autowired
+    private DuplicateClusterer duplicateClusterer;
+
+    @Autowired
+    private BusinessNameSuggester nameSuggester;
+
+    @Autowired
+    private QuoteService quoteService;
+
+    @Autowired
+    private QuoteRepository quoteRepository;
+
+    @Autowired
+    private BusinessInformationRepository businessInfoRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        quoteRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should reuse the business row unchanged for repeat quotes, whatever the spelling of the name")
+    void shouldReuseBusinessForRepeatQuotes() {
+        QuoteDto first = quoteService.createQuote(newQuote("Directory Diner, LLC", "CA"));
+        QuoteDto repeat = newQuote("directory diner llc", "CA");
+        repeat.getBusinessInformation().setIndustry(BusinessInformation.Industry.RETAIL_TRADE);
+        QuoteDto second = quoteService.createQuote(repeat);
+        QuoteDto otherState = quoteService.createQuote(newQuote("Directory Diner, LLC", "NV"));
+
+        Long businessId = first.getBusinessInformation().getId();
+        assertThat(second.getBusinessInformation().getId()).isEqualTo(businessId);
+        assertThat(otherState.getBusinessInformation().getId()).isNotEqualTo(businessId);
+        assertThat(businessDirectory.findId(new BusinessKey("directory diner llc", "CA"))).contains(businessId);
+
+        BusinessInformation business = businessInfoRepository.findById(businessId).orElseThrow();
+        assertThat(business.getName()).isEqualTo("Directory Diner, LLC");
+        assertThat(business.getIndustry()).isEqualTo(BusinessInformation.Industry.FOOD_SERVICE);
+        assertThat(business.getNormalizedName()).isEqualTo("directory diner llc");
+        assertThat(second.getBusinessInformation().getName()).isEqualTo("Directory Diner, LLC");
+    }
+
+    @Test
+    @DisplayName("Should point an updated quote at another business instead of renaming the shared one")
+    void shouldRepointQuoteOnBusinessChange() {
+        QuoteDto first = quoteService.createQuote(newQuote("Directory Bakery", "TX"));
+        QuoteDto second = quoteService.createQuote(newQuote("Directory Bakery", "TX"));
+        Long sharedId = first.getBusinessInformation().getId();
+
+        QuoteDto update = quoteService.getQuoteById(second.getId()).orElseThrow();
+        update.getBusinessInformation().setName("Directory Patisserie");
+        QuoteDto updated = quoteService.updateQuote(second.getId(), update);
+
+        assertThat(updated.getBusinessInformation().getId()).isNotEqualTo(sharedId);
+        assertThat(updated.getBusinessInformation().getName()).isEqualTo("Directory Patisserie");
+        assertThat(quoteService.getQuoteById(first.getId()).orElseThrow().getBusinessInformation().getName())
+                .isEqualTo("Directory Bakery");
+    }
+
+    @Test
+    @DisplayName("Should keep the business when one of its quotes is deleted")
+    void shouldKeepBusinessOnQuoteDelete() {
+        QuoteDto quote = quoteService.createQuote(newQuote("Directory Florist", "WA"));
+        Long businessId = quote.getBusinessInformation().getId();
+
+        quoteService.deleteQuote(quote.getId());
+
+        assertThat(businessInfoRepository.existsById(businessId)).isTrue();
+        QuoteDto again = quoteService.createQuote(newQuote("Directory Florist", "WA"));
+        assertThat(again.getBusinessInformation().getId()).isEqualTo(businessId);
+    }
+
+    @Test
+    @DisplayName("Should index new businesses for duplicate detection and cluster near-duplicates")
+    void shouldDetectNearDuplicateBusinesses() {
+        QuoteDto original = quoteService.createQuote(newQuote("Directory Pizzeria & Grill", "OR"));
+        QuoteDto lookalike = quoteService.createQuote(newQuote("Directory Pizzeria and Gril LLC", "OR"));
+        Long originalId = original.getBusinessInformation().getId();
+        Long lookalikeId = lookalike.getBusinessInformation().getId();
+        assertThat(lookalikeId).isNotEqualTo(originalId);
+
+        assertThat(similarityIndex.findCandidates("Directory Pizzeria Grill", "OR",
+                BusinessInformation.Industry.FOOD_SERVICE))
+                .extracting(DuplicateCandidate::id)
+                .containsExactly(originalId, lookalikeId);
+        assertThat(similarityIndex.findCandidates("Directory Pizzeria Grill", "WA",
+                BusinessInformation.Industry.FOOD_SERVICE)).isEmpty();
+
+        DuplicateClusterReport report = duplicateClusterer.run().orElseThrow();
+        assertThat(report.clusters())
+                .anySatisfy(cluster -> assertThat(cluster.businesses()).extracting(BusinessEntry::id)
+                        .containsExactlyInAnyOrder(originalId, lookalikeId));
+        assertThat(duplicateClusterer.getLastReport()).contains(report);
+    }
+
+    @Test
+    @DisplayName("Should suggest known businesses by name prefix, most quoted first")
+    void shouldSuggestBusinessNames() {
+        QuoteDto once = quoteService.createQuote(newQuote("Directory Tavern", "ID"));
+        QuoteDto twice = quoteService.createQuote(newQuote("Directory Taqueria", "ID"));
+        quoteService.createQuote(newQuote("Directory Taqueria", "ID"));
+
+        nameSuggester.rebuild();
+
+        assertThat(nameSuggester.suggest("directory ta", 10))
+                .extracting(BusinessSuggestion::id, BusinessSuggestion::quoteCount)
+                .containsExactly(tuple(twice.getBusinessInformation().getId(), 2L),
+                        tuple(once.getBusinessInformation().getId(), 1L));
+    }
+
+    @Test
+    @DisplayName("Should reuse a business row that another node inserted, although the directory has not seen it")
+    void shouldReuseBusinessMissingFromDirectory() {
+        new JdbcTemplate(dataSource).update("INSERT INTO business_information "
+                        + "(name, normalized_name, business_type, industry, state) VALUES (?, ?, ?, ?, ?)",
+                "Directory Noodle Bar", "directory noodle bar", "RESTAURANT", "FOOD_SERVICE", "NM");
+        Long businessId = businessInfoRepository.findByNormalizedNameAndState("directory noodle bar", "NM")
+                .orElseThrow().getId();
+
+        assertThat(businessDirectory.findId(new BusinessKey("directory noodle bar", "NM"))).contains(businessId);
+        QuoteDto quote = quoteService.createQuote(newQuote("Directory Noodle Bar", "NM"));
+        assertThat(quote.getBusinessInformation().getId()).isEqualTo(businessId);
+    }
+
+    @Test
+    @DisplayName("Should give concurrent first quotes for a new business the same business row")
+    void shouldResolveConcurrentFirstQuotes() throws Exception {
+        // The losers wait on the winner's uncommitted row for the rest of its quote transaction, within H2's one
+        // second lock timeout, so the first quote of a cold JVM is not taken as the winner
+        quoteService.createQuote(newQuote("Directory Ramen Cart", "NM"));
+
+        int callers = 6;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        List<Long> businessIds = new ArrayList<>();
+        try {
+            List<Future<QuoteDto>> quotes = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                quotes.add(executor.submit(() -> {
+                    start.await();
+                    return quoteService.createQuote(newQuote("Directory Ramen House", "NM"));
+                }));
+            }
+            start.countDown();
+            for (Future<QuoteDto> quote : quotes) {
+                businessIds.add(quote.get(30, TimeUnit.SECONDS).getBusinessInformation().getId());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(businessIds).hasSize(callers).containsOnly(businessIds.get(0));
+    }
+
+    @Test
+    @DisplayName("Should leave no business behind when the quote that introduced it rolls back")
+    void shouldDropBusinessOfRolledBackQuote() {
+        int known = businessDirectory.size();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            quoteService.createQuote(newQuote("Directory Rollback Bistro", "UT"));
+            status.setRollbackOnly();
+        });
+
+        assertThat(businessInfoRepository.findByNormalizedNameAndState("directory rollback bistro", "UT")).isEmpty();
+        assertThat(businessDirectory.size()).isEqualTo(known);
+        assertThat(similarityIndex.findCandidates("Directory Rollback Bistro", "UT",
+                BusinessInformation.Industry.FOOD_SERVICE)).isEmpty();
+        assertThat(nameSuggester.suggest("directory rollback", 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should normalize names to lower-case words separated by single spaces")
+    void shouldNormalizeNames() {
+        assertThat(BusinessInformation.normalize("  Joe's  Café & Bar, Inc. ")).isEqualTo("joe s café bar inc");
+        assertThat(BusinessInformation.normalize("ACME-42")).isEqualTo("acme 42");
+    }
+
+    private static QuoteDto newQuote(String businessName, String state) {
+        BusinessInformationDto business = new BusinessInformationDto();
+        business.setName(businessName);
+        business.setBusinessType(BusinessInformation.BusinessType.RESTAURANT);
+        business.setIndustry(BusinessInformation.Industry.FOOD_SERVICE);
+        business.setState(state);
+
+        QuoteDto quote = new QuoteDto();
+        quote.setBusinessInformation(business);
+        quote.setTotalPremium(BigDecimal.ZERO);
+        return quote;
+    }
+}
@@ -0,0 +1,137 @@
+package com.insurance.quote.business;
+
+import com.insurance.quote.config.ShardingProperties;
+import com.insurance.quote.config.TypeaheadProperties;
+import com.insurance.quote.dto.BusinessInformationDto;
+import com.insurance.quote.dto.QuoteDto;
+import com.insurance.quote.entity.BusinessInformation;
+import com.insurance.quote.event.QuoteLifecycleEvent;
+import com.insurance.quote.repository.QuoteRepository;
+import com.insurance.quote.sharding.ShardRouter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("Business name typeahead")
+class BusinessTypeaheadTest {
+
+    private static final String[] SYLLABLES = {"a", "an", "bel", "co", "d", "del", "e", "ka", "lo", "mar", "s", " "};
+
+    @Test
+    @DisplayName("Should rank names by quote count, then alphabetically, at every prefix length")
+    void shouldRankByQuoteCount() {
+        BusinessNameTrie trie = trie(
+                new BusinessSuggestion(1, "Joe's Pizza", "CA", 3),
+                new BusinessSuggestion(2, "Joe's Pizza", "NV", 7),
+                new BusinessSuggestion(3, "Joe's Pasta", "CA", 3),
+                new BusinessSuggestion(4, "Joel's Hardware", "CA", 1),
+                new BusinessSuggestion(5, "Jolly Bakery", "TX", 9));
+
+        assertThat(ids(trie.complete("j", 10))).containsExactly(5L, 2L, 3L, 1L, 4L);
+        assertThat(ids(trie.complete("joe", 10))).containsExactly(2L, 3L, 1L, 4L);
+        assertThat(ids(trie.complete("joe s p", 2))).containsExactly(2L, 3L);
+        assertThat(ids(trie.complete("joe s pizza", 10))).containsExactly(2L, 1L);
+        assertThat(ids(trie.complete("joe s pizzas", 10))).isEmpty();
+        assertThat(ids(trie.complete("jam", 10))).isEmpty();
+        assertThat(BusinessNameTrie.EMPTY.complete("j", 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should return the same suggestions as a scan of all names")
+    void shouldMatchScan() {
+        Random random = new Random(42);
+        int size = 5000;
+        String[] keys = new String[size];
+        BusinessSuggestion[] suggestions = new BusinessSuggestion[size];
+        for (int i = 0; i < size; i++) {
+            StringBuilder name = new StringBuilder();
+            int syllables = 1 + random.nextInt(6);
+            for (int s = 0; s < syllables; s++) {
+                name.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+            }
+            suggestions[i] = new BusinessSuggestion(i, name.toString(), "CA", random.nextInt(20));
+        }
+        Integer[] order = IntStream.range(0, size).boxed().toArray(Integer[]::new);
+        Arrays.sort(order, Comparator.comparing((Integer i) -> suggestions[i].name()).thenComparingInt(i -> i));
+        BusinessSuggestion[] sorted = new BusinessSuggestion[size];
+        for (int i = 0; i < size; i++) {
+            sorted[i] = suggestions[order[i]];
+            keys[i] = sorted[i].name();
+        }
+        BusinessNameTrie trie = BusinessNameTrie.build(keys, sorted, 10);
+
+        for (int n = 0; n < 500; n++) {
+            String key = keys[random.nextInt(size)];
+            String prefix = key.substring(0, random.nextInt(key.length() + 1)) + (random.nextInt(10) == 0 ? "q" : "");
+            List<Long> expected = IntStream.range(0, size)
+                    .filter(i -> keys[i].startsWith(prefix) && !keys[i].isEmpty())
+                    .boxed()
+                    .sorted(Comparator.comparingLong((Integer i) -> -sorted[i].quoteCount()).thenComparingInt(i -> i))
+                    .limit(10)
+                    .map(i -> sorted[i].id())
+                    .toList();
+            assertThat(ids(trie.complete(prefix, 10))).as("prefix '%s'", prefix).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    @DisplayName("Should ignore case and punctuation and rebuild after businesses and quote counts change")
+    void shouldSuggestFromRebuiltTrie() {
+        QuoteRepository quoteRepository = mock(QuoteRepository.class);
+        when(quoteRepository.countGroupedByBusiness()).thenReturn(List.<Object[]>of(new Object[]{1L, 2L}));
+        BusinessNameSuggester suggester = new BusinessNameSuggester(new TypeaheadProperties(), quoteRepository,
+                new ShardRouter(new ShardingProperties()), new SimpleMeterRegistry());
+        suggester.put(new BusinessEntry(1, "Joe's Pizza, LLC", "CA", BusinessInformation.Industry.FOOD_SERVICE));
+        suggester.put(new BusinessEntry(2, "Joes Pizzeria", "CA", BusinessInformation.Industry.FOOD_SERVICE));
+        suggester.refreshQuoteCounts();
+
+        assertThat(suggester.suggest("Joe", 10)).isEmpty();
+        suggester.rebuildIfChanged();
+        assertThat(ids(suggester.suggest("JOE", 10))).containsExactly(1L, 2L);
+        assertThat(ids(suggester.suggest("Joe'", 10))).containsExactly(1L);
+        assertThat(ids(suggester.suggest("joe's pizza llc", 10))).containsExactly(1L);
+        assertThat(suggester.suggest(" ,", 10)).isEmpty();
+
+        suggester.onLifecycleEvent(created(2));
+        suggester.onLifecycleEvent(created(2));
+        suggester.onLifecycleEvent(created(2));
+        suggester.remove(1);
+        suggester.put(new BusinessEntry(3, "Joey's Deli", "NY", BusinessInformation.Industry.FOOD_SERVICE));
+        suggester.rebuildIfChanged();
+
+        assertThat(suggester.suggest("joe", 10)).containsExactly(
+                new BusinessSuggestion(2, "Joes Pizzeria", "CA", 3),
+                new BusinessSuggestion(3, "Joey's Deli", "NY", 0));
+        assertThat(suggester.size()).isEqualTo(2);
+    }
+
+    private static BusinessNameTrie trie(BusinessSuggestion... suggestions) {
+        BusinessSuggestion[] sorted = suggestions.clone();
+        Arrays.sort(sorted, Comparator.comparing((BusinessSuggestion s) -> BusinessInformation.normalize(s.name()))
+                .thenComparingLong(BusinessSuggestion::id));
+        String[] keys = Arrays.stream(sorted).map(s -> BusinessInformation.normalize(s.name())).toArray(String[]::new);
+        return BusinessNameTrie.build(keys, sorted, 10);
+    }
+
+    private static QuoteLifecycleEvent created(long businessId) {
+        BusinessInformationDto business = new BusinessInformationDto();
+        business.setId(businessId);
+        QuoteDto quote = new QuoteDto();
+        quote.setBusinessInformation(business);
+        return new QuoteLifecycleEvent(QuoteLifecycleEvent.Type.CREATED, quote, null);
+    }
+
+    private static List<Long> ids(List<BusinessSuggestion> suggestions) {
+        return suggestions.stream().map(BusinessSuggestion::id).toList();
+    }
+}
@@ -0,0 +1,233 @@
+package com.insurance.quote.business;
+
+import com.insurance.quote.config.DuplicateDetectionProperties;
+import com.insurance.quote.config.ShardingProperties;
+import com.insurance.quote.entity.BusinessInformation;
+import com.insurance.quote.sharding.ShardRouter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Recall and precision of the MinHash/LSH duplicate detection on a labelled set of generated businesses:
+ * distinct base businesses plus variants of some of them as brokers type them (punctuation, legal suffixes,
+ * "&" for "and", run-together words, one-letter typos). A variant and its base are true duplicates.
+ */
+@DisplayName("Duplicate business detection")
+class DuplicateDetectionTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(DuplicateDetectionTest.class);
+
+    private static final String[] OWNERS = {"Joe's", "Maria's", "Golden", "Blue Ridge", "Sunrise", "Harbor",
+            "Oakwood", "Silver Lake", "Redwood", "Northgate", "Evergreen", "Riverside", "Summit", "Pioneer",
+            "Lakeside", "Cornerstone", "Maple Street", "Hillcrest", "Bayview", "Sterling", "Liberty", "Granite",
+            "Cedar Creek", "Ironwood", "Willow", "Brookfield", "Crescent", "Highland", "Magnolia", "Westfield",
+            "Kowalski", "Nguyen", "Okafor", "Schmidt", "Delgado", "Patel", "Haddad", "Lindqvist", "Moreau", "Tanaka"};
+    private static final String[] TRADES = {"Pizza", "Bakery", "Plumbing", "Dental", "Auto Repair", "Hardware",
+            "Consulting", "Software", "Florist", "Brewing", "Pharmacy", "Catering", "Landscaping", "Electric",
+            "Fitness", "Printing", "Roofing", "Veterinary", "Tailoring", "Bookkeeping", "Coffee", "Deli",
+            "Optometry", "Machining", "Grocery", "Upholstery", "Welding", "Signs", "Cabinetry", "Tutoring"};
+    private static final String[] QUALIFIERS = {"", "", "", " Express", " Central", " Supply", " Studio",
+            " Works", " & Sons", " and Daughters", " Group", " Partners"};
+    private static final String[] LEGAL_SUFFIXES = {" LLC", " Inc.", ", Inc", " Co.", " Corp", " Ltd"};
+    private static final String[] STATES = {"CA", "NY", "TX", "FL", "WA"};
+
+    private DuplicateDetectionProperties properties;
+    private final List<BusinessEntry> businesses = new ArrayList<>();
+    private final Set<Pair> duplicates = new HashSet<>();
+
+    @BeforeEach
+    void setUp() {
+        properties = new DuplicateDetectionProperties();
+        properties.setMaxCandidates(50);
+        properties.setReportedClusters(Integer.MAX_VALUE);
+        generateBusinesses(new Random(42), 2000);
+    }
+
+    @Test
+    @DisplayName("Should treat names that differ only in case, punctuation and legal suffixes as identical")
+    void shouldIgnoreSuffixesAndPunctuation() {
+        BusinessSimilarityIndex index = new BusinessSimilarityIndex(properties, new SimpleMeterRegistry());
+        index.put(new BusinessEntry(1, "Joe's Pizza LLC", "CA", BusinessInformation.Industry.FOOD_SERVICE));
+        index.put(new BusinessEntry(2, "Joe's Pizza LLC", "NV", BusinessInformation.Industry.FOOD_SERVICE));
+        index.put(new BusinessEntry(3, "Jo's Pasta Inc.", "CA", BusinessInformation.Industry.FOOD_SERVICE));
+
+        List<DuplicateCandidate> candidates = index.findCandidates("JOES PIZZA", "CA",
+                BusinessInformation.Industry.FOOD_SERVICE);
+
+        assertThat(candidates).extracting(DuplicateCandidate::id).containsExactly(1L);
+        assertThat(candidates.get(0).similarity()).isEqualTo(1.0);
+
+        index.remove(1);
+        assertThat(index.findCandidates("Joes Pizza", "CA", BusinessInformation.Industry.FOOD_SERVICE)).isEmpty();
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should find candidate duplicates at quote creation with high recall and precision")
+    void shouldFindCandidatesWithHighRecallAndPrecision() {
+        BusinessSimilarityIndex index = new BusinessSimilarityIndex(properties, new SimpleMeterRegistry());
+        businesses.forEach(index::put);
+
+        Set<Pair> found = new HashSet<>();
+        long start = System.nanoTime();
+        for (BusinessEntry business : businesses) {
+            for (DuplicateCandidate candidate : index.findCandidates(business.name(), business.state(),
+                    business.industry())) {
+                if (candidate.id() != business.id()) {
+                    found.add(new Pair(business.id(), candidate.id()));
+                }
+            }
+        }
+        double averageMicros = (System.nanoTime() - start) / 1000.0 / businesses.size();
+
+        // What an exact scan of every same-state pair at the threshold would find
+        Set<Pair> similar = bruteForce();
+        double lshRecall = recall(found, similar);
+        double recall = recall(found, duplicates);
+        double precision = precision(found, duplicates);
+        logger.info("Index over {} businesses: recall {}, precision {}, recall of the exact scan {}, {} us per lookup",
+                businesses.size(), format(recall), format(precision), format(lshRecall), format(averageMicros));
+
+        assertThat(lshRecall).isGreaterThanOrEqualTo(0.95);
+        assertThat(recall).isGreaterThanOrEqualTo(0.85);
+        assertThat(precision).isGreaterThanOrEqualTo(0.85);
+        assertThat(averageMicros).isLessThan(1000);
+    }
+
+    @Test
+    @DisplayName("Should cluster all businesses into duplicate groups with high recall and precision")
+    void shouldClusterWithHighRecallAndPrecision() {
+        DuplicateClusterer clusterer = new DuplicateClusterer(properties, null,
+                new ShardRouter(new ShardingProperties()), new SimpleMeterRegistry());
+
+        DuplicateClusterReport report = clusterer.cluster(businesses);
+
+        Set<Pair> clustered = new HashSet<>();
+        for (DuplicateClusterReport.Cluster cluster : report.clusters()) {
+            List<BusinessEntry> members = cluster.businesses();
+            for (int i = 0; i < members.size(); i++) {
+                for (int j = i + 1; j < members.size(); j++) {
+                    clustered.add(new Pair(members.get(i).id(), members.get(j).id()));
+                }
+            }
+        }
+        long allPairs = (long) businesses.size() * (businesses.size() - 1) / 2;
+        double recall = recall(clustered, duplicates);
+        double precision = precision(clustered, duplicates);
+        logger.info("Clustering of {} businesses: {} clusters, recall {}, precision {}, {} of {} pairs compared",
+                report.businesses(), report.clusterCount(), format(recall), format(precision),
+                report.candidatePairs(), allPairs);
+
+        assertThat(report.businesses()).isEqualTo(businesses.size());
+        assertThat(report.clusterCount()).isEqualTo(report.clusters().size());
+        assertThat(recall).isGreaterThanOrEqualTo(0.85);
+        assertThat(precision).isGreaterThanOrEqualTo(0.8);
+        assertThat(report.candidatePairs()).isLessThan(allPairs / 100);
+    }
+
+    private void generateBusinesses(Random random, int bases) {
+        Set<String> baseNames = new HashSet<>();
+        BusinessInformation.Industry[] industries = BusinessInformation.Industry.values();
+        long id = 0;
+        while (baseNames.size() < bases) {
+            String owner = OWNERS[random.nextInt(OWNERS.length)];
+            String trade = TRADES[random.nextInt(TRADES.length)];
+            String state = STATES[random.nextInt(STATES.length)];
+            // Two businesses of one owner and trade in a state are ambiguous even to a person
+            if (!baseNames.add(owner + " " + trade + " " + state)) {
+                continue;
+            }
+            String name = owner + " " + trade + QUALIFIERS[random.nextInt(QUALIFIERS.length)];
+            BusinessInformation.Industry industry = industries[random.nextInt(industries.length)];
+            BusinessEntry base = new BusinessEntry(++id, name, state, industry);
+            businesses.add(base);
+            List<BusinessEntry> group = new ArrayList<>(List.of(base));
+            int variants = random.nextInt(3) == 0 ? 1 + random.nextInt(2) : 0;
+            for (int i = 0; i < variants; i++) {
+                group.add(new BusinessEntry(++id, variant(random, name), state, industry));
+            }
+            for (int i = 1; i < group.size(); i++) {
+                businesses.add(group.get(i));
+                for (int j = 0; j < i; j++) {
+                    duplicates.add(new Pair(group.get(i).id(), group.get(j).id()));
+                }
+            }
+        }
+    }
+
+    private static String variant(Random random, String name) {
+        return switch (random.nextInt(4)) {
+            case 0 -> name.replace("'", "").toUpperCase(Locale.ROOT) + LEGAL_SUFFIXES[random.nextInt(LEGAL_SUFFIXES.length)];
+            case 1 -> name.contains(" & ") ? name.replace(" & ", " and ") : name.replace(" and ", " & ") + ", LLC";
+            case 2 -> name.replaceFirst(" ", "");
+            default -> typo(random, name);
+        };
+    }
+
+    private static String typo(Random random, String name) {
+        StringBuilder typo = new StringBuilder(name);
+        int position = 1 + random.nextInt(name.length() - 2);
+        while (!Character.isLetter(typo.charAt(position))) {
+            position = 1 + random.nextInt(name.length() - 2);
+        }
+        if (random.nextBoolean()) {
+            typo.deleteCharAt(position);
+        } else {
+            typo.setCharAt(position, (char) ('a' + random.nextInt(26)));
+        }
+        return typo.toString();
+    }
+
+    private Set<Pair> bruteForce() {
+        List<long[]> shingles = businesses.stream().map(b -> MinHash.shingles(b.name(), b.industry())).toList();
+        Set<Pair> similar = new HashSet<>();
+        for (int i = 0; i < businesses.size(); i++) {
+            for (int j = i + 1; j < businesses.size(); j++) {
+                if (businesses.get(i).state().equals(businesses.get(j).state())
+                        && MinHash.similarity(shingles.get(i), shingles.get(j)) >= properties.getThreshold()) {
+                    similar.add(new Pair(businesses.get(i).id(), businesses.get(j).id()));
+                }
+            }
+        }
+        return similar;
+    }
+
+    private static double recall(Set<Pair> found, Set<Pair> expected) {
+        return (double) expected.stream().filter(found::contains).count() / expected.size();
+    }
+
+    private static double precision(Set<Pair> found, Set<Pair> expected) {
+        return found.isEmpty() ? 1.0 : (double) found.stream().filter(expected::contains).count() / found.size();
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.3f", value);
+    }
+
+    /**
+     * An unordered pair of business ids
+     */
+    private record Pair(long low, long high) {
+
+        Pair {
+            if (low > high) {
+                long swap = low;
+                low = high;
+                high = swap;
+            }
+        }
+    }
+}
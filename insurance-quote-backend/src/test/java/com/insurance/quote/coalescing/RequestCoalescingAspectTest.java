@@ -0,0 +1,167 @@
+package com.insurance.quote.coalescing;
+
+import com.insurance.quote.dto.BusinessInformationDto;
+import com.insurance.quote.dto.QuoteDto;
+import com.insurance.quote.entity.BusinessInformation;
+import com.insurance.quote.service.QuoteService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Drives the coalescing aspect with stand-in getQuoteById calls whose completion the test controls
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@ActiveProfiles("test")
+@DisplayName("Request coalescing")
+class RequestCoalescingAspectTest {
+
+    private static final Long QUOTE_ID = 42L;
+
+    @Autowired
+    private RequestCoalescingAspect aspect;
+
+    @Autowired
+    private QuoteService quoteService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @AfterEach
+    void tearDown() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("DELETE FROM coverage_options");
+        jdbcTemplate.update("DELETE FROM quotes");
+        jdbcTemplate.update("DELETE FROM quote_outbox");
+    }
+
+    @Test
+    @DisplayName("Should not let a caller that has just saved a quote join a read started before its commit")
+    void shouldReadOwnWrites() throws Throwable {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Object> earlier = CompletableFuture.supplyAsync(() -> coalesce(() -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.of(quote("stale"));
+        }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        quoteService.createQuote(newQuote("Read Own Writes Deli"));
+        Object later = coalesce(() -> Optional.of(quote("fresh")));
+
+        release.countDown();
+        assertThat(quoteNumber(later)).isEqualTo("fresh");
+        assertThat(quoteNumber(earlier.get(5, TimeUnit.SECONDS))).isEqualTo("stale");
+    }
+
+    @Test
+    @DisplayName("Should give a caller that joins a call its own copy of the result")
+    void shouldCopyResultForJoiners() throws Throwable {
+        double coalescedBefore = coalescedCalls();
+        CountDownLatch release = new CountDownLatch(1);
+        QuoteDto shared = quote("IQ-1");
+        CompletableFuture<Object> leader = CompletableFuture.supplyAsync(() -> coalesce(() -> {
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.of(shared);
+        }));
+        while (leaderNotInFlight()) {
+            Thread.onSpinWait();
+        }
+        CompletableFuture<Object> joiner = CompletableFuture.supplyAsync(() -> coalesce(() -> {
+            throw new AssertionError("A caller joining the flight must not execute the call");
+        }));
+        while (coalescedCalls() == coalescedBefore) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+
+        QuoteDto leaderQuote = unwrap(leader.get(5, TimeUnit.SECONDS));
+        QuoteDto joinerQuote = unwrap(joiner.get(5, TimeUnit.SECONDS));
+        assertThat(leaderQuote).isSameAs(shared);
+        assertThat(joinerQuote).isNotSameAs(shared);
+        assertThat(joinerQuote.getQuoteNumber()).isEqualTo("IQ-1");
+
+        joinerQuote.setQuoteNumber("changed by the joiner");
+        assertThat(leaderQuote.getQuoteNumber()).isEqualTo("IQ-1");
+    }
+
+    private static QuoteDto unwrap(Object result) {
+        assertThat(result).isInstanceOf(Optional.class);
+        return ((Optional<?>) result).map(QuoteDto.class::cast).orElseThrow();
+    }
+
+    private static String quoteNumber(Object result) {
+        return unwrap(result).getQuoteNumber();
+    }
+
+    private boolean leaderNotInFlight() {
+        return meterRegistry.get("quote.coalescing.inflight").gauge().value() == 0;
+    }
+
+    private double coalescedCalls() {
+        return meterRegistry.find("quote.coalescing.calls").tags("method", "getQuoteById", "outcome", "coalesced")
+                .counters().stream().mapToDouble(counter -> counter.count()).sum();
+    }
+
+    private Object coalesce(Execution execution) {
+        try {
+            MethodSignature signature = mock(MethodSignature.class);
+            when(signature.getName()).thenReturn("getQuoteById");
+            when(signature.getMethod()).thenReturn(QuoteService.class.getMethod("getQuoteById", Long.class));
+            ProceedingJoinPoint joinPoint = mock(ProceedingJoinPoint.class);
+            when(joinPoint.getSignature()).thenReturn(signature);
+            when(joinPoint.getArgs()).thenReturn(new Object[]{QUOTE_ID});
+            when(joinPoint.proceed()).thenAnswer(invocation -> execution.run());
+            return aspect.coalesce(joinPoint);
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Execution {
+        Object run() throws Exception;
+    }
+
+    private static QuoteDto quote(String quoteNumber) {
+        QuoteDto quote = new QuoteDto();
+        quote.setId(QUOTE_ID);
+        quote.setQuoteNumber(quoteNumber);
+        return quote;
+    }
+
+    private static QuoteDto newQuote(String name) {
+        BusinessInformationDto business = new BusinessInformationDto();
+        business.setName(name);
+        business.setBusinessType(BusinessInformation.BusinessType.RETAIL);
+        business.setIndustry(BusinessInformation.Industry.RETAIL_TRADE);
+        business.setState("WA");
+
+        QuoteDto quote = new QuoteDto();
+        quote.setBusinessInformation(business);
+        quote.setTotalPremium(BigDecimal.ZERO);
+        return quote;
+    }
+}
@@ -0,0 +1,140 @@
+package com.insurance.quote.coalescing;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for single-flight call coalescing
+ */
+class SingleFlightTest {
+
+    private static final int CALLERS = 8;
+
+    @Test
+    @DisplayName("Should execute concurrent identical calls once and share the result")
+    void testConcurrentCallsShareOneExecution() throws Exception {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+        AtomicInteger executions = new AtomicInteger();
+        AtomicInteger coalesced = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < CALLERS; i++) {
+                results.add(executor.submit(() -> executeUnchecked(singleFlight, () -> {
+                    executions.incrementAndGet();
+                    release.await(5, TimeUnit.SECONDS);
+                    return "result";
+                }, wasCoalesced -> {
+                    if (wasCoalesced) {
+                        coalesced.incrementAndGet();
+                    }
+                })));
+            }
+
+            // Wait until every caller has either started the call or joined it
+            while (executions.get() + coalesced.get() < CALLERS) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("result");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(executions.get()).isEqualTo(1);
+        assertThat(coalesced.get()).isEqualTo(CALLERS - 1);
+        assertThat(singleFlight.inFlightCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should not cache results once the in-flight call completes")
+    void testSequentialCallsExecuteEachTime() throws Throwable {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+        AtomicInteger executions = new AtomicInteger();
+
+        singleFlight.execute("key", executions::incrementAndGet, coalesced -> { });
+        Integer second = singleFlight.execute("key", executions::incrementAndGet, coalesced -> { });
+
+        assertThat(second).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should not let a caller join a call started in an earlier generation")
+    void testLaterGenerationStartsItsOwnCall() throws Exception {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> earlier = executor.submit(() -> executeUnchecked(singleFlight, 1, () -> {
+                started.countDown();
+                release.await(5, TimeUnit.SECONDS);
+                return "before the write";
+            }, coalesced -> { }));
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+            AtomicInteger coalesced = new AtomicInteger();
+            String later = executeUnchecked(singleFlight, 2, () -> "after the write", wasCoalesced -> {
+                if (wasCoalesced) {
+                    coalesced.incrementAndGet();
+                }
+            });
+            assertThat(later).isEqualTo("after the write");
+            assertThat(coalesced.get()).isZero();
+
+            release.countDown();
+            assertThat(earlier.get(5, TimeUnit.SECONDS)).isEqualTo("before the write");
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(singleFlight.inFlightCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should propagate the original exception and release the key")
+    void testExceptionPropagates() {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+
+        assertThatThrownBy(() -> singleFlight.execute("key", () -> {
+            throw new IllegalStateException("boom");
+        }, coalesced -> { }))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("boom");
+
+        assertThat(singleFlight.inFlightCount()).isZero();
+    }
+
+    private static String executeUnchecked(SingleFlight<String, String> singleFlight,
+                                           SingleFlight.Call<String> call,
+                                           SingleFlight.Listener listener) {
+        return executeUnchecked(singleFlight, 0, call, listener);
+    }
+
+    private static String executeUnchecked(SingleFlight<String, String> singleFlight, long generation,
+                                           SingleFlight.Call<String> call,
+                                           SingleFlight.Listener listener) {
+        try {
+            return singleFlight.execute("quote-1", generation, call, listener);
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.insurance.quote.config;
+
+import com.insurance.quote.dto.QuoteDto;
+import com.insurance.quote.entity.BusinessInformation;
+import com.insurance.quote.entity.CoverageOption;
+import com.insurance.quote.entity.Quote;
+import com.insurance.quote.exception.GlobalExceptionHandler;
+import com.insurance.quote.logging.LogSamplingTurboFilter;
+import com.insurance.quote.service.QuoteService;
+import net.ttddyy.dsproxy.proxy.ProxyJdbcObject;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Native image runtime hints")
+class NativeImageConfigTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    NativeImageConfigTest() {
+        new NativeImageConfig.QuoteRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    @DisplayName("Registers the entities for Hibernate")
+    void shouldRegisterEntities() {
+        assertThat(RuntimeHintsPredicates.reflection().onType(Quote.class)
+                .withMemberCategories(MemberCategory.DECLARED_FIELDS, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(BusinessInformation.class)
+                .withMemberCategory(MemberCategory.DECLARED_FIELDS)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(CoverageOption.CoverageType.class)).accepts(hints);
+    }
+
+    @Test
+    @DisplayName("Registers the JSON bodies for Jackson")
+    void shouldRegisterJsonBodies() {
+        assertThat(RuntimeHintsPredicates.reflection().onMethod(QuoteDto.class, "getQuoteNumber")).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onMethod(QuoteDto.class, "setQuoteNumber")).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onMethod(QuoteService.QuoteStatistics.class, "getTotalQuotes")).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(GlobalExceptionHandler.ErrorResponse.class)).accepts(hints);
+    }
+
+    @Test
+    @DisplayName("Registers the mapper, H2 driver and logging filter loaded by name")
+    void shouldRegisterTypesLoadedByName() {
+        assertThat(RuntimeHintsPredicates.reflection().onType(TypeReference.of(NativeImageConfig.QUOTE_MAPPER_IMPL))
+                .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(TypeReference.of(NativeImageConfig.H2_DRIVER))
+                .withMemberCategory(MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(LogSamplingTurboFilter.class)
+                .withMemberCategory(MemberCategory.INVOKE_PUBLIC_METHODS)).accepts(hints);
+    }
+
+    @Test
+    @DisplayName("Registers the datasource-proxy JDBC proxies")
+    void shouldRegisterJdbcProxies() {
+        for (Class<?> jdbcType : new Class<?>[]{DataSource.class, Connection.class, PreparedStatement.class, ResultSet.class}) {
+            assertThat(RuntimeHintsPredicates.proxies().forInterfaces(ProxyJdbcObject.class, jdbcType)).accepts(hints);
+        }
+    }
+}
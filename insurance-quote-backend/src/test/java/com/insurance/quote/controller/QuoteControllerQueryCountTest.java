@@ -0,0 +1,261 @@
+package com.insurance.quote.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.insurance.quote.dto.BusinessInformationDto;
+import com.insurance.quote.dto.QuoteDto;
+import com.insurance.quote.entity.BusinessInformation;
+import com.insurance.quote.entity.Quote;
+import com.insurance.quote.repository.QuoteRepository;
+import com.insurance.quote.service.QuoteService;
+import com.insurance.quote.sqlmonitor.StatementCounts;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Exact SQL statement budgets per endpoint, against the real JPA layer on H2.
+ * A change that adds statements to an endpoint (for example an N+1 on a list) fails here;
+ * a change that removes statements should lower the expected counts.
+ */
+@SpringBootTest(properties = {
+        "app.admission.enabled=false",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class QuoteControllerQueryCountTest {
+
+    private static final int SEEDED_QUOTES = 3;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private QuoteService quoteService;
+
+    @Autowired
+    private QuoteRepository quoteRepository;
+
+    private QuoteDto draft;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 1; i < SEEDED_QUOTES; i++) {
+            quoteService.createQuote(newQuote("Seeded Business " + i));
+        }
+        draft = quoteService.createQuote(newQuote("Acme Bakery"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        quoteRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("POST /quotes")
+    void createQuote() throws Exception {
+        String body = objectMapper.writeValueAsString(newQuote("New Business " + System.nanoTime()));
+
+        StatementCounts counts = StatementCounts.measure(() -> mockMvc.perform(post("/quotes")
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isCreated()));
+
+        // The quote number filter answers the uniqueness check of the new number without a query; the business
+        // missing from the directory is looked up once, as another node may have inserted it
+        assertThat(counts).isEqualTo(StatementCounts.of(1, 6, 0, 0));
+    }
+
+    @Test
+    @DisplayName("POST /quotes for a known business")
+    void createQuoteForKnownBusiness() throws Exception {
+        String body = objectMapper.writeValueAsString(newQuote("ACME bakery"));
+
+        StatementCounts counts = StatementCounts.measure(() -> mockMvc.perform(post("/quotes")
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isCreated()));
+
+        // The shared business row is reused as it is, although this quote spells the name differently
+        assertThat(counts).isEqualTo(StatementCounts.of(1, 5, 0, 0));
+    }
+
+    @Test
+    @DisplayName("PUT /quotes/{id}")
+    void updateQuote() throws Exception {
+        QuoteDto update = quoteService.getQuoteById(draft.getId()).orElseThrow();
+        update.setStatus(Quote.QuoteStatus.SAVED);
+        update.getCoverageOptions().get(0).setIsSelected(true);
+        String body = objectMapper.writeValueAsString(update);
+
+        StatementCounts counts = StatementCounts.measure(() -> mockMvc.perform(put("/quotes/{id}", draft.getId())
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk()));
+
+        assertThat(counts).isEqualTo(StatementCounts.of(3, 1, 2, 0));
+    }
+
+    @Test
+    @DisplayName("GET /quotes/{id}")
+    void getQuoteById() throws Exception {
+        StatementCounts counts = StatementCounts.measure(() -> mockMvc.perform(get("/quotes/{id}", draft.getId()))
+                .andExpect(status().isOk()));
+
+        assertThat(counts).isEqualTo(StatementCounts.of(3, 0, 0, 0));
+    }
+
+    @Test
+    @DisplayName("GET /quotes/number/{quoteNumber}")
+    void getQuoteByNumber() throws Exception {
+        StatementCounts counts = StatementCounts.measure(() -> mockMvc.perform(get("/quotes/number/{quoteNumber}", draft.getQuoteNumber()))
+                .andExpect(status().isOk()));
+
+        assertThat(counts).isEqualTo(StatementCounts.of(3, 0, 0, 0));
+    }
+
+    @Test
+    @DisplayName("GET /quotes")
+    void getAllQuotes() throws Exception {
+        StatementCounts counts = StatementCounts.measure(() -> mockMvc.perform(get("/quotes").param("size", "20"))
+                .andExpect(status().isOk()));
+
+        assertThat(counts).isEqualTo(StatementCounts.of(3, 0, 0, 0));
+    }
+
+    @Test
+    @DisplayName("GET /quotes/status/{status}")
+    void getQuotesByStatus() throws Exception {
+        StatementCounts counts = StatementCounts.measure(() -> mockMvc.perform(get("/quotes/status/{status}", "DRAFT"))
+                .andExpect(status().isOk()));
+
+        assertThat(counts).isEqualTo(StatementCounts.of(3, 0, 0, 0));
+    }
+
+    @Test
+    @DisplayName("GET /quotes/search")
+    void searchQuotes() throws Exception {
+        StatementCounts counts = StatementCounts.measure(() -> mockMvc.perform(get("/quotes/search").param("businessName", "business"))
+                .andExpect(status().isOk()));
+
+        assertThat(counts).isEqualTo(StatementCounts.of(3, 0, 0, 0));
+    }
+
+    @Test
+    @DisplayName("GET /quotes/state/{state}")
+    void getQuotesByState() throws Exception {
+        StatementCounts counts = StatementCounts.measure(() -> mockMvc.perform(get("/quotes/state/{state}", "CA"))
+                .andExpect(status().isOk()));
+
+        assertThat(counts).isEqualTo(StatementCounts.of(3, 0, 0, 0));
+    }
+
+    @Test
+    @DisplayName("GET /quotes/expired")
+    void getExpiredQuotes() throws Exception {
+        StatementCounts counts = StatementCounts.measure(() -> mockMvc.perform(get("/quotes/expired"))
+                .andExpect(status().isOk()));
+
+        assertThat(counts).isEqualTo(StatementCounts.of(1, 0, 0, 0));
+    }
+
+    @Test
+    @DisplayName("GET /quotes/{id}/premium")
+    void calculatePremium() throws Exception {
+        StatementCounts counts = StatementCounts.measure(() -> mockMvc.perform(get("/quotes/{id}/premium", draft.getId()))
+                .andExpect(status().isOk()));
+
+        assertThat(counts).isEqualTo(StatementCounts.of(2, 0, 0, 0));
+    }
+
+    @Test
+    @DisplayName("GET /quotes/statistics")
+    void getStatistics() throws Exception {
+        StatementCounts counts = StatementCounts.measure(() -> mockMvc.perform(get("/quotes/statistics"))
+                .andExpect(status().isOk()));
+
+        assertThat(counts).isEqualTo(StatementCounts.of(9, 0, 0, 0));
+    }
+
+    @Test
+    @DisplayName("GET /quotes/check-number/{quoteNumber}")
+    void checkQuoteNumber() throws Exception {
+        StatementCounts counts = StatementCounts.measure(() -> mockMvc.perform(get("/quotes/check-number/{quoteNumber}", "IQ-0"))
+                .andExpect(status().isOk()));
+
+        // A number that was never issued is ruled out by the quote number filter
+        assertThat(counts).isEqualTo(StatementCounts.of(0, 0, 0, 0));
+    }
+
+    @Test
+    @DisplayName("POST /quotes/{id}/submit, approve and reject")
+    void statusTransitions() throws Exception {
+        QuoteDto approved = saveWithSelectedCoverage(draft);
+        QuoteDto rejected = saveWithSelectedCoverage(quoteService.createQuote(newQuote("Other Business")));
+
+        assertThat(StatementCounts.measure(() -> mockMvc.perform(post("/quotes/{id}/submit", approved.getId()))
+                .andExpect(status().isOk())))
+                .isEqualTo(StatementCounts.of(3, 1, 1, 0));
+        assertThat(StatementCounts.measure(() -> mockMvc.perform(post("/quotes/{id}/approve", approved.getId()))
+                .andExpect(status().isOk())))
+                .isEqualTo(StatementCounts.of(3, 1, 1, 0));
+
+        quoteService.submitQuote(rejected.getId());
+        assertThat(StatementCounts.measure(() -> mockMvc.perform(post("/quotes/{id}/reject", rejected.getId())
+                        .param("reason", "Outside appetite"))
+                .andExpect(status().isOk())))
+                .isEqualTo(StatementCounts.of(3, 1, 1, 0));
+    }
+
+    @Test
+    @DisplayName("DELETE /quotes/{id}")
+    void deleteQuote() throws Exception {
+        StatementCounts counts = StatementCounts.measure(() -> mockMvc.perform(delete("/quotes/{id}", draft.getId()))
+                .andExpect(status().isNoContent()));
+
+        assertThat(counts).isEqualTo(StatementCounts.of(3, 2, 0, 2));
+    }
+
+    @Test
+    @DisplayName("GET /quotes/changes")
+    void getChangesSince() throws Exception {
+        StatementCounts counts = StatementCounts.measure(() -> mockMvc.perform(get("/quotes/changes"))
+                .andExpect(status().isOk()));
+
+        // The sequence and the sessions still committing changes bound the batch
+        assertThat(counts).isEqualTo(StatementCounts.of(5, 0, 0, 0));
+    }
+
+    private QuoteDto saveWithSelectedCoverage(QuoteDto quote) {
+        QuoteDto update = quoteService.getQuoteById(quote.getId()).orElseThrow();
+        update.setStatus(Quote.QuoteStatus.SAVED);
+        update.getCoverageOptions().get(0).setIsSelected(true);
+        return quoteService.updateQuote(quote.getId(), update);
+    }
+
+    private static QuoteDto newQuote(String businessName) {
+        BusinessInformationDto business = new BusinessInformationDto();
+        business.setName(businessName);
+        business.setBusinessType(BusinessInformation.BusinessType.RESTAURANT);
+        business.setIndustry(BusinessInformation.Industry.FOOD_SERVICE);
+        business.setState("CA");
+
+        QuoteDto quote = new QuoteDto();
+        quote.setBusinessInformation(business);
+        quote.setTotalPremium(BigDecimal.ZERO);
+        return quote;
+    }
+}
@@ -0,0 +1,138 @@
+package com.insurance.quote.export;
+
+import com.insurance.quote.dto.BusinessInformationDto;
+import com.insurance.quote.dto.CoverageOptionDto;
+import com.insurance.quote.dto.QuoteDto;
+import com.insurance.quote.entity.BusinessInformation;
+import com.insurance.quote.entity.CoverageOption;
+import com.insurance.quote.repository.QuoteRepository;
+import com.insurance.quote.service.QuoteService;
+import org.apache.arrow.compression.CommonsCompressionFactory;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowFileReader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@ActiveProfiles("test")
+@DisplayName("Streaming quote export")
+class QuoteExportServiceTest {
+
+    @Autowired
+    private QuoteExportService quoteExportService;
+
+    @Autowired
+    private QuoteService quoteService;
+
+    @Autowired
+    private QuoteRepository quoteRepository;
+
+    private final List<String> quoteNumbers = new ArrayList<>();
+
+    @BeforeEach
+    void createQuotes() {
+        quoteRepository.deleteAll();
+        quoteNumbers.add(quoteService.createQuote(newQuote("Export Bakery, Inc.", 1)).getQuoteNumber());
+        quoteNumbers.add(quoteService.createQuote(newQuote("Export \"Brewery\"", 2)).getQuoteNumber());
+        quoteNumbers.add(quoteService.createQuote(newQuote("Export Florist", 3)).getQuoteNumber());
+    }
+
+    @AfterEach
+    void clearQuotes() {
+        quoteRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should write a header and one quoted CSV line per coverage option")
+    void shouldExportCsv() throws Exception {
+        ExportJob job = quoteExportService.export(ExportFormat.CSV);
+
+        assertThat(job.getStatus()).isEqualTo(ExportJob.Status.COMPLETED);
+        assertThat(job.getRows()).isEqualTo(6);
+        List<String> lines = Files.readAllLines(job.getPath(), StandardCharsets.UTF_8);
+        assertThat(lines).hasSize(7);
+        assertThat(lines.get(0)).isEqualTo(String.join(",", QuoteExportRow.COLUMNS));
+        assertThat(lines).anyMatch(line -> line.contains(",\"Export Bakery, Inc.\","));
+        assertThat(lines).anyMatch(line -> line.contains(",\"Export \"\"Brewery\"\"\","));
+        assertThat(lines.stream().filter(line -> line.contains(quoteNumbers.get(2)))).hasSize(3);
+        assertThat(job.getBytes()).isEqualTo(Files.size(job.getPath()));
+    }
+
+    @Test
+    @DisplayName("Should write a compressed Arrow IPC file readable by an Arrow reader")
+    void shouldExportArrow() throws Exception {
+        ExportJob job = quoteExportService.export(ExportFormat.ARROW);
+
+        assertThat(job.getStatus()).isEqualTo(ExportJob.Status.COMPLETED);
+        assertThat(job.getRows()).isEqualTo(6);
+        List<String> exportedNumbers = new ArrayList<>();
+        try (BufferAllocator allocator = new RootAllocator();
+             FileChannel channel = FileChannel.open(job.getPath());
+             ArrowFileReader reader = new ArrowFileReader(channel, allocator,
+                     CommonsCompressionFactory.INSTANCE)) {
+            VectorSchemaRoot root = reader.getVectorSchemaRoot();
+            assertThat(root.getSchema()).isEqualTo(ArrowQuoteExportWriter.SCHEMA);
+            while (reader.loadNextBatch()) {
+                VarCharVector numbers = (VarCharVector) root.getVector("quote_number");
+                for (int i = 0; i < root.getRowCount(); i++) {
+                    exportedNumbers.add(numbers.getObject(i).toString());
+                }
+            }
+        }
+        assertThat(exportedNumbers).hasSize(6).isSubsetOf(quoteNumbers);
+    }
+
+    @Test
+    @DisplayName("Should run submitted exports in the background and keep the job for status requests")
+    void shouldRunSubmittedExport() throws Exception {
+        ExportJob job = quoteExportService.submit(ExportFormat.CSV);
+
+        assertThat(quoteExportService.getJob(job.getId())).containsSame(job);
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (job.getStatus() != ExportJob.Status.COMPLETED && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(job.getStatus()).isEqualTo(ExportJob.Status.COMPLETED);
+        assertThat(job.getRows()).isEqualTo(6);
+    }
+
+    private static QuoteDto newQuote(String businessName, int coverages) {
+        BusinessInformationDto business = new BusinessInformationDto();
+        business.setName(businessName);
+        business.setBusinessType(BusinessInformation.BusinessType.RESTAURANT);
+        business.setIndustry(BusinessInformation.Industry.FOOD_SERVICE);
+        business.setState("CA");
+
+        QuoteDto quote = new QuoteDto();
+        quote.setBusinessInformation(business);
+        quote.setTotalPremium(BigDecimal.ZERO);
+        List<CoverageOptionDto> options = new ArrayList<>();
+        for (int i = 0; i < coverages; i++) {
+            CoverageOptionDto option = new CoverageOptionDto();
+            option.setCoverageType(CoverageOption.CoverageType.values()[i]);
+            option.setName("Coverage " + i);
+            option.setPremium(new BigDecimal("100.00"));
+            option.setIsSelected(true);
+            options.add(option);
+        }
+        quote.setCoverageOptions(options);
+        return quote;
+    }
+}
@@ -0,0 +1,221 @@
+package com.insurance.quote.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.insurance.quote.config.AdmissionControlProperties;
+import com.insurance.quote.config.IdempotencyProperties;
+import com.insurance.quote.exception.IdempotencyConflictException;
+import com.insurance.quote.ratelimit.ClientKeyResolver;
+import com.insurance.quote.repository.IdempotencyRecordRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for reservations in the idempotency_keys table shared between nodes
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@ActiveProfiles("test")
+@DisplayName("Database idempotency store")
+class DatabaseIdempotencyStoreTest {
+
+    private static final int THREADS = 8;
+
+    @Autowired
+    private IdempotencyRecordRepository repository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private IdempotencyProperties properties;
+    private DatabaseIdempotencyStore store;
+    private IdempotencyService idempotencyService;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        properties = new IdempotencyProperties();
+        store = new DatabaseIdempotencyStore(properties, repository, entityManager, transactionManager, true);
+        idempotencyService = new IdempotencyService(store, properties,
+                new ClientKeyResolver(new AdmissionControlProperties()), new ObjectMapper(), new SimpleMeterRegistry());
+        executor = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        idempotencyService.shutdown();
+        executor.shutdownNow();
+        new JdbcTemplate(dataSource).update("DELETE FROM idempotency_keys WHERE idempotency_key LIKE '%db-store-%'");
+    }
+
+    @Test
+    @DisplayName("Should refuse a second reservation of a key")
+    void shouldRefuseDuplicateReservation() {
+        Instant now = Instant.now();
+
+        assertThat(store.reserve("db-store-1", "fingerprint", now)).isTrue();
+        assertThat(store.reserve("db-store-1", "fingerprint", now)).isFalse();
+        assertThat(store.find("db-store-1", now)).get().extracting(IdempotencyEntry::completed).isEqualTo(false);
+    }
+
+    @Test
+    @DisplayName("Should refuse a reservation whose insert collides with one another node has not yet committed")
+    void shouldRefuseReservationLosingTheInsertRace() throws Exception {
+        CountDownLatch inserted = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        TransactionTemplate otherNode = new TransactionTemplate(transactionManager);
+        otherNode.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        Future<?> otherReservation = executor.submit(() -> otherNode.executeWithoutResult(status -> {
+            new JdbcTemplate(dataSource).update("INSERT INTO idempotency_keys "
+                            + "(idempotency_key, fingerprint, completed, created_at, expires_at) VALUES (?, ?, ?, ?, ?)",
+                    "db-store-race", "fingerprint", false, Timestamp.from(Instant.now()),
+                    Timestamp.from(Instant.now().plusSeconds(3600)));
+            inserted.countDown();
+            await(commit);
+        }));
+        assertThat(inserted.await(10, TimeUnit.SECONDS)).isTrue();
+
+        // The lookup does not see the uncommitted row, so the insert waits on its key (within H2's one second
+        // lock timeout) and fails once the other node commits
+        CompletableFuture<Boolean> reservation =
+                CompletableFuture.supplyAsync(() -> store.reserve("db-store-race", "fingerprint", Instant.now()));
+        Thread.sleep(200);
+        commit.countDown();
+        otherReservation.get(10, TimeUnit.SECONDS);
+
+        assertThat(reservation.get(10, TimeUnit.SECONDS)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should grant each key to exactly one of several concurrent reservations")
+    void shouldGrantConcurrentReservationsOnce() throws Exception {
+        for (int round = 0; round < 10; round++) {
+            String key = "db-store-concurrent-" + round;
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Boolean>> reservations = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                reservations.add(executor.submit(() -> {
+                    start.await();
+                    return store.reserve(key, "fingerprint", Instant.now());
+                }));
+            }
+            start.countDown();
+
+            int granted = 0;
+            for (Future<Boolean> reservation : reservations) {
+                if (reservation.get(10, TimeUnit.SECONDS)) {
+                    granted++;
+                }
+            }
+            assertThat(granted).as("reservations granted for %s", key).isEqualTo(1);
+        }
+    }
+
+    @Test
+    @DisplayName("Should hand over a reservation whose lease ran out and refuse to complete it afterwards")
+    void shouldHandOverLapsedReservation() {
+        properties.setInProgressTimeout(Duration.ofMinutes(1));
+        Instant reservedAt = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        assertThat(store.reserve("db-store-lease", "fingerprint", reservedAt)).isTrue();
+
+        Instant renewedAt = reservedAt.plusSeconds(50);
+        assertThat(store.renew("db-store-lease", reservedAt, renewedAt)).isTrue();
+        assertThat(store.reserve("db-store-lease", "fingerprint", reservedAt.plusSeconds(90))).isFalse();
+
+        Instant takenOverAt = renewedAt.plusSeconds(60);
+        assertThat(store.reserve("db-store-lease", "fingerprint", takenOverAt)).isTrue();
+        assertThat(store.renew("db-store-lease", reservedAt, takenOverAt)).isFalse();
+        assertThat(store.complete("db-store-lease", reservedAt, 200, "{}")).isFalse();
+        assertThat(store.complete("db-store-lease", takenOverAt, 200, "{}")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should roll back a request whose reservation was taken over while it ran")
+    void shouldRollBackRequestThatLostItsReservation() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        assertThatThrownBy(() -> idempotencyService.execute("db-store-takeover", "submitQuote", 1L, String.class,
+                () -> {
+                    // The request's own change, in the transaction the response is recorded in
+                    insertKey(jdbcTemplate, "db-store-side-effect");
+                    // Another node takes the key over, as if this node had stopped renewing it
+                    assertThat(CompletableFuture.supplyAsync(() -> {
+                        jdbcTemplate.update("UPDATE idempotency_keys SET expires_at = ? "
+                                + "WHERE idempotency_key LIKE '%db-store-takeover'", Timestamp.from(Instant.now()));
+                        String key = jdbcTemplate.queryForObject("SELECT idempotency_key FROM idempotency_keys "
+                                + "WHERE idempotency_key LIKE '%db-store-takeover'", String.class);
+                        return store.reserve(key, "other", Instant.now());
+                    }, executor).join()).isTrue();
+                    return ResponseEntity.ok("done");
+                })).isInstanceOf(IdempotencyConflictException.class);
+
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM idempotency_keys "
+                + "WHERE idempotency_key = 'db-store-side-effect'", Integer.class)).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT completed FROM idempotency_keys "
+                + "WHERE idempotency_key LIKE '%db-store-takeover'", Boolean.class)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should commit a request together with its recorded response")
+    void shouldCommitRequestWithResponse() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        ResponseEntity<String> response = idempotencyService.execute("db-store-commit", "submitQuote", 1L,
+                String.class, () -> {
+                    insertKey(jdbcTemplate, "db-store-commit-side-effect");
+                    return ResponseEntity.ok("done");
+                });
+
+        assertThat(response.getBody()).isEqualTo("done");
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM idempotency_keys "
+                + "WHERE idempotency_key = 'db-store-commit-side-effect'", Integer.class)).isOne();
+        assertThat(idempotencyService.execute("db-store-commit", "submitQuote", 1L, String.class,
+                () -> ResponseEntity.ok("executed again")).getBody()).isEqualTo("done");
+    }
+
+    private static void insertKey(JdbcTemplate jdbcTemplate, String key) {
+        jdbcTemplate.update("INSERT INTO idempotency_keys "
+                        + "(idempotency_key, fingerprint, completed, created_at, expires_at) VALUES (?, ?, ?, ?, ?)",
+                key, "fingerprint", false, Timestamp.from(Instant.now()),
+                Timestamp.from(Instant.now().plusSeconds(3600)));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
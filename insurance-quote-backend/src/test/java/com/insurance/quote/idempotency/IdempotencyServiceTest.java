@@ -0,0 +1,178 @@
+package com.insurance.quote.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.insurance.quote.config.AdmissionControlProperties;
+import com.insurance.quote.config.IdempotencyProperties;
+import com.insurance.quote.dto.QuoteDto;
+import com.insurance.quote.entity.Quote;
+import com.insurance.quote.exception.IdempotencyConflictException;
+import com.insurance.quote.exception.InvalidQuoteStateException;
+import com.insurance.quote.exception.IdempotencyKeyMismatchException;
+import com.insurance.quote.ratelimit.ClientKeyResolver;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for Idempotency-Key handling with the in-memory store
+ */
+class IdempotencyServiceTest {
+
+    private IdempotencyProperties properties;
+    private InMemoryIdempotencyStore store;
+    private IdempotencyService idempotencyService;
+    private AtomicInteger executions;
+
+    @BeforeEach
+    void setUp() {
+        properties = new IdempotencyProperties();
+        properties.setMaxEntries(3);
+        store = new InMemoryIdempotencyStore(properties);
+        idempotencyService = new IdempotencyService(store, properties,
+                new ClientKeyResolver(new AdmissionControlProperties()),
+                new ObjectMapper().findAndRegisterModules(),
+                new SimpleMeterRegistry());
+        executions = new AtomicInteger();
+    }
+
+    @AfterEach
+    void tearDown() {
+        idempotencyService.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should replay the recorded response for a retried request without re-executing")
+    void testRetryIsReplayed() {
+        ResponseEntity<QuoteDto> first = submit("key-1", 1L);
+        ResponseEntity<QuoteDto> retry = submit("key-1", 1L);
+
+        assertThat(executions.get()).isEqualTo(1);
+        assertThat(retry.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(retry.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(retry.getBody().getQuoteNumber()).isEqualTo(first.getBody().getQuoteNumber());
+    }
+
+    @Test
+    @DisplayName("Should execute every request that carries no idempotency key")
+    void testNoKeyAlwaysExecutes() {
+        submit(null, 1L);
+        submit(null, 1L);
+
+        assertThat(executions.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should reject reuse of a key for a different request")
+    void testKeyReuseWithDifferentPayload() {
+        submit("key-1", 1L);
+
+        assertThatThrownBy(() -> submit("key-1", 2L))
+                .isInstanceOf(IdempotencyKeyMismatchException.class);
+        assertThat(executions.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should fingerprint map requests independently of their iteration order")
+    void testMapRequestOrderIsIgnored() {
+        Map<String, Object> request = new LinkedHashMap<>();
+        request.put("id", 1L);
+        request.put("reason", "Outside appetite");
+        Map<String, Object> reordered = new LinkedHashMap<>();
+        reordered.put("reason", "Outside appetite");
+        reordered.put("id", 1L);
+
+        reject("key-1", request);
+        ResponseEntity<QuoteDto> retry = reject("key-1", reordered);
+
+        assertThat(retry.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(executions.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should release the key when the request fails so that it can be retried")
+    void testFailureReleasesKey() {
+        assertThatThrownBy(() -> idempotencyService.execute("key-1", "submitQuote", 1L, QuoteDto.class, () -> {
+            throw new InvalidQuoteStateException("Only saved quotes can be submitted");
+        })).isInstanceOf(InvalidQuoteStateException.class);
+
+        submit("key-1", 1L);
+        assertThat(executions.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should keep the key of a running request reserved past the in-progress timeout")
+    void testRunningRequestKeepsKey() throws Exception {
+        properties.setInProgressTimeout(Duration.ofMillis(300));
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        CompletableFuture<ResponseEntity<QuoteDto>> first = CompletableFuture.supplyAsync(() ->
+                idempotencyService.execute("key-1", "submitQuote", 1L, QuoteDto.class, () -> {
+                    running.countDown();
+                    await(finish);
+                    executions.incrementAndGet();
+                    return ResponseEntity.ok(new QuoteDto());
+                }));
+        assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+
+        Thread.sleep(3 * properties.getInProgressTimeout().toMillis());
+        assertThatThrownBy(() -> submit("key-1", 1L)).isInstanceOf(IdempotencyConflictException.class);
+
+        finish.countDown();
+        assertThat(first.get(5, TimeUnit.SECONDS).getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(submit("key-1", 1L).getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(executions.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should keep the store bounded and drop expired entries")
+    void testStoreIsBounded() {
+        for (int i = 0; i < 10; i++) {
+            submit("key-" + i, (long) i);
+        }
+        assertThat(store.size()).isEqualTo(3);
+
+        assertThat(store.evictExpired(Instant.now().plus(properties.getTtl()))).isEqualTo(3);
+        assertThat(store.size()).isZero();
+    }
+
+    private ResponseEntity<QuoteDto> reject(String key, Map<String, Object> request) {
+        return idempotencyService.execute(key, "rejectQuote", request, QuoteDto.class, () -> {
+            executions.incrementAndGet();
+            return ResponseEntity.ok(new QuoteDto());
+        });
+    }
+
+    private ResponseEntity<QuoteDto> submit(String key, Long id) {
+        return idempotencyService.execute(key, "submitQuote", id, QuoteDto.class, () -> {
+            QuoteDto dto = new QuoteDto();
+            dto.setId(id);
+            dto.setStatus(Quote.QuoteStatus.SUBMITTED);
+            dto.setQuoteNumber("IQ-" + executions.incrementAndGet());
+            return new ResponseEntity<>(dto, HttpStatus.CREATED);
+        });
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
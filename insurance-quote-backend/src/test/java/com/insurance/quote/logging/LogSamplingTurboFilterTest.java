@@ -0,0 +1,98 @@
+package com.insurance.quote.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("LogSamplingTurboFilter")
+class LogSamplingTurboFilterTest {
+
+    private final LoggerContext context = new LoggerContext();
+    private final Logger controllerLogger = context.getLogger("com.insurance.quote.controller.QuoteController");
+    private final Logger otherLogger = context.getLogger("com.insurance.quote.config.WebConfig");
+    private LogSamplingTurboFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new LogSamplingTurboFilter();
+        filter.setContext(context);
+        filter.addLogger("com.insurance.quote.controller");
+    }
+
+    @AfterEach
+    void tearDown() {
+        MDC.clear();
+    }
+
+    @Test
+    @DisplayName("Keeps or drops all lines of a request together")
+    void shouldDecidePerRequest() {
+        filter.setRate(0.5);
+        filter.start();
+
+        for (int i = 0; i < 100; i++) {
+            MDC.put(RequestIdFilter.REQUEST_ID_MDC_KEY, "request-" + i);
+            FilterReply first = decide(controllerLogger, Level.INFO);
+            assertThat(decide(controllerLogger, Level.DEBUG)).isEqualTo(first);
+            assertThat(decide(controllerLogger, Level.INFO)).isEqualTo(first);
+        }
+    }
+
+    @Test
+    @DisplayName("Keeps roughly the configured share of requests")
+    void shouldKeepConfiguredShare() {
+        filter.setRate(0.1);
+        filter.start();
+
+        int kept = 0;
+        for (int i = 0; i < 10_000; i++) {
+            MDC.put(RequestIdFilter.REQUEST_ID_MDC_KEY, Long.toHexString(i * 0x9E3779B97F4A7C15L));
+            if (decide(controllerLogger, Level.INFO) == FilterReply.NEUTRAL) {
+                kept++;
+            }
+        }
+
+        assertThat(kept).isBetween(800, 1200);
+    }
+
+    @Test
+    @DisplayName("Samples events without a request id round-robin")
+    void shouldSampleUnkeyedEvents() {
+        filter.setRate(0.25);
+        filter.start();
+
+        int kept = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (decide(controllerLogger, Level.INFO) == FilterReply.NEUTRAL) {
+                kept++;
+            }
+        }
+
+        assertThat(kept).isEqualTo(2_500);
+    }
+
+    @Test
+    @DisplayName("Always passes warnings, errors and loggers that are not sampled")
+    void shouldPassWarningsAndOtherLoggers() {
+        filter.setRate(0.0);
+        filter.start();
+        MDC.put(RequestIdFilter.REQUEST_ID_MDC_KEY, "request-1");
+
+        assertThat(decide(controllerLogger, Level.INFO)).isEqualTo(FilterReply.DENY);
+        assertThat(decide(controllerLogger, Level.WARN)).isEqualTo(FilterReply.NEUTRAL);
+        assertThat(decide(controllerLogger, Level.ERROR)).isEqualTo(FilterReply.NEUTRAL);
+        assertThat(decide(otherLogger, Level.INFO)).isEqualTo(FilterReply.NEUTRAL);
+    }
+
+    private FilterReply decide(Logger logger, Level level) {
+        return filter.decide(null, logger, level, "message", null, null);
+    }
+}
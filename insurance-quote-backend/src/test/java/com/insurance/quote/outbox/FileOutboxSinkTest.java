@@ -0,0 +1,50 @@
+package com.insurance.quote.outbox;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.insurance.quote.entity.Quote;
+import com.insurance.quote.event.QuoteLifecycleEvent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("File outbox sink")
+class FileOutboxSinkTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Should append one JSON line per event with the quote inlined")
+    void shouldAppendJsonLines() throws Exception {
+        Path file = directory.resolve("events").resolve("quote-events.jsonl");
+        FileOutboxSink sink = new FileOutboxSink(file, objectMapper);
+
+        sink.deliver(List.of(message(1, Quote.QuoteStatus.DRAFT, null)));
+        sink.deliver(List.of(message(2, Quote.QuoteStatus.SAVED, Quote.QuoteStatus.DRAFT),
+                message(3, Quote.QuoteStatus.SUBMITTED, Quote.QuoteStatus.SAVED)));
+
+        List<String> lines = Files.readAllLines(file);
+        assertThat(lines).hasSize(3);
+        JsonNode last = objectMapper.readTree(lines.get(2));
+        assertThat(last.get("id").asLong()).isEqualTo(3);
+        assertThat(last.get("status").asText()).isEqualTo("SUBMITTED");
+        assertThat(last.get("previousStatus").asText()).isEqualTo("SAVED");
+        assertThat(last.get("quote").get("quoteNumber").asText()).isEqualTo("IQ-1");
+    }
+
+    private static OutboxMessage message(long id, Quote.QuoteStatus status, Quote.QuoteStatus previousStatus) {
+        return new OutboxMessage(id, QuoteLifecycleEvent.Type.UPDATED, 7L, "IQ-1", status, previousStatus,
+                LocalDateTime.now(), "{\"id\":7,\"quoteNumber\":\"IQ-1\",\"status\":\"" + status + "\"}");
+    }
+}
@@ -0,0 +1,160 @@
+package com.insurance.quote.outbox;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.insurance.quote.config.OutboxProperties;
+import com.insurance.quote.dto.BusinessInformationDto;
+import com.insurance.quote.dto.QuoteDto;
+import com.insurance.quote.entity.BusinessInformation;
+import com.insurance.quote.entity.Quote;
+import com.insurance.quote.event.QuoteLifecycleEvent;
+import com.insurance.quote.repository.OutboxEventRepository;
+import com.insurance.quote.repository.QuoteRepository;
+import com.insurance.quote.service.QuoteService;
+import com.insurance.quote.sharding.ShardRouter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@ActiveProfiles("test")
+@DisplayName("Quote event outbox")
+class OutboxDispatcherTest {
+
+    @Autowired
+    private OutboxDispatcher outboxDispatcher;
+
+    @Autowired
+    private InMemoryOutboxSink sink;
+
+    @Autowired
+    private QuoteService quoteService;
+
+    @Autowired
+    private QuoteRepository quoteRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    @AfterEach
+    void clearOutbox() {
+        quoteRepository.deleteAll();
+        outboxEventRepository.deleteAll();
+        sink.clear();
+    }
+
+    @Test
+    @DisplayName("Should deliver lifecycle events in commit order and remove them from the outbox")
+    void shouldDeliverLifecycleEvents() throws IOException {
+        QuoteDto quote = quoteService.createQuote(newQuote("Outbox Bakery"));
+        QuoteDto update = quoteService.getQuoteById(quote.getId()).orElseThrow();
+        update.setStatus(Quote.QuoteStatus.SAVED);
+        update.getCoverageOptions().get(0).setIsSelected(true);
+        quoteService.updateQuote(quote.getId(), update);
+        quoteService.submitQuote(quote.getId());
+        quoteService.approveQuote(quote.getId());
+
+        assertThat(outboxEventRepository.count()).isEqualTo(4);
+        assertThat(sink.received()).isEmpty();
+
+        assertThat(outboxDispatcher.dispatch()).isEqualTo(4);
+
+        List<OutboxMessage> received = sink.received();
+        assertThat(received).extracting(OutboxMessage::type).containsExactly(
+                QuoteLifecycleEvent.Type.CREATED, QuoteLifecycleEvent.Type.UPDATED,
+                QuoteLifecycleEvent.Type.UPDATED, QuoteLifecycleEvent.Type.UPDATED);
+        assertThat(received).extracting(OutboxMessage::status).containsExactly(
+                Quote.QuoteStatus.DRAFT, Quote.QuoteStatus.SAVED, Quote.QuoteStatus.SUBMITTED, Quote.QuoteStatus.APPROVED);
+        assertThat(received).extracting(OutboxMessage::previousStatus).containsExactly(
+                null, Quote.QuoteStatus.DRAFT, Quote.QuoteStatus.SAVED, Quote.QuoteStatus.SUBMITTED);
+        assertThat(received).extracting(OutboxMessage::quoteId).containsOnly(quote.getId());
+        assertThat(received).extracting(OutboxMessage::id).isSorted();
+        assertThat(outboxEventRepository.count()).isZero();
+
+        JsonNode json = objectMapper.readTree(objectMapper.writeValueAsString(received.get(3)));
+        assertThat(json.get("quote").get("quoteNumber").asText()).isEqualTo(quote.getQuoteNumber());
+        assertThat(json.get("quote").get("status").asText()).isEqualTo("APPROVED");
+    }
+
+    @Test
+    @DisplayName("Should not record events of a rolled back change")
+    void shouldNotRecordRolledBackEvents() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            quoteService.createQuote(newQuote("Rolled Back Bakery"));
+            status.setRollbackOnly();
+        });
+
+        assertThat(outboxEventRepository.count()).isZero();
+        assertThat(outboxDispatcher.dispatch()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should deliver in batches and redeliver a batch the sink failed to accept")
+    void shouldRedeliverFailedBatches() {
+        for (int i = 0; i < 5; i++) {
+            quoteService.createQuote(newQuote("Batch Business " + i));
+        }
+        List<List<OutboxMessage>> batches = new ArrayList<>();
+        int[] failuresLeft = {1};
+        OutboxSink flakySink = batch -> {
+            if (failuresLeft[0]-- > 0) {
+                throw new IOException("Sink unavailable");
+            }
+            batches.add(batch);
+        };
+        OutboxProperties properties = new OutboxProperties();
+        properties.setBatchSize(2);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        OutboxDispatcher dispatcher = new OutboxDispatcher(properties, outboxEventRepository, flakySink,
+                shardRouter, transactionManager, meterRegistry);
+
+        assertThat(dispatcher.dispatch()).isZero();
+        assertThat(outboxEventRepository.count()).isEqualTo(5);
+        assertThat(meterRegistry.get("quote.outbox.pending").gauge().value()).isEqualTo(5);
+        assertThat(meterRegistry.get("quote.outbox.failures").counter().count()).isEqualTo(1);
+
+        assertThat(dispatcher.dispatch()).isEqualTo(5);
+        assertThat(batches).extracting(List::size).containsExactly(2, 2, 1);
+        assertThat(outboxEventRepository.count()).isZero();
+        assertThat(meterRegistry.get("quote.outbox.pending").gauge().value()).isZero();
+        assertThat(meterRegistry.get("quote.outbox.lag").gauge().value()).isZero();
+        assertThat(meterRegistry.get("quote.outbox.delivery.lag").timer().count()).isEqualTo(5);
+    }
+
+    private static QuoteDto newQuote(String businessName) {
+        BusinessInformationDto business = new BusinessInformationDto();
+        business.setName(businessName);
+        business.setBusinessType(BusinessInformation.BusinessType.RESTAURANT);
+        business.setIndustry(BusinessInformation.Industry.FOOD_SERVICE);
+        business.setState("CA");
+
+        QuoteDto quote = new QuoteDto();
+        quote.setBusinessInformation(business);
+        quote.setTotalPremium(BigDecimal.ZERO);
+        return quote;
+    }
+}
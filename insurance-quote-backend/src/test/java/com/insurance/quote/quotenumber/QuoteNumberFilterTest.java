@@ -0,0 +1,120 @@
+package com.insurance.quote.quotenumber;
+
+import com.insurance.quote.dto.BusinessInformationDto;
+import com.insurance.quote.dto.QuoteDto;
+import com.insurance.quote.entity.BusinessInformation;
+import com.insurance.quote.repository.QuoteRepository;
+import com.insurance.quote.service.QuoteService;
+import com.insurance.quote.sqlmonitor.StatementCounts;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@ActiveProfiles("test")
+@DisplayName("Quote number filter")
+class QuoteNumberFilterTest {
+
+    @Autowired
+    private QuoteNumberFilter quoteNumberFilter;
+
+    @Autowired
+    private QuoteService quoteService;
+
+    @Autowired
+    private QuoteRepository quoteRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    void tearDown() {
+        quoteRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should never miss an added number and keep false positives near the target rate")
+    void shouldHaveNoFalseNegatives() {
+        BloomFilter filter = BloomFilter.create(100_000, 0.01, Long.MAX_VALUE);
+        for (int i = 0; i < 100_000; i++) {
+            filter.add("IQ-20260101000000-" + i);
+        }
+
+        for (int i = 0; i < 100_000; i++) {
+            assertThat(filter.mightContain("IQ-20260101000000-" + i)).isTrue();
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("IQ-20260102000000-" + i)) {
+                falsePositives++;
+            }
+        }
+        assertThat(falsePositives / 100_000.0).isCloseTo(0.01, within(0.005));
+        assertThat(filter.expectedFalsePositiveRate()).isCloseTo(0.01, within(0.002));
+        assertThat(filter.hashCount()).isEqualTo(7);
+        assertThat(filter.memoryBytes()).isBetween(119_000L, 121_000L);
+    }
+
+    @Test
+    @DisplayName("Should stay within the memory cap at the cost of a higher false positive rate")
+    void shouldCapMemory() {
+        BloomFilter filter = BloomFilter.create(1_000_000, 0.01, 8 * 1024 * 1024);
+
+        assertThat(filter.memoryBytes()).isEqualTo(1024 * 1024);
+        for (int i = 0; i < 1_000_000; i++) {
+            filter.add("IQ-" + i);
+        }
+        assertThat(filter.expectedFalsePositiveRate()).isBetween(0.01, 0.05);
+    }
+
+    @Test
+    @DisplayName("Should answer checks of new numbers without a query and check possible hits in the database")
+    void shouldSkipDatabaseForAbsentNumbers() throws Exception {
+        assertThat(quoteNumberFilter.isLoaded()).isTrue();
+        QuoteDto created = quoteService.createQuote(newQuote());
+        double absentBefore = checks("absent");
+
+        StatementCounts absent = StatementCounts.measure(() ->
+                assertThat(quoteService.isQuoteNumberUnique("IQ-NEVER-ISSUED")).isTrue());
+        StatementCounts present = StatementCounts.measure(() ->
+                assertThat(quoteService.isQuoteNumberUnique(created.getQuoteNumber())).isFalse());
+
+        assertThat(absent.selects()).isZero();
+        assertThat(present.selects()).isEqualTo(1);
+        assertThat(checks("absent")).isEqualTo(absentBefore + 1);
+
+        quoteService.deleteQuote(created.getId());
+        assertThat(quoteService.isQuoteNumberUnique(created.getQuoteNumber())).isTrue();
+
+        quoteNumberFilter.rebuild();
+        StatementCounts rebuilt = StatementCounts.measure(() ->
+                assertThat(quoteService.isQuoteNumberUnique(created.getQuoteNumber())).isTrue());
+        assertThat(rebuilt.selects()).isZero();
+    }
+
+    private double checks(String result) {
+        return meterRegistry.get("quote.number.filter.checks").tag("result", result).counter().count();
+    }
+
+    private static QuoteDto newQuote() {
+        BusinessInformationDto business = new BusinessInformationDto();
+        business.setName("Filter Hardware");
+        business.setBusinessType(BusinessInformation.BusinessType.RETAIL);
+        business.setIndustry(BusinessInformation.Industry.RETAIL_TRADE);
+        business.setState("MN");
+
+        QuoteDto quote = new QuoteDto();
+        quote.setBusinessInformation(business);
+        quote.setTotalPremium(BigDecimal.ZERO);
+        return quote;
+    }
+}
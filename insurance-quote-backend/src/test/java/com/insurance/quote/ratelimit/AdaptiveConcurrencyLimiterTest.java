@@ -0,0 +1,66 @@
+package com.insurance.quote.ratelimit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the AIMD concurrency limiter
+ */
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long TARGET = 100_000_000L;
+
+    @Test
+    @DisplayName("Should reject requests once the limit is reached")
+    void testRejectsAtLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, TARGET, 0.5);
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+        assertThat(limiter.getInFlight()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should back off multiplicatively on slow requests or a saturated pool")
+    void testMultiplicativeDecrease() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(16, 2, 32, TARGET, 0.5);
+
+        limiter.tryAcquire();
+        limiter.release(TARGET * 2, false);
+        assertThat(limiter.getLimit()).isEqualTo(8);
+        assertThat(limiter.getHeadroom()).isEqualTo(0.5);
+
+        limiter.tryAcquire();
+        limiter.release(TARGET / 2, true);
+        assertThat(limiter.getLimit()).isEqualTo(4);
+
+        for (int i = 0; i < 10; i++) {
+            limiter.tryAcquire();
+            limiter.release(TARGET * 2, true);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should grow additively on fast requests up to the maximum")
+    void testAdditiveIncrease() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 2, 6, TARGET, 0.5);
+
+        for (int i = 0; i < 4; i++) {
+            limiter.tryAcquire();
+            limiter.release(TARGET / 2, false);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(4);
+
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire();
+            limiter.release(TARGET / 2, false);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(6);
+        assertThat(limiter.getHeadroom()).isEqualTo(1.0);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+}
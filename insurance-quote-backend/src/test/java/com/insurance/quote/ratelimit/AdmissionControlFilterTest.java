@@ -0,0 +1,152 @@
+package com.insurance.quote.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.insurance.quote.config.AdmissionControlProperties;
+import com.insurance.quote.workload.Workload;
+import com.insurance.quote.workload.WorkloadContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for admission control with a concurrency limit per workload
+ */
+class AdmissionControlFilterTest {
+
+    private AdmissionControlProperties properties;
+    private MeterRegistry meterRegistry;
+    private AdmissionControlFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        properties = new AdmissionControlProperties();
+        properties.setBurst(1000);
+        filter = newFilter();
+    }
+
+    @Test
+    @DisplayName("Should keep admitting interactive requests while a saturated bulk pool shrinks the bulk limit")
+    void testBulkSaturationDoesNotShedInteractive() throws Exception {
+        for (int i = 0; i < 50; i++) {
+            int status = WorkloadContext.call(Workload.BULK, () -> sendUnchecked("broker-1"));
+            assertThat(status).isEqualTo(200);
+        }
+        assertThat(limit(Workload.BULK)).isEqualTo(properties.getMinConcurrencyLimit());
+
+        // More interactive requests in flight at once than the bulk limit now allows
+        int concurrent = properties.getMinConcurrencyLimit() * 2;
+        CountDownLatch inFlight = new CountDownLatch(concurrent);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(concurrent);
+        try {
+            List<Future<Integer>> statuses = new ArrayList<>();
+            for (int i = 0; i < concurrent; i++) {
+                String client = "underwriter-" + i;
+                statuses.add(executor.submit(() -> send(client, (request, response) -> {
+                    inFlight.countDown();
+                    await(release);
+                })));
+            }
+            assertThat(inFlight.await(5, TimeUnit.SECONDS)).isTrue();
+            release.countDown();
+            for (Future<Integer> status : statuses) {
+                assertThat(status.get(5, TimeUnit.SECONDS)).isEqualTo(200);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(limit(Workload.INTERACTIVE)).isGreaterThanOrEqualTo(properties.getInitialConcurrencyLimit());
+    }
+
+    @Test
+    @DisplayName("Should shed requests of a workload over its own concurrency limit")
+    void testShedsAtWorkloadLimit() throws Exception {
+        properties.setInitialConcurrencyLimit(1);
+        properties.setMinConcurrencyLimit(1);
+        filter = newFilter();
+
+        int status = send("underwriter-1", (request, response) ->
+                assertThat(send("underwriter-2", (inner, innerResponse) -> { })).isEqualTo(503));
+
+        assertThat(status).isEqualTo(200);
+        assertThat(meterRegistry.get("quote.admission.requests").tag("outcome", "shed").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should not charge a client's rate limit for a request shed at the concurrency limit")
+    void testShedRequestKeepsToken() throws Exception {
+        // One token and no noticeable refill while the test runs
+        properties.setBurst(1);
+        properties.setRequestsPerSecond(0.01);
+        properties.setInitialConcurrencyLimit(1);
+        properties.setMinConcurrencyLimit(1);
+        filter = newFilter();
+
+        int status = send("underwriter-1", (request, response) ->
+                assertThat(send("underwriter-2", (inner, innerResponse) -> { })).isEqualTo(503));
+
+        assertThat(status).isEqualTo(200);
+        assertThat(send("underwriter-2", (request, response) -> { })).isEqualTo(200);
+    }
+
+    private AdmissionControlFilter newFilter() {
+        PoolSaturationProbe bulkPoolSaturated = mock(PoolSaturationProbe.class);
+        when(bulkPoolSaturated.saturation()).thenAnswer(invocation ->
+                WorkloadContext.current() == Workload.BULK ? 1.0 : 0.0);
+        meterRegistry = new SimpleMeterRegistry();
+        return new AdmissionControlFilter(properties, new ClientKeyResolver(properties), bulkPoolSaturated,
+                new ObjectMapper().findAndRegisterModules(), meterRegistry);
+    }
+
+    private int sendUnchecked(String client) {
+        try {
+            return send(client, (request, response) -> { });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (ServletException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private int send(String client, FilterChain chain) throws IOException, ServletException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/quotes");
+        request.addHeader(properties.getClientHeader(), client);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response.getStatus();
+    }
+
+    private double limit(Workload workload) {
+        return meterRegistry.get("quote.admission.concurrency.limit").tag("workload", workload.poolName())
+                .gauge().value();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
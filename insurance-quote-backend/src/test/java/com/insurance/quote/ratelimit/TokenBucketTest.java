@@ -0,0 +1,56 @@
+package com.insurance.quote.ratelimit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for per-client token buckets
+ */
+class TokenBucketTest {
+
+    private static final long ONE_SECOND = 1_000_000_000L;
+
+    @Test
+    @DisplayName("Should allow a burst up to capacity and then report the wait for the next token")
+    void testBurstThenWait() {
+        TokenBucket bucket = new TokenBucket(3, 0L);
+
+        assertThat(bucket.tryAcquire(10.0, 0L)).isZero();
+        assertThat(bucket.tryAcquire(10.0, 0L)).isZero();
+        assertThat(bucket.tryAcquire(10.0, 0L)).isZero();
+
+        long wait = bucket.tryAcquire(10.0, 0L);
+        assertThat(wait).isEqualTo(ONE_SECOND / 10);
+    }
+
+    @Test
+    @DisplayName("Should refill at the supplied rate without exceeding capacity")
+    void testRefill() {
+        TokenBucket bucket = new TokenBucket(2, 0L);
+        bucket.tryAcquire(1.0, 0L);
+        bucket.tryAcquire(1.0, 0L);
+
+        assertThat(bucket.tryAcquire(1.0, ONE_SECOND / 2)).isPositive();
+        assertThat(bucket.tryAcquire(1.0, ONE_SECOND)).isZero();
+
+        // A long idle period only refills up to capacity
+        assertThat(bucket.tryAcquire(1.0, 100 * ONE_SECOND)).isZero();
+        assertThat(bucket.tryAcquire(1.0, 100 * ONE_SECOND)).isZero();
+        assertThat(bucket.tryAcquire(1.0, 100 * ONE_SECOND)).isPositive();
+    }
+
+    @Test
+    @DisplayName("Should return a refunded token without exceeding capacity")
+    void testRefund() {
+        TokenBucket bucket = new TokenBucket(1, 0L);
+        bucket.refund();
+
+        assertThat(bucket.tryAcquire(1.0, 0L)).isZero();
+        assertThat(bucket.tryAcquire(1.0, 0L)).isPositive();
+
+        bucket.refund();
+        assertThat(bucket.tryAcquire(1.0, 0L)).isZero();
+    }
+}
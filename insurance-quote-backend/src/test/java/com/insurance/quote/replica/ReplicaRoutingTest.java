@@ -0,0 +1,134 @@
+package com.insurance.quote.replica;
+
+import com.insurance.quote.dto.BusinessInformationDto;
+import com.insurance.quote.dto.QuoteDto;
+import com.insurance.quote.entity.BusinessInformation;
+import com.insurance.quote.entity.Quote;
+import com.insurance.quote.service.QuoteService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Routes against a separate H2 database standing in for a replica. The test plays the replication stream: it
+ * sets the heartbeat the replica has applied and leaves the replica's quote tables empty, so a read served by
+ * the replica does not see quotes created on the primary.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "app.replicas.max-lag=2h",
+        "app.replicas.lag-check-interval=PT1H",
+        "app.replicas.replicas[0].name=behind",
+        "app.replicas.replicas[0].url=" + ReplicaRoutingTest.REPLICA_URL
+})
+@ActiveProfiles({"test", "replicas"})
+@DisplayName("Read replica routing")
+class ReplicaRoutingTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:replica_behind;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE";
+
+    private static final JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+
+    @Autowired
+    private QuoteService quoteService;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ReplicaLagMonitor lagMonitor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeAll
+    static void createReplica() {
+        Flyway.configure().dataSource(REPLICA_URL, "sa", "").load().migrate();
+    }
+
+    @AfterEach
+    void tearDown() {
+        JdbcTemplate primary = new JdbcTemplate(dataSource);
+        primary.update("DELETE FROM coverage_options");
+        primary.update("DELETE FROM quotes");
+        primary.update("DELETE FROM quote_outbox");
+    }
+
+    @Test
+    @DisplayName("Should read from a fresh replica, write to the primary and read from the primary while the replica lags")
+    void shouldRouteReadsByLag() {
+        QuoteDto quote = quoteService.createQuote(newQuote("Lagging Replica Bakery"));
+
+        replicate(Instant.now().minus(Duration.ofDays(1)));
+        double staleReads = reads("primary", "stale");
+        assertThat(quoteService.getQuoteById(quote.getId())).isPresent();
+        assertThat(lag()).isGreaterThanOrEqualTo(Duration.ofDays(1).toSeconds());
+        assertThat(reads("primary", "stale")).isGreaterThan(staleReads);
+
+        replicate(Instant.now());
+        double replicaReads = reads("behind", "replica");
+        assertThat(quoteService.getQuoteById(quote.getId())).isEmpty();
+        assertThat(lag()).isLessThan(60);
+        assertThat(reads("behind", "replica")).isGreaterThan(replicaReads);
+
+        quote.setStatus(Quote.QuoteStatus.SAVED);
+        assertThat(quoteService.updateQuote(quote.getId(), quote).getStatus()).isEqualTo(Quote.QuoteStatus.SAVED);
+        assertThat(replica.queryForObject("SELECT COUNT(*) FROM quotes", Long.class)).isZero();
+    }
+
+    @Test
+    @DisplayName("Should keep a client's reads on the primary until the replica has applied its write")
+    void shouldReadYourWrites() {
+        replicate(Instant.now());
+        QuoteDto quote = ClientContext.call("alice", () -> quoteService.createQuote(newQuote("Sticky Reads Cafe")));
+
+        assertThat(ClientContext.call("alice", () -> quoteService.getQuoteById(quote.getId()))).isPresent();
+        assertThat(ClientContext.call("bob", () -> quoteService.getQuoteById(quote.getId()))).isEmpty();
+
+        // The replica's heartbeat now includes alice's write, so her reads may go to it again
+        replicate(Instant.now());
+        assertThat(ClientContext.call("alice", () -> quoteService.getQuoteById(quote.getId()))).isEmpty();
+    }
+
+    private void replicate(Instant appliedThrough) {
+        replica.update("UPDATE replication_heartbeat SET beat_at = ? WHERE id = 1", Timestamp.from(appliedThrough));
+        lagMonitor.check();
+    }
+
+    private double lag() {
+        return meterRegistry.get("quote.replica.lag").tag("replica", "behind").gauge().value();
+    }
+
+    private double reads(String target, String reason) {
+        return meterRegistry.get("quote.replica.reads").tags("target", target, "reason", reason).counter().count();
+    }
+
+    private static QuoteDto newQuote(String name) {
+        BusinessInformationDto business = new BusinessInformationDto();
+        business.setName(name);
+        business.setBusinessType(BusinessInformation.BusinessType.RETAIL);
+        business.setIndustry(BusinessInformation.Industry.RETAIL_TRADE);
+        business.setState("CA");
+
+        QuoteDto quote = new QuoteDto();
+        quote.setBusinessInformation(business);
+        quote.setTotalPremium(BigDecimal.ZERO);
+        return quote;
+    }
+}
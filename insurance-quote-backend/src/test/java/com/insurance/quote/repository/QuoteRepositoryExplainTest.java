@@ -0,0 +1,226 @@
+package com.insurance.quote.repository;
+
+import com.insurance.quote.dto.BusinessInformationDto;
+import com.insurance.quote.dto.QuoteDto;
+import com.insurance.quote.entity.BusinessInformation;
+import com.insurance.quote.entity.Quote;
+import com.insurance.quote.service.QuoteService;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.ChainListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs each repository query, captures the SQL Hibernate sends, and checks the H2 EXPLAIN plan for the
+ * index the migrations (db/migration) define for it.
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@ActiveProfiles("test")
+@DisplayName("Repository query plans")
+class QuoteRepositoryExplainTest {
+
+    private static final String[] STATES = {"CA", "NY", "TX", "FL", "WA", "OR", "NV", "AZ", "IL", "MA"};
+
+    @Autowired
+    private QuoteService quoteService;
+
+    @Autowired
+    private QuoteRepository quoteRepository;
+
+    @Autowired
+    private BusinessInformationRepository businessInfoRepository;
+
+    @Autowired
+    private CoverageOptionRepository coverageOptionRepository;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private QuoteTombstoneRepository tombstoneRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private final List<QueryInfo> captured = new ArrayList<>();
+
+    private final QueryExecutionListener capture = new QueryExecutionListener() {
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            captured.addAll(queryInfoList);
+        }
+    };
+
+    @BeforeEach
+    void setUp() {
+        BusinessInformation.BusinessType[] types = BusinessInformation.BusinessType.values();
+        BusinessInformation.Industry[] industries = BusinessInformation.Industry.values();
+        for (int i = 0; i < 60; i++) {
+            quoteService.createQuote(newQuote("Plan Business " + i, STATES[i % STATES.length],
+                    types[i % types.length], industries[(i / types.length) % industries.length]));
+        }
+        new JdbcTemplate(dataSource).execute("ANALYZE");
+        chain().addListener(capture);
+    }
+
+    @AfterEach
+    void tearDown() {
+        chain().getListeners().remove(capture);
+        quoteRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Status queries use the (status, created_at) and (status, updated_at) indexes")
+    void statusQueriesUseStatusIndex() throws Exception {
+        assertThat(planOf(() -> quoteRepository.findByStatus(Quote.QuoteStatus.SUBMITTED)))
+                .contains("IDX_QUOTES_STATUS_CREATED_AT");
+        assertThat(planOf(() -> quoteRepository.countByStatus(Quote.QuoteStatus.SUBMITTED)))
+                .contains("IDX_QUOTES_STATUS_CREATED_AT");
+        assertThat(planOf(() -> quoteRepository.countGroupedByStatus()))
+                .contains("IDX_QUOTES_STATUS_CREATED_AT");
+        assertThat(planOf(() -> quoteRepository.findStaleQuotes(LocalDateTime.now().minusDays(30))))
+                .contains("IDX_QUOTES_STATUS_CREATED_AT");
+        assertThat(planOf(() -> quoteRepository.findArchivableIds(
+                EnumSet.of(Quote.QuoteStatus.APPROVED, Quote.QuoteStatus.REJECTED, Quote.QuoteStatus.EXPIRED),
+                LocalDateTime.now().minusDays(90), PageRequest.of(0, 200))))
+                .contains("IDX_QUOTES_STATUS_UPDATED_AT");
+    }
+
+    @Test
+    @DisplayName("Date and premium range queries use their column indexes")
+    void rangeQueriesUseColumnIndexes() throws Exception {
+        LocalDateTime startOfDay = LocalDate.now().minusDays(7).atStartOfDay();
+        assertThat(planOf(() -> quoteRepository.findByCreatedAtBetween(startOfDay, startOfDay.plusHours(1))))
+                .contains("IDX_QUOTES_CREATED_AT");
+        assertThat(planOf(() -> quoteRepository.findQuotesCreatedToday(startOfDay, startOfDay.plusDays(1))))
+                .contains("IDX_QUOTES_CREATED_AT");
+        assertThat(planOf(() -> quoteRepository.findExpiredQuotes(LocalDateTime.now().minusDays(1))))
+                .contains("IDX_QUOTES_VALID_UNTIL");
+        assertThat(planOf(() -> quoteRepository.findByTotalPremiumGreaterThan(new BigDecimal("1000000"))))
+                .contains("IDX_QUOTES_TOTAL_PREMIUM");
+    }
+
+    @Test
+    @DisplayName("Business attribute queries filter business_information by index, then join quotes by key")
+    void businessQueriesUseBusinessIndexes() throws Exception {
+        assertThat(planOf(() -> quoteRepository.findByState("NV")))
+                .contains("IDX_BUSINESS_INFORMATION_STATE", "IDX_QUOTES_BUSINESS_INFO_ID");
+        assertThat(planOf(() -> quoteRepository.findByBusinessType(BusinessInformation.BusinessType.HEALTHCARE)))
+                .contains("IDX_BUSINESS_INFORMATION_BUSINESS_TYPE", "IDX_QUOTES_BUSINESS_INFO_ID");
+        assertThat(planOf(() -> quoteRepository.findByIndustry(BusinessInformation.Industry.CONSULTING)))
+                .contains("IDX_BUSINESS_INFORMATION_INDUSTRY", "IDX_QUOTES_BUSINESS_INFO_ID");
+        assertThat(planOf(() -> businessInfoRepository.findByNormalizedNameAndState("plan business 6", "NV")))
+                .contains("UK_BUSINESS_INFORMATION_NAME_STATE");
+        assertThat(planOf(() -> businessInfoRepository.findUnreferencedIds(List.of(1L, 2L))))
+                .contains("IDX_QUOTES_BUSINESS_INFO_ID");
+    }
+
+    @Test
+    @DisplayName("Quote number lookups use the unique constraint index")
+    void quoteNumberLookupsUseUniqueIndex() throws Exception {
+        assertThat(planOf(() -> quoteRepository.findByQuoteNumber("IQ-MISSING"))).contains("UK_QUOTES_QUOTE_NUMBER");
+        assertThat(planOf(() -> quoteRepository.existsByQuoteNumber("IQ-MISSING"))).contains("UK_QUOTES_QUOTE_NUMBER");
+    }
+
+    @Test
+    @DisplayName("Coverage option and idempotency key queries use their indexes")
+    void childTableQueriesUseIndexes() throws Exception {
+        Long quoteId = quoteRepository.findAll().get(0).getId();
+        assertThat(planOf(() -> coverageOptionRepository.findByQuoteId(quoteId)))
+                .contains("IDX_COVERAGE_OPTIONS_QUOTE_ID");
+        assertThat(planOf(() -> coverageOptionRepository.findSelectedByQuoteId(quoteId)))
+                .contains("IDX_COVERAGE_OPTIONS_QUOTE_ID");
+        assertThat(planOf(() -> coverageOptionRepository.calculateTotalPremiumForQuote(quoteId)))
+                .contains("IDX_COVERAGE_OPTIONS_QUOTE_ID");
+        assertThat(planOf(() -> transactionTemplate.execute(status -> idempotencyRecordRepository.deleteExpired(LocalDateTime.now()))))
+                .contains("IDX_IDEMPOTENCY_KEYS_EXPIRES_AT");
+    }
+
+    @Test
+    @DisplayName("Delta sync queries seek to the change token through the change_seq indexes")
+    void changeFeedQueriesUseChangeSeqIndexes() throws Exception {
+        long since = quoteRepository.findAll().get(30).getChangeSeq();
+        assertThat(planOf(() -> quoteRepository.findChangedSince(since, PageRequest.of(0, 11))))
+                .contains("IDX_QUOTES_CHANGE_SEQ");
+        assertThat(planOf(() -> tombstoneRepository.findChangedSince(since, PageRequest.of(0, 11))))
+                .contains("IDX_QUOTE_TOMBSTONES_CHANGE_SEQ");
+    }
+
+    /**
+     * Runs the query, then explains the first statement it sent with the same parameters
+     */
+    private String planOf(Runnable query) throws Exception {
+        captured.clear();
+        query.run();
+        assertThat(captured).as("captured statements").isNotEmpty();
+        QueryInfo queryInfo = captured.get(0);
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement explain = connection.prepareStatement("EXPLAIN " + queryInfo.getQuery())) {
+            if (!queryInfo.getParametersList().isEmpty()) {
+                for (ParameterSetOperation operation : queryInfo.getParametersList().get(0)) {
+                    Object[] args = operation.getArgs();
+                    if (operation.getMethod().getName().equals("setNull")) {
+                        explain.setNull((Integer) args[0], (Integer) args[1]);
+                    } else {
+                        explain.setObject((Integer) args[0], args[1]);
+                    }
+                }
+            }
+            try (ResultSet plan = explain.executeQuery()) {
+                plan.next();
+                return plan.getString(1);
+            }
+        }
+    }
+
+    private ChainListener chain() {
+        return (ChainListener) ((ProxyDataSource) dataSource).getProxyConfig().getQueryListener();
+    }
+
+    private static QuoteDto newQuote(String businessName, String state, BusinessInformation.BusinessType type,
+                                     BusinessInformation.Industry industry) {
+        BusinessInformationDto business = new BusinessInformationDto();
+        business.setName(businessName);
+        business.setBusinessType(type);
+        business.setIndustry(industry);
+        business.setState(state);
+
+        QuoteDto quote = new QuoteDto();
+        quote.setBusinessInformation(business);
+        quote.setTotalPremium(BigDecimal.ZERO);
+        return quote;
+    }
+}
@@ -0,0 +1,106 @@
+package com.insurance.quote.service;
+
+import com.insurance.quote.dto.BusinessInformationDto;
+import com.insurance.quote.dto.QuoteDto;
+import com.insurance.quote.entity.BusinessInformation;
+import com.insurance.quote.entity.Quote;
+import com.insurance.quote.exception.InvalidQuoteStateException;
+import com.insurance.quote.repository.QuoteRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Quote service against the real mapper, JPA layer and H2. Unlike the Mockito tests this runs in the
+ * native image too (mvn -PnativeTest test), covering the entity, mapper and DTO reachability metadata.
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@ActiveProfiles("test")
+class QuoteServiceIntegrationTest {
+
+    @Autowired
+    private QuoteService quoteService;
+
+    @Autowired
+    private QuoteRepository quoteRepository;
+
+    @AfterEach
+    void tearDown() {
+        quoteRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should take a quote from draft to approved")
+    void shouldRunQuoteLifecycle() {
+        QuoteDto created = quoteService.createQuote(newQuote("Native Bakery"));
+
+        assertThat(created.getId()).isNotNull();
+        assertThat(created.getQuoteNumber()).startsWith("IQ-");
+        assertThat(created.getStatus()).isEqualTo(Quote.QuoteStatus.DRAFT);
+        assertThat(created.getBusinessInformation().getBusinessType()).isEqualTo(BusinessInformation.BusinessType.RESTAURANT);
+        assertThat(created.getCoverageOptions()).isNotEmpty();
+
+        QuoteDto update = quoteService.getQuoteById(created.getId()).orElseThrow();
+        update.setStatus(Quote.QuoteStatus.SAVED);
+        update.getCoverageOptions().get(0).setIsSelected(true);
+        QuoteDto saved = quoteService.updateQuote(created.getId(), update);
+
+        assertThat(saved.getTotalPremium()).isEqualByComparingTo(saved.getCoverageOptions().get(0).getPremium());
+        assertThat(quoteService.calculateQuotePremium(created.getId())).isEqualByComparingTo(saved.getTotalPremium());
+        assertThat(quoteService.submitQuote(created.getId()).getStatus()).isEqualTo(Quote.QuoteStatus.SUBMITTED);
+        assertThat(quoteService.approveQuote(created.getId()).getStatus()).isEqualTo(Quote.QuoteStatus.APPROVED);
+        assertThat(quoteService.getQuoteByNumber(created.getQuoteNumber())).isPresent();
+    }
+
+    @Test
+    @DisplayName("Should reject invalid transitions and delete drafts")
+    void shouldRejectInvalidTransitions() {
+        QuoteDto created = quoteService.createQuote(newQuote("Native Cafe"));
+
+        assertThatThrownBy(() -> quoteService.approveQuote(created.getId()))
+                .isInstanceOf(InvalidQuoteStateException.class);
+
+        quoteService.deleteQuote(created.getId());
+
+        assertThat(quoteService.getQuoteById(created.getId())).isEmpty();
+        assertThat(quoteService.isQuoteNumberUnique(created.getQuoteNumber())).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should search and count quotes")
+    void shouldSearchAndCountQuotes() {
+        quoteService.createQuote(newQuote("Native Bakery"));
+        quoteService.createQuote(newQuote("Native Brewery"));
+        quoteService.createQuote(newQuote("Harbor Florist"));
+
+        assertThat(quoteService.searchQuotesByBusinessName("native", PageRequest.of(0, 10)).getTotalElements()).isEqualTo(2);
+        assertThat(quoteService.getQuotesByState("CA")).hasSize(3);
+        assertThat(quoteService.getQuotesByStatus(Quote.QuoteStatus.DRAFT)).hasSize(3);
+
+        QuoteService.QuoteStatistics statistics = quoteService.getQuoteStatistics();
+        assertThat(statistics.getTotalQuotes()).isEqualTo(3);
+        assertThat(statistics.getDraftQuotes()).isEqualTo(3);
+    }
+
+    private static QuoteDto newQuote(String businessName) {
+        BusinessInformationDto business = new BusinessInformationDto();
+        business.setName(businessName);
+        business.setBusinessType(BusinessInformation.BusinessType.RESTAURANT);
+        business.setIndustry(BusinessInformation.Industry.FOOD_SERVICE);
+        business.setState("CA");
+
+        QuoteDto quote = new QuoteDto();
+        quote.setBusinessInformation(business);
+        quote.setTotalPremium(BigDecimal.ZERO);
+        return quote;
+    }
+}
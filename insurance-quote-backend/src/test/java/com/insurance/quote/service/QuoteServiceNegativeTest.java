@@ -1,5 +1,9 @@
 package com.insurance.quote.service;
 
+import com.insurance.quote.archive.QuoteArchive;
+import com.insurance.quote.business.BusinessDirectory;
+import com.insurance.quote.config.QuoteNumberFilterProperties;
+import com.insurance.quote.config.ShardingProperties;
 import com.insurance.quote.dto.BusinessInformationDto;
 import com.insurance.quote.dto.QuoteDto;
 import com.insurance.quote.entity.BusinessInformation;
@@ -7,19 +11,24 @@ import com.insurance.quote.entity.Quote;
 import com.insurance.quote.exception.InvalidQuoteStateException;
 import com.insurance.quote.exception.ResourceNotFoundException;
 import com.insurance.quote.mapper.QuoteMapper;
-import com.insurance.quote.repository.BusinessInformationRepository;
+import com.insurance.quote.quotenumber.QuoteNumberFilter;
 import com.insurance.quote.repository.CoverageOptionRepository;
 import com.insurance.quote.repository.QuoteRepository;
 import com.insurance.quote.service.impl.QuoteServiceImpl;
+import com.insurance.quote.sharding.ShardRouter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.Optional;
 
@@ -31,6 +40,7 @@ import static org.mockito.Mockito.*;
  * Negative test scenarios for QuoteService
  */
 @ExtendWith(MockitoExtension.class)
+@DisabledInNativeImage // Mockito cannot generate mocks in a native image; QuoteServiceIntegrationTest covers the service there
 class QuoteServiceNegativeTest {
 
     private static final Logger logger = LoggerFactory.getLogger(QuoteServiceNegativeTest.class);
@@ -39,7 +49,7 @@ class QuoteServiceNegativeTest {
     private QuoteRepository quoteRepository;
 
     @Mock
-    private BusinessInformationRepository businessInfoRepository;
+    private BusinessDirectory businessDirectory;
 
     @Mock
     private CoverageOptionRepository coverageOptionRepository;
@@ -47,6 +57,17 @@ class QuoteServiceNegativeTest {
     @Mock
     private QuoteMapper quoteMapper;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private QuoteArchive quoteArchive;
+
+    // Never loaded, so every check falls through to the repository stubs
+    @Spy
+    private QuoteNumberFilter quoteNumberFilter = new QuoteNumberFilter(new QuoteNumberFilterProperties(), null,
+            new ShardRouter(new ShardingProperties()), new SimpleMeterRegistry());
+
     @InjectMocks
     private QuoteServiceImpl quoteService;
 
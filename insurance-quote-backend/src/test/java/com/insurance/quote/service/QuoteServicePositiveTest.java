@@ -1,5 +1,9 @@
 package com.insurance.quote.service;
 
+import com.insurance.quote.archive.QuoteArchive;
+import com.insurance.quote.business.BusinessDirectory;
+import com.insurance.quote.config.QuoteNumberFilterProperties;
+import com.insurance.quote.config.ShardingProperties;
 import com.insurance.quote.dto.BusinessInformationDto;
 import com.insurance.quote.dto.CoverageOptionDto;
 import com.insurance.quote.dto.QuoteDto;
@@ -7,19 +11,24 @@ import com.insurance.quote.entity.BusinessInformation;
 import com.insurance.quote.entity.CoverageOption;
 import com.insurance.quote.entity.Quote;
 import com.insurance.quote.mapper.QuoteMapper;
-import com.insurance.quote.repository.BusinessInformationRepository;
+import com.insurance.quote.quotenumber.QuoteNumberFilter;
 import com.insurance.quote.repository.CoverageOptionRepository;
 import com.insurance.quote.repository.QuoteRepository;
 import com.insurance.quote.service.impl.QuoteServiceImpl;
+import com.insurance.quote.sharding.ShardRouter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -40,6 +49,7 @@ import static org.mockito.Mockito.*;
  * Positive test scenarios for QuoteService
  */
 @ExtendWith(MockitoExtension.class)
+@DisabledInNativeImage // Mockito cannot generate mocks in a native image; QuoteServiceIntegrationTest covers the service there
 class QuoteServicePositiveTest {
 
     private static final Logger logger = LoggerFactory.getLogger(QuoteServicePositiveTest.class);
@@ -48,7 +58,7 @@ class QuoteServicePositiveTest {
     private QuoteRepository quoteRepository;
 
     @Mock
-    private BusinessInformationRepository businessInfoRepository;
+    private BusinessDirectory businessDirectory;
 
     @Mock
     private CoverageOptionRepository coverageOptionRepository;
@@ -56,6 +66,17 @@ class QuoteServicePositiveTest {
     @Mock
     private QuoteMapper quoteMapper;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private QuoteArchive quoteArchive;
+
+    // Never loaded, so every check falls through to the repository stubs
+    @Spy
+    private QuoteNumberFilter quoteNumberFilter = new QuoteNumberFilter(new QuoteNumberFilterProperties(), null,
+            new ShardRouter(new ShardingProperties()), new SimpleMeterRegistry());
+
     @InjectMocks
     private QuoteServiceImpl quoteService;
 
@@ -105,6 +126,7 @@ class QuoteServicePositiveTest {
         
         // Given
         when(quoteMapper.toEntity(any(QuoteDto.class))).thenReturn(testQuote);
+        when(businessDirectory.resolve(any(BusinessInformation.class))).thenReturn(testBusinessInfo);
         when(quoteRepository.save(any(Quote.class))).thenReturn(testQuote);
         when(quoteMapper.toDto(any(Quote.class))).thenReturn(testQuoteDto);
         when(quoteRepository.existsByQuoteNumber(anyString())).thenReturn(false);
@@ -128,6 +150,7 @@ class QuoteServicePositiveTest {
         // Given
         testQuote.setStatus(Quote.QuoteStatus.DRAFT);
         when(quoteRepository.findById(1L)).thenReturn(Optional.of(testQuote));
+        when(businessDirectory.resolve(any(BusinessInformation.class))).thenReturn(testBusinessInfo);
         when(quoteRepository.save(any(Quote.class))).thenReturn(testQuote);
         when(quoteMapper.toDto(any(Quote.class))).thenReturn(testQuoteDto);
 
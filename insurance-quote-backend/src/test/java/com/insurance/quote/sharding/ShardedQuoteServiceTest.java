@@ -0,0 +1,176 @@
+package com.insurance.quote.sharding;
+
+import com.insurance.quote.dto.BusinessInformationDto;
+import com.insurance.quote.dto.CoverageOptionDto;
+import com.insurance.quote.dto.QuoteDto;
+import com.insurance.quote.entity.BusinessInformation;
+import com.insurance.quote.entity.Quote;
+import com.insurance.quote.exception.InvalidQuoteStateException;
+import com.insurance.quote.outbox.InMemoryOutboxSink;
+import com.insurance.quote.outbox.OutboxDispatcher;
+import com.insurance.quote.outbox.OutboxMessage;
+import com.insurance.quote.service.QuoteService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@ActiveProfiles({"test", "sharded"})
+@DisplayName("Sharded quote service")
+class ShardedQuoteServiceTest {
+
+    private static final String[] STATES = {"CA", "TX", "NY", "WA", "OH", "FL", "NV", "IL", "GA"};
+
+    @Autowired
+    private QuoteService quoteService;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private OutboxDispatcher outboxDispatcher;
+
+    @Autowired
+    private InMemoryOutboxSink outboxSink;
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        for (DataSource shard : dataSource.unwrap(ShardRoutingDataSource.class).getShards()) {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(shard);
+            jdbcTemplate.update("DELETE FROM coverage_options");
+            jdbcTemplate.update("DELETE FROM quotes");
+            jdbcTemplate.update("DELETE FROM quote_outbox");
+        }
+        outboxSink.clear();
+    }
+
+    @Test
+    @DisplayName("Should store quotes on the shard of their state and route by the shard in ids and numbers")
+    void shouldRouteByState() throws SQLException {
+        QuoteDto california = quoteService.createQuote(newQuote("Pacific Routing Co", "CA"));
+        QuoteDto texas = quoteService.createQuote(newQuote("Lone Star Routing", "TX"));
+        QuoteDto newYork = quoteService.createQuote(newQuote("Empire Routing", "NY"));
+
+        assertThat(ShardRouter.shardOfId(california.getId())).isZero();
+        assertThat(ShardRouter.shardOfId(texas.getId())).isEqualTo(1);
+        assertThat(ShardRouter.shardOfId(newYork.getId())).isEqualTo(2);
+        assertThat(ShardRouter.shardOfId(texas.getBusinessInformation().getId())).isEqualTo(1);
+        assertThat(texas.getCoverageOptions()).extracting(CoverageOptionDto::getId)
+                .allMatch(id -> ShardRouter.shardOfId(id) == 1);
+        assertThat(texas.getQuoteNumber()).startsWith("IQ-01-");
+        assertThat(ShardRouter.shardOfQuoteNumber(newYork.getQuoteNumber())).isEqualTo(2);
+        assertThat(ShardRouter.shardOfQuoteNumber("IQ-20260101120000-1234")).isEqualTo(-1);
+        assertThat(quoteCounts()).containsExactly(1L, 1L, 1L);
+
+        assertThat(quoteService.getQuoteById(texas.getId())).get()
+                .extracting(QuoteDto::getQuoteNumber).isEqualTo(texas.getQuoteNumber());
+        assertThat(quoteService.getQuoteByNumber(newYork.getQuoteNumber())).get()
+                .extracting(QuoteDto::getId).isEqualTo(newYork.getId());
+        assertThat(quoteService.getQuoteById(ShardRouter.firstId(5))).isEmpty();
+        assertThat(quoteService.isQuoteNumberUnique(texas.getQuoteNumber())).isFalse();
+        assertThat(quoteService.isQuoteNumberUnique("IQ-01-20260101120000-0000")).isTrue();
+
+        texas.setStatus(Quote.QuoteStatus.SAVED);
+        assertThat(quoteService.updateQuote(texas.getId(), texas).getStatus()).isEqualTo(Quote.QuoteStatus.SAVED);
+
+        assertThat(outboxDispatcher.dispatch()).isEqualTo(4);
+        assertThat(outboxSink.received()).extracting(OutboxMessage::quoteId)
+                .containsExactlyInAnyOrder(california.getId(), texas.getId(), newYork.getId(), texas.getId());
+    }
+
+    @Test
+    @DisplayName("Should scatter and gather pages, searches and statistics across shards")
+    void shouldScatterGather() {
+        List<QuoteDto> created = new ArrayList<>();
+        for (int i = 0; i < STATES.length; i++) {
+            created.add(quoteService.createQuote(newQuote("Gather Shop " + i, STATES[i])));
+        }
+        assertThat(quoteCounts()).containsExactly(3L, 3L, 3L);
+
+        List<Long> expected = created.stream()
+                .sorted(Comparator.comparing((QuoteDto quote) -> quote.getBusinessInformation().getState())
+                        .reversed()
+                        .thenComparing(QuoteDto::getId))
+                .map(QuoteDto::getId)
+                .toList();
+        Sort byStateDescending = Sort.by(Sort.Direction.DESC, "businessInformation.state");
+        for (int page = 0; page < 3; page++) {
+            Page<QuoteDto> quotes = quoteService.getAllQuotes(PageRequest.of(page, 4, byStateDescending));
+            assertThat(quotes.getTotalElements()).isEqualTo(9);
+            assertThat(quotes.getContent()).extracting(QuoteDto::getId)
+                    .containsExactlyElementsOf(expected.subList(page * 4, Math.min(page * 4 + 4, 9)));
+        }
+
+        Page<QuoteDto> found = quoteService.searchQuotesByBusinessName("shop 1",
+                PageRequest.of(0, 10, Sort.by("createdAt")));
+        assertThat(found.getContent()).extracting(QuoteDto::getId).containsExactly(created.get(1).getId());
+        assertThat(quoteService.getQuotesByStatus(Quote.QuoteStatus.DRAFT)).hasSize(9);
+        assertThat(quoteService.getQuotesByState("TX")).extracting(QuoteDto::getId)
+                .containsExactly(created.get(1).getId());
+
+        QuoteService.QuoteStatistics statistics = quoteService.getQuoteStatistics();
+        BigDecimal totalPremium = created.stream().map(QuoteDto::getTotalPremium).reduce(BigDecimal.ZERO, BigDecimal::add);
+        assertThat(statistics.getTotalQuotes()).isEqualTo(9);
+        assertThat(statistics.getDraftQuotes()).isEqualTo(9);
+        assertThat(statistics.getTotalPremiumValue()).isEqualByComparingTo(totalPremium);
+        assertThat(statistics.getAveragePremium())
+                .isEqualByComparingTo(totalPremium.divide(BigDecimal.valueOf(9), 2, RoundingMode.HALF_UP));
+    }
+
+    @Test
+    @DisplayName("Should keep a quote on its shard when its business moves to another state")
+    void shouldRejectMovesBetweenShards() {
+        QuoteDto quote = quoteService.createQuote(newQuote("Moving Day Movers", "CA"));
+
+        quote.getBusinessInformation().setState("TX");
+        assertThatThrownBy(() -> quoteService.updateQuote(quote.getId(), quote))
+                .isInstanceOf(InvalidQuoteStateException.class)
+                .hasMessageContaining("another shard");
+
+        quote.getBusinessInformation().setState("WA");
+        QuoteDto moved = quoteService.updateQuote(quote.getId(), quote);
+        assertThat(moved.getBusinessInformation().getState()).isEqualTo("WA");
+        assertThat(ShardRouter.shardOfId(moved.getBusinessInformation().getId())).isZero();
+    }
+
+    private List<Long> quoteCounts() {
+        try {
+            return dataSource.unwrap(ShardRoutingDataSource.class).getShards().stream()
+                    .map(shard -> new JdbcTemplate(shard).queryForObject("SELECT COUNT(*) FROM quotes", Long.class))
+                    .toList();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static QuoteDto newQuote(String name, String state) {
+        BusinessInformationDto business = new BusinessInformationDto();
+        business.setName(name);
+        business.setBusinessType(BusinessInformation.BusinessType.RETAIL);
+        business.setIndustry(BusinessInformation.Industry.RETAIL_TRADE);
+        business.setState(state);
+
+        QuoteDto quote = new QuoteDto();
+        quote.setBusinessInformation(business);
+        quote.setTotalPremium(BigDecimal.ZERO);
+        return quote;
+    }
+}
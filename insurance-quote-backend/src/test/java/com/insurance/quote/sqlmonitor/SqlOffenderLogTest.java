@@ -0,0 +1,68 @@
+package com.insurance.quote.sqlmonitor;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for statement classification, per-scope statement stats and the offender ring buffer
+ */
+class SqlOffenderLogTest {
+
+    @Test
+    @DisplayName("Should classify statements by their leading keyword, skipping Hibernate comments")
+    void testStatementType() {
+        assertThat(SqlStatementType.of("/* <criteria> */ select count(q1_0.id) from quotes q1_0"))
+                .isEqualTo(SqlStatementType.SELECT);
+        assertThat(SqlStatementType.of("  insert into quotes (id) values (?)")).isEqualTo(SqlStatementType.INSERT);
+        assertThat(SqlStatementType.of("/* update Quote */ update quotes set status=? where id=?"))
+                .isEqualTo(SqlStatementType.UPDATE);
+        assertThat(SqlStatementType.of("delete from quotes where id=?")).isEqualTo(SqlStatementType.DELETE);
+        assertThat(SqlStatementType.of("call next value for quotes_seq")).isEqualTo(SqlStatementType.OTHER);
+    }
+
+    @Test
+    @DisplayName("Should count statements per type and rank shapes by frequency")
+    void testStatementStats() {
+        SqlStatementStats stats = new SqlStatementStats("GET /quotes");
+        stats.record(SqlStatementType.SELECT, "select * from quotes", 1_000);
+        stats.record(SqlStatementType.SELECT, "select * from coverage_options where quote_id=?", 1_000);
+        stats.record(SqlStatementType.SELECT, "select * from coverage_options where quote_id=?", 1_000);
+        stats.record(SqlStatementType.UPDATE, "update quotes set status=?", 1_000);
+
+        assertThat(stats.getSelects()).isEqualTo(3);
+        assertThat(stats.getUpdates()).isEqualTo(1);
+        assertThat(stats.getTotal()).isEqualTo(4);
+        assertThat(stats.getElapsedNanos()).isEqualTo(4_000);
+        assertThat(stats.topShapes(1)).singleElement()
+                .satisfies(shape -> {
+                    assertThat(shape.getKey()).isEqualTo("select * from coverage_options where quote_id=?");
+                    assertThat(shape.getValue()).isEqualTo(2);
+                });
+    }
+
+    @Test
+    @DisplayName("Should keep only the newest offenders once the buffer is full")
+    void testRingBufferEviction() {
+        SqlOffenderLog log = new SqlOffenderLog(2);
+        log.add(offender("GET /quotes"));
+        log.add(offender("GET /quotes/{id}"));
+        log.add(offender("GET /quotes/statistics"));
+
+        assertThat(log.snapshot())
+                .extracting(SqlOffender::endpoint)
+                .containsExactly("GET /quotes/statistics", "GET /quotes/{id}");
+
+        log.clear();
+        assertThat(log.snapshot()).isEmpty();
+    }
+
+    private static SqlOffender offender(String endpoint) {
+        return new SqlOffender(Instant.now(), SqlOffender.Kind.STATEMENT_BUDGET, endpoint, 30, 25, 12.5,
+                List.of(new SqlOffender.Shape("select * from quotes", 30)));
+    }
+}
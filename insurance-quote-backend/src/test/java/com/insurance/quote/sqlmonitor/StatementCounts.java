@@ -0,0 +1,29 @@
+package com.insurance.quote.sqlmonitor;
+
+/**
+ * SQL statements executed by a block of code, by type, for exact query-count assertions
+ */
+public record StatementCounts(int selects, int inserts, int updates, int deletes) {
+
+    /**
+     * Runs the action inside a counting scope and returns the statements it executed
+     */
+    public static StatementCounts measure(Action action) throws Exception {
+        SqlStatementContext.begin("test");
+        SqlStatementStats stats;
+        try {
+            action.run();
+        } finally {
+            stats = SqlStatementContext.end();
+        }
+        return new StatementCounts(stats.getSelects(), stats.getInserts(), stats.getUpdates(), stats.getDeletes());
+    }
+
+    public static StatementCounts of(int selects, int inserts, int updates, int deletes) {
+        return new StatementCounts(selects, inserts, updates, deletes);
+    }
+
+    public interface Action {
+        void run() throws Exception;
+    }
+}
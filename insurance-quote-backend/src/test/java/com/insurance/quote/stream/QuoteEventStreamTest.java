@@ -0,0 +1,237 @@
+package com.insurance.quote.stream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.insurance.quote.config.QuoteStreamProperties;
+import com.insurance.quote.dto.BusinessInformationDto;
+import com.insurance.quote.dto.QuoteDto;
+import com.insurance.quote.entity.BusinessInformation;
+import com.insurance.quote.entity.Quote;
+import com.insurance.quote.event.QuoteLifecycleEvent;
+import com.insurance.quote.repository.QuoteRepository;
+import com.insurance.quote.service.QuoteService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "app.admission.enabled=false",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DisplayName("Quote event streams")
+class QuoteEventStreamTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private QuoteEventHub quoteEventHub;
+
+    @Autowired
+    private QuoteService quoteService;
+
+    @Autowired
+    private QuoteRepository quoteRepository;
+
+    private final List<MvcResult> streams = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        streams.forEach(stream -> stream.getRequest().getAsyncContext().complete());
+        quoteRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should send a snapshot of the quote, then each committed change")
+    void shouldStreamChangesOfOneQuote() throws Exception {
+        int subscribersBefore = quoteEventHub.getSubscriberCount();
+        QuoteDto quote = quoteService.createQuote(newQuote("Stream Bakery", "CA"));
+        MvcResult stream = open("/quotes/" + quote.getId() + "/events");
+
+        awaitContent(stream, "event:SNAPSHOT", "\"status\":\"DRAFT\"");
+        assertThat(quoteEventHub.getSubscriberCount()).isEqualTo(subscribersBefore + 1);
+
+        submit(quote);
+        awaitContent(stream, "event:UPDATED", "\"status\":\"SUBMITTED\"", "\"previousStatus\":\"SAVED\"",
+                "\"totalPremium\":500");
+
+        quoteEventHub.sendHeartbeats();
+        awaitContent(stream, ":heartbeat");
+
+        stream.getRequest().getAsyncContext().complete();
+        streams.remove(stream);
+        assertThat(quoteEventHub.getSubscriberCount()).isEqualTo(subscribersBefore);
+    }
+
+    @Test
+    @DisplayName("Should answer 404 for an unknown quote without leaving a subscriber behind")
+    void shouldRejectUnknownQuote() throws Exception {
+        int subscribersBefore = quoteEventHub.getSubscriberCount();
+
+        mockMvc.perform(get("/quotes/999999/events")).andExpect(status().isNotFound());
+
+        assertThat(quoteEventHub.getSubscriberCount()).isEqualTo(subscribersBefore);
+    }
+
+    @Test
+    @DisplayName("Should only stream changes of quotes matching the filter")
+    void shouldStreamFilteredChanges() throws Exception {
+        QuoteDto californian = quoteService.createQuote(newQuote("Stream Brewery", "CA"));
+        QuoteDto newYorker = quoteService.createQuote(newQuote("Stream Florist", "NY"));
+        MvcResult stream = open("/quotes/events?status=SUBMITTED&state=NY&state=NJ");
+
+        submit(californian);
+        submit(newYorker);
+        quoteService.approveQuote(newYorker.getId());
+
+        awaitContent(stream, "\"quoteNumber\":\"" + newYorker.getQuoteNumber() + "\"", "\"status\":\"APPROVED\"");
+        String content = stream.getResponse().getContentAsString();
+        assertThat(content).doesNotContain(californian.getQuoteNumber());
+        assertThat(content.split("event:UPDATED", -1)).hasSize(3);
+    }
+
+    @Test
+    @DisplayName("Should refuse streams over the subscriber limit")
+    void shouldLimitSubscribers() {
+        QuoteStreamProperties properties = new QuoteStreamProperties();
+        properties.setMaxSubscribers(1);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        QuoteEventHub hub = new QuoteEventHub(properties, new ObjectMapper(), meterRegistry);
+
+        QuoteSubscription subscription = hub.subscribe(QuoteChangeFilter.forQuote(1L)).orElseThrow();
+        assertThat(hub.subscribe(QuoteChangeFilter.forQuote(2L))).isEmpty();
+        assertThat(meterRegistry.get("quote.stream.rejected").counter().count()).isEqualTo(1);
+
+        subscription.close();
+        assertThat(hub.getSubscriberCount()).isZero();
+        assertThat(hub.subscribe(QuoteChangeFilter.forQuote(2L))).isPresent();
+        hub.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should disconnect a client that falls more than the queue capacity behind")
+    void shouldDisconnectSlowClients() {
+        QuoteEventHub hub = new QuoteEventHub(new QuoteStreamProperties(), new ObjectMapper(), new SimpleMeterRegistry());
+        List<Runnable> pendingDrains = new ArrayList<>();
+        QuoteSubscription subscription = new QuoteSubscription(new SseEmitter(), QuoteChangeFilter.forQuote(1L), 2,
+                pendingDrains::add, hub);
+        Set<ResponseBodyEmitter.DataWithMediaType> event = SseEmitter.event().comment("change").build();
+
+        assertThat(subscription.offer(event)).isTrue();
+        assertThat(subscription.offer(event)).isTrue();
+        assertThat(pendingDrains).hasSize(1);
+        assertThat(subscription.offer(event)).isFalse();
+        assertThat(subscription.isClosed()).isTrue();
+        hub.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should send the snapshot first and drop the changes committed before it was read")
+    void shouldOrderChangesAfterSnapshot() {
+        QuoteEventHub hub = new QuoteEventHub(new QuoteStreamProperties(), new ObjectMapper().findAndRegisterModules(),
+                new SimpleMeterRegistry());
+        List<String> sent = new ArrayList<>();
+        SseEmitter emitter = new SseEmitter() {
+            @Override
+            public void send(Set<ResponseBodyEmitter.DataWithMediaType> items) {
+                sent.add(items.stream().map(item -> item.getData().toString()).collect(Collectors.joining()));
+            }
+        };
+        QuoteSubscription subscription = new QuoteSubscription(emitter, QuoteChangeFilter.forQuote(1L), 10,
+                Runnable::run, hub, true);
+        LocalDateTime readAt = LocalDateTime.of(2025, 3, 1, 12, 0);
+
+        LocalDateTime submittedAt = readAt.plusSeconds(1);
+
+        subscription.offerChange(change(QuoteLifecycleEvent.Type.UPDATED, "SAVED", readAt.minusSeconds(1)), event("saved"));
+        subscription.offerChange(change(QuoteLifecycleEvent.Type.UPDATED, "SUBMITTED", submittedAt), event("submitted"));
+        assertThat(sent).isEmpty();
+
+        subscription.sendSnapshot(change(null, "SAVED", readAt));
+        subscription.offerChange(change(QuoteLifecycleEvent.Type.DELETED, "SUBMITTED", submittedAt), event("deleted"));
+
+        assertThat(sent).hasSize(3);
+        assertThat(sent.get(0)).contains("event:SNAPSHOT", "\"status\":\"SAVED\"");
+        assertThat(sent.subList(1, 3)).containsExactly("submitted", "deleted");
+        hub.shutdown();
+    }
+
+    private static QuoteChange change(QuoteLifecycleEvent.Type type, String status, LocalDateTime updatedAt) {
+        return new QuoteChange(1L, "IQ-1", type, Quote.QuoteStatus.valueOf(status), null, BigDecimal.TEN, "CA", updatedAt);
+    }
+
+    private static Set<ResponseBodyEmitter.DataWithMediaType> event(String name) {
+        return Set.of(new ResponseBodyEmitter.DataWithMediaType(name, null));
+    }
+
+    private MvcResult open(String uri) throws Exception {
+        MvcResult stream = mockMvc.perform(get(uri))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        streams.add(stream);
+        return stream;
+    }
+
+    private static void awaitContent(MvcResult stream, String... fragments) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        String content = stream.getResponse().getContentAsString();
+        while (!containsAll(content, fragments) && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+            content = stream.getResponse().getContentAsString();
+        }
+        assertThat(content).contains(fragments);
+    }
+
+    private static boolean containsAll(String content, String... fragments) {
+        for (String fragment : fragments) {
+            if (!content.contains(fragment)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void submit(QuoteDto quote) {
+        QuoteDto update = quoteService.getQuoteById(quote.getId()).orElseThrow();
+        update.setStatus(Quote.QuoteStatus.SAVED);
+        update.getCoverageOptions().get(0).setIsSelected(true);
+        quoteService.updateQuote(quote.getId(), update);
+        quoteService.submitQuote(quote.getId());
+    }
+
+    private static QuoteDto newQuote(String businessName, String state) {
+        BusinessInformationDto business = new BusinessInformationDto();
+        business.setName(businessName);
+        business.setBusinessType(BusinessInformation.BusinessType.RESTAURANT);
+        business.setIndustry(BusinessInformation.Industry.FOOD_SERVICE);
+        business.setState(state);
+
+        QuoteDto quote = new QuoteDto();
+        quote.setBusinessInformation(business);
+        quote.setTotalPremium(BigDecimal.ZERO);
+        return quote;
+    }
+}
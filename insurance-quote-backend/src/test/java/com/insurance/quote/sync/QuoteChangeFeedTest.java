@@ -0,0 +1,163 @@
+package com.insurance.quote.sync;
+
+import com.insurance.quote.dto.BusinessInformationDto;
+import com.insurance.quote.dto.QuoteDto;
+import com.insurance.quote.entity.BusinessInformation;
+import com.insurance.quote.repository.QuoteRepository;
+import com.insurance.quote.repository.QuoteTombstoneRepository;
+import com.insurance.quote.service.QuoteService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@ActiveProfiles("test")
+@DisplayName("Quote delta sync feed")
+class QuoteChangeFeedTest {
+
+    @Autowired
+    private QuoteChangeFeed quoteChangeFeed;
+
+    @Autowired
+    private QuoteService quoteService;
+
+    @Autowired
+    private QuoteRepository quoteRepository;
+
+    @Autowired
+    private QuoteTombstoneRepository tombstoneRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    @AfterEach
+    void clearQuotes() {
+        quoteRepository.deleteAll();
+        tombstoneRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should page through every quote in change order from token 0")
+    void shouldSyncAllQuotesInBatches() {
+        List<Long> created = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            created.add(quoteService.createQuote(newQuote("Sync Business " + i)).getId());
+        }
+
+        List<Long> synced = new ArrayList<>();
+        List<Boolean> hasMore = new ArrayList<>();
+        long token = 0;
+        QuoteChangeSet batch;
+        do {
+            batch = quoteChangeFeed.changesSince(token, 2);
+            assertThat(batch.nextToken()).isGreaterThan(token);
+            batch.changed().forEach(quote -> synced.add(quote.getId()));
+            hasMore.add(batch.hasMore());
+            token = batch.nextToken();
+        } while (batch.hasMore());
+
+        assertThat(synced).containsExactlyElementsOf(created);
+        assertThat(hasMore).containsExactly(true, true, false);
+
+        QuoteChangeSet unchanged = quoteChangeFeed.changesSince(token, 2);
+        assertThat(unchanged.changed()).isEmpty();
+        assertThat(unchanged.deleted()).isEmpty();
+        assertThat(unchanged.nextToken()).isEqualTo(token);
+        assertThat(unchanged.hasMore()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should return only modified quotes and tombstones of deleted quotes after the token")
+    void shouldReturnChangesAndTombstonesSinceToken() {
+        QuoteDto renamed = quoteService.createQuote(newQuote("Sync Bakery"));
+        QuoteDto removed = quoteService.createQuote(newQuote("Sync Brewery"));
+        quoteService.createQuote(newQuote("Sync Florist"));
+        long token = quoteChangeFeed.changesSince(0, null).nextToken();
+
+        QuoteDto update = quoteService.getQuoteById(renamed.getId()).orElseThrow();
+        update.getBusinessInformation().setName("Sync Patisserie");
+        quoteService.updateQuote(renamed.getId(), update);
+        quoteService.deleteQuote(removed.getId());
+
+        QuoteChangeSet changes = quoteChangeFeed.changesSince(token, null);
+
+        assertThat(changes.changed()).extracting(QuoteDto::getId).containsExactly(renamed.getId());
+        assertThat(changes.changed().get(0).getBusinessInformation().getName()).isEqualTo("Sync Patisserie");
+        assertThat(changes.deleted()).extracting(QuoteChangeSet.Tombstone::quoteId).containsExactly(removed.getId());
+        assertThat(changes.deleted().get(0).quoteNumber()).isEqualTo(removed.getQuoteNumber());
+        assertThat(changes.nextToken()).isGreaterThan(token);
+        assertThat(changes.hasMore()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should not move the token past a change whose transaction has yet to commit")
+    void shouldHoldBackChangesBehindUncommittedOnes() throws Exception {
+        long token = quoteChangeFeed.changesSince(0, null).nextToken();
+        CountDownLatch written = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            // The quote row takes its sequence value when it is inserted, long before the transaction commits
+            Future<QuoteDto> slow = executor.submit(() -> new TransactionTemplate(transactionManager).execute(status -> {
+                QuoteDto quote = quoteService.createQuote(newQuote("Sync Slow Bakery"));
+                written.countDown();
+                await(commit);
+                return quote;
+            }));
+            assertThat(written.await(10, TimeUnit.SECONDS)).isTrue();
+            QuoteDto fast = quoteService.createQuote(newQuote("Sync Fast Bakery"));
+
+            QuoteChangeSet held = quoteChangeFeed.changesSince(token, null);
+            assertThat(held.changed()).isEmpty();
+            assertThat(held.nextToken()).isEqualTo(token);
+
+            commit.countDown();
+            QuoteDto committed = slow.get(10, TimeUnit.SECONDS);
+            QuoteChangeSet changes = quoteChangeFeed.changesSince(held.nextToken(), null);
+            assertThat(changes.changed()).extracting(QuoteDto::getId).containsExactly(committed.getId(), fast.getId());
+            assertThat(changes.hasMore()).isFalse();
+        } finally {
+            commit.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static QuoteDto newQuote(String businessName) {
+        BusinessInformationDto business = new BusinessInformationDto();
+        business.setName(businessName);
+        business.setBusinessType(BusinessInformation.BusinessType.RESTAURANT);
+        business.setIndustry(BusinessInformation.Industry.FOOD_SERVICE);
+        business.setState("CA");
+
+        QuoteDto quote = new QuoteDto();
+        quote.setBusinessInformation(business);
+        quote.setTotalPremium(BigDecimal.ZERO);
+        return quote;
+    }
+}
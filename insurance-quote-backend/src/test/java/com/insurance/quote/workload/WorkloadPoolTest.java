@@ -0,0 +1,143 @@
+package com.insurance.quote.workload;
+
+import com.insurance.quote.dto.BusinessInformationDto;
+import com.insurance.quote.dto.QuoteDto;
+import com.insurance.quote.entity.BusinessInformation;
+import com.insurance.quote.ratelimit.ClientKeyResolver;
+import com.insurance.quote.ratelimit.PoolSaturationProbe;
+import com.insurance.quote.service.QuoteService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "app.workload-pools.enabled=true",
+        "app.workload-pools.bulk-clients=broker-1",
+        "app.workload-pools.bulk.maximum-pool-size=1",
+        "app.workload-pools.bulk.connection-timeout=250ms"
+})
+@ActiveProfiles("test")
+@DisplayName("Workload connection pools")
+class WorkloadPoolTest {
+
+    @Autowired
+    private QuoteService quoteService;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private WorkloadPoolEndpoint endpoint;
+
+    @Autowired
+    private PoolSaturationProbe poolSaturationProbe;
+
+    @Autowired
+    private ClientKeyResolver clientKeyResolver;
+
+    @Autowired
+    private ThreadPoolTaskScheduler taskScheduler;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    void tearDown() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("DELETE FROM coverage_options");
+        jdbcTemplate.update("DELETE FROM quotes");
+        jdbcTemplate.update("DELETE FROM quote_outbox");
+    }
+
+    @Test
+    @DisplayName("Should keep creating quotes while the bulk pool is exhausted, and report the bulk pool saturated")
+    @SuppressWarnings("unchecked")
+    void shouldIsolatePools() throws SQLException {
+        try (Connection held = WorkloadContext.call(Workload.BULK, this::connection)) {
+            assertThatThrownBy(() -> WorkloadContext.call(Workload.BULK, this::connection))
+                    .hasCauseInstanceOf(SQLTransientConnectionException.class);
+
+            QuoteDto quote = quoteService.createQuote(newQuote("Unstarved Hardware"));
+            assertThat(quote.getId()).isNotNull();
+
+            Map<String, Object> bulk = (Map<String, Object>) endpoint.pools().get("bulk");
+            assertThat(bulk).containsEntry("maximumPoolSize", 1).containsEntry("active", 1)
+                    .containsEntry("saturation", 1.0);
+            assertThat((Map<String, Object>) endpoint.pools().get("interactive"))
+                    .containsEntry("maximumPoolSize", 10);
+            assertThat(meterRegistry.get("quote.pool.saturation").tag("workload", "bulk").gauge().value())
+                    .isEqualTo(1.0);
+            double bulkSaturation = WorkloadContext.call(Workload.BULK, poolSaturationProbe::saturation);
+            assertThat(bulkSaturation).isEqualTo(1.0);
+            assertThat(poolSaturationProbe.saturation()).isLessThan(1.0);
+        }
+        assertThat(meterRegistry.get("hikaricp.connections.timeout").tag("pool", "bulk").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should run bulk clients' requests as bulk work and scheduled jobs as background work")
+    void shouldClassifyWork() throws Exception {
+        WorkloadFilter filter = new WorkloadFilter(clientKeyResolver, Set.of("broker-1"));
+        AtomicReference<Workload> seen = new AtomicReference<>();
+
+        MockHttpServletRequest broker = new MockHttpServletRequest("POST", "/quotes");
+        broker.addHeader("X-Client-Id", "broker-1");
+        filter.doFilter(broker, new MockHttpServletResponse(), (request, response) -> seen.set(WorkloadContext.current()));
+        assertThat(seen).hasValue(Workload.BULK);
+
+        MockHttpServletRequest user = new MockHttpServletRequest("POST", "/quotes");
+        user.addHeader("X-Client-Id", "underwriter-7");
+        filter.doFilter(user, new MockHttpServletResponse(), (request, response) -> seen.set(WorkloadContext.current()));
+        assertThat(seen).hasValue(Workload.INTERACTIVE);
+
+        CompletableFuture<Workload> scheduled = new CompletableFuture<>();
+        taskScheduler.schedule(() -> scheduled.complete(WorkloadContext.current()), Instant.now());
+        assertThat(scheduled.get(5, TimeUnit.SECONDS)).isEqualTo(Workload.BACKGROUND);
+    }
+
+    private Connection connection() {
+        try {
+            return dataSource.getConnection();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static QuoteDto newQuote(String name) {
+        BusinessInformationDto business = new BusinessInformationDto();
+        business.setName(name);
+        business.setBusinessType(BusinessInformation.BusinessType.RETAIL);
+        business.setIndustry(BusinessInformation.Industry.RETAIL_TRADE);
+        business.setState("OR");
+
+        QuoteDto quote = new QuoteDto();
+        quote.setBusinessInformation(business);
+        quote.setTotalPremium(BigDecimal.ZERO);
+        return quote;
+    }
+}
@@ -3,8 +3,9 @@ import { FormBuilder, FormGroup, Validators, ReactiveFormsModule } from '@angula
 import { CommonModule, isPlatformBrowser } from '@angular/common';
 import { HttpClientModule } from '@angular/common/http';
 import { ApiQuoteService } from '../services/api-quote.service';
-import { BusinessType, Industry } from '../models/api.model';
-import { debounceTime } from 'rxjs/operators';
+import { BusinessType, Industry, BusinessSuggestion } from '../models/api.model';
+import { of } from 'rxjs';
+import { debounceTime, distinctUntilChanged, switchMap } from 'rxjs/operators';
 
 @Component({
   selector: 'app-business-information',
@@ -20,6 +21,7 @@ export class BusinessInformation implements OnInit {
   
   businessForm!: FormGroup;
   errors: string[] = [];
+  nameSuggestions: BusinessSuggestion[] = [];
 
   businessTypes = [
     { value: 'RETAIL', label: 'Retail' },
@@ -70,6 +72,25 @@ export class BusinessInformation implements OnInit {
       this.apiQuoteService.updateBusinessInfo(value);
       console.log('Updated service with:', value);
     });
+
+    this.watchNameSuggestions();
+  }
+
+  // Suggest known businesses as the name is typed
+  private watchNameSuggestions() {
+    if (!isPlatformBrowser(this.platformId)) {
+      return;
+    }
+    this.businessForm.get('name')!.valueChanges.pipe(
+      debounceTime(150),
+      distinctUntilChanged(),
+      switchMap((name: string) => name && name.trim().length >= 2
+        ? this.apiQuoteService.suggestBusinessNames(name)
+        : of([]))
+    ).subscribe(suggestions => {
+      this.nameSuggestions = suggestions;
+      this.cdr.markForCheck();
+    });
   }
 
   loadCurrentQuote() {
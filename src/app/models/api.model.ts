@@ -76,6 +76,26 @@ export interface ApiResponse<T> {
   validationErrors?: Record<string, string>;
 }
 
+export interface BusinessSuggestion {
+  id: number;
+  name: string;
+  state: string;
+  quoteCount: number;
+}
+
+export type QuoteChangeType = 'SNAPSHOT' | 'CREATED' | 'UPDATED' | 'DELETED';
+
+export interface QuoteChange {
+  quoteId: number;
+  quoteNumber: string;
+  type?: QuoteChangeType;
+  status: QuoteStatus;
+  previousStatus?: QuoteStatus;
+  totalPremium: number;
+  state?: string;
+  updatedAt?: Date;
+}
+
 export interface QuoteStatistics {
   totalQuotes: number;
   draftQuotes: number;
@@ -1,9 +1,9 @@
 import { Injectable, inject, PLATFORM_ID } from '@angular/core';
 import { HttpClient, HttpParams, HttpErrorResponse } from '@angular/common/http';
 import { isPlatformBrowser } from '@angular/common';
-import { Observable, throwError, BehaviorSubject } from 'rxjs';
+import { Observable, throwError, BehaviorSubject, EMPTY, of } from 'rxjs';
 import { catchError, tap, map } from 'rxjs/operators';
-import { Quote, QuoteStatus, QuoteStatistics } from '../models/api.model';
+import { Quote, QuoteStatus, QuoteStatistics, QuoteChange, QuoteChangeType, BusinessSuggestion } from '../models/api.model';
 
 @Injectable({
   providedIn: 'root'
@@ -13,6 +13,7 @@ export class ApiQuoteService {
   private http = inject(HttpClient);
   
   private readonly baseUrl = 'http://localhost:8080/api/quotes';
+  private readonly businessesUrl = 'http://localhost:8080/api/businesses';
   private currentQuoteSubject = new BehaviorSubject<Quote | null>(null);
   public currentQuote$ = this.currentQuoteSubject.asObservable();
 
@@ -162,6 +163,21 @@ export class ApiQuoteService {
     );
   }
 
+  /**
+   * Suggest known business names starting with the prefix, most quoted first.
+   * Served from an in-memory index, so it is cheap enough to call as the user types.
+   */
+  suggestBusinessNames(prefix: string, limit: number = 10): Observable<BusinessSuggestion[]> {
+    const params = new HttpParams()
+      .set('prefix', prefix)
+      .set('limit', limit.toString());
+
+    return this.http.get<BusinessSuggestion[]>(`${this.businessesUrl}/suggestions`, { params }).pipe(
+      // Suggestions are optional: a failed lookup just shows none
+      catchError(() => of([]))
+    );
+  }
+
   /**
    * Get quotes by state
    */
@@ -267,6 +283,46 @@ export class ApiQuoteService {
     );
   }
 
+  /**
+   * Watch status and premium changes of a quote over server-sent events instead of polling it.
+   * Emits a SNAPSHOT first, then one event per committed change; EventSource reconnects on its own.
+   * Events older than the last one applied (such as a snapshot read before a change) are skipped.
+   */
+  watchQuote(id: number): Observable<QuoteChange> {
+    if (!isPlatformBrowser(this.platformId)) {
+      return EMPTY;
+    }
+    return new Observable<QuoteChange>(observer => {
+      const source = new EventSource(`${this.baseUrl}/${id}/events`);
+      const types: QuoteChangeType[] = ['SNAPSHOT', 'CREATED', 'UPDATED', 'DELETED'];
+      let latest: number | undefined;
+      const onChange = (event: MessageEvent) => {
+        const change: QuoteChange = { ...JSON.parse(event.data), type: event.type as QuoteChangeType };
+        const updatedAt = change.updatedAt ? new Date(change.updatedAt).getTime() : undefined;
+        if (change.type !== 'DELETED' && updatedAt !== undefined && latest !== undefined && updatedAt < latest) {
+          return;
+        }
+        latest = updatedAt ?? latest;
+        this.applyChange(change);
+        observer.next(change);
+      };
+      types.forEach(type => source.addEventListener(type, onChange as EventListener));
+      return () => source.close();
+    });
+  }
+
+  private applyChange(change: QuoteChange): void {
+    const currentQuote = this.getCurrentQuote();
+    if (!currentQuote || currentQuote.id !== change.quoteId) {
+      return;
+    }
+    if (change.type === 'DELETED') {
+      this.setCurrentQuote(null);
+      return;
+    }
+    this.setCurrentQuote({ ...currentQuote, status: change.status, totalPremium: change.totalPremium });
+  }
+
   /**
    * Get current quote
    */